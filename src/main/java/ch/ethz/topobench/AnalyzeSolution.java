@@ -54,6 +54,9 @@ public class AnalyzeSolution {
         Main.runCommand("cp temp/topology.txt " + ANALYSIS_FOLDER, false);
         Main.runCommand("cp temp/traffic_pairs.txt " + ANALYSIS_FOLDER, false);
         Main.runCommand("cp temp/node_path_lengths.txt " + ANALYSIS_FOLDER, false);
+        if (new File("temp/node_relabeling.txt").exists()) {
+            Main.runCommand("cp temp/node_relabeling.txt " + ANALYSIS_FOLDER, false);
+        }
         if (trafficMode == TrafficSelector.TrafficMode.MAX_WEIGHT_PAIRS || trafficMode == TrafficSelector.TrafficMode.MIN_WEIGHT_PAIRS) {
             Main.runCommand("cp temp/weighed_node_distances.txt " + ANALYSIS_FOLDER, false);
             Main.runCommand("cp temp/weighed_node_distances_mw_fraction.txt " + ANALYSIS_FOLDER, false);
@@ -15,6 +15,9 @@ public class Main {
     // Make it so that there's only one source of randomness in all, so I can control it if need be.
     public static Random universalRand;
 
+    // Overrides the universal random number generator for the current thread (e.g. generating one of many instances)
+    private static final ThreadLocal<Random> threadRand = new ThreadLocal<>();
+
     // These are variables that are set in the run.config file
     public static int K_UPPER_BOUND;
     private static boolean SILENT_COMMAND;
@@ -195,6 +198,19 @@ public class Main {
 
     }
 
+    /**
+     * Continue with the given random number generator, e.g. the state it had after
+     * a generation step which is skipped because its result was cached.
+     *
+     * @param random    Random number generator in the state to continue from
+     */
+    public static void restoreGlobalRandomness(Random random) {
+        if (!seedIsSet) {
+            throw new RuntimeException("Main: restoreGlobalRandomness: seed has not yet been set.");
+        }
+        Main.universalRand = random;
+    }
+
     /**
      * Retrieve the set random seed.
      *
@@ -207,4 +223,30 @@ public class Main {
         return seed;
     }
 
+    /**
+     * Retrieve the random number generator of the current thread: the one bound by
+     * {@link #bindThreadRandomness(Random) bindThreadRandomness}, else the universal one.
+     *
+     * @return Random number generator
+     */
+    public static Random getRandom() {
+        Random random = threadRand.get();
+        return random != null ? random : universalRand;
+    }
+
+    /**
+     * Bind a random number generator to the current thread, which is then used instead of
+     * the universal one (e.g. by graphs constructed in this thread), such that concurrent
+     * generation steps do not share (and thus depend on the interleaving of) randomness.
+     *
+     * @param random    Random number generator, null to unbind
+     */
+    public static void bindThreadRandomness(Random random) {
+        if (random == null) {
+            threadRand.remove();
+        } else {
+            threadRand.set(random);
+        }
+    }
+
 }
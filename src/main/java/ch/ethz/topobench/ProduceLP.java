@@ -8,6 +8,7 @@
 package ch.ethz.topobench;
 
 import ch.ethz.topobench.graph.Graph;
+import ch.ethz.topobench.graph.NodeRelabeling;
 import ch.ethz.topobench.graph.SelectorResult;
 import ch.ethz.topobench.graph.graphs.GraphSelector;
 import ch.ethz.topobench.graph.patheval.PathEvaluator;
@@ -21,6 +22,7 @@ import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.Options;
 
 import java.io.File;
+import java.util.Arrays;
 import java.util.List;
 
 import static ch.ethz.topobench.Main.loadRunEnvironmentConfiguration;
@@ -44,6 +46,11 @@ class ProduceLP {
         CmdAssistant.addOption(options, "tm", "trafficmode", true, "traffic mode (" + TrafficSelector.getTrafficModes() + ")");
         CmdAssistant.addOption(options, "pe", "pathevaluator", true, "path evaluator (" + PathEvaluatorSelector.getPathEvaluators() + ")");
 
+        // Optional options
+        CmdAssistant.addOption(options, "dc", "distancecache", false, "directory to persist and share the distance matrix in (e.g. cache/distance)");
+        CmdAssistant.addOption(options, "tc", "topologycache", false, "directory to persist and reuse generated topologies in (e.g. cache/topology)");
+        CmdAssistant.addOption(options, "rl", "relabel", false, "node relabeling for locality (" + Arrays.toString(NodeRelabeling.Type.values()) + ")");
+
         // Parse all options
         CommandLine cmd = CmdAssistant.parseOptions(options, args, true);
 
@@ -68,8 +75,23 @@ class ProduceLP {
             throw new RuntimeException("FATAL: argument pathEvaluator does not encode to a valid path evaluator with string " + pathEvaluatorEnc + ".");
         }
 
+        // Distance cache directory
+        File distanceCacheDirectory = cmd.hasOption("distancecache") ? new File(cmd.getOptionValue("distancecache")) : null;
+
+        // Topology cache directory
+        File topologyCacheDirectory = cmd.hasOption("topologycache") ? new File(cmd.getOptionValue("topologycache")) : null;
+
+        // Node relabeling
+        NodeRelabeling.Type relabelType = null;
+        if (cmd.hasOption("relabel")) {
+            relabelType = NodeRelabeling.getType(cmd.getOptionValue("relabel"));
+            if (relabelType == null) {
+                throw new RuntimeException("FATAL: argument relabel does not encode to a valid relabeling with string " + cmd.getOptionValue("relabel") + ".");
+            }
+        }
+
         // Finally, run the show
-        produce(graphType, trafficMode, pathEvaluator, cmd.getArgs(), args);
+        produce(graphType, trafficMode, pathEvaluator, distanceCacheDirectory, topologyCacheDirectory, relabelType, cmd.getArgs(), args);
 
     }
 
@@ -79,6 +101,9 @@ class ProduceLP {
      * @param graphType         Graph type
      * @param trafficMode       Traffic mode
      * @param pathEvaluatorType Path evaluator type
+     * @param distanceCacheDirectory  Directory to persist the distance matrix in (null if disabled)
+     * @param topologyCacheDirectory  Directory to persist generated topologies in (null if disabled)
+     * @param relabelType       Node relabeling type (null if disabled)
      * @param remainingArgs     All remaining arguments
      * @param allArgs           All arguments given
      */
@@ -86,6 +111,9 @@ class ProduceLP {
             GraphSelector.Type graphType,
             TrafficSelector.TrafficMode trafficMode,
             PathEvaluatorSelector.Type pathEvaluatorType,
+            File distanceCacheDirectory,
+            File topologyCacheDirectory,
+            NodeRelabeling.Type relabelType,
             String[] remainingArgs,
             String[] allArgs
     ) {
@@ -106,10 +134,23 @@ class ProduceLP {
         // Generate graph
         System.out.println("\nGRAPH GENERATION");
         System.out.println(" > Generating graph...");
-        SelectorResult<Graph> graphSelectorResult = GraphSelector.select(graphType, remainingArgs);
-        Graph graph = graphSelectorResult.getResult();
+        SelectorResult<Graph> graphSelectorResult = GraphSelector.select(graphType, remainingArgs, topologyCacheDirectory);
+        Graph original = graphSelectorResult.getResult();
+        original.setDistanceCacheDirectory(distanceCacheDirectory);
+
+        // Renumber the nodes for locality, the original graph is kept to generate traffic on
+        Graph graph = original;
+        NodeRelabeling relabeling = null;
+        if (relabelType != null) {
+            System.out.println(" > Relabeling nodes in " + relabelType + " order...");
+            relabeling = NodeRelabeling.create(relabelType, original);
+            graph = relabeling.apply(original);
+        }
+
+        // Topology is final, freeze it for the downstream stages
+        graph.freeze();
 
-        // Generate path evaluator
+        // Generate path evaluator (its paths are only calculated once the traffic is known)
         System.out.println("\nPATH EVALUATOR GENERATION");
         System.out.println(" > Loading path evaluator...");
         SelectorResult<PathEvaluator> pathEvaluatorSelectorResult = PathEvaluatorSelector.select(pathEvaluatorType, graph, graphSelectorResult.getRemainingArgs());
@@ -118,20 +159,30 @@ class ProduceLP {
         // Generate appropriate traffic
         System.out.println("\nTRAFFIC GENERATION");
         System.out.println(" > Generating traffic...");
-        SelectorResult<Traffic> trafficSelectorResult = TrafficSelector.select(trafficMode, graph, pathEvaluatorSelectorResult.getRemainingArgs());
+        SelectorResult<Traffic> trafficSelectorResult = TrafficSelector.select(trafficMode, original, pathEvaluatorSelectorResult.getRemainingArgs());
         List<TrafficPair> traffic = trafficSelectorResult.getResult().generate();
+        List<TrafficPair> lpTraffic = relabeling == null ? traffic : Traffic.toRelabeledServers(traffic, relabeling);
+
+        // Calculate the paths of only the switch pairs with traffic
+        System.out.println("\nPATH EVALUATOR PREPARATION");
+        List<int[]> switchPairs = Traffic.toSwitchPairs(lpTraffic, graph);
+        System.out.println(" > Preparing path evaluator for " + switchPairs.size() + " switch pairs with traffic...");
+        pathEvaluator.prepare(switchPairs);
 
         // Print topology information
         System.out.println("\nPRINTING");
         System.out.print(" > Printing graph information...");
         PrinterTrafficPairs.print("temp/traffic_pairs.txt", traffic);
-        new PrinterGraph(graph).print("temp/topology.txt");
-        new PrinterPathLengths(graph).print("temp/node_path_lengths.txt");
+        new PrinterGraph(graph, relabeling).print("temp/topology.txt");
+        new PrinterPathLengths(graph, relabeling).print("temp/node_path_lengths.txt");
+        if (relabeling != null) {
+            relabeling.print("temp/node_relabeling.txt");
+        }
         PrinterRun.print("temp/run.info", allArgs);
         System.out.println(" done.");
 
-        // Print the linear program
-        writeLP(graph, trafficMode, traffic, pathEvaluator);
+        // Print the linear program (in relabeled identifiers)
+        writeLP(graph, trafficMode, lpTraffic, pathEvaluator);
 
     }
 
@@ -0,0 +1,326 @@
+/* *******************************************************
+ * Released under the MIT License (MIT) --- see LICENSE
+ * Copyright (c) 2014 Ankit Singla, Sangeetha Abdu Jyothi,
+ * Chi-Yao Hong, Lucian Popa, P. Brighten Godfrey,
+ * Alexandra Kolla, Simon Kassing
+ * ******************************************************** */
+
+package ch.ethz.topobench.graph;
+
+import ch.ethz.topobench.graph.distance.DistanceMatrix;
+import ch.ethz.topobench.graph.distance.ParallelBfsShortestPaths;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Copy-on-write failure scenario on top of a frozen base graph.<br />
+ * <br />
+ * The scenario only stores which (directed) edges and nodes of the base graph are
+ * removed, and per edge a capacity change. The base graph is never modified, thus
+ * many scenarios can share a single base graph and be evaluated in parallel threads
+ * (the base graph itself must not be modified while scenarios are in use).<br />
+ * <br />
+ * The adjacency and distances of the scenario are derived lazily on first use, and
+ * are dropped again if the scenario is changed. A removed node loses its servers as
+ * in {@link Graph#failNodes(double)}: the remaining servers are numbered consecutively
+ * in node order, thus their identifiers can differ from those of the base graph once
+ * a node has been removed (link failures and capacity changes do not affect them).
+ */
+public class FailureScenario implements GraphView {
+
+    private static final int INFINITY = 999999999;
+
+    // Base graph
+    private final Graph base;
+    private final FrozenAdjacency baseAdjacency;
+
+    // Overlay
+    private final BitSet removedEdges;          // Removed edge indices of the base adjacency
+    private final BitSet removedNodes;          // Removed node indices
+    private int[] capacityDelta;                // Capacity change per edge index of the base adjacency, null if none
+
+    // Derived, null until needed
+    private FrozenAdjacency adjacency;
+    private DistanceMatrix distanceMatrix;
+
+    // Server mapping with the weight of removed nodes masked, null until needed
+    private int totalWeight;
+    private int[] svrToSwitchMap;
+    private int[] switchToFirstSvrMap;
+    private int[] nodesWithWeightArray;
+
+    /**
+     * Create a scenario without any failures on top of the base graph.
+     * The base graph is frozen (if it was not yet).
+     *
+     * @param base  Base graph
+     */
+    public FailureScenario(Graph base) {
+        this.base = base;
+        this.baseAdjacency = base.freeze();
+        this.removedEdges = new BitSet(baseAdjacency.getNumEdges());
+        this.removedNodes = new BitSet(base.getNumNodes());
+        this.capacityDelta = null;
+
+        // Make sure the weight mapping of the base is not lazily calculated concurrently later on
+        base.ensureValidWeightMapping();
+    }
+
+    /**
+     * Remove the bi-directional link between two nodes.
+     *
+     * @param n1    First node index
+     * @param n2    Second node index
+     */
+    public synchronized void removeLink(int n1, int n2) {
+        int e = findBaseEdge("removeLink", n1, n2);
+        removedEdges.set(e);
+        removedEdges.set(baseAdjacency.getReverseEdge(e));
+        invalidate();
+    }
+
+    /**
+     * Remove a node, i.e. all its links and servers.
+     *
+     * @param node  Node index
+     */
+    public synchronized void removeNode(int node) {
+        removedNodes.set(node);
+        switchToFirstSvrMap = null;
+        for (int e = baseAdjacency.getEdgeStart(node); e < baseAdjacency.getEdgeEnd(node); e++) {
+            removedEdges.set(e);
+            removedEdges.set(baseAdjacency.getReverseEdge(e));
+        }
+        invalidate();
+    }
+
+    /**
+     * Change the capacity of the bi-directional link between two nodes.
+     * If the capacity drops to zero or below, the link is considered removed.
+     *
+     * @param n1        First node index
+     * @param n2        Second node index
+     * @param delta     Capacity change (negative to reduce)
+     */
+    public synchronized void changeCapacity(int n1, int n2, int delta) {
+        int e = findBaseEdge("changeCapacity", n1, n2);
+        if (capacityDelta == null) {
+            capacityDelta = new int[baseAdjacency.getNumEdges()];
+        }
+        capacityDelta[e] += delta;
+        capacityDelta[baseAdjacency.getReverseEdge(e)] += delta;
+        invalidate();
+    }
+
+    /**
+     * Fail a percentage of all links of the base graph, drawn uniformly at random.
+     * Links which are already removed can be drawn again.
+     *
+     * @param percentage    Percentage of how many to fail
+     * @param random        Random number generator (e.g. one per thread)
+     */
+    public synchronized void failLinks(double percentage, Random random) {
+        if (percentage < 0.0 || percentage > 1.0) {
+            throw new RuntimeException("FailureScenario: failLinks: fail percentage must be between 0.0 and 1.0 (given: " + percentage + ")");
+        }
+
+        // Every bi-directional link once
+        int[] links = new int[baseAdjacency.getNumEdges() / 2];
+        int c = 0;
+        for (int u = 0; u < baseAdjacency.getNumNodes(); u++) {
+            for (int e = baseAdjacency.getEdgeStart(u); e < baseAdjacency.getEdgeEnd(u); e++) {
+                if (u < baseAdjacency.getTarget(e)) {
+                    links[c++] = e;
+                }
+            }
+        }
+
+        // Partial Fisher-Yates shuffle
+        int numFail = (int) Math.round(percentage * links.length);
+        for (int i = 0; i < numFail; i++) {
+            int j = i + random.nextInt(links.length - i);
+            int tmp = links[i];
+            links[i] = links[j];
+            links[j] = tmp;
+            removedEdges.set(links[i]);
+            removedEdges.set(baseAdjacency.getReverseEdge(links[i]));
+        }
+        invalidate();
+
+    }
+
+    /**
+     * Check whether a node has been removed.
+     *
+     * @param node  Node index
+     *
+     * @return True iff removed
+     */
+    public boolean isNodeRemoved(int node) {
+        return removedNodes.get(node);
+    }
+
+    /**
+     * Retrieve the base graph.
+     *
+     * @return Base graph
+     */
+    public Graph getBase() {
+        return base;
+    }
+
+    /**
+     * Find the edge index in the base adjacency, both ways must exist.
+     *
+     * @param method    Name of the calling method (for the error message)
+     * @param n1        First node index
+     * @param n2        Second node index
+     *
+     * @return Edge index of (n1, n2)
+     */
+    private int findBaseEdge(String method, int n1, int n2) {
+        int e = baseAdjacency.findEdge(n1, n2);
+        if (e == -1 || baseAdjacency.getReverseEdge(e) == -1) {
+            throw new RuntimeException("FailureScenario: " + method + ": bi-directional link does not exist in the base graph.");
+        }
+        return e;
+    }
+
+    /**
+     * Drop the derived adjacency and distances after a change.
+     */
+    private void invalidate() {
+        adjacency = null;
+        distanceMatrix = null;
+    }
+
+    @Override
+    public int getNumNodes() {
+        return baseAdjacency.getNumNodes();
+    }
+
+    @Override
+    public synchronized FrozenAdjacency getFrozenAdjacency() {
+        if (adjacency == null) {
+            adjacency = baseAdjacency.filter(removedEdges, capacityDelta);
+        }
+        return adjacency;
+    }
+
+    @Override
+    public synchronized void calculateShortestPaths() {
+        if (distanceMatrix == null) {
+            FrozenAdjacency current = getFrozenAdjacency();
+            distanceMatrix = new ParallelBfsShortestPaths(current.getOffsets(), current.getTargets(), INFINITY).calculate(true);
+        }
+    }
+
+    @Override
+    public int getShortestPathLen(int i, int j) {
+        return getDistanceMatrix().get(i, j);
+    }
+
+    /**
+     * Get the (compactly stored) shortest path length matrix of the scenario.
+     *
+     * @return Distance matrix
+     */
+    public synchronized DistanceMatrix getDistanceMatrix() {
+        calculateShortestPaths();
+        return distanceMatrix;
+    }
+
+    /**
+     * Make sure the server mapping with the weight of removed nodes masked is calculated.
+     *
+     * @return False iff no node is removed, i.e. the mapping of the base graph applies
+     */
+    private synchronized boolean ensureMaskedWeightMapping() {
+        if (removedNodes.isEmpty()) {
+            return false;
+        }
+
+        // Recalculate as in the base graph, with the removed nodes having no servers
+        if (switchToFirstSvrMap == null) {
+            int n = getNumNodes();
+            int[] firstSvr = new int[n];
+            int numWithWeight = 0;
+            int weightBefore = 0;
+            for (int i = 0; i < n; i++) {
+                firstSvr[i] = weightBefore;
+                weightBefore += getNodeWeight(i);
+                if (getNodeWeight(i) > 0) {
+                    numWithWeight++;
+                }
+            }
+            svrToSwitchMap = new int[weightBefore];
+            nodesWithWeightArray = new int[numWithWeight];
+            int c = 0;
+            for (int i = 0; i < n; i++) {
+                for (int s = firstSvr[i]; s < firstSvr[i] + getNodeWeight(i); s++) {
+                    svrToSwitchMap[s] = i;
+                }
+                if (getNodeWeight(i) > 0) {
+                    nodesWithWeightArray[c++] = i;
+                }
+            }
+            totalWeight = weightBefore;
+            switchToFirstSvrMap = firstSvr;
+        }
+        return true;
+
+    }
+
+    @Override
+    public int getNodeWeight(int i) {
+        return removedNodes.get(i) ? 0 : base.getNodeWeight(i);
+    }
+
+    @Override
+    public int getTotalWeight() {
+        return ensureMaskedWeightMapping() ? totalWeight : base.getTotalWeight();
+    }
+
+    @Override
+    public List<Integer> getNodesWithWeight() {
+        if (!ensureMaskedWeightMapping()) {
+            return base.getNodesWithWeight();
+        }
+        List<Integer> result = new ArrayList<>(nodesWithWeightArray.length);
+        for (int i : nodesWithWeightArray) {
+            result.add(i);
+        }
+        return result;
+    }
+
+    @Override
+    public int[] getNodesWithWeightArray() {
+        return ensureMaskedWeightMapping() ? nodesWithWeightArray : base.getNodesWithWeightArray();
+    }
+
+    @Override
+    public int svrToSwitch(int serverIndex) {
+        return ensureMaskedWeightMapping() ? svrToSwitchMap[serverIndex] : base.svrToSwitch(serverIndex);
+    }
+
+    @Override
+    public List<Integer> switchToSvrs(int nodeIndex) {
+        if (!ensureMaskedWeightMapping()) {
+            return base.switchToSvrs(nodeIndex);
+        }
+        List<Integer> result = new ArrayList<>(getNodeWeight(nodeIndex));
+        for (int i = 0; i < getNodeWeight(nodeIndex); i++) {
+            result.add(switchToFirstSvrMap[nodeIndex] + i);
+        }
+        return result;
+    }
+
+    @Override
+    public int switchToFirstSvr(int nodeIndex) {
+        return ensureMaskedWeightMapping() ? switchToFirstSvrMap[nodeIndex] : base.switchToFirstSvr(nodeIndex);
+    }
+
+}
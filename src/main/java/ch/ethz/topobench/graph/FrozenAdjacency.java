@@ -0,0 +1,332 @@
+/* *******************************************************
+ * Released under the MIT License (MIT) --- see LICENSE
+ * Copyright (c) 2014 Ankit Singla, Sangeetha Abdu Jyothi,
+ * Chi-Yao Hong, Lucian Popa, P. Brighten Godfrey,
+ * Alexandra Kolla, Simon Kassing
+ * ******************************************************** */
+
+package ch.ethz.topobench.graph;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Vector;
+
+/**
+ * Immutable compressed sparse row (CSR) snapshot of the adjacency list of a graph.<br />
+ * <br />
+ * The (directed) links of node u are the edge indices e in [{@link #getEdgeStart(int) getEdgeStart(u)},
+ * {@link #getEdgeEnd(int) getEdgeEnd(u)}), in the same order as in the adjacency list. Iterating
+ * over them does not allocate:
+ * <pre>
+ *     for (int e = adj.getEdgeStart(u); e &lt; adj.getEdgeEnd(u); e++) {
+ *         int v = adj.getTarget(e);
+ *         int cap = adj.getCapacity(e);
+ *     }
+ * </pre>
+ * Besides the targets and capacities, a sorted copy of the neighbors of each node is kept
+ * to look up a link in O(log degree), and for each edge (u, v) the index of its reverse edge (v, u).
+ */
+public final class FrozenAdjacency {
+
+    private final int numNodes;
+    private final int[] offsets;            // Node u has edges [offsets[u], offsets[u + 1])
+    private final int[] targets;            // Target node of each edge
+    private final int[] capacities;         // Capacity of each edge
+    private final int[] sortedTargets;      // Per node range the targets in ascending order
+    private final int[] sortedEdges;        // Edge index belonging to each entry of sortedTargets
+    private final int[] reverseEdges;       // Index of edge (v, u) for each edge (u, v), -1 if it does not exist
+    private String fingerprint;             // Topology fingerprint, null until first requested
+
+    /**
+     * Build the snapshot of the given adjacency list.
+     *
+     * @param adjacencyList     Adjacency list (index is a vector of weighted links to other nodes)
+     *
+     * @return Frozen adjacency
+     */
+    static FrozenAdjacency fromAdjacencyList(Vector<Link>[] adjacencyList) {
+
+        // Offsets of each node
+        int numNodes = adjacencyList.length;
+        int[] offsets = new int[numNodes + 1];
+        for (int u = 0; u < numNodes; u++) {
+            offsets[u + 1] = offsets[u] + adjacencyList[u].size();
+        }
+
+        // Targets and capacities in adjacency list order
+        int numEdges = offsets[numNodes];
+        int[] targets = new int[numEdges];
+        int[] capacities = new int[numEdges];
+        for (int u = 0; u < numNodes; u++) {
+            int e = offsets[u];
+            for (Link link : adjacencyList[u]) {
+                targets[e] = link.getLinkTo();
+                capacities[e] = link.getLinkCapacity();
+                e++;
+            }
+        }
+
+        return new FrozenAdjacency(offsets, targets, capacities);
+    }
+
+    /**
+     * Build a snapshot of this adjacency with edges removed and capacities changed.
+     * Edges whose capacity drops to zero or below are removed as well.
+     *
+     * @param removedEdges      Edge indices to remove
+     * @param capacityDelta     Per edge index the change in capacity (null if unchanged)
+     *
+     * @return Frozen adjacency (edge indices are renumbered, the order of the remaining edges is kept)
+     */
+    FrozenAdjacency filter(BitSet removedEdges, int[] capacityDelta) {
+        int[] newOffsets = new int[numNodes + 1];
+        int[] newTargets = new int[targets.length];
+        int[] newCapacities = new int[targets.length];
+        int c = 0;
+        for (int u = 0; u < numNodes; u++) {
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                int capacity = capacities[e] + (capacityDelta == null ? 0 : capacityDelta[e]);
+                if (!removedEdges.get(e) && capacity > 0) {
+                    newTargets[c] = targets[e];
+                    newCapacities[c] = capacity;
+                    c++;
+                }
+            }
+            newOffsets[u + 1] = c;
+        }
+        return new FrozenAdjacency(newOffsets, Arrays.copyOf(newTargets, c), Arrays.copyOf(newCapacities, c));
+    }
+
+    /**
+     * Build the snapshot from its compressed sparse row arrays.
+     *
+     * @param offsets       Node u has edges [offsets[u], offsets[u + 1])
+     * @param targets       Target node of each edge
+     * @param capacities    Capacity of each edge
+     */
+    private FrozenAdjacency(int[] offsets, int[] targets, int[] capacities) {
+        this.numNodes = offsets.length - 1;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.capacities = capacities;
+        int numEdges = targets.length;
+
+        // Sorted neighbors, kept together with their edge index by sorting (target, edge) as one long
+        this.sortedTargets = new int[numEdges];
+        this.sortedEdges = new int[numEdges];
+        for (int u = 0; u < numNodes; u++) {
+            int start = offsets[u];
+            long[] keys = new long[offsets[u + 1] - start];
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = ((long) targets[start + i] << 32) | (start + i);
+            }
+            Arrays.sort(keys);
+            for (int i = 0; i < keys.length; i++) {
+                sortedTargets[start + i] = (int) (keys[i] >>> 32);
+                sortedEdges[start + i] = (int) keys[i];
+            }
+        }
+
+        // Reverse edge of each edge
+        this.reverseEdges = new int[numEdges];
+        for (int u = 0; u < numNodes; u++) {
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                reverseEdges[e] = findEdge(targets[e], u);
+            }
+        }
+
+    }
+
+    /**
+     * Retrieve total number of nodes.
+     *
+     * @return Number of nodes
+     */
+    public int getNumNodes() {
+        return numNodes;
+    }
+
+    /**
+     * Retrieve total number of directed edges (thus twice the number of bi-directional links).
+     *
+     * @return Number of directed edges
+     */
+    public int getNumEdges() {
+        return targets.length;
+    }
+
+    /**
+     * Retrieve the amount of distinct neighbors (out-links) of node u.
+     *
+     * @param u     Node index
+     *
+     * @return Degree of node u
+     */
+    public int getDegree(int u) {
+        return offsets[u + 1] - offsets[u];
+    }
+
+    /**
+     * Retrieve the first edge index of node u.
+     *
+     * @param u     Node index
+     *
+     * @return First edge index (inclusive)
+     */
+    public int getEdgeStart(int u) {
+        return offsets[u];
+    }
+
+    /**
+     * Retrieve the edge index after the last edge of node u.
+     *
+     * @param u     Node index
+     *
+     * @return Last edge index (exclusive)
+     */
+    public int getEdgeEnd(int u) {
+        return offsets[u + 1];
+    }
+
+    /**
+     * Retrieve the node the edge goes to.
+     *
+     * @param e     Edge index
+     *
+     * @return Target node index
+     */
+    public int getTarget(int e) {
+        return targets[e];
+    }
+
+    /**
+     * Retrieve the capacity of the edge.
+     *
+     * @param e     Edge index
+     *
+     * @return Edge capacity
+     */
+    public int getCapacity(int e) {
+        return capacities[e];
+    }
+
+    /**
+     * Retrieve the index of the reverse edge, i.e. (v, u) for edge (u, v).
+     *
+     * @param e     Edge index
+     *
+     * @return Reverse edge index, -1 if it does not exist
+     */
+    public int getReverseEdge(int e) {
+        return reverseEdges[e];
+    }
+
+    /**
+     * Find the edge index of the directed edge (u, v) using binary search on the sorted neighbors.
+     *
+     * @param u     First node index
+     * @param v     Second node index
+     *
+     * @return Edge index, -1 if not found
+     */
+    public int findEdge(int u, int v) {
+        int idx = Arrays.binarySearch(sortedTargets, offsets[u], offsets[u + 1], v);
+        return idx >= 0 ? sortedEdges[idx] : -1;
+    }
+
+    /**
+     * Check whether there is a directed edge (u, v).
+     *
+     * @param u     First node index
+     * @param v     Second node index
+     *
+     * @return True iff v is a neighbor of u
+     */
+    public boolean isNeighbor(int u, int v) {
+        return findEdge(u, v) != -1;
+    }
+
+    /**
+     * Retrieve the topology fingerprint: the SHA-256 hash (in hexadecimal) of the number of nodes
+     * and the sorted neighbors of each node. Link capacities and the order in which links were
+     * added do not influence it, thus graphs with equal fingerprints have equal shortest paths.
+     *
+     * @return Hexadecimal topology fingerprint (64 characters)
+     */
+    public String getFingerprint() {
+        if (fingerprint == null) {
+
+            MessageDigest digest;
+            try {
+                digest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new RuntimeException("FrozenAdjacency: getFingerprint: SHA-256 is not available.");
+            }
+
+            // Number of nodes, then per node its degree and sorted neighbors
+            ByteBuffer buffer = ByteBuffer.allocate(8192);
+            buffer.putInt(numNodes);
+            for (int u = 0; u < numNodes; u++) {
+                if (buffer.remaining() < 4) {
+                    digest.update(buffer.array(), 0, buffer.position());
+                    buffer.clear();
+                }
+                buffer.putInt(getDegree(u));
+                for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+                    if (buffer.remaining() < 4) {
+                        digest.update(buffer.array(), 0, buffer.position());
+                        buffer.clear();
+                    }
+                    buffer.putInt(sortedTargets[i]);
+                }
+            }
+            digest.update(buffer.array(), 0, buffer.position());
+
+            // Hexadecimal representation
+            StringBuilder hex = new StringBuilder();
+            for (byte b : digest.digest()) {
+                hex.append(String.format("%02x", b));
+            }
+            fingerprint = hex.toString();
+
+        }
+        return fingerprint;
+    }
+
+    /**
+     * Get the offset array: node u has edges [offsets[u], offsets[u + 1]).
+     *
+     * Do *not* edit the array, it is only exposed for tight loops (e.g. shortest path engines).
+     *
+     * @return Offset array (length: number of nodes + 1)
+     */
+    public int[] getOffsets() {
+        return offsets;
+    }
+
+    /**
+     * Get the target array in edge index order.
+     *
+     * Do *not* edit the array, it is only exposed for tight loops (e.g. shortest path engines).
+     *
+     * @return Target array (length: number of directed edges)
+     */
+    public int[] getTargets() {
+        return targets;
+    }
+
+    /**
+     * Get the capacity array in edge index order.
+     *
+     * Do *not* edit the array, it is only exposed for tight loops.
+     *
+     * @return Capacity array (length: number of directed edges)
+     */
+    public int[] getCapacities() {
+        return capacities;
+    }
+
+}
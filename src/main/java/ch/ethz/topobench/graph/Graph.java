@@ -8,26 +8,57 @@
 package ch.ethz.topobench.graph;
 
 import ch.ethz.topobench.Main;
-
+import ch.ethz.topobench.graph.distance.AnalyticDistanceOracle;
+import ch.ethz.topobench.graph.distance.DistanceMatrix;
+import ch.ethz.topobench.graph.distance.DistanceOracle;
+import ch.ethz.topobench.graph.distance.LandmarkDistanceOracle;
+import ch.ethz.topobench.graph.distance.MappedDistanceMatrix;
+import ch.ethz.topobench.graph.distance.ParallelBfsShortestPaths;
+
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
 import java.util.Random;
 import java.util.Vector;
+import java.util.stream.IntStream;
+
+public class Graph implements GraphView {
 
-public class Graph {
+    public enum ShortestPathAlgorithm {
+        FLOYD_WARSHALL,
+        PARALLEL_BFS
+    }
 
     // Utility
-    protected static Random rand;
+    protected final Random rand;                 // Random number generator bound at construction (see Main.getRandom())
     private static final int INFINITY = 999999999;
+    private static final double INCREMENTAL_MAX_AFFECTED = 0.5;   // Fraction of sources above which a full recalculation is done
     static final int DEFAULT_NUM_HOSTS = 1;   // Default number of hosts associated to each node in the graph
+    static final int DEFAULT_DISTANCE_MATRIX_MAX_NODES = 20000;   // Largest graph for which the full distance matrix is used by default
+    static final int DEFAULT_NUM_LANDMARKS = 16;                  // Number of landmarks of the oracle for larger graphs
 
     // Graph-level properties
     private final String name;                   // Name
     protected final int numNodes;                // Number of nodes
-    private final int shortestPathLen[][];       // Shortest path between node i and j
+    private DistanceMatrix distanceMatrix;       // Shortest path between node i and j, null until calculated
+    private DistanceMatrix sharedDistanceMatrix; // Distance matrix taken over by an expansion, never updated in place
+    private int[][] shortestPathLenArray;        // Full int[][] copy of the distance matrix, only materialized on request
+    private boolean invalidatedShortestPaths;    // Whether the shortest paths need to be recalculated before next use
+    private List<int[]> removedLinks;            // Links removed since the last calculation, null if an incremental update is impossible
+    private File distanceCacheDirectory;         // Directory to persist distance matrices in, null if disabled
+    private int distanceMatrixMaxNodes;          // Above this number of nodes, distances are answered by a landmark oracle
+    private DistanceOracle distanceOracle;       // Landmark oracle of large graphs, null until calculated
+    private FrozenAdjacency oracleAdjacency;     // Adjacency snapshot the landmark oracle was built on
+    private AnalyticDistanceOracle analyticDistances;   // Closed-form distances of a structured topology, null if none
+    private FrozenAdjacency analyticAdjacency;   // Adjacency snapshot the closed-form distances hold for
+    private DistanceOracle shortestPathOracle;   // Oracle answering getShortestPathLen(), null until looked up for the current snapshot
     private Vector<Link> adjacencyList[];        // Adjacency list (index is a vector of weighted links to other nodes)
                                                  // It is recommended to only use addBidirNeighbor() and removeBidirNeighbor()
                                                  // as it maintains integrity of the graph as a bi-directional one
+    private FrozenAdjacency frozenAdjacency;     // Compressed snapshot of the adjacency list, null if not (or no longer) frozen
 
     // Node-level properties
     // Note: subclasses can edit this if there are non-uniform weights, but are themselves responsible
@@ -37,6 +68,7 @@ public class Graph {
     private boolean invalidatedWeightMapping;    // Whether the weight mapping needs to be redone next call to svrToSwitch()
     private int[] svrToSwitchMap;                // Map each server to its respective switch
     private int[] switchToFirstSvrMap;           // Map each switch to the first server index
+    private int[] nodesWithWeightArray;          // Node identifiers with weight >= 1 in ascending order
 
     public Graph(String name, int size) {
         this(name, size, DEFAULT_NUM_HOSTS);
@@ -45,7 +77,7 @@ public class Graph {
     public Graph(String name, int size, int uniformWeight) {
 
         // Set as single source of randomness
-        rand = Main.universalRand;
+        rand = Main.getRandom();
 
         // Direct properties
         this.name = name;
@@ -59,15 +91,23 @@ public class Graph {
         totalWeight = 0;
         invalidatedWeightMapping = false;
         svrToSwitchMap = new int[0];
-        switchToFirstSvrMap = new int[0];
+        switchToFirstSvrMap = new int[numNodes];
+        nodesWithWeightArray = new int[0];
 
         // Setup uniform weight
         if (uniformWeight > 0) {
             setupUniformWeight(uniformWeight);
         }
 
-        // Pre-allocate distance matrix for shortest path length
-        this.shortestPathLen = new int[numNodes][numNodes];
+        // Distance matrix is only allocated once calculated
+        this.distanceMatrix = null;
+        this.shortestPathLenArray = null;
+        this.invalidatedShortestPaths = true;
+        this.distanceMatrixMaxNodes = DEFAULT_DISTANCE_MATRIX_MAX_NODES;
+        this.distanceOracle = null;
+        this.oracleAdjacency = null;
+        this.analyticDistances = null;
+        this.analyticAdjacency = null;
 
     }
 
@@ -130,14 +170,29 @@ public class Graph {
      */
     public List<Integer> getNodesWithWeight() {
         List<Integer> result = new ArrayList<>();
-        for (int i = 0; i < numNodes; i++) {
-            if (nodeWeight[i] > 0) {
-                result.add(i);
-            }
+        for (int i : getNodesWithWeightArray()) {
+            result.add(i);
         }
         return result;
     }
 
+    /**
+     * Retrieve all the node identifiers whose node has one or more
+     * servers (weight >= 1) attached to it, in ascending order.
+     *
+     * Do *not* edit the array, it is shared to avoid allocating in tight loops.
+     *
+     * @return  Array of node identifiers
+     */
+    public final int[] getNodesWithWeightArray() {
+
+        // Ensure a valid weight mapping
+        ensureValidWeightMapping();
+
+        return nodesWithWeightArray;
+
+    }
+
     /**
      * Find the switch that belongs to a certain server.
      *
@@ -168,7 +223,7 @@ public class Graph {
         ensureValidWeightMapping();
 
         // Add each to the result
-        List<Integer> result = new ArrayList<>();
+        List<Integer> result = new ArrayList<>(nodeWeight[nodeIndex]);
         for (int i = 0; i < nodeWeight[nodeIndex]; i++) {
             result.add(switchToFirstSvrMap[nodeIndex] + i);
         }
@@ -176,11 +231,36 @@ public class Graph {
 
     }
 
+    /**
+     * Find the first server id attached to the switch (node). The servers
+     * of the switch are the {@link #getNodeWeight(int) getNodeWeight(nodeIndex)}
+     * consecutive ids starting at this one:
+     * <pre>
+     *     int first = graph.switchToFirstSvr(nodeIndex);
+     *     for (int svr = first; svr &lt; first + graph.getNodeWeight(nodeIndex); svr++) {
+     *         ...
+     *     }
+     * </pre>
+     *
+     * @param nodeIndex     Node index
+     *
+     * @return  First server id (if the node has no servers, the id the next server would have)
+     */
+    public final int switchToFirstSvr(int nodeIndex) {
+
+        // Ensure a valid weight mapping
+        ensureValidWeightMapping();
+
+        // Return from mapping
+        return switchToFirstSvrMap[nodeIndex];
+
+    }
+
     /**
      * Recalculates the weight mapping if it has
      * been invalidated by a weight change.
      */
-    private void ensureValidWeightMapping() {
+    void ensureValidWeightMapping() {
 
         // Recalculate weight mapping
         if (invalidatedWeightMapping) {
@@ -189,16 +269,27 @@ public class Graph {
             svrToSwitchMap = new int[totalWeight];
             switchToFirstSvrMap = new int[numNodes];
 
-            // Fill in mapping
-            int currentNode = 0;
+            // Fill in mapping, the servers of each node follow those of the node before it
+            int numWithWeight = 0;
             int weightBefore = 0;
-            for (int s = 0; s < totalWeight; s++) {
-                while (s + 1 > weightBefore + nodeWeight[currentNode]) {
-                    weightBefore += nodeWeight[currentNode];
-                    currentNode++;
-                    switchToFirstSvrMap[currentNode] = s;
+            for (int i = 0; i < numNodes; i++) {
+                switchToFirstSvrMap[i] = weightBefore;
+                for (int s = weightBefore; s < weightBefore + nodeWeight[i]; s++) {
+                    svrToSwitchMap[s] = i;
+                }
+                weightBefore += nodeWeight[i];
+                if (nodeWeight[i] > 0) {
+                    numWithWeight++;
+                }
+            }
+
+            // Nodes with weight
+            nodesWithWeightArray = new int[numWithWeight];
+            int c = 0;
+            for (int i = 0; i < numNodes; i++) {
+                if (nodeWeight[i] > 0) {
+                    nodesWithWeightArray[c++] = i;
                 }
-                svrToSwitchMap[s] = currentNode;
             }
 
             // Mapping is now correct
@@ -240,6 +331,7 @@ public class Graph {
 
         // Attempt to find existing link, add capacity of link by *cap* units, thus
         // creating a parallel link.
+        dropFrozenAdjacency();
         for (int i = 0; i < adjacencyList[n1].size(); i++) {
             if (adjacencyList[n1].get(i).getLinkTo() == n2) {
                 adjacencyList[n1].elementAt(i).increaseLinkCapacity(cap);
@@ -249,6 +341,8 @@ public class Graph {
 
         // If not yet an existing link, create a new one
         adjacencyList[n1].add(new Link(n2, cap));
+        invalidatedShortestPaths = true;
+        removedLinks = null;
 
         return true;
     }
@@ -273,6 +367,14 @@ public class Graph {
      * @return      Index in the adjacency list, -1 if not found
      */
     private int findNeighborIdx(int n1, int n2) {
+
+        // Binary search in the snapshot, its edges are in the same order as the adjacency list
+        if (frozenAdjacency != null) {
+            int e = frozenAdjacency.findEdge(n1, n2);
+            return e == -1 ? -1 : e - frozenAdjacency.getEdgeStart(n1);
+        }
+
+        // Linear scan
         for (int i = 0; i < adjacencyList[n1].size(); i++) {
             if (adjacencyList[n1].elementAt(i).getLinkTo() == n2) {
                 return i;
@@ -304,6 +406,52 @@ public class Graph {
         return addNeighbor(n1, n2, cap) && addNeighbor(n2, n1, cap);
     }
 
+    /**
+     * Add bi-directional links with capacity 1 in bulk, in the given order.<br />
+     * <br />
+     * Unlike {@link #addBidirNeighbor(int, int) addBidirNeighbor}, existing links are not
+     * looked up (which costs O(degree) per link): the caller guarantees that the links are
+     * distinct and do not exist yet. The resulting adjacency lists are the same as when
+     * adding them one by one.
+     *
+     * @param from      First node index of each link
+     * @param to        Second node index of each link
+     * @param count     Number of links (prefix of the arrays)
+     */
+    protected void addDistinctBidirNeighbors(int[] from, int[] to, int count) {
+
+        // Validate and count the new links of each node
+        int[] added = new int[numNodes];
+        for (int i = 0; i < count; i++) {
+            int n1 = from[i];
+            int n2 = to[i];
+            if (n1 == n2) {
+                throw new RuntimeException("ERROR: Graph: addDistinctBidirNeighbors: trying to add link to itself for node " + n1 + ".");
+            }
+            if (n1 < 0 || n2 < 0 || n1 >= numNodes || n2 >= numNodes) {
+                throw new RuntimeException("ERROR: Graph: addDistinctBidirNeighbors: adding link to non-existing node, between node " + n1 + " and node " + n2 + ".");
+            }
+            added[n1]++;
+            added[n2]++;
+        }
+
+        // Grow each list once, then append
+        for (int i = 0; i < numNodes; i++) {
+            adjacencyList[i].ensureCapacity(adjacencyList[i].size() + added[i]);
+        }
+        for (int i = 0; i < count; i++) {
+            adjacencyList[from[i]].add(new Link(to[i], 1));
+            adjacencyList[to[i]].add(new Link(from[i], 1));
+        }
+
+        dropFrozenAdjacency();
+        if (count > 0) {
+            invalidatedShortestPaths = true;
+            removedLinks = null;
+        }
+
+    }
+
     /**
      * Remove the given capacity on a bi-directional neighbor.
      *
@@ -323,13 +471,16 @@ public class Graph {
         if (idx1to2 == -1 || idx2to1 == -1) {
             throw new RuntimeException("Graph: RemoveBidirNeighbor(1): bi-directional link does not exist.");
         }
+        dropFrozenAdjacency();
 
         // Remove link from node 1 to node 2
+        boolean removed = false;
         Link link1to2 = adjacencyList[n1].elementAt(idx1to2);
         if (link1to2.getLinkCapacity() > cap) {
             link1to2.decreaseLinkCapacity(cap);
         } else {
             adjacencyList[n1].remove(idx1to2);
+            removed = true;
         }
 
         // Remove link from node 2 to node 1
@@ -338,6 +489,12 @@ public class Graph {
             link2to1.decreaseLinkCapacity(cap);
         } else {
             adjacencyList[n2].remove(idx2to1);
+            removed = true;
+        }
+
+        // Only a complete removal changes the shortest paths
+        if (removed) {
+            registerRemovedLink(n1, n2);
         }
 
         return true;
@@ -362,14 +519,281 @@ public class Graph {
         if (idx1to2 == -1 || idx2to1 == -1) {
             throw new RuntimeException("Graph: RemoveBidirNeighbor(2): bi-directional link does not exist.");
         }
+        dropFrozenAdjacency();
 
         // Remove both ways
         adjacencyList[n1].remove(idx1to2);
         adjacencyList[n2].remove(idx2to1);
+        registerRemovedLink(n1, n2);
         return true;
 
     }
 
+    /**
+     * Register that the bi-directional link between n1 and n2 has been removed completely.
+     * If the shortest paths were valid before, the removal is remembered such that only
+     * the affected sources have to be recalculated.
+     *
+     * @param n1    First node index
+     * @param n2    Second node index
+     */
+    private void registerRemovedLink(int n1, int n2) {
+        if (!invalidatedShortestPaths) {
+            removedLinks = new ArrayList<>();
+        }
+        if (removedLinks != null) {
+            removedLinks.add(new int[]{n1, n2});
+        }
+        invalidatedShortestPaths = true;
+    }
+
+    /**
+     * Add links from node x, which has no links yet, to the given distinct nodes.<br />
+     * <br />
+     * If the shortest paths were valid before, they are updated in O(n^2) instead of recalculated:
+     * the distance from x to any node t is one more than the smallest distance from its neighbors
+     * to t, and a shorter path between s and t can only pass through x, thus is d(s, x) + d(x, t).
+     *
+     * @param x             Node index (without links)
+     * @param neighbors     Distinct node indices to link x to (capacity 1)
+     */
+    protected void addNodeLinks(final int x, final int[] neighbors) {
+        if (!adjacencyList[x].isEmpty()) {
+            throw new RuntimeException("Graph: addNodeLinks: node " + x + " already has links.");
+        }
+        boolean update = !invalidatedShortestPaths && isDistanceMatrixUpdatable() && neighbors.length > 0;
+
+        // Add links
+        int[] from = new int[neighbors.length];
+        Arrays.fill(from, x);
+        addDistinctBidirNeighbors(from, neighbors, neighbors.length);
+
+        // Shorten the paths through x
+        if (update) {
+            invalidatedShortestPaths = !shortenPathsThrough(x, neighbors);
+        }
+
+    }
+
+    /**
+     * Update the distance matrix in place for links from node x, which had no links before,
+     * to the given distinct nodes (see {@link #addNodeLinks(int, int[]) addNodeLinks}).
+     *
+     * @param x             Node index
+     * @param neighbors     Distinct node indices x is linked to
+     *
+     * @return True iff all distances could be stored, false if a full recalculation is required
+     */
+    private boolean shortenPathsThrough(int x, int[] neighbors) {
+
+        // Distances from x via its neighbors
+        final int[] dx = new int[numNodes];
+        Arrays.fill(dx, INFINITY);
+        for (int a : neighbors) {
+            for (int t = 0; t < numNodes; t++) {
+                int d = distanceMatrix.get(a, t);
+                if (d != INFINITY && d + 1 < dx[t]) {
+                    dx[t] = d + 1;
+                }
+            }
+        }
+        dx[x] = 0;
+
+        // Shorten the paths through x, each row only reads and writes itself
+        final DistanceMatrix matrix = distanceMatrix;
+        final boolean[] stored = new boolean[]{true};
+        IntStream.range(0, numNodes).parallel().forEach(s -> {
+            int[] row = new int[numNodes];
+            for (int t = matrix.isSymmetric() ? s : 0; t < numNodes; t++) {
+                int d = matrix.get(s, t);
+                if (dx[s] != INFINITY && dx[t] != INFINITY && dx[s] + dx[t] < d) {
+                    d = dx[s] + dx[t];
+                }
+                row[t] = d;
+            }
+            if (!matrix.setRow(s, row)) {
+                stored[0] = false;
+            }
+        });
+        shortestPathLenArray = null;
+        return stored[0];
+
+    }
+
+    /**
+     * Take over the distance settings (cache directory and distance matrix size limit) of a graph.
+     *
+     * @param base  Base graph
+     */
+    protected void inheritDistanceSettings(Graph base) {
+        this.distanceCacheDirectory = base.distanceCacheDirectory;
+        this.distanceMatrixMaxNodes = base.distanceMatrixMaxNodes;
+    }
+
+    /**
+     * Check whether the shortest path lengths of a graph can be taken over by this graph
+     * with {@link #inheritDistances(Graph) inheritDistances}: the base graph uses the distance
+     * matrix and it is valid for its current topology (it is never calculated for this).
+     *
+     * @param base  Base graph
+     *
+     * @return True iff the distances can be taken over
+     */
+    protected boolean canInheritDistances(Graph base) {
+        return !base.invalidatedShortestPaths && base.distanceMatrix != null
+                && base.numNodes <= base.distanceMatrixMaxNodes && numNodes <= distanceMatrixMaxNodes
+                && base.numNodes <= numNodes;
+    }
+
+    /**
+     * Take over the shortest path lengths of a graph of which this graph is an extension: its
+     * nodes are the first nodes of this graph with exactly the same links among them, and the
+     * remaining nodes of this graph have no links yet. Only done if the base graph has a valid
+     * distance matrix (see {@link #canInheritDistances(Graph) canInheritDistances}).
+     *
+     * @param base  Base graph
+     *
+     * @return True iff the distances have been taken over
+     */
+    protected boolean inheritDistances(Graph base) {
+        if (!canInheritDistances(base)) {
+            return false;
+        }
+
+        // Valid for the current topology
+        distanceMatrix = padDistances(base.distanceMatrix, base.numNodes);
+        shortestPathOracle = null;
+        shortestPathLenArray = null;
+        removedLinks = null;
+        invalidatedShortestPaths = false;
+        return true;
+
+    }
+
+    /**
+     * Retrieve the distance matrix of a graph, to take over later on with
+     * {@link #inheritExpandedDistances(DistanceMatrix, int, int[][], int[][]) inheritExpandedDistances}
+     * without holding on to the graph itself. From then on the base graph never updates this
+     * matrix in place (it recalculates instead), thus it remains valid for its current topology.
+     *
+     * @param base  Base graph
+     *
+     * @return Distance matrix, null if it cannot be taken over (see {@link #canInheritDistances(Graph) canInheritDistances})
+     */
+    protected DistanceMatrix shareDistances(Graph base) {
+        if (!canInheritDistances(base)) {
+            return null;
+        }
+        base.sharedDistanceMatrix = base.distanceMatrix;
+        return base.distanceMatrix;
+    }
+
+    /**
+     * Take over the shortest path lengths of a graph of which this graph is an expansion, and
+     * update them for the changes: some links among its nodes are removed, and the remaining
+     * nodes of this graph are added one by one, each with links to lower indexed nodes only.
+     * The removals are updated as in {@link #removeBidirNeighbor(int, int) removeBidirNeighbor}
+     * (only affected sources are searched again), each added node in O(n^2).
+     *
+     * @param base                  Distance matrix of the base graph (see {@link #shareDistances(Graph) shareDistances})
+     * @param numBaseNodes          Number of nodes of the base graph (the first nodes of this graph)
+     * @param removedBaseLinks      Links among the base nodes which are not in this graph
+     * @param newNodeLinks          Per added node (index numBaseNodes onwards) the lower indexed nodes it is linked to
+     *
+     * @return True iff the shortest paths are valid afterwards, false if a full recalculation is required
+     */
+    protected boolean inheritExpandedDistances(DistanceMatrix base, int numBaseNodes, int[][] removedBaseLinks, int[][] newNodeLinks) {
+        distanceMatrix = null; // Release the old one first
+        shortestPathOracle = null;
+        shortestPathLenArray = null;
+        removedLinks = null;
+        distanceMatrix = padDistances(base, numBaseNodes);
+
+        // Removed links, searched again on the topology without the links of the added nodes
+        if (removedBaseLinks.length > 0) {
+            FrozenAdjacency adjacency = getFrozenAdjacency();
+            BitSet addedEdges = new BitSet(adjacency.getNumEdges());
+            for (int u = 0; u < numNodes; u++) {
+                for (int e = adjacency.getEdgeStart(u); e < adjacency.getEdgeEnd(u); e++) {
+                    if (u >= numBaseNodes || adjacency.getTarget(e) >= numBaseNodes) {
+                        addedEdges.set(e);
+                    }
+                }
+            }
+            if (!updateAfterRemovals(adjacency.filter(addedEdges, null), Arrays.asList(removedBaseLinks))) {
+                distanceMatrix = null;
+                return false;
+            }
+        }
+
+        // Added nodes one by one
+        for (int i = 0; i < newNodeLinks.length; i++) {
+            if (!shortenPathsThrough(numBaseNodes + i, newNodeLinks[i])) {
+                distanceMatrix = null;
+                return false;
+            }
+        }
+
+        invalidatedShortestPaths = false;
+        return true;
+
+    }
+
+    /**
+     * Copy the distances of a graph of which this graph is an extension (its nodes are the
+     * first nodes of this graph), the remaining nodes being unreachable.
+     *
+     * @param old           Distance matrix of the smaller graph
+     * @param numOldNodes   Number of nodes of the smaller graph
+     *
+     * @return Distance matrix, with room for the distances to grow
+     */
+    private DistanceMatrix padDistances(DistanceMatrix old, int numOldNodes) {
+        int maxDistance = 0;
+        for (int i = 0; i < numOldNodes; i++) {
+            for (int j = i; j < numOldNodes; j++) {
+                int d = old.get(i, j);
+                if (d != INFINITY) {
+                    maxDistance = Math.max(maxDistance, d);
+                }
+            }
+        }
+        DistanceMatrix matrix = DistanceMatrix.create(numNodes, 2 * maxDistance + 2, true, INFINITY);
+        int[] row = new int[numNodes];
+        for (int i = 0; i < numNodes; i++) {
+            Arrays.fill(row, INFINITY);
+            row[i] = 0;
+            if (i < numOldNodes) {
+                for (int j = i; j < numOldNodes; j++) {
+                    row[j] = old.get(i, j);
+                }
+            }
+            matrix.setRow(i, row);
+        }
+        return matrix;
+    }
+
+    /**
+     * Check whether the distance matrix may be updated in place: it exists, is not a read-only
+     * mapping and has not been taken over by an expansion.
+     *
+     * @return True iff it may be updated in place
+     */
+    private boolean isDistanceMatrixUpdatable() {
+        return distanceMatrix != null && !distanceMatrix.isReadOnly() && distanceMatrix != sharedDistanceMatrix;
+    }
+
+    /**
+     * Update the shortest paths from state which a subclass deferred until they are first
+     * needed (e.g. the distances of a base graph), instead of recalculating them.
+     * Does nothing by default.
+     *
+     * @return True iff the shortest paths are valid afterwards
+     */
+    protected boolean updateDeferredShortestPaths() {
+        return false;
+    }
+
     /**
      * Create string representation of the graph.
      *
@@ -395,9 +819,232 @@ public class Graph {
 
     /**
      * Calculate all the shortest paths and store them internally.
-     * Uses the modified Floyd-Warshall algorithm.
+     * As all links count as a single hop (unit-weight), this uses the
+     * parallel breadth-first search engine by default.<br />
+     * <br />
+     * The result is memoized: the shortest paths are only recalculated if the
+     * topology has changed (a link has been added or removed) since the last calculation.
+     * If links have only been removed, only the sources whose shortest paths could have
+     * used one of the removed links are recalculated.<br />
+     * <br />
+     * For graphs larger than the distance matrix threshold (see
+     * {@link #setDistanceMatrixMaxNodes(int) setDistanceMatrixMaxNodes}), only the
+     * landmark distance oracle is prepared instead of the O(n^2) matrix. Structured
+     * topologies with closed-form distances need no preparation at all.
      */
     public void calculateShortestPaths() {
+        if (getAnalyticDistances() != null) {
+            return;
+        }
+        if (numNodes > distanceMatrixMaxNodes) {
+            getDistanceOracle();
+        } else {
+            calculateDistanceMatrix();
+        }
+    }
+
+    /**
+     * Calculate the full distance matrix if it is not valid anymore.
+     */
+    private void calculateDistanceMatrix() {
+        if (invalidatedShortestPaths) {
+            if (getAnalyticDistances() != null) {
+                distanceMatrix = null;
+                shortestPathLenArray = null;
+                removedLinks = null;
+                distanceMatrix = analyticDistances.toDistanceMatrix(numNodes, INFINITY);
+                invalidatedShortestPaths = false;
+                return;
+            }
+            if (updateDeferredShortestPaths()) {
+                return;
+            }
+            if (removedLinks != null && updateShortestPathsAfterRemovals()) {
+                return;
+            }
+            if (distanceCacheDirectory != null) {
+                loadOrCalculateShortestPaths();
+            } else {
+                calculateShortestPaths(ShortestPathAlgorithm.PARALLEL_BFS);
+            }
+        }
+    }
+
+    /**
+     * Update the shortest paths after links have been removed by only recalculating
+     * the affected sources. A source s can only be affected by the removal of link (u, v)
+     * if it lies on one of its shortest path trees, i.e. d(s, v) = d(s, u) + 1 (or vice versa).
+     * Even then, if v still has another neighbor w with d(s, w) = d(s, u), v keeps its
+     * distance and so does every node behind it. The rows of all other sources remain
+     * exactly the same.
+     *
+     * @return True iff successfully updated, false if a full recalculation is required
+     */
+    private boolean updateShortestPathsAfterRemovals() {
+        List<int[]> removed = removedLinks;
+        removedLinks = null;
+
+        // Mapped (or shared) distance matrices cannot be updated
+        if (!isDistanceMatrixUpdatable()) {
+            return false;
+        }
+
+        if (!updateAfterRemovals(getFrozenAdjacency(), removed)) {
+            return false;
+        }
+        shortestPathLenArray = null;
+        invalidatedShortestPaths = false;
+        return true;
+
+    }
+
+    /**
+     * Recalculate the rows of the distance matrix of the sources affected by link removals
+     * (see {@link #updateShortestPathsAfterRemovals() updateShortestPathsAfterRemovals}).
+     *
+     * @param adjacency     Adjacency of the topology after the removals
+     * @param removed       Removed links
+     *
+     * @return True iff successfully updated, false if a full recalculation is required
+     */
+    private boolean updateAfterRemovals(FrozenAdjacency adjacency, List<int[]> removed) {
+
+        // Determine affected sources using the old distances and the new topology
+        int[] affected = new int[numNodes];
+        int numAffected = 0;
+        for (int s = 0; s < numNodes; s++) {
+            for (int[] link : removed) {
+                int du = distanceMatrix.get(s, link[0]);
+                int dv = distanceMatrix.get(s, link[1]);
+                if (Math.abs(du - dv) == 1 && !hasParent(adjacency, s, du < dv ? link[1] : link[0], Math.max(du, dv))) {
+                    affected[numAffected++] = s;
+                    break;
+                }
+            }
+        }
+
+        // Too much damage, a full recalculation is just as fast
+        if (numAffected > INCREMENTAL_MAX_AFFECTED * numNodes) {
+            return false;
+        }
+
+        // Recalculate the affected sources
+        ParallelBfsShortestPaths engine = new ParallelBfsShortestPaths(adjacency.getOffsets(), adjacency.getTargets(), INFINITY);
+        return engine.calculate(distanceMatrix, Arrays.copyOf(affected, numAffected)); // False if distances have grown beyond the storage width
+
+    }
+
+    /**
+     * Check whether the node still has a neighbor one hop closer to the source according to the old distances.
+     *
+     * @param adjacency     Adjacency of the current topology
+     * @param source        Source node index
+     * @param node          Node index
+     * @param distance      Old distance from the source to the node
+     *
+     * @return True iff a neighbor w with d(source, w) = distance - 1 exists
+     */
+    private boolean hasParent(FrozenAdjacency adjacency, int source, int node, int distance) {
+        for (int e = adjacency.getEdgeStart(node); e < adjacency.getEdgeEnd(node); e++) {
+            if (distanceMatrix.get(source, adjacency.getTarget(e)) == distance - 1) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Map the distance matrix of this topology from the distance cache directory if it
+     * has been persisted before, else calculate it and persist it for later runs.
+     */
+    private void loadOrCalculateShortestPaths() {
+        String fingerprint = getFingerprint();
+        File file = new File(distanceCacheDirectory, fingerprint + ".bin");
+
+        // Attempt to map existing
+        try {
+            DistanceMatrix mapped = MappedDistanceMatrix.map(file, fingerprint, numNodes);
+            if (mapped != null) {
+                shortestPathLenArray = null;
+                distanceMatrix = mapped;
+                invalidatedShortestPaths = false;
+                return;
+            }
+        } catch (IOException e) {
+            System.err.println("Graph: loadOrCalculateShortestPaths: unable to map " + file + ": " + e.getMessage());
+        }
+
+        // Calculate and persist
+        calculateShortestPaths(ShortestPathAlgorithm.PARALLEL_BFS);
+        try {
+            MappedDistanceMatrix.write(distanceMatrix, fingerprint, file);
+        } catch (IOException e) {
+            System.err.println("Graph: loadOrCalculateShortestPaths: unable to write " + file + ": " + e.getMessage());
+        }
+
+    }
+
+    /**
+     * Enable persisting of the distance matrix in the given directory. The matrix is stored
+     * in a file named by the topology fingerprint, such that later runs (possibly concurrent
+     * processes) on the same topology map it read-only instead of recalculating it.
+     *
+     * @param directory     Cache directory (created if it does not exist), null to disable
+     */
+    public void setDistanceCacheDirectory(File directory) {
+        if (directory != null && !directory.isDirectory() && !directory.mkdirs()) {
+            throw new RuntimeException("Graph: setDistanceCacheDirectory: unable to create directory " + directory + ".");
+        }
+        this.distanceCacheDirectory = directory;
+    }
+
+    /**
+     * Retrieve the topology fingerprint of the graph.
+     *
+     * @return Hexadecimal topology fingerprint
+     *
+     * @see FrozenAdjacency#getFingerprint()
+     */
+    public String getFingerprint() {
+        return getFrozenAdjacency().getFingerprint();
+    }
+
+    /**
+     * Calculate all the shortest paths and store them internally,
+     * regardless of whether they are still valid.
+     *
+     * @param algorithm     All-pairs shortest path algorithm to use
+     */
+    public void calculateShortestPaths(ShortestPathAlgorithm algorithm) {
+
+        // Release the old matrix before allocating a new one
+        distanceMatrix = null;
+        shortestPathLenArray = null;
+        removedLinks = null;
+
+        // All links are bi-directional, thus the distance matrix is symmetric
+        switch (algorithm) {
+            case FLOYD_WARSHALL:
+                distanceMatrix = calculateShortestPathsFloydWarshall();
+                break;
+            case PARALLEL_BFS:
+                FrozenAdjacency adjacency = getFrozenAdjacency();
+                distanceMatrix = new ParallelBfsShortestPaths(adjacency.getOffsets(), adjacency.getTargets(), INFINITY).calculate(true);
+                break;
+            default:
+                throw new RuntimeException("Graph: calculateShortestPaths: unknown shortest path algorithm " + algorithm + ".");
+        }
+        invalidatedShortestPaths = false;
+
+    }
+
+    /**
+     * Calculate all the shortest paths using the modified Floyd-Warshall algorithm, O(n^3).
+     *
+     * @return Distance matrix
+     */
+    private DistanceMatrix calculateShortestPathsFloydWarshall() {
+        int[][] shortestPathLen = new int[numNodes][numNodes];
 
         // Initial scan to find easy shortest paths
         for (int i = 0; i < numNodes; i++) {
@@ -423,6 +1070,21 @@ public class Graph {
             }
         }
 
+        // Store in the smallest fitting distance matrix
+        int maxDistance = 0;
+        for (int i = 0; i < numNodes; i++) {
+            for (int j = 0; j < numNodes; j++) {
+                if (shortestPathLen[i][j] != INFINITY) {
+                    maxDistance = Math.max(maxDistance, shortestPathLen[i][j]);
+                }
+            }
+        }
+        DistanceMatrix result = DistanceMatrix.create(numNodes, maxDistance, true, INFINITY);
+        for (int i = 0; i < numNodes; i++) {
+            result.setRow(i, shortestPathLen[i]);
+        }
+        return result;
+
     }
 
     /**
@@ -434,16 +1096,125 @@ public class Graph {
         return totalWeight;
     }
 
+    /**
+     * Get the shortest path length between node i and node j.
+     *
+     * The shortest paths are (re)calculated first if the topology has
+     * changed since the last calculation. The {@link #getDistanceOracle() distance oracle}
+     * answering the queries is only looked up once per topology.
+     *
+     * @param i     Source node index
+     * @param j     Target node index
+     *
+     * @return Shortest path length (in hops)
+     */
+    public int getShortestPathLen(int i, int j) {
+        DistanceOracle oracle = shortestPathOracle;
+        if (oracle == null) {
+            oracle = getDistanceOracle();
+            shortestPathOracle = oracle;
+        }
+        return oracle.getDistance(i, j);
+    }
+
+    /**
+     * Get the distance oracle answering the shortest path length queries of this graph.
+     * Up to the distance matrix threshold this is the distance matrix itself, above it a
+     * {@link LandmarkDistanceOracle landmark oracle}, which only stores the distances to
+     * a few landmarks (O(L * n) instead of O(n^2) memory) and searches the remainder.
+     * Structured topologies answer with their closed-form distances regardless of size.<br />
+     * <br />
+     * The oracle is rebuilt if the topology has changed since, thus do not hold on to it
+     * across topology changes.
+     *
+     * @return Distance oracle
+     */
+    public DistanceOracle getDistanceOracle() {
+        if (getAnalyticDistances() != null) {
+            return analyticDistances;
+        }
+        if (numNodes <= distanceMatrixMaxNodes) {
+            return getDistanceMatrix();
+        }
+        FrozenAdjacency adjacency = getFrozenAdjacency();
+        if (distanceOracle == null || oracleAdjacency != adjacency) {
+            distanceOracle = null; // Release the old one first
+            distanceOracle = new LandmarkDistanceOracle(adjacency.getOffsets(), adjacency.getTargets(), DEFAULT_NUM_LANDMARKS, INFINITY);
+            oracleAdjacency = adjacency;
+        }
+        return distanceOracle;
+    }
+
+    /**
+     * Set the largest number of nodes for which the full distance matrix is calculated
+     * to answer {@link #getShortestPathLen(int, int) getShortestPathLen(i, j)}; larger
+     * graphs use the landmark distance oracle. Explicitly requesting the matrix (e.g. by
+     * {@link #getDistanceMatrix() getDistanceMatrix()}) always calculates it.
+     *
+     * @param maxNodes  Maximum number of nodes (default 20000)
+     */
+    public void setDistanceMatrixMaxNodes(int maxNodes) {
+        this.distanceMatrixMaxNodes = maxNodes;
+        this.shortestPathOracle = null;
+    }
+
+    /**
+     * Set the closed-form distances of the topology, which replace the all-pairs shortest
+     * path search. Structured topologies call this once their links are complete; the
+     * distances are only used as long as the topology is not changed afterwards
+     * (e.g. by failing links).
+     *
+     * @param oracle    Analytic distance oracle
+     */
+    protected void setAnalyticDistances(AnalyticDistanceOracle oracle) {
+        this.analyticDistances = oracle;
+        this.analyticAdjacency = freeze();
+        this.invalidatedShortestPaths = true;
+        this.shortestPathOracle = null;
+    }
+
+    /**
+     * Get the closed-form distances of the topology, if they still hold.
+     *
+     * @return Analytic distance oracle, null if none or if the topology has changed since
+     */
+    public AnalyticDistanceOracle getAnalyticDistances() {
+        if (analyticDistances != null && analyticAdjacency != getFrozenAdjacency()) {
+            analyticDistances = null;
+            analyticAdjacency = null;
+        }
+        return analyticDistances;
+    }
+
+    /**
+     * Get the (compactly stored) shortest path length matrix.
+     *
+     * The shortest paths are (re)calculated first if the topology has
+     * changed since the last calculation. On recalculation a new matrix
+     * is created, thus do not hold on to it across topology changes.
+     *
+     * @return Distance matrix
+     */
+    public DistanceMatrix getDistanceMatrix() {
+        calculateDistanceMatrix();
+        return distanceMatrix;
+    }
+
     /**
      * Get the shortest path length array.
      *
-     * Be sure to call {@link #calculateShortestPaths() calculateShortestPaths()}
-     * before so that it is not just an array of zeros.
+     * This materializes the full n x n int matrix (and keeps it until the next
+     * recalculation), which defeats the compact storage: prefer
+     * {@link #getShortestPathLen(int, int) getShortestPathLen(i, j)}.
      *
      * @return Shortest path length array
      */
     public int[][] getShortestPathLen() {
-        return shortestPathLen;
+        calculateDistanceMatrix();
+        if (shortestPathLenArray == null) {
+            shortestPathLenArray = distanceMatrix.toArray();
+        }
+        return shortestPathLenArray;
     }
 
     /**
@@ -458,6 +1229,114 @@ public class Graph {
         return adjacencyList;
     }
 
+    /**
+     * Freeze the current topology into a compressed sparse row snapshot.
+     * This is meant to be called once generation of the graph is finished.<br />
+     * <br />
+     * The snapshot stays valid until the topology is changed again (e.g. by failing links),
+     * after which the next call to {@link #getFrozenAdjacency() getFrozenAdjacency()} builds a new one.
+     *
+     * @return Frozen adjacency snapshot
+     */
+    public FrozenAdjacency freeze() {
+        if (frozenAdjacency == null) {
+            frozenAdjacency = FrozenAdjacency.fromAdjacencyList(adjacencyList);
+        }
+        return frozenAdjacency;
+    }
+
+    /**
+     * Drop the frozen adjacency snapshot after a topology change, together with the
+     * distance oracle looked up for it.
+     */
+    private void dropFrozenAdjacency() {
+        frozenAdjacency = null;
+        shortestPathOracle = null;
+    }
+
+    /**
+     * Get the read-only compressed sparse row view of the adjacency list.
+     * If the graph is not frozen (anymore), it is frozen first.
+     *
+     * @return Frozen adjacency snapshot
+     */
+    public FrozenAdjacency getFrozenAdjacency() {
+        return freeze();
+    }
+
+    /**
+     * Create a copy of the graph with its nodes renumbered: new node u is original
+     * node newToOld[u], with the same weight and its links in the same order.
+     * As servers are numbered in node order, their identifiers change along.
+     *
+     * @param newToOld  Permutation of the node indices (new index to original index)
+     *
+     * @return Relabeled graph
+     */
+    public Graph relabel(int[] newToOld) {
+
+        // Inverse permutation
+        if (newToOld.length != numNodes) {
+            throw new RuntimeException("Graph: relabel: permutation is of length " + newToOld.length + " instead of " + numNodes + ".");
+        }
+        int[] oldToNew = new int[numNodes];
+        Arrays.fill(oldToNew, -1);
+        for (int u = 0; u < numNodes; u++) {
+            if (oldToNew[newToOld[u]] != -1) {
+                throw new RuntimeException("Graph: relabel: node " + newToOld[u] + " occurs twice in the permutation.");
+            }
+            oldToNew[newToOld[u]] = u;
+        }
+
+        // Weights and links
+        Graph result = new Graph(name, numNodes, 0);
+        for (int u = 0; u < numNodes; u++) {
+            result.setNodeWeight(u, nodeWeight[newToOld[u]]);
+            for (Link link : adjacencyList[newToOld[u]]) {
+                result.adjacencyList[u].add(new Link(oldToNew[link.getLinkTo()], link.getLinkCapacity()));
+            }
+        }
+        result.distanceCacheDirectory = distanceCacheDirectory;
+        result.distanceMatrixMaxNodes = distanceMatrixMaxNodes;
+        return result;
+
+    }
+
+    /**
+     * Create a plain graph from compressed sparse row arrays, e.g. as stored in a
+     * {@link TopologySnapshot topology snapshot}. The links of each node are added
+     * in edge index order, thus freezing the result yields the same arrays.
+     *
+     * @param name          Name
+     * @param offsets       Node u has edges [offsets[u], offsets[u + 1])
+     * @param targets       Target node of each edge
+     * @param capacities    Capacity of each edge
+     * @param weights       Weight (amount of servers) of each node
+     *
+     * @return Graph
+     */
+    static Graph fromCompressed(String name, int[] offsets, int[] targets, int[] capacities, int[] weights) {
+        int n = offsets.length - 1;
+        Graph result = new Graph(name, n, 0);
+        for (int u = 0; u < n; u++) {
+            result.setNodeWeight(u, weights[u]);
+            result.adjacencyList[u].ensureCapacity(offsets[u + 1] - offsets[u]);
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                result.adjacencyList[u].add(new Link(targets[e], capacities[e]));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get the name of the graph.
+     *
+     * @return Name
+     */
+    public String getName() {
+        return name;
+    }
+
     /**
      * Get all the node weight of node i.
      *
@@ -483,46 +1362,178 @@ public class Graph {
 
     /**
      * Fail a percentage of all links in the graph.
-     * This function assumes it is a bi-directional graph.
+     * This function assumes it is a bi-directional graph.<br />
+     * <br />
+     * A failed link is removed completely both ways, regardless of its capacity.
+     * The links to fail are drawn uniformly at random in a single pass.
      *
      * @param percentage    Percentage of how many to fail
      */
     public void failLinks(double percentage) {
+        checkFailPercentage("failLinks", percentage);
+
+        // Draw the links to fail among all bi-directional links
+        FrozenAdjacency adjacency = getFrozenAdjacency();
+        int[] links = getBidirLinkEdges(adjacency);
+        int numFail = (int) Math.round(percentage * links.length);
+        partialShuffle(links, links.length, numFail);
+
+        // Remove them all at once
+        boolean[] failed = new boolean[adjacency.getNumEdges()];
+        for (int i = 0; i < numFail; i++) {
+            failed[links[i]] = true;
+            failed[adjacency.getReverseEdge(links[i])] = true;
+        }
+        removeEdges(adjacency, failed);
 
-        if (percentage < 0.0 || percentage > 1.0) {
-            throw new RuntimeException("Graph: failLinks: fail percentage must be between 0.0 and 1.0 (given: " + percentage + ")");
+    }
+
+    /**
+     * Fail a percentage of all nodes in the graph.
+     * A failed node loses all its links and its servers (its weight becomes zero).
+     *
+     * @param percentage    Percentage of how many nodes to fail
+     */
+    public void failNodes(double percentage) {
+        checkFailPercentage("failNodes", percentage);
+
+        // Draw the nodes to fail
+        int[] nodes = new int[numNodes];
+        for (int i = 0; i < numNodes; i++) {
+            nodes[i] = i;
         }
+        int numFail = (int) Math.round(percentage * numNodes);
+        partialShuffle(nodes, numNodes, numFail);
+
+        // Fail all links adjacent to the failed nodes
+        FrozenAdjacency adjacency = getFrozenAdjacency();
+        boolean[] failed = new boolean[adjacency.getNumEdges()];
+        for (int i = 0; i < numFail; i++) {
+            int u = nodes[i];
+            for (int e = adjacency.getEdgeStart(u); e < adjacency.getEdgeEnd(u); e++) {
+                failed[e] = true;
+                failed[adjacency.getReverseEdge(e)] = true;
+            }
+            setNodeWeight(u, 0);
+        }
+        removeEdges(adjacency, failed);
 
-        // First find the total number of bi-directional edges
-        int totalBidirEdges = getNumberBidirEdges();
-        int totalEdges = totalBidirEdges * 2;
+    }
 
-        // Fail links one-by-one
-        int numFail = (int) Math.round(percentage * totalBidirEdges);
+    /**
+     * Fail links in a correlated fashion: a percentage of the switches is affected, and
+     * of each affected switch a percentage of its links fails (e.g. a line card failure).
+     *
+     * @param switchPercentage  Percentage of switches affected
+     * @param linkPercentage    Percentage of the links of each affected switch which fail
+     */
+    public void failSwitchLinks(double switchPercentage, double linkPercentage) {
+        checkFailPercentage("failSwitchLinks", switchPercentage);
+        checkFailPercentage("failSwitchLinks", linkPercentage);
 
-        int failedUntilNow = 0;
-        while (failedUntilNow < numFail) {
+        // Draw the affected switches
+        int[] nodes = new int[numNodes];
+        for (int i = 0; i < numNodes; i++) {
+            nodes[i] = i;
+        }
+        int numAffected = (int) Math.round(switchPercentage * numNodes);
+        partialShuffle(nodes, numNodes, numAffected);
+
+        // Draw the failed links of each affected switch
+        FrozenAdjacency adjacency = getFrozenAdjacency();
+        boolean[] failed = new boolean[adjacency.getNumEdges()];
+        int[] edges = new int[numNodes];
+        for (int i = 0; i < numAffected; i++) {
+            int u = nodes[i];
+            int degree = adjacency.getDegree(u);
+            for (int j = 0; j < degree; j++) {
+                edges[j] = adjacency.getEdgeStart(u) + j;
+            }
+            int numFail = (int) Math.round(linkPercentage * degree);
+            partialShuffle(edges, degree, numFail);
+            for (int j = 0; j < numFail; j++) {
+                failed[edges[j]] = true;
+                failed[adjacency.getReverseEdge(edges[j])] = true;
+            }
+        }
+        removeEdges(adjacency, failed);
 
-            // Determine index to fail
-            int linkToFail = rand.nextInt(totalEdges);
+    }
 
-            // Find and remove link both ways
-            int c = 0;
-            for (int i = 0; i < numNodes; i++) {
-                for (int j = 0; j < adjacencyList[i].size(); j++) {
-                    if (c == linkToFail) {
-                        removeBidirNeighbor(i, adjacencyList[i].get(j).getLinkTo());
-                    }
-                    c++;
+    /**
+     * Check that a fail percentage is valid.
+     *
+     * @param method        Name of the calling method (for the error message)
+     * @param percentage    Fail percentage
+     */
+    private static void checkFailPercentage(String method, double percentage) {
+        if (percentage < 0.0 || percentage > 1.0) {
+            throw new RuntimeException("Graph: " + method + ": fail percentage must be between 0.0 and 1.0 (given: " + percentage + ")");
+        }
+    }
+
+    /**
+     * Retrieve for every bi-directional link the edge index of its (u, v) direction with u &lt; v.
+     *
+     * @param adjacency     Frozen adjacency
+     *
+     * @return Edge indices
+     */
+    private int[] getBidirLinkEdges(FrozenAdjacency adjacency) {
+        int[] links = new int[adjacency.getNumEdges() / 2];
+        int c = 0;
+        for (int u = 0; u < numNodes; u++) {
+            for (int e = adjacency.getEdgeStart(u); e < adjacency.getEdgeEnd(u); e++) {
+                if (u < adjacency.getTarget(e)) {
+                    links[c++] = e;
                 }
             }
+        }
+        return links;
+    }
 
-            // Update statistics
-            failedUntilNow++;
-            totalEdges -= 2;
-
+    /**
+     * Partial Fisher-Yates shuffle: afterwards the first k items are a uniformly
+     * random selection (in random order) of the first n items.
+     *
+     * @param items     Items
+     * @param n         Number of items to select from
+     * @param k         Number of items to select
+     */
+    private void partialShuffle(int[] items, int n, int k) {
+        for (int i = 0; i < k; i++) {
+            int j = i + rand.nextInt(n - i);
+            int tmp = items[i];
+            items[i] = items[j];
+            items[j] = tmp;
         }
+    }
+
+    /**
+     * Remove all marked edges in a single pass over the adjacency list.
+     *
+     * @param adjacency     Frozen adjacency the edge indices belong to
+     * @param failed        Per edge index whether it has to be removed
+     */
+    private void removeEdges(FrozenAdjacency adjacency, boolean[] failed) {
+        boolean anyRemoved = false;
+        for (int u = 0; u < numNodes; u++) {
+
+            // Backwards, such that the indices of the edges still to visit do not shift
+            for (int e = adjacency.getEdgeEnd(u) - 1; e >= adjacency.getEdgeStart(u); e--) {
+                if (failed[e]) {
+                    adjacencyList[u].remove(e - adjacency.getEdgeStart(u));
+                    if (u < adjacency.getTarget(e)) {
+                        registerRemovedLink(u, adjacency.getTarget(e));
+                    }
+                    anyRemoved = true;
+                }
+            }
 
+        }
+        if (anyRemoved) {
+            dropFrozenAdjacency();
+        }
     }
 
 }
@@ -0,0 +1,107 @@
+/* *******************************************************
+ * Released under the MIT License (MIT) --- see LICENSE
+ * Copyright (c) 2014 Ankit Singla, Sangeetha Abdu Jyothi,
+ * Chi-Yao Hong, Lucian Popa, P. Brighten Godfrey,
+ * Alexandra Kolla, Simon Kassing
+ * ******************************************************** */
+
+package ch.ethz.topobench.graph;
+
+import java.util.List;
+
+/**
+ * Read-only view of a bi-directional graph: its topology, distances and servers.
+ * It is implemented by {@link Graph} itself, and by overlays such as {@link FailureScenario}
+ * which present a modified version of a graph without copying it.
+ */
+public interface GraphView {
+
+    /**
+     * Retrieve total number of nodes in the graph.
+     *
+     * @return Total number of nodes
+     */
+    int getNumNodes();
+
+    /**
+     * Get the read-only compressed sparse row view of the adjacency.
+     *
+     * @return Frozen adjacency snapshot
+     */
+    FrozenAdjacency getFrozenAdjacency();
+
+    /**
+     * Calculate all the shortest paths if they are not yet valid.
+     */
+    void calculateShortestPaths();
+
+    /**
+     * Get the shortest path length between node i and node j.
+     *
+     * @param i     Source node index
+     * @param j     Target node index
+     *
+     * @return Shortest path length (in hops)
+     */
+    int getShortestPathLen(int i, int j);
+
+    /**
+     * Get the node weight (number of servers) of node i.
+     *
+     * @param i     Node index
+     *
+     * @return Node weight
+     */
+    int getNodeWeight(int i);
+
+    /**
+     * Get the total weight (amount of servers/hosts) in the graph.
+     *
+     * @return Total weight
+     */
+    int getTotalWeight();
+
+    /**
+     * Retrieve a list of all the node identifiers whose node has one or more servers.
+     *
+     * @return List of node identifiers
+     */
+    List<Integer> getNodesWithWeight();
+
+    /**
+     * Retrieve all the node identifiers whose node has one or more servers, in ascending order.
+     * Do *not* edit the array.
+     *
+     * @return Array of node identifiers
+     */
+    int[] getNodesWithWeightArray();
+
+    /**
+     * Find the switch that belongs to a certain server.
+     *
+     * @param serverIndex   Server index
+     *
+     * @return Switch (node) index
+     */
+    int svrToSwitch(int serverIndex);
+
+    /**
+     * Find the list of server ids attached to the switch (node).
+     *
+     * @param nodeIndex     Node index
+     *
+     * @return List of server ids
+     */
+    List<Integer> switchToSvrs(int nodeIndex);
+
+    /**
+     * Find the first server id attached to the switch (node), its servers are
+     * the {@link #getNodeWeight(int) node weight} consecutive ids from it.
+     *
+     * @param nodeIndex     Node index
+     *
+     * @return First server id
+     */
+    int switchToFirstSvr(int nodeIndex);
+
+}
@@ -0,0 +1,300 @@
+/* *******************************************************
+ * Released under the MIT License (MIT) --- see LICENSE
+ * Copyright (c) 2014 Ankit Singla, Sangeetha Abdu Jyothi,
+ * Chi-Yao Hong, Lucian Popa, P. Brighten Godfrey,
+ * Alexandra Kolla, Simon Kassing
+ * ******************************************************** */
+
+package ch.ethz.topobench.graph;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Permutation of the node indices of a graph, to improve locality.<br />
+ * <br />
+ * Generators number their nodes in an order which is convenient to construct them, such that
+ * neighbors are often far apart in index. Renumbering in breadth-first or reverse Cuthill-McKee
+ * order places neighbors close together, which reduces the bandwidth of the adjacency matrix: the
+ * rows touched by a shortest path search or path evaluator lie closer in memory, and the emitted
+ * linear program has a less scattered constraint matrix.<br />
+ * <br />
+ * Both the mapping and its inverse are kept, such that results can be reported in original node
+ * and server identifiers.
+ */
+public class NodeRelabeling {
+
+    public enum Type {
+        BFS,
+        RCM
+    }
+
+    private final int[] newToOld;           // Original node index of each new node index
+    private final int[] oldToNew;           // New node index of each original node index
+    private final int[] newToOldServer;     // Original server index of each new server index
+    private final int[] oldToNewServer;     // New server index of each original server index
+
+    /**
+     * Constructor.
+     *
+     * @param original  Original graph
+     * @param newToOld  Permutation (new index to original index)
+     */
+    private NodeRelabeling(Graph original, int[] newToOld) {
+        int n = newToOld.length;
+        this.newToOld = newToOld;
+        this.oldToNew = new int[n];
+        for (int u = 0; u < n; u++) {
+            oldToNew[newToOld[u]] = u;
+        }
+
+        // Servers are numbered in node order, thus they move along with their node
+        int totalWeight = original.getTotalWeight();
+        this.newToOldServer = new int[totalWeight];
+        this.oldToNewServer = new int[totalWeight];
+        int s = 0;
+        for (int u = 0; u < n; u++) {
+            int first = original.switchToFirstSvr(newToOld[u]);
+            for (int z = 0; z < original.getNodeWeight(newToOld[u]); z++) {
+                newToOldServer[s] = first + z;
+                oldToNewServer[first + z] = s;
+                s++;
+            }
+        }
+
+    }
+
+    /**
+     * Determine the relabeling of the given type for a graph.
+     *
+     * @param type      Relabeling type
+     * @param graph     Original graph
+     *
+     * @return Node relabeling
+     */
+    public static NodeRelabeling create(Type type, Graph graph) {
+        switch (type) {
+            case BFS:
+                return new NodeRelabeling(graph, breadthFirstOrder(graph.getFrozenAdjacency(), false));
+            case RCM:
+                int[] order = breadthFirstOrder(graph.getFrozenAdjacency(), true);
+                for (int i = 0, j = order.length - 1; i < j; i++, j--) {
+                    int tmp = order[i];
+                    order[i] = order[j];
+                    order[j] = tmp;
+                }
+                return new NodeRelabeling(graph, order);
+            default:
+                throw new RuntimeException("NodeRelabeling: create: unknown relabeling type " + type + ".");
+        }
+    }
+
+    /**
+     * Retrieve the relabeling type belonging to the string.
+     *
+     * @param type  Type string (e.g. "RCM")
+     *
+     * @return Relabeling type, null if not found
+     */
+    public static Type getType(String type) {
+        for (Type t : Type.values()) {
+            if (t.name().equalsIgnoreCase(type)) {
+                return t;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Order the nodes by a breadth-first traversal of each connected component in turn.
+     * If Cuthill-McKee, each component is started from a node of minimum degree and
+     * the neighbors of a node are visited in order of increasing degree; otherwise it
+     * starts at the lowest node index and visits neighbors in adjacency order.
+     *
+     * @param adjacency     Frozen adjacency
+     * @param cuthillMcKee  True iff Cuthill-McKee order
+     *
+     * @return Node order (new index to original index)
+     */
+    private static int[] breadthFirstOrder(FrozenAdjacency adjacency, boolean cuthillMcKee) {
+        int n = adjacency.getNumNodes();
+
+        // Candidate starting nodes
+        Integer[] starts = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            starts[i] = i;
+        }
+        if (cuthillMcKee) {
+            Arrays.sort(starts, (a, b) -> adjacency.getDegree(a) != adjacency.getDegree(b) ? adjacency.getDegree(a) - adjacency.getDegree(b) : a - b);
+        }
+
+        // Traverse every component
+        int[] order = new int[n];
+        boolean[] visited = new boolean[n];
+        long[] keys = new long[n];
+        int head = 0;
+        int tail = 0;
+        for (int start : starts) {
+            if (visited[start]) {
+                continue;
+            }
+            visited[start] = true;
+            order[tail++] = start;
+            while (head < tail) {
+                int u = order[head++];
+
+                // Unvisited neighbors, if Cuthill-McKee sorted on (degree, index)
+                int c = 0;
+                for (int e = adjacency.getEdgeStart(u); e < adjacency.getEdgeEnd(u); e++) {
+                    int v = adjacency.getTarget(e);
+                    if (!visited[v]) {
+                        visited[v] = true;
+                        keys[c++] = cuthillMcKee ? ((long) adjacency.getDegree(v) << 32) | v : v;
+                    }
+                }
+                if (cuthillMcKee) {
+                    Arrays.sort(keys, 0, c);
+                }
+                for (int i = 0; i < c; i++) {
+                    order[tail++] = (int) keys[i];
+                }
+
+            }
+        }
+
+        return order;
+    }
+
+    /**
+     * Create the relabeled copy of the (original) graph.
+     *
+     * @param original  Original graph
+     *
+     * @return Relabeled graph
+     */
+    public Graph apply(Graph original) {
+        return original.relabel(newToOld);
+    }
+
+    /**
+     * Get the original node index of a relabeled node.
+     *
+     * @param node  Relabeled node index
+     *
+     * @return Original node index
+     */
+    public int toOriginalNode(int node) {
+        return newToOld[node];
+    }
+
+    /**
+     * Get the relabeled node index of an original node.
+     *
+     * @param node  Original node index
+     *
+     * @return Relabeled node index
+     */
+    public int toRelabeledNode(int node) {
+        return oldToNew[node];
+    }
+
+    /**
+     * Get the original server index of a relabeled server.
+     *
+     * @param server    Relabeled server index
+     *
+     * @return Original server index
+     */
+    public int toOriginalServer(int server) {
+        return newToOldServer[server];
+    }
+
+    /**
+     * Get the relabeled server index of an original server.
+     *
+     * @param server    Original server index
+     *
+     * @return Relabeled server index
+     */
+    public int toRelabeledServer(int server) {
+        return oldToNewServer[server];
+    }
+
+    /**
+     * Write the original node index of each relabeled node, one per line.
+     *
+     * @param fileName  File destination
+     */
+    public void print(String fileName) {
+
+        try {
+
+            // Open output stream
+            FileWriter fileStream = new FileWriter(fileName);
+            BufferedWriter out = new BufferedWriter(fileStream);
+
+            for (int original : newToOld) {
+                out.write(original + "\n");
+            }
+
+            // Close output stream
+            out.close();
+
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+
+    }
+
+    /**
+     * Read the original node index of each relabeled node as written by {@link #print(String) print}.
+     *
+     * @param fileName  File name
+     *
+     * @return Original node index of each relabeled node, null if the file does not exist (thus no relabeling)
+     */
+    public static int[] readOriginalNodes(String fileName) {
+
+        if (!new File(fileName).exists()) {
+            return null;
+        }
+
+        try (BufferedReader br = new BufferedReader(new FileReader(fileName))) {
+            List<Integer> originals = new ArrayList<>();
+            String strLine;
+            while ((strLine = br.readLine()) != null) {
+                if (!strLine.trim().isEmpty()) {
+                    originals.add(Integer.parseInt(strLine.trim()));
+                }
+            }
+            int[] result = new int[originals.size()];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = originals.get(i);
+            }
+            return result;
+        } catch (IOException e) {
+            throw new RuntimeException("NodeRelabeling: readOriginalNodes: unable to read " + fileName + ": " + e.getMessage());
+        }
+
+    }
+
+    /**
+     * Look up the original node index in the result of {@link #readOriginalNodes(String) readOriginalNodes}.
+     *
+     * @param originalNodes     Original node index of each relabeled node (null if no relabeling)
+     * @param node              Relabeled node index
+     *
+     * @return Original node index
+     */
+    public static int lookupOriginalNode(int[] originalNodes, int node) {
+        return originalNodes == null ? node : originalNodes[node];
+    }
+
+}
@@ -0,0 +1,270 @@
+/* *******************************************************
+ * Released under the MIT License (MIT) --- see LICENSE
+ * Copyright (c) 2014 Ankit Singla, Sangeetha Abdu Jyothi,
+ * Chi-Yao Hong, Lucian Popa, P. Brighten Godfrey,
+ * Alexandra Kolla, Simon Kassing
+ * ******************************************************** */
+
+package ch.ethz.topobench.graph;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Random;
+
+/**
+ * Compact binary snapshot of a generated topology, stored under a key which identifies
+ * how it was generated (e.g. graph type, parameters and random seed).<br />
+ * <br />
+ * Besides the compressed sparse row arrays and node weights, the state of the random number
+ * generator after generation is stored: generation consumes randomness, thus continuing
+ * with the stored state makes a run using the snapshot identical to one which generated
+ * the topology itself.<br />
+ * <br />
+ * File layout (big-endian): magic, version, key length and key characters, name length and
+ * name (UTF-8), number of nodes, number of directed edges, offsets, targets, capacities,
+ * node weights, serialized random number generator length and bytes.
+ */
+public final class TopologySnapshot {
+
+    private static final int MAGIC = 0x54425453;     // "TBTS"
+    private static final int VERSION = 1;
+
+    private final String name;
+    private final int[] offsets;
+    private final int[] targets;
+    private final int[] capacities;
+    private final int[] weights;
+    private final Random random;
+
+    private TopologySnapshot(String name, int[] offsets, int[] targets, int[] capacities, int[] weights, Random random) {
+        this.name = name;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.capacities = capacities;
+        this.weights = weights;
+        this.random = random;
+    }
+
+    /**
+     * Write the snapshot of a graph to a file. The file is first written under a temporary
+     * name and then moved into place, thus concurrent writers and readers never see
+     * a partially written file.
+     *
+     * @param graph     Graph
+     * @param random    Random number generator in its state after generating the graph
+     * @param key       Key identifying how the graph was generated
+     * @param file      Destination file
+     *
+     * @throws IOException  If the file cannot be written
+     */
+    public static void write(Graph graph, Random random, String key, File file) throws IOException {
+
+        FrozenAdjacency adjacency = graph.getFrozenAdjacency();
+        int n = adjacency.getNumNodes();
+        byte[] name = graph.getName().getBytes(StandardCharsets.UTF_8);
+
+        // Serialized random number generator
+        ByteArrayOutputStream randomBytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream objectOut = new ObjectOutputStream(randomBytes)) {
+            objectOut.writeObject(random);
+        }
+
+        File temp = File.createTempFile(file.getName(), ".tmp", file.getAbsoluteFile().getParentFile());
+        try {
+
+            // Header
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp), 1 << 16));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(key.length());
+            out.writeBytes(key);
+            out.writeInt(name.length);
+            out.write(name);
+            out.writeInt(n);
+            out.writeInt(adjacency.getNumEdges());
+
+            // Topology
+            for (int offset : adjacency.getOffsets()) {
+                out.writeInt(offset);
+            }
+            for (int target : adjacency.getTargets()) {
+                out.writeInt(target);
+            }
+            for (int capacity : adjacency.getCapacities()) {
+                out.writeInt(capacity);
+            }
+            for (int i = 0; i < n; i++) {
+                out.writeInt(graph.getNodeWeight(i));
+            }
+
+            // Random number generator
+            out.writeInt(randomBytes.size());
+            randomBytes.writeTo(out);
+            out.close();
+
+            // Move into place
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        } finally {
+            Files.deleteIfExists(temp.toPath());
+        }
+
+    }
+
+    /**
+     * Read a snapshot by mapping its file read-only.
+     *
+     * @param file  Snapshot file
+     * @param key   Expected key
+     *
+     * @return Snapshot, null if the file does not exist or does not match
+     *
+     * @throws IOException  If the file cannot be read
+     */
+    public static TopologySnapshot read(File file, String key) throws IOException {
+
+        if (!file.exists()) {
+            return null;
+        }
+
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            ByteBuffer buffer = raf.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, raf.length());
+
+            // Header
+            if (buffer.remaining() < 12 || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                return null;
+            }
+            String storedKey = readString(buffer, StandardCharsets.US_ASCII);
+            if (storedKey == null || !storedKey.equals(key)) {
+                return null;
+            }
+            String name = readString(buffer, StandardCharsets.UTF_8);
+            if (name == null || buffer.remaining() < 8) {
+                return null;
+            }
+            int n = buffer.getInt();
+            int m = buffer.getInt();
+
+            // Check that the file is complete
+            if (n < 0 || m < 0 || buffer.remaining() < 4L * (n + 1 + m + m + n) + 4) {
+                return null;
+            }
+
+            // Topology
+            int[] offsets = readInts(buffer, n + 1);
+            int[] targets = readInts(buffer, m);
+            int[] capacities = readInts(buffer, m);
+            int[] weights = readInts(buffer, n);
+
+            // Random number generator
+            int randomLength = buffer.getInt();
+            if (randomLength < 0 || buffer.remaining() != randomLength) {
+                return null;
+            }
+            byte[] randomBytes = new byte[randomLength];
+            buffer.get(randomBytes);
+            Random random;
+            try (ObjectInputStream objectIn = new RandomInputStream(new ByteArrayInputStream(randomBytes))) {
+                random = (Random) objectIn.readObject();
+            } catch (ClassNotFoundException e) {
+                return null;
+            }
+
+            return new TopologySnapshot(name, offsets, targets, capacities, weights, random);
+
+        }
+
+    }
+
+    /**
+     * Read a length-prefixed string.
+     *
+     * @param buffer    Buffer positioned at the length
+     * @param charset   Character set
+     *
+     * @return String, null if the buffer is too short
+     */
+    private static String readString(ByteBuffer buffer, Charset charset) {
+        if (buffer.remaining() < 4) {
+            return null;
+        }
+        int length = buffer.getInt();
+        if (length < 0 || buffer.remaining() < length) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, charset);
+    }
+
+    /**
+     * Read an integer array in bulk.
+     *
+     * @param buffer    Buffer positioned at the first integer
+     * @param length    Number of integers
+     *
+     * @return Integer array
+     */
+    private static int[] readInts(ByteBuffer buffer, int length) {
+        int[] result = new int[length];
+        buffer.asIntBuffer().get(result);
+        buffer.position(buffer.position() + 4 * length);
+        return result;
+    }
+
+    /**
+     * Object input stream which only deserializes a random number generator,
+     * such that a foreign file in the cache directory cannot instantiate other classes.
+     */
+    private static class RandomInputStream extends ObjectInputStream {
+
+        RandomInputStream(InputStream in) throws IOException {
+            super(in);
+        }
+
+        @Override
+        protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+            if (!desc.getName().equals(Random.class.getName())) {
+                throw new ClassNotFoundException("TopologySnapshot: unexpected class " + desc.getName() + " in snapshot.");
+            }
+            return super.resolveClass(desc);
+        }
+
+    }
+
+    /**
+     * Create the graph of the snapshot. Graphs take the global random number generator
+     * on construction, thus restore it from {@link #getRandom() getRandom()} first.
+     *
+     * @return Graph
+     */
+    public Graph createGraph() {
+        return Graph.fromCompressed(name, offsets, targets, capacities, weights);
+    }
+
+    /**
+     * Get the random number generator in its state after the graph was generated.
+     *
+     * @return Random number generator
+     */
+    public Random getRandom() {
+        return random;
+    }
+
+}
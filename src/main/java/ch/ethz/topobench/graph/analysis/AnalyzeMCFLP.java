@@ -8,6 +8,7 @@
 package ch.ethz.topobench.graph.analysis;
 
 import ch.ethz.topobench.AnalyzeSolution;
+import ch.ethz.topobench.graph.NodeRelabeling;
 
 import java.io.*;
 import java.util.*;
@@ -216,6 +217,9 @@ public class AnalyzeMCFLP {
             // Storage
             List<Tuple> tuples = new ArrayList<>();
 
+            // Node identifiers are reported in the original numbering if the graph was relabeled
+            int[] originalNodes = NodeRelabeling.readOriginalNodes("temp/node_relabeling.txt");
+
             // Open input stream
             FileInputStream fileStream = new FileInputStream("temp/vector.sol");
             BufferedReader br = new BufferedReader(new InputStreamReader(fileStream));
@@ -232,7 +236,12 @@ public class AnalyzeMCFLP {
 
                 // Split up sentence
                 String[] match = strLine.split(" ");
-                tuples.add(new Tuple(Integer.parseInt(match[0]), Integer.parseInt(match[1]), Integer.parseInt(match[2]), Double.parseDouble(match[3])));
+                tuples.add(new Tuple(
+                        Integer.parseInt(match[0]),
+                        NodeRelabeling.lookupOriginalNode(originalNodes, Integer.parseInt(match[1])),
+                        NodeRelabeling.lookupOriginalNode(originalNodes, Integer.parseInt(match[2])),
+                        Double.parseDouble(match[3])
+                ));
 
             }
 
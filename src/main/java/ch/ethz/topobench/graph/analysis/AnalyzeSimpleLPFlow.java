@@ -8,9 +8,12 @@
 package ch.ethz.topobench.graph.analysis;
 
 import ch.ethz.topobench.AnalyzeSolution;
+import ch.ethz.topobench.graph.NodeRelabeling;
 
 import java.io.*;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 
 public class AnalyzeSimpleLPFlow {
@@ -158,6 +161,9 @@ public class AnalyzeSimpleLPFlow {
             // Storage
             List<Tuple> tuples = new ArrayList<>();
 
+            // Node identifiers are reported in the original numbering if the graph was relabeled
+            int[] originalNodes = NodeRelabeling.readOriginalNodes("temp/node_relabeling.txt");
+
             // Open input stream
             FileInputStream fileStream = new FileInputStream("temp/vector.sol");
             BufferedReader br = new BufferedReader(new InputStreamReader(fileStream));
@@ -174,13 +180,30 @@ public class AnalyzeSimpleLPFlow {
 
                 // Split up sentences
                 String[] match = strLine.split(" ");
-                tuples.add(new Tuple(Integer.parseInt(match[0]), Integer.parseInt(match[1]), Double.parseDouble(match[2])));
+                tuples.add(new Tuple(
+                        NodeRelabeling.lookupOriginalNode(originalNodes, Integer.parseInt(match[0])),
+                        NodeRelabeling.lookupOriginalNode(originalNodes, Integer.parseInt(match[1])),
+                        Double.parseDouble(match[2])
+                ));
 
             }
 
             // Close input stream
             br.close();
 
+            // Restore the order of the original node identifiers
+            if (originalNodes != null) {
+                Collections.sort(tuples, new Comparator<Tuple>() {
+                    public int compare(Tuple o1, Tuple o2) {
+                        int dI = o1.i - o2.i;
+                        if (dI == 0) {
+                            return o1.j - o2.j;
+                        }
+                        return dI;
+                    }
+                });
+            }
+
             return tuples;
 
         } catch (Exception e) {
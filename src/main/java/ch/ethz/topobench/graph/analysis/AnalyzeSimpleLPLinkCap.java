@@ -8,9 +8,12 @@
 package ch.ethz.topobench.graph.analysis;
 
 import ch.ethz.topobench.AnalyzeSolution;
+import ch.ethz.topobench.graph.NodeRelabeling;
 
 import java.io.*;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 
 public class AnalyzeSimpleLPLinkCap {
@@ -124,6 +127,9 @@ public class AnalyzeSimpleLPLinkCap {
             // Storage
             List<Tuple> tuples = new ArrayList<>();
 
+            // Node identifiers are reported in the original numbering if the graph was relabeled
+            int[] originalNodes = NodeRelabeling.readOriginalNodes("temp/node_relabeling.txt");
+
             // Open input stream
             FileInputStream fileStream = new FileInputStream("temp/vector.sol");
             BufferedReader br = new BufferedReader(new InputStreamReader(fileStream));
@@ -141,9 +147,9 @@ public class AnalyzeSimpleLPLinkCap {
                 // Split up sentences
                 String[] match = strLine.split(" ");
                 tuples.add(new Tuple(
-                        Integer.parseInt(match[0]),
-                        Integer.parseInt(match[1]),
-                        Integer.parseInt(match[2]),
+                        NodeRelabeling.lookupOriginalNode(originalNodes, Integer.parseInt(match[0])),
+                        NodeRelabeling.lookupOriginalNode(originalNodes, Integer.parseInt(match[1])),
+                        NodeRelabeling.lookupOriginalNode(originalNodes, Integer.parseInt(match[2])),
                         Double.parseDouble(match[3])
                 ));
 
@@ -152,6 +158,20 @@ public class AnalyzeSimpleLPLinkCap {
             // Close input stream
             br.close();
 
+            // Restore the order of the original node identifiers
+            if (originalNodes != null) {
+                Collections.sort(tuples, new Comparator<Tuple>() {
+                    public int compare(Tuple o1, Tuple o2) {
+                        int dI = o1.i - o2.i;
+                        if (dI == 0) {
+                            int dJ = o1.j - o2.j;
+                            return dJ == 0 ? o1.k - o2.k : dJ;
+                        }
+                        return dI;
+                    }
+                });
+            }
+
             return tuples;
 
         } catch (Exception e) {
@@ -0,0 +1,57 @@
+/* *******************************************************
+ * Released under the MIT License (MIT) --- see LICENSE
+ * Copyright (c) 2014 Ankit Singla, Sangeetha Abdu Jyothi,
+ * Chi-Yao Hong, Lucian Popa, P. Brighten Godfrey,
+ * Alexandra Kolla, Simon Kassing
+ * ******************************************************** */
+
+package ch.ethz.topobench.graph.distance;
+
+import java.util.stream.IntStream;
+
+/**
+ * Distance oracle of a structured topology, which determines shortest path lengths in closed form
+ * from the node indices (e.g. the Hamming distance of two hypercube nodes). Queries take constant
+ * (or degree) time without any precomputation, thus no all-pairs shortest path search is needed.
+ * The bounds are exact.
+ */
+public abstract class AnalyticDistanceOracle implements DistanceOracle {
+
+    /**
+     * Retrieve the largest distance between any pair of nodes (an upper bound suffices).
+     *
+     * @return Diameter
+     */
+    public abstract int getDiameter();
+
+    @Override
+    public int getLowerBound(int i, int j) {
+        return getDistance(i, j);
+    }
+
+    @Override
+    public int getUpperBound(int i, int j) {
+        return getDistance(i, j);
+    }
+
+    /**
+     * Fill a symmetric distance matrix with all distances in O(n^2) time, the rows in parallel.
+     *
+     * @param numNodes  Number of nodes
+     * @param infinity  Distance value for unreachable pairs
+     *
+     * @return Distance matrix
+     */
+    public DistanceMatrix toDistanceMatrix(final int numNodes, int infinity) {
+        final DistanceMatrix matrix = DistanceMatrix.create(numNodes, getDiameter(), true, infinity);
+        IntStream.range(0, numNodes).parallel().forEach(i -> {
+            int[] row = new int[numNodes];
+            for (int j = i; j < numNodes; j++) {
+                row[j] = getDistance(i, j);
+            }
+            matrix.setRow(i, row);
+        });
+        return matrix;
+    }
+
+}
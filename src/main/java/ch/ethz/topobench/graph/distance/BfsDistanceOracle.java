@@ -0,0 +1,121 @@
+/* *******************************************************
+ * Released under the MIT License (MIT) --- see LICENSE
+ * Copyright (c) 2014 Ankit Singla, Sangeetha Abdu Jyothi,
+ * Chi-Yao Hong, Lucian Popa, P. Brighten Godfrey,
+ * Alexandra Kolla, Simon Kassing
+ * ******************************************************** */
+
+package ch.ethz.topobench.graph.distance;
+
+import java.util.Arrays;
+
+/**
+ * Exact distance oracle which performs a breadth-first search on demand.<br />
+ * <br />
+ * Nothing is precomputed: each thread keeps the distance row of the last source it
+ * searched from, such that consecutive queries from the same source (the typical access
+ * pattern of path evaluators and traffic generators) cost a single search. Memory is
+ * O(n) per querying thread instead of the O(n^2) of a distance matrix.
+ */
+public class BfsDistanceOracle implements DistanceOracle {
+
+    private final int numNodes;
+    private final int[] offsets;
+    private final int[] targets;
+    private final int infinity;
+    private final ThreadLocal<SourceRow> lastRow;
+
+    /**
+     * Constructor.
+     *
+     * @param offsets       Compressed sparse row offsets: node u has edges [offsets[u], offsets[u + 1])
+     * @param targets       Target node index of each (directed) edge
+     * @param infinity      Distance value returned for unreachable nodes
+     */
+    public BfsDistanceOracle(int[] offsets, int[] targets, int infinity) {
+        this.numNodes = offsets.length - 1;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.infinity = infinity;
+        this.lastRow = new ThreadLocal<>();
+    }
+
+    @Override
+    public int getDistance(int i, int j) {
+        if (i == j) {
+            return 0;
+        }
+
+        // Search from the source, unless it was the last one searched from by this thread
+        SourceRow current = lastRow.get();
+        if (current == null) {
+            current = new SourceRow(numNodes);
+            lastRow.set(current);
+        }
+        if (current.source != i) {
+            breadthFirstSearch(i, current);
+        }
+        return current.row[j];
+
+    }
+
+    @Override
+    public int getLowerBound(int i, int j) {
+        return i == j ? 0 : 1;
+    }
+
+    @Override
+    public int getUpperBound(int i, int j) {
+        return i == j ? 0 : infinity;
+    }
+
+    /**
+     * Perform a breadth-first search from the source and fill in the row.
+     *
+     * @param source    Source node index
+     * @param scratch   Row and queue to fill in
+     */
+    private void breadthFirstSearch(int source, SourceRow scratch) {
+        int[] row = scratch.row;
+        int[] queue = scratch.queue;
+
+        // Everything is unreachable until found
+        Arrays.fill(row, infinity);
+        row[source] = 0;
+
+        // Expand level by level
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = source;
+        while (head < tail) {
+            int u = queue[head++];
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                int v = targets[e];
+                if (row[v] == infinity) {
+                    row[v] = row[u] + 1;
+                    queue[tail++] = v;
+                }
+            }
+        }
+        scratch.source = source;
+
+    }
+
+    /**
+     * Distance row of a single source, with the queue used to calculate it.
+     */
+    private static class SourceRow {
+
+        private int source;
+        private final int[] row;
+        private final int[] queue;
+
+        SourceRow(int numNodes) {
+            this.source = -1;
+            this.row = new int[numNodes];
+            this.queue = new int[numNodes];
+        }
+
+    }
+
+}
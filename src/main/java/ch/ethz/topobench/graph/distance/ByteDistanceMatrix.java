@@ -0,0 +1,58 @@
+/* *******************************************************
+ * Released under the MIT License (MIT) --- see LICENSE
+ * Copyright (c) 2014 Ankit Singla, Sangeetha Abdu Jyothi,
+ * Chi-Yao Hong, Lucian Popa, P. Brighten Godfrey,
+ * Alexandra Kolla, Simon Kassing
+ * ******************************************************** */
+
+package ch.ethz.topobench.graph.distance;
+
+/**
+ * Distance matrix storing each entry as an unsigned byte.
+ */
+class ByteDistanceMatrix extends DistanceMatrix {
+
+    // Largest finite distance, the largest unsigned value itself marks unreachable
+    static final int MAX_DISTANCE = 0xFF - 1;
+    private static final int UNREACHABLE = 0xFF;
+
+    private final byte[][] rows;
+
+    ByteDistanceMatrix(int numNodes, boolean symmetric, int infinity) {
+        super(numNodes, symmetric, infinity);
+        this.rows = new byte[numNodes][];
+    }
+
+    @Override
+    int getEntryBytes() {
+        return 1;
+    }
+
+    @Override
+    public int get(int i, int j) {
+        if (symmetric && i > j) {
+            int tmp = i;
+            i = j;
+            j = tmp;
+        }
+        int d = rows[i][j - firstColumn(i)] & 0xFF;
+        return d == UNREACHABLE ? infinity : d;
+    }
+
+    @Override
+    public boolean setRow(int source, int[] row) {
+        int first = firstColumn(source);
+        for (int j = first; j < numNodes; j++) {
+            if (row[j] > MAX_DISTANCE && row[j] < infinity) {
+                return false;
+            }
+        }
+        byte[] stored = new byte[numNodes - first];
+        for (int j = first; j < numNodes; j++) {
+            stored[j - first] = (byte) (row[j] >= infinity ? UNREACHABLE : row[j]);
+        }
+        rows[source] = stored;
+        return true;
+    }
+
+}
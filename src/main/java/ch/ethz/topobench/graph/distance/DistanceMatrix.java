@@ -0,0 +1,180 @@
+/* *******************************************************
+ * Released under the MIT License (MIT) --- see LICENSE
+ * Copyright (c) 2014 Ankit Singla, Sangeetha Abdu Jyothi,
+ * Chi-Yao Hong, Lucian Popa, P. Brighten Godfrey,
+ * Alexandra Kolla, Simon Kassing
+ * ******************************************************** */
+
+package ch.ethz.topobench.graph.distance;
+
+/**
+ * Matrix of shortest path lengths between all node pairs.<br />
+ * <br />
+ * The storage width per entry (byte, short or int) is chosen by {@link #create(int, int, boolean, int) create}
+ * from an upper bound on the largest finite distance. If the graph is bi-directional the matrix
+ * is symmetric, in which case only the upper triangle (j &gt;= i) is stored. Rows are only allocated
+ * once they are set, thus the memory is only used once the distances are actually calculated.
+ */
+public abstract class DistanceMatrix implements DistanceOracle {
+
+    final int numNodes;
+    final boolean symmetric;
+    final int infinity;
+
+    DistanceMatrix(int numNodes, boolean symmetric, int infinity) {
+        this.numNodes = numNodes;
+        this.symmetric = symmetric;
+        this.infinity = infinity;
+    }
+
+    /**
+     * Create a distance matrix with the smallest storage width able to hold the maximum distance.
+     *
+     * @param numNodes      Number of nodes
+     * @param maxDistance   Upper bound on the largest finite distance
+     * @param symmetric     True iff d(i, j) = d(j, i) for all pairs (only the upper triangle is stored)
+     * @param infinity      Distance value returned for unreachable pairs
+     *
+     * @return Empty distance matrix
+     */
+    public static DistanceMatrix create(int numNodes, int maxDistance, boolean symmetric, int infinity) {
+        if (maxDistance <= ByteDistanceMatrix.MAX_DISTANCE) {
+            return new ByteDistanceMatrix(numNodes, symmetric, infinity);
+        } else if (maxDistance <= ShortDistanceMatrix.MAX_DISTANCE) {
+            return new ShortDistanceMatrix(numNodes, symmetric, infinity);
+        } else {
+            return new IntDistanceMatrix(numNodes, symmetric, infinity);
+        }
+    }
+
+    /**
+     * Retrieve the shortest path length from node i to node j.
+     *
+     * @param i     Source node index
+     * @param j     Target node index
+     *
+     * @return Shortest path length (infinity if unreachable)
+     */
+    public abstract int get(int i, int j);
+
+    @Override
+    public int getDistance(int i, int j) {
+        return get(i, j);
+    }
+
+    @Override
+    public int getLowerBound(int i, int j) {
+        return get(i, j);
+    }
+
+    @Override
+    public int getUpperBound(int i, int j) {
+        return get(i, j);
+    }
+
+    /**
+     * Store the distances from a source node.
+     * Different sources can be set concurrently.
+     *
+     * @param source    Source node index
+     * @param row       Distances from the source to all nodes (length n, infinity if unreachable)
+     *
+     * @return True iff stored, false if a distance does not fit in the storage width (row is not stored)
+     */
+    public abstract boolean setRow(int source, int[] row);
+
+    /**
+     * Check whether the rows cannot be set (anymore).
+     *
+     * @return True iff read-only
+     */
+    public boolean isReadOnly() {
+        return false;
+    }
+
+    /**
+     * Retrieve the amount of bytes used to store a single entry.
+     *
+     * @return Entry width in bytes (1, 2 or 4)
+     */
+    abstract int getEntryBytes();
+
+    /**
+     * Retrieve number of nodes.
+     *
+     * @return Number of nodes
+     */
+    public int getNumNodes() {
+        return numNodes;
+    }
+
+    /**
+     * Check whether only the upper triangle is stored.
+     *
+     * @return True iff symmetric
+     */
+    public boolean isSymmetric() {
+        return symmetric;
+    }
+
+    /**
+     * Retrieve the distance value used for unreachable pairs.
+     *
+     * @return Infinity value
+     */
+    public int getInfinity() {
+        return infinity;
+    }
+
+    /**
+     * Materialize the full n x n matrix.
+     *
+     * @return Distance array (row i contains the distances from node i)
+     */
+    public int[][] toArray() {
+        int[][] result = new int[numNodes][numNodes];
+        for (int i = 0; i < numNodes; i++) {
+            for (int j = 0; j < numNodes; j++) {
+                result[i][j] = get(i, j);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Retrieve the first column index stored in the row of node i.
+     *
+     * @param i     Node index
+     *
+     * @return First stored column (i if symmetric, else 0)
+     */
+    final int firstColumn(int i) {
+        return symmetric ? i : 0;
+    }
+
+    /**
+     * Retrieve the position of entry (i, j) in row-major order of the stored entries.
+     *
+     * @param i     Row node index
+     * @param j     Column node index (j &gt;= i if symmetric)
+     *
+     * @return Entry position
+     */
+    final long entryIndex(int i, int j) {
+        if (symmetric) {
+            return (long) i * numNodes - (long) i * (i - 1) / 2 + (j - i);
+        } else {
+            return (long) i * numNodes + j;
+        }
+    }
+
+    /**
+     * Retrieve total number of stored entries.
+     *
+     * @return Number of entries
+     */
+    final long numEntries() {
+        return entryIndex(numNodes - 1, numNodes - 1) + 1;
+    }
+
+}
@@ -0,0 +1,52 @@
+/* *******************************************************
+ * Released under the MIT License (MIT) --- see LICENSE
+ * Copyright (c) 2014 Ankit Singla, Sangeetha Abdu Jyothi,
+ * Chi-Yao Hong, Lucian Popa, P. Brighten Godfrey,
+ * Alexandra Kolla, Simon Kassing
+ * ******************************************************** */
+
+package ch.ethz.topobench.graph.distance;
+
+/**
+ * Answers shortest path length queries between node pairs.<br />
+ * <br />
+ * Implementations trade memory for query time: a {@link DistanceMatrix} stores all pairs,
+ * a {@link BfsDistanceOracle} searches on demand, and a {@link LandmarkDistanceOracle} keeps
+ * the distances to a few landmarks to bound and speed up the search. All implementations
+ * can be queried concurrently.
+ */
+public interface DistanceOracle {
+
+    /**
+     * Retrieve the shortest path length from node i to node j.
+     *
+     * @param i     Source node index
+     * @param j     Target node index
+     *
+     * @return Shortest path length (infinity if unreachable)
+     */
+    int getDistance(int i, int j);
+
+    /**
+     * Retrieve a lower bound on the shortest path length from node i to node j,
+     * which is cheaper to determine than the exact distance.
+     *
+     * @param i     Source node index
+     * @param j     Target node index
+     *
+     * @return Lower bound on the shortest path length
+     */
+    int getLowerBound(int i, int j);
+
+    /**
+     * Retrieve an upper bound on the shortest path length from node i to node j,
+     * which is cheaper to determine than the exact distance.
+     *
+     * @param i     Source node index
+     * @param j     Target node index
+     *
+     * @return Upper bound on the shortest path length (infinity if unknown)
+     */
+    int getUpperBound(int i, int j);
+
+}
@@ -0,0 +1,46 @@
+/* *******************************************************
+ * Released under the MIT License (MIT) --- see LICENSE
+ * Copyright (c) 2014 Ankit Singla, Sangeetha Abdu Jyothi,
+ * Chi-Yao Hong, Lucian Popa, P. Brighten Godfrey,
+ * Alexandra Kolla, Simon Kassing
+ * ******************************************************** */
+
+package ch.ethz.topobench.graph.distance;
+
+/**
+ * Distance matrix storing each entry as an int, used if the distances do not fit in a short.
+ */
+class IntDistanceMatrix extends DistanceMatrix {
+
+    private final int[][] rows;
+
+    IntDistanceMatrix(int numNodes, boolean symmetric, int infinity) {
+        super(numNodes, symmetric, infinity);
+        this.rows = new int[numNodes][];
+    }
+
+    @Override
+    int getEntryBytes() {
+        return 4;
+    }
+
+    @Override
+    public int get(int i, int j) {
+        if (symmetric && i > j) {
+            int tmp = i;
+            i = j;
+            j = tmp;
+        }
+        return rows[i][j - firstColumn(i)];
+    }
+
+    @Override
+    public boolean setRow(int source, int[] row) {
+        int first = firstColumn(source);
+        int[] stored = new int[numNodes - first];
+        System.arraycopy(row, first, stored, 0, numNodes - first);
+        rows[source] = stored;
+        return true;
+    }
+
+}
@@ -0,0 +1,304 @@
+/* *******************************************************
+ * Released under the MIT License (MIT) --- see LICENSE
+ * Copyright (c) 2014 Ankit Singla, Sangeetha Abdu Jyothi,
+ * Chi-Yao Hong, Lucian Popa, P. Brighten Godfrey,
+ * Alexandra Kolla, Simon Kassing
+ * ******************************************************** */
+
+package ch.ethz.topobench.graph.distance;
+
+import java.util.Arrays;
+
+/**
+ * Landmark-based (ALT: A*, landmarks and triangle inequality) distance oracle.<br />
+ * <br />
+ * The distances from L landmarks to all nodes are stored, which is O(L * n) memory. By the
+ * triangle inequality, for every landmark l: |d(l, i) - d(l, j)| &lt;= d(i, j) &lt;= d(l, i) + d(l, j).
+ * These bounds are answered in O(L) time. If they do not meet, the exact distance is found by an
+ * A* search guided by the lower bound, which only expands nodes whose lower bound via them is
+ * below the upper bound and is therefore much smaller than a full breadth-first search.<br />
+ * <br />
+ * Landmarks are chosen by farthest-point selection: each next landmark is the node farthest
+ * from all landmarks chosen so far (a node unreachable from all of them first, such that each
+ * connected component receives a landmark while there are landmarks left).
+ */
+public class LandmarkDistanceOracle implements DistanceOracle {
+
+    private final int numNodes;
+    private final int[] offsets;
+    private final int[] targets;
+    private final int infinity;
+    private final int[] landmarks;
+    private final int[][] landmarkDistances;    // Distance from each landmark to every node
+    private final ThreadLocal<SearchState> searchState;
+
+    /**
+     * Constructor, selects the landmarks and calculates their distances.
+     *
+     * @param offsets       Compressed sparse row offsets: node u has edges [offsets[u], offsets[u + 1])
+     * @param targets       Target node index of each (directed) edge, must be bi-directional
+     * @param numLandmarks  Number of landmarks (at most the number of nodes)
+     * @param infinity      Distance value returned for unreachable nodes
+     */
+    public LandmarkDistanceOracle(int[] offsets, int[] targets, int numLandmarks, int infinity) {
+        this.numNodes = offsets.length - 1;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.infinity = infinity;
+        this.searchState = new ThreadLocal<>();
+
+        // Farthest-point selection, starting from the node farthest from node 0
+        int l = Math.min(numLandmarks, numNodes);
+        this.landmarks = new int[l];
+        this.landmarkDistances = new int[l][];
+        int[] queue = new int[numNodes];
+        int[] closest = new int[numNodes];
+        if (l > 0) {
+            int[] row = new int[numNodes];
+            breadthFirstSearch(0, row, queue);
+            Arrays.fill(closest, infinity);
+            closest[farthest(row)] = 0;
+        }
+        for (int k = 0; k < l; k++) {
+            int landmark = farthest(closest);
+            landmarks[k] = landmark;
+            landmarkDistances[k] = new int[numNodes];
+            breadthFirstSearch(landmark, landmarkDistances[k], queue);
+            for (int v = 0; v < numNodes; v++) {
+                closest[v] = Math.min(closest[v], landmarkDistances[k][v]);
+            }
+        }
+
+    }
+
+    /**
+     * Find the node with the largest distance (lowest index on ties).
+     *
+     * @param distances     Distance of each node
+     *
+     * @return Node index
+     */
+    private static int farthest(int[] distances) {
+        int best = 0;
+        for (int v = 1; v < distances.length; v++) {
+            if (distances[v] > distances[best]) {
+                best = v;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Perform a breadth-first search from the source and fill in its row.
+     *
+     * @param source    Source node index
+     * @param row       Distance row of the source (length n)
+     * @param queue     Scratch queue (length n)
+     */
+    private void breadthFirstSearch(int source, int[] row, int[] queue) {
+        Arrays.fill(row, infinity);
+        row[source] = 0;
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = source;
+        while (head < tail) {
+            int u = queue[head++];
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                int v = targets[e];
+                if (row[v] == infinity) {
+                    row[v] = row[u] + 1;
+                    queue[tail++] = v;
+                }
+            }
+        }
+    }
+
+    /**
+     * Retrieve the selected landmarks.
+     *
+     * @return Landmark node indices
+     */
+    public int[] getLandmarks() {
+        return Arrays.copyOf(landmarks, landmarks.length);
+    }
+
+    @Override
+    public int getLowerBound(int i, int j) {
+        if (i == j) {
+            return 0;
+        }
+        int bound = 1;
+        for (int[] d : landmarkDistances) {
+            boolean reachI = d[i] != infinity;
+            boolean reachJ = d[j] != infinity;
+            if (reachI != reachJ) {
+                return infinity; // In different components
+            } else if (reachI) {
+                bound = Math.max(bound, Math.abs(d[i] - d[j]));
+            }
+        }
+        return bound;
+    }
+
+    @Override
+    public int getUpperBound(int i, int j) {
+        if (i == j) {
+            return 0;
+        }
+        int bound = infinity;
+        for (int[] d : landmarkDistances) {
+            if (d[i] != infinity && d[j] != infinity) {
+                bound = Math.min(bound, d[i] + d[j]);
+            }
+        }
+        return bound;
+    }
+
+    @Override
+    public int getDistance(int i, int j) {
+
+        // Bounds might already be tight
+        int lower = getLowerBound(i, j);
+        int upper = getUpperBound(i, j);
+        if (lower == upper || lower == infinity) {
+            return lower;
+        }
+
+        // Scratch state of this thread
+        SearchState state = searchState.get();
+        if (state == null) {
+            state = new SearchState(numNodes, infinity);
+            searchState.set(state);
+        }
+        try {
+            return search(i, j, lower, upper, state);
+        } finally {
+            state.reset(infinity);
+        }
+
+    }
+
+    /**
+     * A* search from source to target with the landmark lower bound as heuristic.<br />
+     * <br />
+     * The heuristic is consistent (it changes by at most one across a link), thus the estimated
+     * total f = g + h of a node never decreases along a link and increases by at most two. Nodes
+     * are therefore kept in three buckets by f, processed in non-decreasing order of f. A node
+     * is final once it is taken out of a bucket with its current estimate.
+     *
+     * @param source    Source node index
+     * @param target    Target node index
+     * @param lower     Lower bound on the distance
+     * @param upper     Upper bound on the distance (infinity if unknown)
+     * @param state     Scratch state
+     *
+     * @return Shortest path length
+     */
+    private int search(int source, int target, int lower, int upper, SearchState state) {
+
+        state.visit(source, 0, lower);
+        state.push(source, lower);
+        for (int f = lower; f < upper; f++) {
+            IntStack bucket = state.buckets[f % 3];
+            while (bucket.size > 0) {
+                int u = bucket.pop();
+
+                // Skip if superseded by a shorter path
+                if (state.g[u] + state.h[u] != f) {
+                    continue;
+                }
+                if (u == target) {
+                    return state.g[u];
+                }
+
+                // Relax neighbors, those which cannot improve on the upper bound are pruned
+                int g = state.g[u] + 1;
+                for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                    int v = targets[e];
+                    if (g < state.g[v]) {
+                        int h = state.h[v] == -1 ? getLowerBound(v, target) : state.h[v];
+                        state.visit(v, g, h);
+                        if (g + h < upper) {
+                            state.push(v, g + h);
+                        }
+                    }
+                }
+
+            }
+
+            // Nothing left to expand: the upper bound is exact (or infinity if unreachable)
+            if (state.buckets[0].size == 0 && state.buckets[1].size == 0 && state.buckets[2].size == 0) {
+                break;
+            }
+        }
+        return upper;
+
+    }
+
+    /**
+     * Per-thread scratch state of the A* search, reset after each query
+     * by only clearing the visited nodes.
+     */
+    private static class SearchState {
+
+        private final int[] g;          // Distance from the source found so far, infinity if not visited
+        private final int[] h;          // Lower bound towards the target, -1 if not yet calculated
+        private final IntStack visited;
+        private final IntStack[] buckets;
+
+        SearchState(int numNodes, int infinity) {
+            this.g = new int[numNodes];
+            this.h = new int[numNodes];
+            Arrays.fill(g, infinity);
+            Arrays.fill(h, -1);
+            this.visited = new IntStack();
+            this.buckets = new IntStack[]{new IntStack(), new IntStack(), new IntStack()};
+        }
+
+        void visit(int v, int distance, int bound) {
+            if (h[v] == -1) {
+                visited.push(v);
+            }
+            g[v] = distance;
+            h[v] = bound;
+        }
+
+        void push(int v, int f) {
+            buckets[f % 3].push(v);
+        }
+
+        void reset(int infinity) {
+            while (visited.size > 0) {
+                int v = visited.pop();
+                g[v] = infinity;
+                h[v] = -1;
+            }
+            for (IntStack bucket : buckets) {
+                bucket.size = 0;
+            }
+        }
+
+    }
+
+    /**
+     * Growable stack of primitive integers.
+     */
+    private static class IntStack {
+
+        private int[] values = new int[16];
+        private int size = 0;
+
+        void push(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, 2 * size);
+            }
+            values[size++] = value;
+        }
+
+        int pop() {
+            return values[--size];
+        }
+
+    }
+
+}
@@ -0,0 +1,213 @@
+/* *******************************************************
+ * Released under the MIT License (MIT) --- see LICENSE
+ * Copyright (c) 2014 Ankit Singla, Sangeetha Abdu Jyothi,
+ * Chi-Yao Hong, Lucian Popa, P. Brighten Godfrey,
+ * Alexandra Kolla, Simon Kassing
+ * ******************************************************** */
+
+package ch.ethz.topobench.graph.distance;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Read-only distance matrix backed by a memory-mapped file.<br />
+ * <br />
+ * The file is mapped instead of read, thus concurrent processes which map the
+ * same file share a single copy of it in the page cache. Files are written by
+ * {@link #write(DistanceMatrix, String, File) write} using the same entry encoding
+ * as the in-memory matrices (the largest unsigned value marks unreachable for byte
+ * and short entries).<br />
+ * <br />
+ * File layout (big-endian): magic, version, number of nodes, entry width in bytes,
+ * symmetric flag, infinity, fingerprint length and fingerprint characters, followed
+ * by all stored entries in row-major order (only the upper triangle if symmetric).
+ */
+public class MappedDistanceMatrix extends DistanceMatrix {
+
+    private static final int MAGIC = 0x5442444D;     // "TBDM"
+    private static final int VERSION = 1;
+
+    // A single mapping is limited to 2 GB, thus large files are mapped in chunks
+    private static final int CHUNK_BITS = 30;
+    private static final long CHUNK_MASK = (1L << CHUNK_BITS) - 1;
+
+    private final int entryBytes;
+    private final MappedByteBuffer[] chunks;
+
+    private MappedDistanceMatrix(int numNodes, boolean symmetric, int infinity, int entryBytes, MappedByteBuffer[] chunks) {
+        super(numNodes, symmetric, infinity);
+        this.entryBytes = entryBytes;
+        this.chunks = chunks;
+    }
+
+    /**
+     * Write the distance matrix to a file. The file is first written under a temporary
+     * name and then moved into place, thus concurrent writers and readers never see
+     * a partially written file.
+     *
+     * @param matrix        Distance matrix
+     * @param fingerprint   Topology fingerprint of the graph the matrix belongs to
+     * @param file          Destination file
+     *
+     * @throws IOException  If the file cannot be written
+     */
+    public static void write(DistanceMatrix matrix, String fingerprint, File file) throws IOException {
+
+        int n = matrix.getNumNodes();
+        int entryBytes = matrix.getEntryBytes();
+        int unreachable = entryBytes == 4 ? matrix.getInfinity() : (1 << (8 * entryBytes)) - 1;
+
+        File temp = File.createTempFile(file.getName(), ".tmp", file.getAbsoluteFile().getParentFile());
+        try {
+
+            // Header
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp), 1 << 16));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(n);
+            out.writeInt(entryBytes);
+            out.writeInt(matrix.isSymmetric() ? 1 : 0);
+            out.writeInt(matrix.getInfinity());
+            out.writeInt(fingerprint.length());
+            out.writeBytes(fingerprint);
+
+            // Entries
+            for (int i = 0; i < n; i++) {
+                for (int j = matrix.firstColumn(i); j < n; j++) {
+                    int d = matrix.get(i, j);
+                    int value = d == matrix.getInfinity() ? unreachable : d;
+                    switch (entryBytes) {
+                        case 1:
+                            out.writeByte(value);
+                            break;
+                        case 2:
+                            out.writeShort(value);
+                            break;
+                        default:
+                            out.writeInt(value);
+                            break;
+                    }
+                }
+            }
+            out.close();
+
+            // Move into place
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        } finally {
+            Files.deleteIfExists(temp.toPath());
+        }
+
+    }
+
+    /**
+     * Map a distance matrix file read-only.
+     *
+     * @param file          Distance matrix file
+     * @param fingerprint   Expected topology fingerprint
+     * @param numNodes      Expected number of nodes
+     *
+     * @return Mapped distance matrix, null if the file does not exist or does not match
+     *
+     * @throws IOException  If the file cannot be read
+     */
+    public static MappedDistanceMatrix map(File file, String fingerprint, int numNodes) throws IOException {
+
+        if (!file.exists()) {
+            return null;
+        }
+
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+
+            // Header
+            int magic = raf.readInt();
+            int version = raf.readInt();
+            int n = raf.readInt();
+            int entryBytes = raf.readInt();
+            boolean symmetric = raf.readInt() == 1;
+            int infinity = raf.readInt();
+            int fingerprintLength = raf.readInt();
+            if (magic != MAGIC || version != VERSION || n != numNodes || fingerprintLength != fingerprint.length()) {
+                return null;
+            }
+            byte[] storedFingerprint = new byte[fingerprintLength];
+            raf.readFully(storedFingerprint);
+            if (!fingerprint.equals(new String(storedFingerprint, "US-ASCII"))) {
+                return null;
+            }
+
+            // Check that the file is complete
+            MappedDistanceMatrix result = new MappedDistanceMatrix(n, symmetric, infinity, entryBytes, null);
+            long dataStart = raf.getFilePointer();
+            long dataLength = result.numEntries() * entryBytes;
+            if (raf.length() != dataStart + dataLength) {
+                return null;
+            }
+
+            // Map the entries in chunks
+            FileChannel channel = raf.getChannel();
+            MappedByteBuffer[] chunks = new MappedByteBuffer[(int) ((dataLength + CHUNK_MASK) >>> CHUNK_BITS)];
+            for (int c = 0; c < chunks.length; c++) {
+                long start = (long) c << CHUNK_BITS;
+                chunks[c] = channel.map(FileChannel.MapMode.READ_ONLY, dataStart + start, Math.min(CHUNK_MASK + 1, dataLength - start));
+            }
+            return new MappedDistanceMatrix(n, symmetric, infinity, entryBytes, chunks);
+
+        }
+
+    }
+
+    @Override
+    int getEntryBytes() {
+        return entryBytes;
+    }
+
+    @Override
+    public int get(int i, int j) {
+        if (symmetric && i > j) {
+            int tmp = i;
+            i = j;
+            j = tmp;
+        }
+
+        // Locate entry
+        long position = entryIndex(i, j) * entryBytes;
+        MappedByteBuffer chunk = chunks[(int) (position >>> CHUNK_BITS)];
+        int offset = (int) (position & CHUNK_MASK);
+
+        // Decode
+        switch (entryBytes) {
+            case 1: {
+                int d = chunk.get(offset) & 0xFF;
+                return d == 0xFF ? infinity : d;
+            }
+            case 2: {
+                int d = chunk.getShort(offset) & 0xFFFF;
+                return d == 0xFFFF ? infinity : d;
+            }
+            default:
+                return chunk.getInt(offset);
+        }
+
+    }
+
+    @Override
+    public boolean setRow(int source, int[] row) {
+        throw new RuntimeException("MappedDistanceMatrix: setRow: a mapped distance matrix is read-only.");
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+
+}
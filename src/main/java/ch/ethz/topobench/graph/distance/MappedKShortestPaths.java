@@ -0,0 +1,367 @@
+/* *******************************************************
+ * Released under the MIT License (MIT) --- see LICENSE
+ * Copyright (c) 2014 Ankit Singla, Sangeetha Abdu Jyothi,
+ * Chi-Yao Hong, Lucian Popa, P. Brighten Godfrey,
+ * Alexandra Kolla, Simon Kassing
+ * ******************************************************** */
+
+package ch.ethz.topobench.graph.distance;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+
+/**
+ * Read-only K shortest path edges of node pairs backed by a memory-mapped file.<br />
+ * <br />
+ * For every stored pair, each edge on one of its K shortest paths (K at most the
+ * maximum K of the file) is stored once, together with the number of the first path
+ * it occurs on. The entries of a pair are ordered by path number, thus the edges for
+ * any lower k are a prefix. Files are written by {@link Writer}.<br />
+ * <br />
+ * File layout (big-endian): magic, version, number of nodes, maximum K, fingerprint
+ * length and fingerprint characters, followed by the entries of all pairs (edge-from,
+ * edge-to, path number), the index of pairs in ascending order (source, destination,
+ * index of its first entry as two integers), and finally the number of pairs and the
+ * total number of entries.
+ */
+public class MappedKShortestPaths {
+
+    private static final int MAGIC = 0x54424B53;     // "TBKS"
+    private static final int VERSION = 2;     // 2: paths independent of the adjacency order
+
+    // Entry and index sizes in bytes
+    private static final int ENTRY_BYTES = 12;
+    private static final int INDEX_BYTES = 16;
+    private static final int TRAILER_BYTES = 12;
+
+    // A single mapping is limited to 2 GB, thus large files are mapped in chunks
+    private static final int CHUNK_BITS = 30;
+    private static final long CHUNK_MASK = (1L << CHUNK_BITS) - 1;
+
+    private final int numNodes;
+    private final int kMax;
+    private final int numPairs;
+    private final long numEntries;
+    private final long indexStart;
+    private final MappedByteBuffer[] chunks;
+
+    private MappedKShortestPaths(int numNodes, int kMax, int numPairs, long numEntries, MappedByteBuffer[] chunks) {
+        this.numNodes = numNodes;
+        this.kMax = kMax;
+        this.numPairs = numPairs;
+        this.numEntries = numEntries;
+        this.indexStart = numEntries * ENTRY_BYTES;
+        this.chunks = chunks;
+    }
+
+    /**
+     * Map a K shortest paths file read-only.
+     *
+     * @param file          K shortest paths file
+     * @param fingerprint   Expected topology fingerprint
+     * @param numNodes      Expected number of nodes
+     *
+     * @return Mapped K shortest paths, null if the file does not exist or does not match
+     *
+     * @throws IOException  If the file cannot be read
+     */
+    public static MappedKShortestPaths map(File file, String fingerprint, int numNodes) throws IOException {
+
+        if (!file.exists()) {
+            return null;
+        }
+
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+
+            // Header
+            int magic = raf.readInt();
+            int version = raf.readInt();
+            int n = raf.readInt();
+            int kMax = raf.readInt();
+            int fingerprintLength = raf.readInt();
+            if (magic != MAGIC || version != VERSION || n != numNodes || fingerprintLength != fingerprint.length()) {
+                return null;
+            }
+            byte[] storedFingerprint = new byte[fingerprintLength];
+            raf.readFully(storedFingerprint);
+            if (!fingerprint.equals(new String(storedFingerprint, "US-ASCII"))) {
+                return null;
+            }
+            long dataStart = raf.getFilePointer();
+
+            // Trailer
+            if (raf.length() < dataStart + TRAILER_BYTES) {
+                return null;
+            }
+            raf.seek(raf.length() - TRAILER_BYTES);
+            int numPairs = raf.readInt();
+            long numEntries = raf.readLong();
+
+            // Check that the file is complete
+            long dataLength = numEntries * ENTRY_BYTES + (long) numPairs * INDEX_BYTES;
+            if (raf.length() != dataStart + dataLength + TRAILER_BYTES) {
+                return null;
+            }
+
+            // Map the entries and index in chunks (every integer is aligned, thus within a chunk)
+            FileChannel channel = raf.getChannel();
+            MappedByteBuffer[] chunks = new MappedByteBuffer[(int) ((dataLength + CHUNK_MASK) >>> CHUNK_BITS)];
+            for (int c = 0; c < chunks.length; c++) {
+                long start = (long) c << CHUNK_BITS;
+                chunks[c] = channel.map(FileChannel.MapMode.READ_ONLY, dataStart + start, Math.min(CHUNK_MASK + 1, dataLength - start));
+            }
+            return new MappedKShortestPaths(n, kMax, numPairs, numEntries, chunks);
+
+        }
+
+    }
+
+    /**
+     * Retrieve the maximum K the paths were calculated for.
+     *
+     * @return Maximum K
+     */
+    public int getKMax() {
+        return kMax;
+    }
+
+    /**
+     * Retrieve the number of stored pairs.
+     *
+     * @return Number of pairs
+     */
+    public int getNumPairs() {
+        return numPairs;
+    }
+
+    /**
+     * Retrieve the source of a stored pair.
+     *
+     * @param index     Pair index in [0, number of pairs)
+     *
+     * @return Source node index
+     */
+    public int getSource(int index) {
+        return getInt(indexStart + (long) index * INDEX_BYTES);
+    }
+
+    /**
+     * Retrieve the destination of a stored pair.
+     *
+     * @param index     Pair index in [0, number of pairs)
+     *
+     * @return Destination node index
+     */
+    public int getDestination(int index) {
+        return getInt(indexStart + (long) index * INDEX_BYTES + 4);
+    }
+
+    /**
+     * Find a pair by binary search in the index.
+     *
+     * @param src   Source node index
+     * @param dst   Destination node index
+     *
+     * @return Pair index, -1 if the pair is not stored
+     */
+    public int indexOf(int src, int dst) {
+        long key = (long) src * numNodes + dst;
+        int low = 0;
+        int high = numPairs - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midKey = (long) getSource(mid) * numNodes + getDestination(mid);
+            if (midKey < key) {
+                low = mid + 1;
+            } else if (midKey > key) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Retrieve the entries of a stored pair with a path number of at most k.
+     *
+     * @param index     Pair index in [0, number of pairs)
+     * @param k         Highest path number to include
+     *
+     * @return Entries (edge-from, edge-to, path number) concatenated
+     */
+    public int[] getEntries(int index, int k) {
+        long first = getFirstEntry(index);
+        long end = index + 1 < numPairs ? getFirstEntry(index + 1) : numEntries;
+
+        // Count the prefix up to k
+        int count = 0;
+        while (first + count < end && getInt((first + count) * ENTRY_BYTES + 8) <= k) {
+            count++;
+        }
+
+        // Copy the prefix
+        int[] entries = new int[3 * count];
+        for (int i = 0; i < entries.length; i++) {
+            entries[i] = getInt(first * ENTRY_BYTES + 4L * i);
+        }
+        return entries;
+    }
+
+    /**
+     * Retrieve the index of the first entry of a stored pair.
+     *
+     * @param index     Pair index in [0, number of pairs)
+     *
+     * @return Entry index
+     */
+    private long getFirstEntry(int index) {
+        long position = indexStart + (long) index * INDEX_BYTES + 8;
+        return ((long) getInt(position) << 32) | (getInt(position + 4) & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Read an integer of the mapped region.
+     *
+     * @param position  Byte position relative to the first entry
+     *
+     * @return Integer
+     */
+    private int getInt(long position) {
+        return chunks[(int) (position >>> CHUNK_BITS)].getInt((int) (position & CHUNK_MASK));
+    }
+
+    /**
+     * Writer of a K shortest paths file. The pairs must be added in ascending order of
+     * (source, destination). The file is first written under a temporary name and only
+     * moved into place by {@link #commit()}, thus concurrent writers and readers never
+     * see a partially written file.
+     */
+    public static class Writer {
+
+        private final File file;
+        private final File temp;
+        private final int numNodes;
+        private final DataOutputStream out;
+
+        // Index of the pairs added so far
+        private int[] sources;
+        private int[] destinations;
+        private long[] firstEntries;
+        private int numPairs;
+        private long numEntries;
+
+        /**
+         * Constructor.
+         *
+         * @param file          Destination file
+         * @param fingerprint   Topology fingerprint of the graph the paths belong to
+         * @param numNodes      Number of nodes
+         * @param kMax          Maximum K the paths are calculated for
+         *
+         * @throws IOException  If the temporary file cannot be created
+         */
+        public Writer(File file, String fingerprint, int numNodes, int kMax) throws IOException {
+            this.file = file;
+            this.temp = File.createTempFile(file.getName(), ".tmp", file.getAbsoluteFile().getParentFile());
+            this.numNodes = numNodes;
+            this.sources = new int[16];
+            this.destinations = new int[16];
+            this.firstEntries = new long[16];
+            this.numPairs = 0;
+            this.numEntries = 0;
+
+            // Header
+            this.out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp), 1 << 16));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(numNodes);
+            out.writeInt(kMax);
+            out.writeInt(fingerprint.length());
+            out.writeBytes(fingerprint);
+
+        }
+
+        /**
+         * Add the entries of a pair.
+         *
+         * @param src       Source node index
+         * @param dst       Destination node index
+         * @param entries   Entries (edge-from, edge-to, path number) concatenated, in ascending path number
+         *
+         * @throws IOException  If the entries cannot be written
+         */
+        public void add(int src, int dst, int[] entries) throws IOException {
+            if (numPairs > 0 && (long) src * numNodes + dst <= (long) sources[numPairs - 1] * numNodes + destinations[numPairs - 1]) {
+                throw new RuntimeException("MappedKShortestPaths: add: pairs must be added in ascending order (" + src + ", " + dst + ").");
+            }
+
+            // Grow index
+            if (numPairs == sources.length) {
+                sources = Arrays.copyOf(sources, 2 * numPairs);
+                destinations = Arrays.copyOf(destinations, 2 * numPairs);
+                firstEntries = Arrays.copyOf(firstEntries, 2 * numPairs);
+            }
+            sources[numPairs] = src;
+            destinations[numPairs] = dst;
+            firstEntries[numPairs] = numEntries;
+            numPairs++;
+
+            // Entries
+            for (int value : entries) {
+                out.writeInt(value);
+            }
+            numEntries += entries.length / 3;
+
+        }
+
+        /**
+         * Write the index and move the file into place.
+         *
+         * @throws IOException  If the file cannot be written
+         */
+        public void commit() throws IOException {
+            try {
+
+                // Index
+                for (int i = 0; i < numPairs; i++) {
+                    out.writeInt(sources[i]);
+                    out.writeInt(destinations[i]);
+                    out.writeLong(firstEntries[i]);
+                }
+
+                // Trailer
+                out.writeInt(numPairs);
+                out.writeLong(numEntries);
+                out.close();
+
+                // Move into place
+                Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            } finally {
+                abort();
+            }
+        }
+
+        /**
+         * Discard the file if it has not been committed.
+         *
+         * @throws IOException  If the temporary file cannot be removed
+         */
+        public void abort() throws IOException {
+            out.close();
+            Files.deleteIfExists(temp.toPath());
+        }
+
+    }
+
+}
@@ -0,0 +1,193 @@
+/* *******************************************************
+ * Released under the MIT License (MIT) --- see LICENSE
+ * Copyright (c) 2014 Ankit Singla, Sangeetha Abdu Jyothi,
+ * Chi-Yao Hong, Lucian Popa, P. Brighten Godfrey,
+ * Alexandra Kolla, Simon Kassing
+ * ******************************************************** */
+
+package ch.ethz.topobench.graph.distance;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * All-pairs shortest path engine for unit-weight (hop count) graphs.
+ *
+ * Runs a single breadth-first search from every source node, which costs
+ * O(n * (n + m)) in total instead of the O(n^3) of Floyd-Warshall. The sources
+ * are distributed over a fork-join pool; each source sets only its own row
+ * of the distance matrix, thus no synchronization is required.
+ */
+public class ParallelBfsShortestPaths {
+
+    // Maximum number of sources a single fork-join task handles sequentially
+    private static final int SOURCES_PER_TASK = 16;
+
+    private final int numNodes;
+    private final int[] offsets;
+    private final int[] targets;
+    private final int infinity;
+    private volatile boolean allStored;
+
+    /**
+     * Constructor.
+     *
+     * @param offsets       Compressed sparse row offsets: node u has edges [offsets[u], offsets[u + 1])
+     * @param targets       Target node index of each (directed) edge
+     * @param infinity      Distance value written for unreachable nodes
+     */
+    public ParallelBfsShortestPaths(int[] offsets, int[] targets, int infinity) {
+        this.numNodes = offsets.length - 1;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.infinity = infinity;
+    }
+
+    /**
+     * Calculate all shortest path lengths and write them into the given matrix.
+     *
+     * @param distances     Distance matrix, the row of node i is set to the distances from node i
+     */
+    public void calculate(DistanceMatrix distances) {
+        int[] sources = new int[numNodes];
+        for (int i = 0; i < numNodes; i++) {
+            sources[i] = i;
+        }
+        calculate(distances, sources);
+    }
+
+    /**
+     * Calculate the shortest path lengths from only the given sources and write them into the given matrix.
+     *
+     * @param distances     Distance matrix, the row of each source s is set to the distances from s
+     * @param sources       Source node indices
+     *
+     * @return True iff all rows have been stored (false if a distance did not fit the matrix storage width)
+     */
+    public boolean calculate(DistanceMatrix distances, int[] sources) {
+        allStored = true;
+        ForkJoinPool.commonPool().invoke(new SourceRangeTask(distances, sources, 0, sources.length));
+        return allStored;
+    }
+
+    /**
+     * Calculate all shortest path lengths into a distance matrix of the smallest fitting width.
+     *
+     * @param symmetric     True iff the graph is bi-directional (only the upper triangle is stored)
+     *
+     * @return Distance matrix
+     */
+    public DistanceMatrix calculate(boolean symmetric) {
+        DistanceMatrix distances = DistanceMatrix.create(numNodes, diameterUpperBound(), symmetric, infinity);
+        calculate(distances);
+        return distances;
+    }
+
+    /**
+     * Determine an upper bound on the largest finite distance in O(n + m) time, by
+     * performing a single breadth-first search in each connected component.
+     * In a bi-directional graph the diameter of a component is at most twice the
+     * eccentricity of any of its nodes.
+     *
+     * @return Upper bound on the diameter
+     */
+    public int diameterUpperBound() {
+        int[] row = new int[numNodes];
+        int[] queue = new int[numNodes];
+        boolean[] visited = new boolean[numNodes];
+        int bound = 0;
+        for (int root = 0; root < numNodes; root++) {
+            if (!visited[root]) {
+                breadthFirstSearch(root, row, queue);
+                int eccentricity = 0;
+                for (int v = 0; v < numNodes; v++) {
+                    if (row[v] != infinity) {
+                        visited[v] = true;
+                        eccentricity = Math.max(eccentricity, row[v]);
+                    }
+                }
+                bound = Math.max(bound, 2 * eccentricity);
+            }
+        }
+        return bound;
+    }
+
+    /**
+     * Perform a breadth-first search from the source and fill in its row.
+     *
+     * @param source    Source node index
+     * @param row       Distance row of the source (length n)
+     * @param queue     Scratch queue (length n)
+     */
+    private void breadthFirstSearch(int source, int[] row, int[] queue) {
+
+        // Everything is unreachable until found
+        Arrays.fill(row, infinity);
+        row[source] = 0;
+
+        // Expand level by level
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = source;
+        while (head < tail) {
+            int u = queue[head++];
+            int nextDistance = row[u] + 1;
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                int v = targets[e];
+                if (row[v] == infinity) {
+                    row[v] = nextDistance;
+                    queue[tail++] = v;
+                }
+            }
+        }
+
+    }
+
+    /**
+     * Fork-join task which recursively splits up the range of sources.
+     */
+    private class SourceRangeTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final DistanceMatrix distances;
+        private final int[] sources;
+        private final int from;
+        private final int to;
+
+        SourceRangeTask(DistanceMatrix distances, int[] sources, int from, int to) {
+            this.distances = distances;
+            this.sources = sources;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+
+            // Split if the range is too large
+            if (to - from > SOURCES_PER_TASK) {
+                int mid = (from + to) >>> 1;
+                invokeAll(
+                        new SourceRangeTask(distances, sources, from, mid),
+                        new SourceRangeTask(distances, sources, mid, to)
+                );
+                return;
+            }
+
+            // Sequentially process the sources in range, sharing a single row and queue
+            int[] row = new int[numNodes];
+            int[] queue = new int[numNodes];
+            for (int i = from; i < to; i++) {
+                breadthFirstSearch(sources[i], row, queue);
+                if (!distances.setRow(sources[i], row)) {
+                    allStored = false;
+                }
+            }
+
+        }
+
+    }
+
+}
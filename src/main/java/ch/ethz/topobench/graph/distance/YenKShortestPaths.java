@@ -0,0 +1,301 @@
+/* *******************************************************
+ * Released under the MIT License (MIT) --- see LICENSE
+ * Copyright (c) 2014 Ankit Singla, Sangeetha Abdu Jyothi,
+ * Chi-Yao Hong, Lucian Popa, P. Brighten Godfrey,
+ * Alexandra Kolla, Simon Kassing
+ * ******************************************************** */
+
+package ch.ethz.topobench.graph.distance;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * K shortest loopless paths engine for unit-weight (hop count) graphs, based on:
+ *
+ * "Finding the K Shortest Loopless Paths in a Network"
+ * by Jin Y. Yen (1971), with the improvement of Lawler (1972) to only spur from the
+ * node at which a path deviated from the path it was derived from.
+ *
+ * Works directly on the compressed sparse row arrays: removed nodes and edges are marked
+ * in reusable bit masks (indexed by node and edge index), paths are node index arrays,
+ * and as all weights are one, every spur path is found by a breadth-first search.
+ *
+ * The neighbours of every node are expanded in ascending node index (the targets are sorted
+ * per node on construction), thus ties among paths of equal length are broken the same way
+ * regardless of the order in which the links were added: the paths only depend on the topology.
+ *
+ * An instance holds scratch state, thus it must not be shared among threads; create one
+ * instance per thread on the same (read-only) arrays instead.
+ */
+public class YenKShortestPaths {
+
+    private final int numNodes;
+    private final int[] offsets;
+    private final int[] targets;
+
+    // Reusable scratch state
+    private final BitSet removedNodes;
+    private final BitSet removedEdges;
+    private final int[] removedEdgeList;
+    private final int[] visitStamp;
+    private final int[] parent;
+    private final int[] queue;
+    private int stamp;
+
+    /**
+     * Constructor.
+     *
+     * @param offsets       Compressed sparse row offsets: node u has edges [offsets[u], offsets[u + 1])
+     * @param targets       Target node index of each (directed) edge
+     */
+    public YenKShortestPaths(int[] offsets, int[] targets) {
+        this.numNodes = offsets.length - 1;
+        this.offsets = offsets;
+        this.targets = Arrays.copyOf(targets, targets.length);
+        for (int u = 0; u < numNodes; u++) {
+            Arrays.sort(this.targets, offsets[u], offsets[u + 1]);
+        }
+        this.removedNodes = new BitSet(numNodes);
+        this.removedEdges = new BitSet(targets.length);
+        this.removedEdgeList = new int[targets.length];
+        this.visitStamp = new int[numNodes];
+        this.parent = new int[numNodes];
+        this.queue = new int[numNodes];
+        this.stamp = 0;
+    }
+
+    /**
+     * Determine the K shortest loopless paths from source to target, in order of ascending
+     * length. Among paths of equal length, those found earlier come first, where the
+     * breadth-first searches favour lower node indices.
+     *
+     * @param source    Source node index
+     * @param target    Target node index (different from the source)
+     * @param k         Maximum number of paths
+     *
+     * @return Paths as node index arrays from source to target (at most k, fewer if no more exist)
+     */
+    public List<int[]> getShortestPaths(int source, int target, int k) {
+        List<int[]> result = new ArrayList<>();
+
+        // Shortest path
+        int[] first = breadthFirstSearch(source, target);
+        if (first == null || k <= 0) {
+            return result;
+        }
+
+        // Candidates ordered by length, then by discovery
+        PriorityQueue<Candidate> candidates = new PriorityQueue<>();
+        Set<PathKey> seen = new HashSet<>();
+        seen.add(new PathKey(first));
+        long sequence = 0;
+        candidates.add(new Candidate(first, 0, sequence++));
+
+        while (!candidates.isEmpty() && result.size() < k) {
+            Candidate current = candidates.poll();
+            int[] path = current.path;
+            result.add(path);
+            if (result.size() == k) {
+                break;
+            }
+
+            // Nodes of the root before the deviation node are removed
+            for (int i = 0; i < current.deviation; i++) {
+                removedNodes.set(path[i]);
+            }
+
+            // Spur from each node at or after the deviation node
+            for (int i = current.deviation; i < path.length - 1; i++) {
+
+                // Remove the next edge of every found path sharing this root
+                int numRemovedEdges = 0;
+                for (int[] other : result) {
+                    if (other.length > i + 1 && samePrefix(other, path, i + 1)) {
+                        int e = findEdge(other[i], other[i + 1]);
+                        if (e != -1 && !removedEdges.get(e)) {
+                            removedEdges.set(e);
+                            removedEdgeList[numRemovedEdges++] = e;
+                        }
+                    }
+                }
+
+                // Root plus spur path is a new candidate
+                int[] spur = breadthFirstSearch(path[i], target);
+                if (spur != null) {
+                    int[] candidate = new int[i + spur.length];
+                    System.arraycopy(path, 0, candidate, 0, i);
+                    System.arraycopy(spur, 0, candidate, i, spur.length);
+                    if (seen.add(new PathKey(candidate))) {
+                        candidates.add(new Candidate(candidate, i, sequence++));
+                    }
+                }
+
+                // Restore the edges, and remove the spur node for the next root
+                for (int j = 0; j < numRemovedEdges; j++) {
+                    removedEdges.clear(removedEdgeList[j]);
+                }
+                removedNodes.set(path[i]);
+
+            }
+
+            // Restore the nodes
+            for (int i = 0; i < path.length - 1; i++) {
+                removedNodes.clear(path[i]);
+            }
+
+        }
+
+        return result;
+    }
+
+    /**
+     * Perform a breadth-first search from source to target which avoids the removed nodes and edges.
+     * Neighbors are visited in edge order, thus the result is deterministic.
+     *
+     * @param source    Source node index (not removed)
+     * @param target    Target node index
+     *
+     * @return Shortest path from source to target, null if none exists
+     */
+    private int[] breadthFirstSearch(int source, int target) {
+
+        // A new stamp marks all nodes unvisited
+        stamp++;
+        if (stamp == Integer.MAX_VALUE) {
+            Arrays.fill(visitStamp, 0);
+            stamp = 1;
+        }
+
+        // Expand level by level until the target is found
+        int head = 0;
+        int tail = 0;
+        visitStamp[source] = stamp;
+        parent[source] = -1;
+        queue[tail++] = source;
+        boolean found = source == target;
+        while (head < tail && !found) {
+            int u = queue[head++];
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                int v = targets[e];
+                if (visitStamp[v] != stamp && !removedNodes.get(v) && !removedEdges.get(e)) {
+                    visitStamp[v] = stamp;
+                    parent[v] = u;
+                    queue[tail++] = v;
+                    if (v == target) {
+                        found = true;
+                        break;
+                    }
+                }
+            }
+        }
+        if (!found) {
+            return null;
+        }
+
+        // Walk back from the target
+        int length = 1;
+        for (int v = target; v != source; v = parent[v]) {
+            length++;
+        }
+        int[] path = new int[length];
+        int v = target;
+        for (int i = length - 1; i >= 0; i--) {
+            path[i] = v;
+            v = parent[v];
+        }
+        return path;
+
+    }
+
+    /**
+     * Find the index of edge (u, v).
+     *
+     * @param u     First node index
+     * @param v     Second node index
+     *
+     * @return Edge index, -1 if not found
+     */
+    private int findEdge(int u, int v) {
+        for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+            if (targets[e] == v) {
+                return e;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Check whether two paths start with the same nodes.
+     *
+     * @param a         First path
+     * @param b         Second path
+     * @param length    Prefix length (at most the length of both)
+     *
+     * @return True iff the first length nodes are equal
+     */
+    private static boolean samePrefix(int[] a, int[] b, int length) {
+        for (int i = 0; i < length; i++) {
+            if (a[i] != b[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Candidate path with the index of the node at which it deviated.
+     */
+    private static final class Candidate implements Comparable<Candidate> {
+
+        private final int[] path;
+        private final int deviation;
+        private final long sequence;
+
+        Candidate(int[] path, int deviation, long sequence) {
+            this.path = path;
+            this.deviation = deviation;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public int compareTo(Candidate other) {
+            if (path.length != other.path.length) {
+                return path.length < other.path.length ? -1 : 1;
+            }
+            return Long.compare(sequence, other.sequence);
+        }
+
+    }
+
+    /**
+     * Path as hash set key with value equality.
+     */
+    private static final class PathKey {
+
+        private final int[] path;
+        private final int hash;
+
+        PathKey(int[] path) {
+            this.path = path;
+            this.hash = Arrays.hashCode(path);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof PathKey && Arrays.equals(path, ((PathKey) o).path);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+    }
+
+}
@@ -0,0 +1,133 @@
+/* *******************************************************
+ * Released under the MIT License (MIT) --- see LICENSE
+ * Copyright (c) 2014 Ankit Singla, Sangeetha Abdu Jyothi,
+ * Chi-Yao Hong, Lucian Popa, P. Brighten Godfrey,
+ * Alexandra Kolla, Simon Kassing
+ * ******************************************************** */
+
+package ch.ethz.topobench.graph.graphs;
+
+import ch.ethz.topobench.graph.Graph;
+import ch.ethz.topobench.graph.distance.AnalyticDistanceOracle;
+
+/**
+ * BCube topology implemented based on the following paper at the SIGCOMM '09 conference:
+ *
+ * "BCube: A High Performance, Server-centric Network Architecture for Modular Data Centers"
+ * by Chuanxiong Guo, Guohan Lu, Dan Li, Haitao Wu, Xuan Zhang, Yunfeng Shi, Chen Tian,
+ * Yongguang Zhang, and Songwu Lu (2009).
+ *
+ * BCube_k consists of n^(k+1) servers, numbered by k + 1 base-n digits, and k + 1 levels of n^k
+ * switches with n ports each. The switch of level l connects the n servers which only differ in
+ * digit l. As BCube is server-centric (servers relay traffic), the servers are nodes themselves:
+ *
+ * 1) Servers with index    0 - n^(k+1), each with weight 1
+ * 2) Switches with index   n^(k+1) + l * n^k + (server number without digit l), with weight 0
+ */
+public class BCubeGraph extends Graph {
+
+    private final int n;
+    private final int k;
+    private final int numServers;
+    private final int switchesPerLevel;
+    private final int[] powers;
+
+    /**
+     * Constructor.
+     *
+     * @param n     Ports per switch
+     * @param k     Level of the BCube (k + 1 ports per server)
+     */
+    public BCubeGraph(int n, int k) {
+        super("BCube", FlattenedButterflyGraph.power(n, k + 1) + (k + 1) * FlattenedButterflyGraph.power(n, k), 0);
+        this.n = n;
+        this.k = k;
+        this.numServers = FlattenedButterflyGraph.power(n, k + 1);
+        this.switchesPerLevel = FlattenedButterflyGraph.power(n, k);
+        this.powers = new int[k + 2];
+        for (int i = 0; i <= k + 1; i++) {
+            powers[i] = FlattenedButterflyGraph.power(n, i);
+        }
+
+        // Connect each server to its switch on every level
+        int numLinks = numServers * (k + 1);
+        int[] from = new int[numLinks];
+        int[] to = new int[numLinks];
+        int e = 0;
+        for (int server = 0; server < numServers; server++) {
+            setNodeWeight(server, 1);
+            for (int l = 0; l <= k; l++) {
+                from[e] = server;
+                to[e] = numServers + l * switchesPerLevel + removeDigit(server, l);
+                e++;
+            }
+        }
+        addDistinctBidirNeighbors(from, to, numLinks);
+        setAnalyticDistances(new Distances());
+
+        System.out.println("Constructed BCube_" + k + " with n = " + n + " (servers: " + numServers + ", switches: " + (numNodes - numServers) + ")");
+
+    }
+
+    /**
+     * Remove digit l from a server number.
+     *
+     * @param server    Server number
+     * @param l         Digit position
+     *
+     * @return Number of the remaining k digits
+     */
+    private int removeDigit(int server, int l) {
+        return (server / powers[l + 1]) * powers[l] + server % powers[l];
+    }
+
+    /**
+     * Insert digit 0 at position l into a switch number.
+     *
+     * @param number    Number of k digits
+     * @param l         Digit position
+     *
+     * @return Number of k + 1 digits
+     */
+    private int insertDigit(int number, int l) {
+        return (number / powers[l]) * powers[l + 1] + number % powers[l];
+    }
+
+    /**
+     * Closed-form distances: every digit in which two servers differ costs two hops (via the switch
+     * of that level), and a switch is one hop from the servers matching it on all other digits, any
+     * of which can be chosen.
+     */
+    private class Distances extends AnalyticDistanceOracle {
+
+        @Override
+        public int getDiameter() {
+            return 2 * (k + 1);
+        }
+
+        @Override
+        public int getDistance(int i, int j) {
+            if (i == j) {
+                return 0;
+            }
+
+            // Full numbers, with the level of a switch as wildcard digit
+            int li = i < numServers ? -1 : (i - numServers) / switchesPerLevel;
+            int lj = j < numServers ? -1 : (j - numServers) / switchesPerLevel;
+            int ni = li < 0 ? i : insertDigit((i - numServers) % switchesPerLevel, li);
+            int nj = lj < 0 ? j : insertDigit((j - numServers) % switchesPerLevel, lj);
+
+            // Two hops per differing digit, and one hop from and to each switch
+            int differing = 0;
+            for (int l = 0; l <= k; l++) {
+                if (l != li && l != lj && (ni / powers[l]) % n != (nj / powers[l]) % n) {
+                    differing++;
+                }
+            }
+            return 2 * differing + (li < 0 ? 0 : 1) + (lj < 0 ? 0 : 1);
+
+        }
+
+    }
+
+}
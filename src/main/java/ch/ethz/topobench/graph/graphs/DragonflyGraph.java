@@ -0,0 +1,134 @@
+/* *******************************************************
+ * Released under the MIT License (MIT) --- see LICENSE
+ * Copyright (c) 2014 Ankit Singla, Sangeetha Abdu Jyothi,
+ * Chi-Yao Hong, Lucian Popa, P. Brighten Godfrey,
+ * Alexandra Kolla, Simon Kassing
+ * ******************************************************** */
+
+package ch.ethz.topobench.graph.graphs;
+
+import ch.ethz.topobench.graph.Graph;
+import ch.ethz.topobench.graph.distance.AnalyticDistanceOracle;
+
+/**
+ * Dragonfly topology implemented based on the following paper at the ISCA '08 conference:
+ *
+ * "Technology-Driven, Highly-Scalable Dragonfly Topology"
+ * by John Kim, William J. Dally, Steve Scott, and Dennis Abts (2008).
+ *
+ * There are g groups of a routers each (router r of group x has index x * a + r). The routers
+ * within a group are fully connected, and each pair of groups is connected by exactly one
+ * global link, thus g is at most a * h + 1 with h global ports per router. Group x numbers the
+ * other groups y in ascending order (y if y &lt; x, else y - 1) and attaches the global link to
+ * group y at router idx / h ("consecutive" arrangement).
+ */
+public class DragonflyGraph extends Graph {
+
+    private final int a;
+    private final int h;
+    private final int g;
+
+    /**
+     * Constructor.
+     *
+     * @param a     Routers per group
+     * @param h     Global ports per router
+     * @param g     Number of groups (at most a * h + 1)
+     * @param s     Server ports per router
+     */
+    public DragonflyGraph(int a, int h, int g, int s) {
+        super("Dragonfly", a * g, s);
+        if (a < 1 || h < 0 || g < 1 || g > a * h + 1) {
+            throw new RuntimeException("DragonflyGraph: constructor: invalid parameters a=" + a + ", h=" + h + ", g=" + g + " (g must be in [1, a * h + 1]).");
+        }
+        this.a = a;
+        this.h = h;
+        this.g = g;
+
+        // Local links
+        int numLocal = g * a * (a - 1) / 2;
+        int numGlobal = g * (g - 1) / 2;
+        int[] from = new int[numLocal + numGlobal];
+        int[] to = new int[numLocal + numGlobal];
+        int e = 0;
+        for (int x = 0; x < g; x++) {
+            for (int r1 = 0; r1 < a; r1++) {
+                for (int r2 = r1 + 1; r2 < a; r2++) {
+                    from[e] = x * a + r1;
+                    to[e] = x * a + r2;
+                    e++;
+                }
+            }
+        }
+
+        // Global links
+        for (int x = 0; x < g; x++) {
+            for (int y = x + 1; y < g; y++) {
+                from[e] = gateway(x, y);
+                to[e] = gateway(y, x);
+                e++;
+            }
+        }
+        addDistinctBidirNeighbors(from, to, e);
+        setAnalyticDistances(new Distances());
+
+        System.out.println("Constructed dragonfly with a = " + a + ", h = " + h + ", g = " + g + " (routers: " + numNodes + ")");
+
+    }
+
+    /**
+     * Retrieve the router of group x with the global link to group y.
+     *
+     * @param x     Group index
+     * @param y     Other group index
+     *
+     * @return Router index
+     */
+    private int gateway(int x, int y) {
+        return x * a + (y < x ? y : y - 1) / h;
+    }
+
+    /**
+     * Closed-form distances: routers of different groups are at most three hops apart via their
+     * direct global link, but two if the first router's global link to a third group lands on the
+     * router which holds that group's global link to the second router.
+     */
+    private class Distances extends AnalyticDistanceOracle {
+
+        @Override
+        public int getDiameter() {
+            return g > 1 ? 3 : 1;
+        }
+
+        @Override
+        public int getDistance(int i, int j) {
+            if (i == j) {
+                return 0;
+            }
+            int x = i / a;
+            int y = j / a;
+            if (x == y) {
+                return 1;
+            }
+
+            // Via the direct global link
+            int direct = (i != gateway(x, y) ? 1 : 0) + 1 + (j != gateway(y, x) ? 1 : 0);
+            if (direct <= 2) {
+                return direct;
+            }
+
+            // Via a single router of a third group z, reached by a global link of router i
+            int r = i % a;
+            for (int idx = r * h; idx < (r + 1) * h && idx < g - 1; idx++) {
+                int z = idx < x ? idx : idx + 1;
+                if (z != y && gateway(z, x) == gateway(z, y) && gateway(y, z) == j) {
+                    return 2;
+                }
+            }
+            return 3;
+
+        }
+
+    }
+
+}
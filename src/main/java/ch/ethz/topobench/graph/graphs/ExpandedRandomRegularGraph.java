@@ -0,0 +1,257 @@
+/* *******************************************************
+ * Released under the MIT License (MIT) --- see LICENSE
+ * Copyright (c) 2014 Ankit Singla, Sangeetha Abdu Jyothi,
+ * Chi-Yao Hong, Lucian Popa, P. Brighten Godfrey,
+ * Alexandra Kolla, Simon Kassing
+ * ******************************************************** */
+
+package ch.ethz.topobench.graph.graphs;
+
+import ch.ethz.topobench.graph.FrozenAdjacency;
+import ch.ethz.topobench.graph.Graph;
+import ch.ethz.topobench.graph.distance.DistanceMatrix;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Incremental expansion of a Jellyfish (random regular graph) as described in:
+ *
+ * "Jellyfish: Networking Data Centers Randomly"
+ * by Ankit Singla, Chi-Yao Hong, Lucian Popa, and P. Brighten Godfrey (2012).
+ *
+ * The new switches are added one by one: while a new switch has at least two free network
+ * ports, a random existing link (u, v) to which it is not yet adjacent is removed, and the
+ * switch is linked to both u and v. All other links remain, thus the existing switches keep
+ * their degree and the expanded graph is again a random regular graph.
+ *
+ * If the shortest paths of the base graph have been calculated and few switches are added,
+ * they are updated instead of recalculated once they are first needed: first for the removed
+ * links (only affected sources are searched again), then for each new switch in O(n^2). Until
+ * then only the distance matrix of the base graph and the link changes are kept.
+ */
+public class ExpandedRandomRegularGraph extends Graph {
+
+    private static final int MAX_ITERATION_LINK_SEARCH = 1000;
+
+    // Base distances, broken base links and new links, and the topology they lead to, until the distances are updated
+    private DistanceMatrix deferredBaseDistances;
+    private int deferredNumBaseNodes;
+    private int[][] deferredBrokenLinks;
+    private int[][] deferredNewLinks;
+    private FrozenAdjacency deferredAdjacency;
+
+    /**
+     * Construct the expansion of a graph by additional switches. The base graph is not changed.
+     *
+     * @param base              Base graph, its nodes keep their indices
+     * @param numNewSwitches    Number of switches to add (indices base.getNumNodes() onwards)
+     * @param networkDegree     Network ports per new switch
+     * @param serverPorts       Server ports per new switch
+     */
+    public ExpandedRandomRegularGraph(Graph base, int numNewSwitches, int networkDegree, int serverPorts) {
+        super(base.getName(), base.getNumNodes() + numNewSwitches, 0);
+        int numOld = base.getNumNodes();
+
+        // Print graph expansion information
+        System.out.println(
+                "Expanding graph (n=" + numOld + ") by " + numNewSwitches + " switches with network degree " +
+                networkDegree + " and " + serverPorts + " server ports."
+        );
+
+        // Base links, each once
+        FrozenAdjacency adjacency = base.getFrozenAdjacency();
+        int numBaseLinks = 0;
+        for (int u = 0; u < numOld; u++) {
+            for (int e = adjacency.getEdgeStart(u); e < adjacency.getEdgeEnd(u); e++) {
+                if (u < adjacency.getTarget(e)) {
+                    numBaseLinks++;
+                }
+            }
+        }
+        int capacity = numBaseLinks + numNewSwitches * networkDegree / 2 + 1;
+        int[] from = new int[capacity];
+        int[] to = new int[capacity];
+        int numLinks = 0;
+        for (int u = 0; u < numOld; u++) {
+            for (int e = adjacency.getEdgeStart(u); e < adjacency.getEdgeEnd(u); e++) {
+                if (u < adjacency.getTarget(e)) {
+                    from[numLinks] = u;
+                    to[numLinks] = adjacency.getTarget(e);
+                    numLinks++;
+                }
+            }
+        }
+
+        // Break random links and rewire them to each new switch
+        boolean[] adjacent = new boolean[numNodes];
+        int[] marked = new int[networkDegree];
+        int unused = 0;
+        for (int x = numOld; x < numNodes; x++) {
+            int free = networkDegree;
+            int numMarked = 0;
+            while (free >= 2 && numLinks > 0) {
+
+                // Find a link not adjacent to x
+                int e = -1;
+                for (int iteration = 0; iteration < MAX_ITERATION_LINK_SEARCH; iteration++) {
+                    int candidate = rand.nextInt(numLinks);
+                    if (!adjacent[from[candidate]] && !adjacent[to[candidate]]) {
+                        e = candidate;
+                        break;
+                    }
+                }
+                if (e == -1) {
+                    break;
+                }
+
+                // Replace (u, v) by (x, u) and (x, v)
+                int u = from[e];
+                int v = to[e];
+                from[e] = x;
+                to[e] = u;
+                from[numLinks] = x;
+                to[numLinks] = v;
+                numLinks++;
+                adjacent[u] = true;
+                adjacent[v] = true;
+                marked[numMarked++] = u;
+                marked[numMarked++] = v;
+                free -= 2;
+
+            }
+            unused += free;
+
+            // Reset adjacency marks
+            for (int i = 0; i < numMarked; i++) {
+                adjacent[marked[i]] = false;
+            }
+
+        }
+        if (unused > 0) {
+            System.out.println("Unable to use " + unused + " network ports of the new switches.");
+        }
+
+        // Base links which remain, and the links of each new switch to lower indexed ones
+        long[] remaining = new long[numLinks];
+        int numRemaining = 0;
+        List<List<Integer>> newLinks = new ArrayList<>();
+        for (int x = numOld; x < numNodes; x++) {
+            newLinks.add(new ArrayList<Integer>());
+        }
+        for (int e = 0; e < numLinks; e++) {
+            int hi = Math.max(from[e], to[e]);
+            int lo = Math.min(from[e], to[e]);
+            if (hi < numOld) {
+                remaining[numRemaining++] = ((long) lo << 32) | hi;
+            } else {
+                newLinks.get(hi - numOld).add(lo);
+            }
+        }
+        Arrays.sort(remaining, 0, numRemaining);
+
+        // Broken base links
+        List<int[]> broken = new ArrayList<>();
+        for (int u = 0; u < numOld; u++) {
+            for (int e = adjacency.getEdgeStart(u); e < adjacency.getEdgeEnd(u); e++) {
+                int v = adjacency.getTarget(e);
+                if (u < v && Arrays.binarySearch(remaining, 0, numRemaining, ((long) u << 32) | v) < 0) {
+                    broken.add(new int[]{u, v});
+                }
+            }
+        }
+        int[][] brokenLinks = broken.toArray(new int[broken.size()][]);
+        int[][] newLinkArrays = new int[numNewSwitches][];
+        for (int i = 0; i < numNewSwitches; i++) {
+            List<Integer> neighbors = newLinks.get(i);
+            newLinkArrays[i] = new int[neighbors.size()];
+            for (int j = 0; j < neighbors.size(); j++) {
+                newLinkArrays[i][j] = neighbors.get(j);
+            }
+        }
+
+        // Build the expanded topology, with the distance settings of the base graph
+        inheritDistanceSettings(base);
+        build(base, brokenLinks, newLinkArrays, serverPorts);
+
+        // Updating the base distances is only cheaper than recalculating if they exist and few switches are added
+        if (numNewSwitches <= networkDegree) {
+            this.deferredBaseDistances = shareDistances(base);
+            if (deferredBaseDistances != null) {
+                this.deferredNumBaseNodes = numOld;
+                this.deferredBrokenLinks = brokenLinks;
+                this.deferredNewLinks = newLinkArrays;
+                this.deferredAdjacency = freeze();
+            }
+        }
+
+    }
+
+    /**
+     * Copy the base graph, remove the broken links and add the new switches one by one.
+     *
+     * @param base              Base graph
+     * @param brokenLinks       Base links to remove
+     * @param newLinks          Links of each new switch to lower indexed ones
+     * @param serverPorts       Server ports per new switch
+     */
+    private void build(Graph base, int[][] brokenLinks, int[][] newLinks, int serverPorts) {
+        int numOld = base.getNumNodes();
+
+        // Copy the base graph
+        FrozenAdjacency adjacency = base.getFrozenAdjacency();
+        for (int u = 0; u < numOld; u++) {
+            setNodeWeight(u, base.getNodeWeight(u));
+            for (int e = adjacency.getEdgeStart(u); e < adjacency.getEdgeEnd(u); e++) {
+                int v = adjacency.getTarget(e);
+                if (u < v) {
+                    addBidirNeighbor(u, v, adjacency.getCapacity(e));
+                }
+            }
+        }
+        for (int x = numOld; x < numNodes; x++) {
+            setNodeWeight(x, serverPorts);
+        }
+
+        // Remove the broken base links
+        for (int[] link : brokenLinks) {
+            removeBidirNeighbor(link[0], link[1]);
+        }
+
+        // Add the new switches one by one
+        for (int x = numOld; x < numNodes; x++) {
+            addNodeLinks(x, newLinks[x - numOld]);
+        }
+
+    }
+
+    /**
+     * Update the distances of the base graph for the expansion, if the topology has not
+     * been changed since.
+     *
+     * @return True iff the shortest paths are valid afterwards
+     */
+    @Override
+    protected boolean updateDeferredShortestPaths() {
+        if (deferredBaseDistances == null) {
+            return false;
+        }
+        DistanceMatrix baseDistances = deferredBaseDistances;
+        int[][] brokenLinks = deferredBrokenLinks;
+        int[][] newLinks = deferredNewLinks;
+        FrozenAdjacency adjacency = deferredAdjacency;
+        deferredBaseDistances = null;
+        deferredBrokenLinks = null;
+        deferredNewLinks = null;
+        deferredAdjacency = null;
+
+        // The expansion must still have this topology
+        if (adjacency != getFrozenAdjacency()) {
+            return false;
+        }
+        return inheritExpandedDistances(baseDistances, deferredNumBaseNodes, brokenLinks, newLinks);
+
+    }
+
+}
@@ -8,6 +8,7 @@
 package ch.ethz.topobench.graph.graphs;
 
 import ch.ethz.topobench.graph.Graph;
+import ch.ethz.topobench.graph.distance.AnalyticDistanceOracle;
 
 /**
  * FAT-tree graph topology implemented based on the following paper at the SIGCOMM '08 conference:
@@ -42,6 +43,7 @@ public class FatTreeSigcomm extends Graph {
 		super("fat", K * K * 5/4, 0);
 		this.K = K;
 		populateAdjacencyList();
+        setAnalyticDistances(new Distances());
         System.out.println("Constructed Fat-Tree with K = " + K + " (switches: " + this.getNumNodes() + ")");
 	}
 
@@ -100,6 +102,51 @@ public class FatTreeSigcomm extends Graph {
 
 	}
 
+    /**
+     * Closed-form distances: a bottom node reaches the middle nodes of its pod directly, and
+     * middle node inPod of each pod connects to core group inPod (the cores K*K + inPod*K/2 ...).
+     */
+    private class Distances extends AnalyticDistanceOracle {
+
+        @Override
+        public int getDiameter() {
+            return 4;
+        }
+
+        @Override
+        public int getDistance(int i, int j) {
+            if (i == j) {
+                return 0;
+            }
+            int li = layer(i);
+            int lj = layer(j);
+            if (li > lj) {
+                return getDistance(j, i);
+            }
+            int half = K / 2;
+            int pi = (i % (K * K / 2)) / half;  // Pod (bottom, middle) or core group (core)
+            int pj = (j % (K * K / 2)) / half;
+            if (li == 0 && lj == 0) {
+                return pi == pj ? 2 : 4;
+            } else if (li == 0 && lj == 1) {
+                return pi == pj ? 1 : 3;
+            } else if (li == 0) {
+                return 2;
+            } else if (li == 1 && lj == 1) {
+                return pi == pj || i % half == j % half ? 2 : 4;
+            } else if (li == 1) {
+                return i % half == pj ? 1 : 3;
+            } else {
+                return pi == pj ? 2 : 4;
+            }
+        }
+
+        private int layer(int node) {
+            return node < K * K / 2 ? 0 : (node < K * K ? 1 : 2);
+        }
+
+    }
+
     /**
      * Get parameter K.
      *
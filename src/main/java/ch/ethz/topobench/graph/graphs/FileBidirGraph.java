@@ -1,10 +1,10 @@
 package ch.ethz.topobench.graph.graphs;
 
 import ch.ethz.topobench.graph.Graph;
+import ch.ethz.topobench.graph.utility.EdgeListReader;
 
-import java.io.BufferedReader;
-import java.io.FileInputStream;
-import java.io.InputStreamReader;
+import java.util.Arrays;
+import java.util.BitSet;
 
 public class FileBidirGraph extends Graph {
 
@@ -27,6 +27,10 @@ public class FileBidirGraph extends Graph {
      * 2 3
      * 3 2
      *
+     * The file is parsed as a byte stream and may be gzip-compressed (see
+     * {@link EdgeListReader}). Duplicate pairs are removed by sorting, after which
+     * the links are added in bulk, in the order of their first occurrence.
+     *
      * TODO: This is out of date, for example it should be possible to
      * TODO: to specify node weights. Also to read the n from file.
      *
@@ -40,41 +44,52 @@ public class FileBidirGraph extends Graph {
 
         try {
 
-            // Open input stream
-            FileInputStream fileStream = new FileInputStream(filename);
-            BufferedReader br = new BufferedReader(new InputStreamReader(fileStream));
-
-            // Simply read in the server pairs
-            String strLine;
-            int doubles = 0;
-            int edges = 0;
-            while ((strLine = br.readLine()) != null) {
+            // Read in the node pairs
+            int[][] pairs = EdgeListReader.read(filename);
+            int[] from = pairs[0];
+            int[] to = pairs[1];
+            int edges = from.length;
 
-                // Split line
-                String[] match = strLine.split(" ");
-                int n1 = Integer.valueOf(match[0]);
-                int n2 = Integer.valueOf(match[1]);
+            // Check bounds
+            for (int i = 0; i < edges; i++) {
+                if (from[i] < 0 || to[i] < 0 || from[i] >= n || to[i] >= n) {
+                    throw new RuntimeException("Out of bounds link indexes (n=" + n + "), link: " + from[i] + " - " + to[i]);
+                }
+            }
 
-                // Check bounds
-                if (n1 < 0 || n2 < 0 || n1 >= n || n2 >= n) {
-                    throw new RuntimeException("Out of bounds link indexes (n=" + n + "), link: " + n1 + " - " + n2);
+            // Distinct undirected pairs by sorting their (min, max) keys
+            long[] keys = new long[edges];
+            for (int i = 0; i < edges; i++) {
+                keys[i] = pairKey(from[i], to[i]);
+            }
+            long[] unique = keys.clone();
+            Arrays.sort(unique);
+            int numUnique = 0;
+            for (int i = 0; i < edges; i++) {
+                if (i == 0 || unique[i] != unique[i - 1]) {
+                    unique[numUnique++] = unique[i];
                 }
+            }
 
-                if (!isBidirNeighbor(n1, n2)) {
-                    addBidirNeighbor(n1, n2);
+            // Keep the first occurrence of each pair in file order
+            BitSet seen = new BitSet(numUnique);
+            int doubles = 0;
+            for (int i = 0; i < edges; i++) {
+                int idx = Arrays.binarySearch(unique, 0, numUnique, keys[i]);
+                if (!seen.get(idx)) {
+                    seen.set(idx);
+                    from[doubles] = from[i];
+                    to[doubles] = to[i];
                     doubles++;
                 }
-
-                edges++;
-
             }
 
             if (edges / 2 != doubles && edges != doubles) {
                 throw new RuntimeException("FileGraph: Not a bi-directional graph specified; number of specified edges not equal to m or 2m.");
             }
 
-            // Close input stream
-            br.close();
+            // Build the graph in bulk
+            addDistinctBidirNeighbors(from, to, doubles);
 
             // Set weight non-zero only for leaf nodes
             for (int i = 0; i < partSwitches; i++) {
@@ -88,4 +103,16 @@ public class FileBidirGraph extends Graph {
 
     }
 
+    /**
+     * Encode an undirected node pair as a single key, independent of its direction.
+     *
+     * @param n1    First node index
+     * @param n2    Second node index
+     *
+     * @return Key (smallest index in the upper 32 bits)
+     */
+    private static long pairKey(int n1, int n2) {
+        return ((long) Math.min(n1, n2) << 32) | Math.max(n1, n2);
+    }
+
 }
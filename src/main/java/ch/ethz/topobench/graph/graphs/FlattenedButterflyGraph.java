@@ -0,0 +1,112 @@
+/* *******************************************************
+ * Released under the MIT License (MIT) --- see LICENSE
+ * Copyright (c) 2014 Ankit Singla, Sangeetha Abdu Jyothi,
+ * Chi-Yao Hong, Lucian Popa, P. Brighten Godfrey,
+ * Alexandra Kolla, Simon Kassing
+ * ******************************************************** */
+
+package ch.ethz.topobench.graph.graphs;
+
+import ch.ethz.topobench.graph.Graph;
+import ch.ethz.topobench.graph.distance.AnalyticDistanceOracle;
+
+/**
+ * Flattened butterfly topology implemented based on the following paper at the ISCA '07 conference:
+ *
+ * "Flattened Butterfly: A Cost-Efficient Topology for High-Radix Networks"
+ * by John Kim, William J. Dally, and Dennis Abts (2007).
+ *
+ * The k-ary D-flat has k^D switches numbered by D base-k digits. Along each dimension the
+ * switches which only differ in that digit are fully connected, thus every switch has
+ * D * (k - 1) network ports. The distance between two switches is the number of digits in
+ * which their numbers differ.
+ */
+public class FlattenedButterflyGraph extends Graph {
+
+    private final int k;
+    private final int dimensions;
+
+    /**
+     * Constructor.
+     *
+     * @param k             Radix (switches along each dimension)
+     * @param dimensions    Number of dimensions D
+     * @param s             Server ports per switch
+     */
+    public FlattenedButterflyGraph(int k, int dimensions, int s) {
+        super("Flattened Butterfly", power(k, dimensions), s);
+        this.k = k;
+        this.dimensions = dimensions;
+
+        // Connect each switch to the ones with a higher digit in a single dimension
+        int numLinks = numNodes * dimensions * (k - 1) / 2;
+        int[] from = new int[numLinks];
+        int[] to = new int[numLinks];
+        int e = 0;
+        for (int u = 0; u < numNodes; u++) {
+            int weight = 1;
+            for (int dim = 0; dim < dimensions; dim++) {
+                int digit = (u / weight) % k;
+                for (int other = digit + 1; other < k; other++) {
+                    from[e] = u;
+                    to[e] = u + (other - digit) * weight;
+                    e++;
+                }
+                weight *= k;
+            }
+        }
+        addDistinctBidirNeighbors(from, to, numLinks);
+        setAnalyticDistances(new Distances());
+
+        System.out.println("Constructed " + k + "-ary " + dimensions + "-flat flattened butterfly (switches: " + numNodes + ")");
+
+    }
+
+    /**
+     * Calculate base^exponent, failing on overflow.
+     *
+     * @param base      Base
+     * @param exponent  Exponent
+     *
+     * @return base^exponent
+     */
+    static int power(int base, int exponent) {
+        if (base < 1 || exponent < 0) {
+            throw new RuntimeException("FlattenedButterflyGraph: power: invalid parameters " + base + "^" + exponent + ".");
+        }
+        long result = 1;
+        for (int i = 0; i < exponent; i++) {
+            result *= base;
+            if (result > Integer.MAX_VALUE) {
+                throw new RuntimeException("FlattenedButterflyGraph: power: " + base + "^" + exponent + " is too large.");
+            }
+        }
+        return (int) result;
+    }
+
+    /**
+     * Closed-form distances: number of differing digits.
+     */
+    private class Distances extends AnalyticDistanceOracle {
+
+        @Override
+        public int getDiameter() {
+            return k > 1 ? dimensions : 0;
+        }
+
+        @Override
+        public int getDistance(int i, int j) {
+            int distance = 0;
+            while (i != j) {
+                if (i % k != j % k) {
+                    distance++;
+                }
+                i /= k;
+                j /= k;
+            }
+            return distance;
+        }
+
+    }
+
+}
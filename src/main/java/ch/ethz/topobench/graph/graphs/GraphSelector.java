@@ -7,9 +7,27 @@
 
 package ch.ethz.topobench.graph.graphs;
 
+import ch.ethz.topobench.Main;
 import ch.ethz.topobench.graph.Graph;
 import ch.ethz.topobench.graph.SelectorResult;
+import ch.ethz.topobench.graph.TopologySnapshot;
 import ch.ethz.topobench.graph.graphs.generators.*;
+import ch.ethz.topobench.graph.utility.CmdAssistant;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 import static ch.ethz.topobench.graph.graphs.GraphSelector.Type.*;
 
@@ -20,6 +38,12 @@ public class GraphSelector {
         FAT_TREE,
         XPANDER,
         TWO_PART_RR_GRAPH,
+        MULTI_PART_RR_GRAPH,
+        HYPERCUBE,
+        DRAGONFLY,
+        FLATTENED_BUTTERFLY,
+        BCUBE,
+        SLIM_FLY,
         FROM_FILE
     }
 
@@ -36,6 +60,12 @@ public class GraphSelector {
             case FAT_TREE:              return "FT";
             case XPANDER:               return "XP";
             case TWO_PART_RR_GRAPH:     return "TPRR";
+            case MULTI_PART_RR_GRAPH:   return "MPRR";
+            case HYPERCUBE:             return "HC";
+            case DRAGONFLY:             return "DF";
+            case FLATTENED_BUTTERFLY:   return "FBF";
+            case BCUBE:                 return "BC";
+            case SLIM_FLY:              return "SF";
             case FROM_FILE:             return "FILE";
             default:                    throw new RuntimeException("GraphSelector: getGraphTypeRepresentation: cannot select illegal graph type");
         }
@@ -54,6 +84,12 @@ public class GraphSelector {
             case "FT":   return FAT_TREE;
             case "XP":   return XPANDER;
             case "TPRR": return TWO_PART_RR_GRAPH;
+            case "MPRR": return MULTI_PART_RR_GRAPH;
+            case "HC":   return HYPERCUBE;
+            case "DF":   return DRAGONFLY;
+            case "FBF":  return FLATTENED_BUTTERFLY;
+            case "BC":   return BCUBE;
+            case "SF":   return SLIM_FLY;
             case "FILE": return FROM_FILE;
             default: return null;
         }
@@ -68,15 +104,204 @@ public class GraphSelector {
      * @return  Resulting traffic
      */
     public static SelectorResult<Graph> select(Type graphType, String[] remainingArgs) {
+        return select(graphType, remainingArgs, null);
+    }
+
+    /**
+     * Check whether the graph type is a structured topology with closed-form distances. Such graphs
+     * are deterministic and cheap to generate, and only the generated graph carries its analytic
+     * distance oracle (a snapshot would fall back to searching all pairs).
+     *
+     * @param gt    Graph type
+     *
+     * @return True iff the graph type has analytic distances
+     */
+    static boolean hasAnalyticDistances(Type gt) {
+        switch (gt) {
+            case FAT_TREE:
+            case HYPERCUBE:
+            case DRAGONFLY:
+            case FLATTENED_BUTTERFLY:
+            case BCUBE:
+            case SLIM_FLY:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Generate the graph for the given graph type, or load it from the topology cache if
+     * it has been generated before with the same graph arguments and random seed.
+     * Graph types with analytic distances are always generated.
+     *
+     * @param graphType                 Graph type
+     * @param remainingArgs             Remaining arguments (must *all* be applicable, else fails)
+     * @param topologyCacheDirectory    Directory of topology snapshots (created if it does not exist), null to disable
+     *
+     * @return  Resulting graph
+     */
+    public static SelectorResult<Graph> select(Type graphType, String[] remainingArgs, File topologyCacheDirectory) {
+
+        GraphGenerator generator = getGenerator(graphType);
+        if (topologyCacheDirectory == null || hasAnalyticDistances(graphType)) {
+            return generator.generate(remainingArgs);
+        }
+        if (!topologyCacheDirectory.isDirectory() && !topologyCacheDirectory.mkdirs()) {
+            throw new RuntimeException("GraphSelector: select: unable to create directory " + topologyCacheDirectory + ".");
+        }
+
+        // The graph arguments are those before the first argument the generator does not know
+        String[] afterGraphArgs = CmdAssistant.parseOptions(generator.getOptions(), remainingArgs, true).getArgs();
+        String[] graphArgs = Arrays.copyOf(remainingArgs, remainingArgs.length - afterGraphArgs.length);
+        String key = getTopologyKey(graphType, graphArgs, Main.getRandomSeed());
+        File file = new File(topologyCacheDirectory, key + ".bin");
+
+        // Attempt to load existing
+        try {
+            TopologySnapshot snapshot = TopologySnapshot.read(file, key);
+            if (snapshot != null) {
+                System.out.println(" > Loaded topology from cache " + file + ".");
+
+                // Continue the generator the graph would have been built with
+                if (Main.getRandom() == Main.universalRand) {
+                    Main.restoreGlobalRandomness(snapshot.getRandom());
+                } else {
+                    Main.bindThreadRandomness(snapshot.getRandom());
+                }
+                return new SelectorResult<>(snapshot.createGraph(), afterGraphArgs);
+            }
+        } catch (IOException e) {
+            System.err.println("GraphSelector: select: unable to read " + file + ": " + e.getMessage());
+        }
+
+        // Generate and store
+        SelectorResult<Graph> result = generator.generate(remainingArgs);
+        try {
+            TopologySnapshot.write(result.getResult(), Main.getRandom(), key, file);
+        } catch (IOException e) {
+            System.err.println("GraphSelector: select: unable to write " + file + ": " + e.getMessage());
+        }
+        return result;
+
+    }
+
+    /**
+     * Generate independent instances of the graph type in parallel (e.g. for statistical runs).<br />
+     * <br />
+     * Instance i draws all its randomness from its own generator, seeded by the i-th split of a
+     * splittable generator on the global random seed. As the seeds are derived before generation
+     * starts, each instance only depends on the seed and its index, not on the number of threads.
+     * The global random number generator is not used.
+     *
+     * @param graphType         Graph type
+     * @param remainingArgs     Remaining arguments (must *all* be applicable, else fails)
+     * @param numInstances      Number of instances
+     * @param parallelism       Number of threads
+     *
+     * @return  Resulting graphs, in instance order
+     */
+    public static List<SelectorResult<Graph>> selectInstances(Type graphType, final String[] remainingArgs, int numInstances, int parallelism) {
+
+        // Derive the seed of each instance
+        SplittableRandom master = new SplittableRandom(Main.getRandomSeed());
+        List<Callable<SelectorResult<Graph>>> tasks = new ArrayList<>();
+        for (int i = 0; i < numInstances; i++) {
+            final long seed = master.split().nextLong();
+            final GraphGenerator generator = getGenerator(graphType);
+            tasks.add(new Callable<SelectorResult<Graph>>() {
+                @Override
+                public SelectorResult<Graph> call() {
+                    Main.bindThreadRandomness(new Random(seed));
+                    try {
+                        return generator.generate(remainingArgs.clone());
+                    } finally {
+                        Main.bindThreadRandomness(null);
+                    }
+                }
+            });
+        }
+
+        // Generate
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            List<SelectorResult<Graph>> results = new ArrayList<>();
+            for (Future<SelectorResult<Graph>> future : pool.invokeAll(tasks)) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (InterruptedException | ExecutionException e) {
+            throw new RuntimeException("GraphSelector: selectInstances: generation failed: " + e.getCause());
+        } finally {
+            pool.shutdown();
+        }
 
+    }
+
+    /**
+     * Retrieve the generator of the graph type.
+     *
+     * @param graphType     Graph type
+     *
+     * @return  Graph generator
+     */
+    private static GraphGenerator getGenerator(Type graphType) {
         switch(graphType) {
-            case RANDOM_REGULAR_GRAPH: return new RandomRegularGraphGenerator().generate(remainingArgs);
-            case XPANDER: return new XpanderGraphGenerator().generate(remainingArgs);
-            case FAT_TREE: return new FatTreeSigcommGenerator().generate(remainingArgs);
-            case TWO_PART_RR_GRAPH: return new TwoPartRRGraphGenerator().generate(remainingArgs);
-            case FROM_FILE: return new FromFileGraphGenerator().generate(remainingArgs);
+            case RANDOM_REGULAR_GRAPH: return new RandomRegularGraphGenerator();
+            case XPANDER: return new XpanderGraphGenerator();
+            case FAT_TREE: return new FatTreeSigcommGenerator();
+            case TWO_PART_RR_GRAPH: return new TwoPartRRGraphGenerator();
+            case MULTI_PART_RR_GRAPH: return new MultiPartRRGraphGenerator();
+            case HYPERCUBE: return new HypercubeGraphGenerator();
+            case DRAGONFLY: return new DragonflyGraphGenerator();
+            case FLATTENED_BUTTERFLY: return new FlattenedButterflyGraphGenerator();
+            case BCUBE: return new BCubeGraphGenerator();
+            case SLIM_FLY: return new SlimFlyGraphGenerator();
+            case FROM_FILE: return new FromFileGraphGenerator();
             default: throw new RuntimeException("GraphTypeSelector: select: cannot select illegal graph type");
         }
+    }
+
+    /**
+     * Determine the topology cache key: the SHA-256 hash (in hexadecimal) of the graph type,
+     * its arguments and the random seed. Arguments naming an existing file (e.g. an empirical
+     * graph) also contribute its size and modification time, such that editing it invalidates
+     * the cached topology.
+     *
+     * @param graphType     Graph type
+     * @param graphArgs     Arguments consumed by the graph generator
+     * @param seed          Random seed
+     *
+     * @return  Hexadecimal key (64 characters)
+     */
+    static String getTopologyKey(Type graphType, String[] graphArgs, long seed) {
+
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("GraphSelector: getTopologyKey: SHA-256 is not available.");
+        }
+
+        // Null-separated fields
+        StringBuilder fields = new StringBuilder();
+        fields.append(getGraphTypeRepresentation(graphType)).append('\0');
+        for (String arg : graphArgs) {
+            fields.append(arg).append('\0');
+            File file = new File(arg);
+            if (file.isFile()) {
+                fields.append(file.length()).append(':').append(file.lastModified()).append('\0');
+            }
+        }
+        fields.append(seed);
+        byte[] hash = digest.digest(fields.toString().getBytes(StandardCharsets.UTF_8));
+
+        // Hexadecimal representation
+        StringBuilder hex = new StringBuilder();
+        for (byte b : hash) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
 
     }
 
@@ -0,0 +1,86 @@
+/* *******************************************************
+ * Released under the MIT License (MIT) --- see LICENSE
+ * Copyright (c) 2014 Ankit Singla, Sangeetha Abdu Jyothi,
+ * Chi-Yao Hong, Lucian Popa, P. Brighten Godfrey,
+ * Alexandra Kolla, Simon Kassing
+ * ******************************************************** */
+
+package ch.ethz.topobench.graph.graphs;
+
+import ch.ethz.topobench.graph.Graph;
+import ch.ethz.topobench.graph.distance.AnalyticDistanceOracle;
+
+/**
+ * Hypercube of dimension D: the 2^D switches are numbered by D-bit strings, and two
+ * switches are connected iff their numbers differ in exactly one bit. The distance
+ * between two switches is the Hamming distance of their numbers.
+ */
+public class HypercubeGraph extends Graph {
+
+    private final int dimension;
+
+    /**
+     * Constructor.
+     *
+     * @param dimension     Dimension D (network ports per switch)
+     * @param s             Server ports per switch
+     */
+    public HypercubeGraph(int dimension, int s) {
+        super("Hypercube", 1 << checkDimension(dimension), s);
+        this.dimension = dimension;
+
+        // Connect each switch to the ones differing in a single higher bit
+        int numLinks = numNodes * dimension / 2;
+        int[] from = new int[numLinks];
+        int[] to = new int[numLinks];
+        int e = 0;
+        for (int u = 0; u < numNodes; u++) {
+            for (int b = 0; b < dimension; b++) {
+                if ((u & (1 << b)) == 0) {
+                    from[e] = u;
+                    to[e] = u | (1 << b);
+                    e++;
+                }
+            }
+        }
+        addDistinctBidirNeighbors(from, to, numLinks);
+        setAnalyticDistances(new Distances());
+
+        System.out.println("Constructed hypercube with dimension " + dimension + " (switches: " + numNodes + ")");
+
+    }
+
+    private static int checkDimension(int dimension) {
+        if (dimension < 0 || dimension > 30) {
+            throw new RuntimeException("HypercubeGraph: constructor: dimension must be in [0, 30] (received: " + dimension + ").");
+        }
+        return dimension;
+    }
+
+    /**
+     * Closed-form distances: Hamming distance.
+     */
+    private class Distances extends AnalyticDistanceOracle {
+
+        @Override
+        public int getDiameter() {
+            return dimension;
+        }
+
+        @Override
+        public int getDistance(int i, int j) {
+            return Integer.bitCount(i ^ j);
+        }
+
+    }
+
+    /**
+     * Get the dimension.
+     *
+     * @return Dimension D
+     */
+    public int getDimension() {
+        return dimension;
+    }
+
+}
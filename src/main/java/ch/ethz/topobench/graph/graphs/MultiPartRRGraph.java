@@ -0,0 +1,198 @@
+/* *******************************************************
+ * Released under the MIT License (MIT) --- see LICENSE
+ * Copyright (c) 2014 Ankit Singla, Sangeetha Abdu Jyothi,
+ * Chi-Yao Hong, Lucian Popa, P. Brighten Godfrey,
+ * Alexandra Kolla, Simon Kassing
+ * ******************************************************** */
+
+package ch.ethz.topobench.graph.graphs;
+
+import ch.ethz.topobench.graph.Graph;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * The multi-part random regular graph is a composition of any number of random regular graphs
+ * (parts), e.g. to model multi-tier or heterogeneous designs. It generalizes the two-part random
+ * regular graph.
+ *
+ * Part a has n_a switches with s_a servers each. Every switch of part a has d_aa network ports
+ * within its own part, which form a random regular graph (configuration model), and d_ab network
+ * ports towards part b, which are randomly matched to the ports of part b towards part a. If the
+ * number of ports differs on both sides, the remainder stays unused. Links between parts may be
+ * parallel, which increases their capacity.
+ *
+ * The parts are generated concurrently, each with its own random number generator seeded in order
+ * from the global one, thus the graph only depends on the global seed.
+ */
+public class MultiPartRRGraph extends Graph {
+
+    private final int[] partStart;
+
+    /**
+     * Constructor.
+     *
+     * @param sizes     Number of switches of each part
+     * @param degrees   Degree matrix: degrees[a][a] is the internal degree of part a, degrees[a][b]
+     *                  the number of network ports of each switch of part a towards part b
+     * @param servers   Number of servers per switch of each part
+     */
+    public MultiPartRRGraph(int[] sizes, int[][] degrees, int[] servers) {
+        super("MultiPartRRG", sum(sizes), 0);
+
+        // Validate dimensions
+        int numParts = sizes.length;
+        if (degrees.length != numParts || servers.length != numParts) {
+            throw new RuntimeException("MultiPartRRGraph: constructor: expected a degree matrix and servers for all " + numParts + " parts.");
+        }
+        for (int a = 0; a < numParts; a++) {
+            if (degrees[a].length != numParts) {
+                throw new RuntimeException("MultiPartRRGraph: constructor: row " + a + " of the degree matrix does not have " + numParts + " entries.");
+            }
+        }
+
+        // First node index of each part
+        partStart = new int[numParts + 1];
+        for (int a = 0; a < numParts; a++) {
+            partStart[a + 1] = partStart[a] + sizes[a];
+            System.out.println("Part " + a + ": n: " + sizes[a] + ", internal degree: " + degrees[a][a] + ", servers per switch: " + servers[a]);
+        }
+
+        // Servers
+        for (int a = 0; a < numParts; a++) {
+            for (int i = partStart[a]; i < partStart[a + 1]; i++) {
+                setNodeWeight(i, servers[a]);
+            }
+        }
+
+        // Generate the parts concurrently
+        List<Callable<int[][]>> tasks = new ArrayList<>();
+        for (int a = 0; a < numParts; a++) {
+            final int n = sizes[a];
+            final int d = degrees[a][a];
+            final Random random = new Random(rand.nextLong());
+            tasks.add(new Callable<int[][]>() {
+                @Override
+                public int[][] call() {
+                    return RandomRegularGraph.configurationModel(n, d, random);
+                }
+            });
+        }
+        List<Future<int[][]>> parts = ForkJoinPool.commonPool().invokeAll(tasks);
+
+        // Add the parts in order
+        for (int a = 0; a < numParts; a++) {
+            int[][] links;
+            try {
+                links = parts.get(a).get();
+            } catch (InterruptedException | ExecutionException e) {
+                throw new RuntimeException("MultiPartRRGraph: constructor: unable to generate part " + a + ": " + e.getCause());
+            }
+            int[] from = links[0];
+            int[] to = links[1];
+            for (int e = 0; e < from.length; e++) {
+                from[e] += partStart[a];
+                to[e] += partStart[a];
+            }
+            addDistinctBidirNeighbors(from, to, from.length);
+        }
+
+        // Match the ports between each pair of parts
+        for (int a = 0; a < numParts; a++) {
+            for (int b = a + 1; b < numParts; b++) {
+                int[] left = ports(partStart[a], sizes[a], degrees[a][b]);
+                int[] right = ports(partStart[b], sizes[b], degrees[b][a]);
+                int[][] links = matchPorts(left, right, rand);
+                for (int e = 0; e < links[0].length; e++) {
+                    addBidirNeighbor(links[0][e], links[1][e]);
+                }
+                System.out.println(
+                        "Parts " + a + " and " + b + ": " + links[0].length + " links, remainder open network ports: " +
+                        (left.length - links[0].length) + "/" + left.length + " and " + (right.length - links[0].length) + "/" + right.length
+                );
+            }
+        }
+
+        System.out.println("All " + numParts + " parts are merged into one.");
+
+    }
+
+    /**
+     * Retrieve the part of a node.
+     *
+     * @param node  Node index
+     *
+     * @return Part index
+     */
+    public int getPart(int node) {
+        int part = 0;
+        while (partStart[part + 1] <= node) {
+            part++;
+        }
+        return part;
+    }
+
+    /**
+     * Create the list of ports of a range of nodes, each node having the same number of ports.
+     *
+     * @param start         First node index
+     * @param n             Number of nodes
+     * @param numPorts      Number of ports of each node
+     *
+     * @return Node index of each port
+     */
+    static int[] ports(int start, int n, int numPorts) {
+        int[] ports = new int[n * numPorts];
+        for (int i = 0; i < ports.length; i++) {
+            ports[i] = start + i / numPorts;
+        }
+        return ports;
+    }
+
+    /**
+     * Randomly match ports on the left to ports on the right until one of the sides is exhausted.
+     * Each step takes a random open port on both sides and removes it by swapping in the last
+     * open port, thus matching takes linear time.
+     *
+     * @param left      Node index of each left port (is reordered)
+     * @param right     Node index of each right port (is reordered)
+     * @param random    Random number generator
+     *
+     * @return {left node of each link, right node of each link}
+     */
+    static int[][] matchPorts(int[] left, int[] right, Random random) {
+        int numLinks = Math.min(left.length, right.length);
+        int[][] links = new int[2][numLinks];
+        int leftSize = left.length;
+        int rightSize = right.length;
+        for (int e = 0; e < numLinks; e++) {
+
+            // Take two random open ports
+            int leftIdx = random.nextInt(leftSize);
+            int rightIdx = random.nextInt(rightSize);
+            links[0][e] = left[leftIdx];
+            links[1][e] = right[rightIdx];
+
+            // Remove them from the open ports
+            left[leftIdx] = left[--leftSize];
+            right[rightIdx] = right[--rightSize];
+
+        }
+        return links;
+    }
+
+    private static int sum(int[] values) {
+        int total = 0;
+        for (int value : values) {
+            total += value;
+        }
+        return total;
+    }
+
+}
@@ -9,22 +9,251 @@ package ch.ethz.topobench.graph.graphs;
 
 import ch.ethz.topobench.graph.Graph;
 
+import java.util.Arrays;
+import java.util.Random;
 import java.util.Vector;
 
 public class RandomRegularGraph extends Graph {
 
+    public enum Mode {
+        INCREMENTAL,        // Repeatedly link two random nodes with free ports (original, might leave ports unused)
+        CONFIGURATION       // Random stub pairing with edge-switch repair (always full degree)
+    }
+
     private static final int MAX_ITERATION_LINK_SEARCH = 1000;
+    private static final int MAX_REPAIR_ATTEMPTS_PER_STUB = 10;
+    private static final int MAX_CONFIGURATION_RESTARTS = 1000;
 
     /**
-     * Construct a random regular graph.
+     * Construct a random regular graph using the incremental generation.
      *
      * @param n                 Number of nodes
      * @param switchDegree      Out-degree of switch (total number of ports)
      * @param networkDegree     Network degree of switch (total number of ports used for networking)
      */
     public RandomRegularGraph(int n, int switchDegree, int networkDegree) {
+        this(n, switchDegree, networkDegree, Mode.INCREMENTAL);
+    }
+
+    /**
+     * Construct a random regular graph.
+     *
+     * @param n                 Number of nodes
+     * @param switchDegree      Out-degree of switch (total number of ports)
+     * @param networkDegree     Network degree of switch (total number of ports used for networking)
+     * @param mode              Generation mode
+     */
+    public RandomRegularGraph(int n, int switchDegree, int networkDegree, Mode mode) {
         super("Random Regular Graph", n, switchDegree - networkDegree);
-        populateAdjacencyList(switchDegree, networkDegree);
+        switch (mode) {
+            case INCREMENTAL:
+                populateAdjacencyList(switchDegree, networkDegree);
+                break;
+            case CONFIGURATION:
+                populateConfigurationModel(networkDegree);
+                break;
+            default:
+                throw new RuntimeException("RandomRegularGraph: constructor: unknown generation mode " + mode + ".");
+        }
+    }
+
+    /**
+     * Retrieve the generation mode belonging to the string.
+     *
+     * @param mode  Mode string (e.g. "CONFIGURATION")
+     *
+     * @return Generation mode, null if not found
+     */
+    public static Mode getMode(String mode) {
+        for (Mode m : Mode.values()) {
+            if (m.name().equalsIgnoreCase(mode)) {
+                return m;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Populate the adjacency list using the configuration model: all network ports (stubs) are
+     * shuffled and paired up, which takes O(n * d) time. The few self-loops and parallel links this
+     * creates (their expected number only depends on d) are repaired by double edge swaps: the bad
+     * link (u, v) and a random other link (x, y) are replaced by (u, x) and (v, y), or by (u, y) and
+     * (v, x), if neither exists yet. Swaps keep all degrees, thus every switch uses its full network
+     * degree (but one if n * d is odd).
+     *
+     * @param networkDegree     Amount of ports on the switch destined for networking
+     */
+    private void populateConfigurationModel(int networkDegree) {
+
+        // Print graph creation information
+        System.out.println(
+                "Creating RRG (n=" + numNodes + ") with network degree " + networkDegree +
+                " using the configuration model supporting " + getTotalWeight() + " servers."
+        );
+
+        // Build the graph in bulk
+        int[][] links = configurationModel(numNodes, networkDegree, rand);
+        addDistinctBidirNeighbors(links[0], links[1], links[0].length);
+
+    }
+
+    /**
+     * Generate the links of a random regular graph using the configuration model (see
+     * {@link #populateConfigurationModel(int) populateConfigurationModel}). Only the given random
+     * number generator is used, thus independent graphs can be generated concurrently.
+     *
+     * @param n                 Number of nodes
+     * @param networkDegree     Degree of each node
+     * @param random            Random number generator
+     *
+     * @return {first node of each link, second node of each link}
+     */
+    public static int[][] configurationModel(int n, int networkDegree, Random random) {
+        if (networkDegree >= n && n > 0 && networkDegree > 0) {
+            throw new RuntimeException("RandomRegularGraph: configurationModel: network degree " + networkDegree + " requires more than " + n + " nodes.");
+        }
+
+        // Pair up the stubs until the repair succeeds (only dense graphs might need a restart)
+        int numLinks = n * networkDegree / 2;
+        int[] from = new int[numLinks];
+        int[] to = new int[numLinks];
+        int restart = 0;
+        while (!pairAndRepair(n, networkDegree, from, to, random)) {
+            if (++restart > MAX_CONFIGURATION_RESTARTS) {
+                throw new RuntimeException("RandomRegularGraph: configurationModel: unable to repair self-loops or parallel links after " + MAX_CONFIGURATION_RESTARTS + " restarts.");
+            }
+        }
+        return new int[][]{from, to};
+
+    }
+
+    /**
+     * Randomly pair up all stubs, and repair the self-loops and parallel links by double edge swaps.
+     *
+     * @param n                 Number of nodes
+     * @param networkDegree     Degree of each node
+     * @param from              First node of each link (output)
+     * @param to                Second node of each link (output)
+     * @param random            Random number generator
+     *
+     * @return True iff all links were repaired, false if the repair got stuck
+     */
+    private static boolean pairAndRepair(int n, int networkDegree, int[] from, int[] to, Random random) {
+
+        // Shuffle all stubs, an odd stub out is left unused
+        int numStubs = n * networkDegree;
+        int[] stubs = new int[numStubs];
+        for (int i = 0; i < numStubs; i++) {
+            stubs[i] = i / networkDegree;
+        }
+        for (int i = numStubs - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = stubs[i];
+            stubs[i] = stubs[j];
+            stubs[j] = tmp;
+        }
+        int numLinks = from.length;
+        for (int e = 0; e < numLinks; e++) {
+            from[e] = stubs[2 * e];
+            to[e] = stubs[2 * e + 1];
+        }
+
+        // Find the self-loops and parallel links (all but the first copy)
+        LinkCounter counter = new LinkCounter(numLinks);
+        int[] bad = new int[16];
+        int numBad = 0;
+        for (int e = 0; e < numLinks; e++) {
+            if (counter.increment(from[e], to[e]) > 1 || from[e] == to[e]) {
+                if (numBad == bad.length) {
+                    bad = Arrays.copyOf(bad, 2 * numBad);
+                }
+                bad[numBad++] = e;
+            }
+        }
+
+        // Repair them one by one by double edge swaps with random good links
+        int maxAttempts = MAX_REPAIR_ATTEMPTS_PER_STUB * numStubs;
+        int attempts = 0;
+        while (numBad > 0) {
+            if (attempts++ > maxAttempts) {
+                return false;
+            }
+            int e = bad[numBad - 1];
+            int f = random.nextInt(numLinks);
+            int u = from[e], v = to[e];
+            int x = from[f], y = to[f];
+            if (random.nextBoolean()) {
+                int tmp = x;
+                x = y;
+                y = tmp;
+            }
+
+            // The other link must be good, and both new links must be new, distinct and not self-loops
+            if (x == y || counter.get(x, y) > 1 || u == x || v == y || counter.get(u, x) > 0 || counter.get(v, y) > 0
+                    || (u == y && v == x)) {
+                continue;
+            }
+
+            // Swap
+            counter.decrement(u, v);
+            counter.decrement(x, y);
+            counter.increment(u, x);
+            counter.increment(v, y);
+            from[e] = u;
+            to[e] = x;
+            from[f] = v;
+            to[f] = y;
+            numBad--;
+            attempts = 0;
+
+        }
+        return true;
+
+    }
+
+    /**
+     * Open-addressing hash map counting the copies of each undirected link.
+     */
+    private static class LinkCounter {
+
+        private final long[] keys;
+        private final int[] counts;
+        private final int mask;
+
+        LinkCounter(int expected) {
+            int capacity = Integer.highestOneBit(Math.max(4 * expected, 16) - 1) << 1;
+            this.keys = new long[capacity];
+            this.counts = new int[capacity];
+            this.mask = capacity - 1;
+        }
+
+        private static long key(int n1, int n2) {
+            return (((long) Math.min(n1, n2) << 32) | Math.max(n1, n2)) + 1;    // + 1: zero marks empty
+        }
+
+        private int find(long key) {
+            int h = (int) ((key * 0x9E3779B97F4A7C15L) >>> 40) & mask;
+            while (keys[h] != 0 && keys[h] != key) {
+                h = (h + 1) & mask;
+            }
+            return h;
+        }
+
+        int get(int n1, int n2) {
+            return counts[find(key(n1, n2))];
+        }
+
+        int increment(int n1, int n2) {
+            long key = key(n1, n2);
+            int h = find(key);
+            keys[h] = key;
+            return ++counts[h];
+        }
+
+        void decrement(int n1, int n2) {
+            counts[find(key(n1, n2))]--;
+        }
+
     }
 
     /**
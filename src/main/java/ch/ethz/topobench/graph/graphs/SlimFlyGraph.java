@@ -0,0 +1,193 @@
+/* *******************************************************
+ * Released under the MIT License (MIT) --- see LICENSE
+ * Copyright (c) 2014 Ankit Singla, Sangeetha Abdu Jyothi,
+ * Chi-Yao Hong, Lucian Popa, P. Brighten Godfrey,
+ * Alexandra Kolla, Simon Kassing
+ * ******************************************************** */
+
+package ch.ethz.topobench.graph.graphs;
+
+import ch.ethz.topobench.graph.Graph;
+import ch.ethz.topobench.graph.distance.AnalyticDistanceOracle;
+
+/**
+ * Slim Fly topology implemented based on the following paper at the SC '14 conference:
+ *
+ * "Slim Fly: A Cost Effective Low-Diameter Network Topology"
+ * by Maciej Besta and Torsten Hoefler (2014).
+ *
+ * The McKay-Miller-Siran graph of a prime q = 4w + delta (delta = 1 or -1) has 2 * q^2 routers
+ * (0, x, y) with index x * q + y and (1, m, c) with index q^2 + m * q + c, x, y, m, c in F_q. With
+ * xi a primitive element of F_q, and generator sets X and X' of powers of xi:
+ *
+ * 1) (0, x, y) and (0, x, y') are connected iff y - y' is in X
+ * 2) (1, m, c) and (1, m, c') are connected iff c - c' is in X'
+ * 3) (0, x, y) and (1, m, c) are connected iff y = m * x + c
+ *
+ * Every router has (3q - delta) / 2 network ports, and the diameter is 2.
+ */
+public class SlimFlyGraph extends Graph {
+
+    private final int q;
+    private final boolean[] inX;
+    private final boolean[] inXPrime;
+
+    /**
+     * Constructor.
+     *
+     * @param q     Prime q with q mod 4 = 1 or 3
+     * @param s     Server ports per router
+     */
+    public SlimFlyGraph(int q, int s) {
+        super("Slim Fly", 2 * checkPrime(q) * q, s);
+        this.q = q;
+
+        // Generator sets
+        int xi = primitiveElement(q);
+        int[] powers = new int[q - 1];
+        powers[0] = 1;
+        for (int i = 1; i < q - 1; i++) {
+            powers[i] = (powers[i - 1] * xi) % q;
+        }
+        inX = new boolean[q];
+        inXPrime = new boolean[q];
+        if (q % 4 == 1) {
+            for (int i = 0; i < q - 1; i++) {
+                if (i % 2 == 0) {
+                    inX[powers[i]] = true;
+                } else {
+                    inXPrime[powers[i]] = true;
+                }
+            }
+        } else {
+            int w = (q + 1) / 4;
+            for (int i = 0; i <= 2 * w - 2; i += 2) {
+                inX[powers[i % (q - 1)]] = true;
+            }
+            for (int i = 2 * w - 1; i <= 4 * w - 3; i += 2) {
+                inX[powers[i % (q - 1)]] = true;
+            }
+            for (int i = 1; i <= 2 * w - 1; i += 2) {
+                inXPrime[powers[i % (q - 1)]] = true;
+            }
+            for (int i = 2 * w; i <= 4 * w - 2; i += 2) {
+                inXPrime[powers[i % (q - 1)]] = true;
+            }
+        }
+
+        // Add each link once: within a column of each subgraph towards the higher y (or c), then across
+        int degree = (3 * q - (q % 4 == 1 ? 1 : -1)) / 2;
+        int qq = q * q;
+        int[] from = new int[numNodes * degree / 2];
+        int[] to = new int[numNodes * degree / 2];
+        int e = 0;
+        for (int a = 0; a < q; a++) {
+            for (int b = 0; b < q; b++) {
+                for (int other = b + 1; other < q; other++) {
+                    if (inX[other - b]) {
+                        from[e] = a * q + b;
+                        to[e] = a * q + other;
+                        e++;
+                    }
+                    if (inXPrime[other - b]) {
+                        from[e] = qq + a * q + b;
+                        to[e] = qq + a * q + other;
+                        e++;
+                    }
+                }
+            }
+        }
+        for (int x = 0; x < q; x++) {
+            for (int m = 0; m < q; m++) {
+                for (int c = 0; c < q; c++) {
+                    from[e] = x * q + (m * x + c) % q;
+                    to[e] = qq + m * q + c;
+                    e++;
+                }
+            }
+        }
+        addDistinctBidirNeighbors(from, to, e);
+        setAnalyticDistances(new Distances());
+
+        System.out.println("Constructed Slim Fly with q = " + q + " (routers: " + numNodes + ", network degree: " + degree + ")");
+
+    }
+
+    private static int checkPrime(int q) {
+        boolean prime = q >= 3;
+        for (int i = 2; prime && i * i <= q; i++) {
+            prime = q % i != 0;
+        }
+        if (!prime) {
+            throw new RuntimeException("SlimFlyGraph: constructor: q must be an odd prime (received: " + q + ").");
+        }
+        return q;
+    }
+
+    /**
+     * Find the smallest primitive element (generator of the multiplicative group) of F_q.
+     *
+     * @param q     Prime
+     *
+     * @return Primitive element
+     */
+    private static int primitiveElement(int q) {
+        for (int candidate = 2; candidate < q; candidate++) {
+            int order = 1;
+            long value = candidate;
+            while (value != 1) {
+                value = (value * candidate) % q;
+                order++;
+            }
+            if (order == q - 1) {
+                return candidate;
+            }
+        }
+        throw new RuntimeException("SlimFlyGraph: primitiveElement: " + q + " is not prime.");
+    }
+
+    /**
+     * Check whether two routers are connected.
+     *
+     * @param u     Router index
+     * @param v     Router index
+     *
+     * @return True iff connected
+     */
+    private boolean isAdjacent(int u, int v) {
+        int qq = q * q;
+        if (u == v) {
+            return false;
+        }
+        if (u >= qq && v < qq) {
+            return isAdjacent(v, u);
+        }
+        int a1 = (u % qq) / q, b1 = u % q;
+        int a2 = (v % qq) / q, b2 = v % q;
+        if (u < qq && v < qq) {
+            return a1 == a2 && inX[((b1 - b2) % q + q) % q];
+        } else if (u >= qq && v >= qq) {
+            return a1 == a2 && inXPrime[((b1 - b2) % q + q) % q];
+        } else {
+            return b1 == (a2 * a1 + b2) % q;
+        }
+    }
+
+    /**
+     * Closed-form distances: adjacent or two hops.
+     */
+    private class Distances extends AnalyticDistanceOracle {
+
+        @Override
+        public int getDiameter() {
+            return 2;
+        }
+
+        @Override
+        public int getDistance(int i, int j) {
+            return i == j ? 0 : (isAdjacent(i, j) ? 1 : 2);
+        }
+
+    }
+
+}
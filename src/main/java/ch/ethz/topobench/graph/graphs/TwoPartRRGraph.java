@@ -4,9 +4,6 @@ import ch.ethz.topobench.graph.Link;
 import ch.ethz.topobench.Main;
 import ch.ethz.topobench.graph.Graph;
 
-import java.util.ArrayList;
-import java.util.List;
-
 /**
  * The two-part random regular graph consists out of two random regular graphs.
  * The A2A part has x% of all n nodes, the SUPP part has (1-x)% of all n nodes.
@@ -71,42 +68,20 @@ public class TwoPartRRGraph extends Graph {
         }
 
         // As both are regular graphs, and by definition unfulfilled,
-        // add all their indices to the remainder list
-        List<Integer> remainderLeftList = new ArrayList<>();
-        for (int i = 0; i < nA2A; i++) {
-            for (int j = 0; j < eA2A; j++) { // Also allow the edge cases to randomly matched? Replace eA2A with r - adjacencyList[i].size()
-                remainderLeftList.add(i);
-            }
-        }
-        int leftStartSize = remainderLeftList.size();
-
-        List<Integer> remainderRightList = new ArrayList<>();
-        for (int i = nA2A; i < n; i++) {
-            for (int j = 0; j < eSUPP; j++) { // Also allow the edge cases to randomly matched? Replace eSUPP with r - adjacencyList[i].size()
-                remainderRightList.add(i);
-            }
-        }
-        int rightStartSize = remainderRightList.size();
+        // add all their indices to the remainder ports
+        // (Also allow the edge cases to randomly matched? Replace eA2A / eSUPP with r - adjacencyList[i].size())
+        int[] remainderLeft = MultiPartRRGraph.ports(0, nA2A, eA2A);
+        int[] remainderRight = MultiPartRRGraph.ports(nA2A, nSUPP, eSUPP);
+        int leftStartSize = remainderLeft.length;
+        int rightStartSize = remainderRight.length;
 
         // Add links between A2A and SUPP until either one is full
-        while (remainderLeftList.size() != 0 && remainderRightList.size() != 0) {
-
-            // Take two random open network ports from the A2A and SUPP graph
-            int leftIdx = Main.universalRand.nextInt(remainderLeftList.size());
-            int rightIdx = Main.universalRand.nextInt(remainderRightList.size());
-            int leftNodeId = remainderLeftList.get(leftIdx);
-            int rightNodeId = remainderRightList.get(rightIdx);
-
-            // Add the link between the two
-            this.addBidirNeighbor(leftNodeId, rightNodeId);
-
-            // Remove from the options of open network ports
-            remainderLeftList.remove(leftIdx);
-            remainderRightList.remove(rightIdx);
-
+        int[][] links = MultiPartRRGraph.matchPorts(remainderLeft, remainderRight, rand);
+        for (int e = 0; e < links[0].length; e++) {
+            this.addBidirNeighbor(links[0][e], links[1][e]);
         }
 
-        System.out.println("Remainder open network ports A2A: " + remainderLeftList.size() + "/" + leftStartSize + ", remainder open network ports SUPP: " + remainderRightList.size() + "/" + rightStartSize);
+        System.out.println("Remainder open network ports A2A: " + (leftStartSize - links[0].length) + "/" + leftStartSize + ", remainder open network ports SUPP: " + (rightStartSize - links[0].length) + "/" + rightStartSize);
         System.out.println("A2A and SUPP graph are merged into one.");
 
     }
@@ -7,21 +7,33 @@
 
 package ch.ethz.topobench.graph.graphs;
 
-import ch.ethz.topobench.Main;
 import ch.ethz.topobench.graph.Graph;
-
-import java.io.*;
-
-import static ch.ethz.topobench.Main.runCommand;
+import ch.ethz.topobench.graph.utility.SpectralAnalysis;
 
 public class XpanderGraph extends Graph {
 
+    private static final int MAX_LIFT_ATTEMPTS = 20;        // Random lifts tried to find one within the spectral bound
+    private static final int LANCZOS_ITERATIONS = 200;      // Krylov subspace dimension of the spectral gap estimate
+    private static final int REFINED_LANCZOS_ITERATIONS = 1000;  // Krylov subspace dimension of estimates close to the bound
+    private static final double REFINEMENT_MARGIN = 0.02;   // Relative distance below the bound within which an estimate is refined
+    private static final double SAFETY_MARGIN = 0.0001;     // Relative distance below the bound an estimate must have to be accepted (above the refined error)
+
     private final int k;
     private final int d;
     private final int s;
+    private final double secondEigenvalue;
 
     /**
-     * Construct an Xpander graph.
+     * Construct an Xpander graph: a random k-lift of the complete graph on d + 1 nodes.<br />
+     * <br />
+     * Each of the d + 1 meta-nodes is replaced by k switches, and each pair of meta-nodes is
+     * connected by a random perfect matching between their switches, thus every switch has
+     * exactly one link to each other meta-node. Lifts are drawn until the graph is Ramanujan,
+     * i.e. its second largest absolute eigenvalue (estimated by sparse Lanczos iteration) is
+     * at most 2 * sqrt(d - 1). The estimate converges from below, thus an estimate close below
+     * the bound is refined with more iterations, and must stay below it by a safety margin.
+     * If no lift is found within a number of attempts, the lift with the smallest such eigenvalue
+     * is kept (with a warning).
      *
      * @param d     Network ports per switch (graph degree)
      * @param s     Server ports per switch
@@ -44,50 +56,108 @@ public class XpanderGraph extends Graph {
         // Setup uniform weight
         this.setupUniformWeight(s);
 
-        if (Main.universalRand == null) {
+        if (rand == null) {
             throw new RuntimeException("XpanderGraph: constructor: missing the universal RNG from ProduceLP");
         }
 
-        try {
-
-            // Write parameters
-            FileWriter fileStreamIn = new FileWriter("temp/xpander_in.temp");
-            BufferedWriter out = new BufferedWriter(fileStreamIn);
-            out.write(this.d + "\n" + this.k + "\n" + Main.getRandomSeed());
-            out.close();
-
-            // Run python script
-            runCommand("python python/xpanderGen" + Main.PYTHON_VERSION + ".py temp/xpander_in.temp temp/xpander_out.temp");
-
-            // Open file stream
-            FileInputStream fileStreamOut = new FileInputStream("temp/xpander_out.temp");
-            BufferedReader br = new BufferedReader(new InputStreamReader(fileStreamOut));
+        // Draw lifts until one satisfies the spectral bound
+        double bound = 2 * Math.sqrt(d - 1);
+        double acceptable = bound * (1 - SAFETY_MARGIN);
+        int[] bestTargets = null;
+        double bestEigenvalue = Double.MAX_VALUE;
+        int[] offsets = new int[numNodes + 1];
+        for (int u = 0; u <= numNodes; u++) {
+            offsets[u] = u * d;
+        }
+        for (int attempt = 0; attempt < MAX_LIFT_ATTEMPTS && bestEigenvalue > acceptable; attempt++) {
+            int[] targets = randomLift();
+            double eigenvalue = SpectralAnalysis.secondLargestAbsEigenvalue(offsets, targets, LANCZOS_ITERATIONS, rand);
 
-            // Simply read in the server pairs
-            String strLine;
-            while ((strLine = br.readLine()) != null) {
-                String[] values = strLine.split(" ");
-                int src = Integer.parseInt(values[0]);
-                int des = Integer.parseInt(values[1]);
-                this.addBidirNeighbor(src, des);
+            // Underestimates close below the bound are refined (both estimates are from below)
+            if (eigenvalue > bound * (1 - REFINEMENT_MARGIN) && eigenvalue <= bound) {
+                eigenvalue = Math.max(eigenvalue, SpectralAnalysis.secondLargestAbsEigenvalue(offsets, targets, REFINED_LANCZOS_ITERATIONS, rand));
             }
 
-            // Close stream
-            br.close();
-
+            if (eigenvalue < bestEigenvalue) {
+                bestEigenvalue = eigenvalue;
+                bestTargets = targets;
+            }
+        }
+        this.secondEigenvalue = bestEigenvalue;
+        if (bestEigenvalue > acceptable) {
+            System.out.println("WARNING: No Ramanujan lift found in " + MAX_LIFT_ATTEMPTS + " attempts, keeping the lift with the smallest second eigenvalue " + String.format("%.3f", bestEigenvalue) + ".");
+        }
 
-        } catch (Exception e) {
-            e.printStackTrace();
+        // Add each link once (from its lower index), in ascending order
+        int[] from = new int[numNodes * d / 2];
+        int[] to = new int[numNodes * d / 2];
+        int numLinks = 0;
+        for (int u = 0; u < numNodes; u++) {
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                if (u < bestTargets[e]) {
+                    from[numLinks] = u;
+                    to[numLinks] = bestTargets[e];
+                    numLinks++;
+                }
+            }
         }
+        this.addDistinctBidirNeighbors(from, to, numLinks);
 
         System.out.println(
                 "Created Xpander graph with " +
                 "d=" + this.d + " network ports per switch, " +
                 "s=" + this.s + " server ports per switch" +
-                " and " + numNodes + " nodes using a k=" + this.k + "-lift");
+                " and " + numNodes + " nodes using a k=" + this.k + "-lift" +
+                " (second eigenvalue " + String.format("%.3f", secondEigenvalue) + ", Ramanujan bound " + String.format("%.3f", bound) + ")");
 
     }
 
+    /**
+     * Draw a random k-lift of the complete graph on d + 1 meta-nodes. Switch i of
+     * meta-node a has index a * k + i. Its d neighbors are stored in ascending order
+     * of meta-node, which is ascending order of index.
+     *
+     * @return Neighbors of each switch (switch u has neighbors [u * d, (u + 1) * d))
+     */
+    private int[] randomLift() {
+        int[] targets = new int[numNodes * d];
+        int[] perm = new int[k];
+        for (int a = 0; a <= d; a++) {
+            for (int b = a + 1; b <= d; b++) {
+
+                // Random perfect matching between the switches of meta-node a and b (Fisher-Yates)
+                for (int i = 0; i < k; i++) {
+                    perm[i] = i;
+                }
+                for (int i = k - 1; i > 0; i--) {
+                    int j = rand.nextInt(i + 1);
+                    int tmp = perm[i];
+                    perm[i] = perm[j];
+                    perm[j] = tmp;
+                }
+
+                // The neighbor in meta-node b is at position b - 1 (skipping itself), in a at position a
+                for (int i = 0; i < k; i++) {
+                    int src = a * k + i;
+                    int dst = b * k + perm[i];
+                    targets[src * d + (b - 1)] = dst;
+                    targets[dst * d + a] = src;
+                }
+
+            }
+        }
+        return targets;
+    }
+
+    /**
+     * Get the second largest absolute eigenvalue of the adjacency matrix (as estimated).
+     *
+     * @return Second largest absolute eigenvalue
+     */
+    public double getSecondEigenvalue() {
+        return secondEigenvalue;
+    }
+
     /**
      * Get the degree of switches to connect to other switches.
      *
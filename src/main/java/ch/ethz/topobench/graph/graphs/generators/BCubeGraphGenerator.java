@@ -0,0 +1,43 @@
+/* *******************************************************
+ * Released under the MIT License (MIT) --- see LICENSE
+ * Copyright (c) 2014 Ankit Singla, Sangeetha Abdu Jyothi,
+ * Chi-Yao Hong, Lucian Popa, P. Brighten Godfrey,
+ * Alexandra Kolla, Simon Kassing
+ * ******************************************************** */
+
+package ch.ethz.topobench.graph.graphs.generators;
+
+import ch.ethz.topobench.graph.Graph;
+import ch.ethz.topobench.graph.SelectorResult;
+import ch.ethz.topobench.graph.graphs.BCubeGraph;
+import ch.ethz.topobench.graph.utility.ArgumentValidator;
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.Options;
+
+import static ch.ethz.topobench.graph.utility.CmdAssistant.addOption;
+import static ch.ethz.topobench.graph.utility.CmdAssistant.parseOptions;
+
+public class BCubeGraphGenerator implements GraphGenerator {
+
+    public Options getOptions() {
+        Options options = new Options();
+        addOption(options, "bcn", "number of ports per switch");
+        addOption(options, "bck", "level k of the BCube");
+        return options;
+    }
+
+    public SelectorResult<Graph> generate(String[] args) {
+
+        // Parse the options
+        CommandLine cmd = parseOptions(getOptions(), args, true);
+
+        // Read in parameters
+        int bcn = ArgumentValidator.retrieveInteger("bcn", cmd.getOptionValue("bcn"));
+        int bck = ArgumentValidator.retrieveInteger("bck", cmd.getOptionValue("bck"));
+
+        // Create graph
+        return new SelectorResult<>(new BCubeGraph(bcn, bck), cmd.getArgs());
+
+    }
+
+}
@@ -0,0 +1,47 @@
+/* *******************************************************
+ * Released under the MIT License (MIT) --- see LICENSE
+ * Copyright (c) 2014 Ankit Singla, Sangeetha Abdu Jyothi,
+ * Chi-Yao Hong, Lucian Popa, P. Brighten Godfrey,
+ * Alexandra Kolla, Simon Kassing
+ * ******************************************************** */
+
+package ch.ethz.topobench.graph.graphs.generators;
+
+import ch.ethz.topobench.graph.Graph;
+import ch.ethz.topobench.graph.SelectorResult;
+import ch.ethz.topobench.graph.graphs.DragonflyGraph;
+import ch.ethz.topobench.graph.utility.ArgumentValidator;
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.Options;
+
+import static ch.ethz.topobench.graph.utility.CmdAssistant.addOption;
+import static ch.ethz.topobench.graph.utility.CmdAssistant.parseOptions;
+
+public class DragonflyGraphGenerator implements GraphGenerator {
+
+    public Options getOptions() {
+        Options options = new Options();
+        addOption(options, "dfa", "number of routers per group");
+        addOption(options, "dfh", "number of global ports per router");
+        addOption(options, "dfg", "number of groups (at most dfa * dfh + 1)");
+        addOption(options, "dfservers", "number of server ports per router");
+        return options;
+    }
+
+    public SelectorResult<Graph> generate(String[] args) {
+
+        // Parse the options
+        CommandLine cmd = parseOptions(getOptions(), args, true);
+
+        // Read in parameters
+        int dfa = ArgumentValidator.retrieveInteger("dfa", cmd.getOptionValue("dfa"));
+        int dfh = ArgumentValidator.retrieveInteger("dfh", cmd.getOptionValue("dfh"));
+        int dfg = ArgumentValidator.retrieveInteger("dfg", cmd.getOptionValue("dfg"));
+        int dfservers = ArgumentValidator.retrieveInteger("dfservers", cmd.getOptionValue("dfservers"));
+
+        // Create graph
+        return new SelectorResult<>(new DragonflyGraph(dfa, dfh, dfg, dfservers), cmd.getArgs());
+
+    }
+
+}
@@ -19,12 +19,16 @@ import static ch.ethz.topobench.graph.utility.CmdAssistant.parseOptions;
 
 public class FatTreeSigcommGenerator implements GraphGenerator {
 
+    public Options getOptions() {
+        Options options = new Options();
+        addOption(options, "kft", "k for the k-fat tree");
+        return options;
+    }
+
     public SelectorResult<Graph> generate(String[] args) {
 
         // Parse the options
-        Options options = new Options();
-        addOption(options, "kft", "k for the k-fat tree");
-        CommandLine cmd = parseOptions(options, args, true);
+        CommandLine cmd = parseOptions(getOptions(), args, true);
 
         // Read in parameters
         int k = ArgumentValidator.retrieveInteger("kft", cmd.getOptionValue("kft"));
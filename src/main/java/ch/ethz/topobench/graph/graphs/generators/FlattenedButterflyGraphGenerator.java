@@ -0,0 +1,45 @@
+/* *******************************************************
+ * Released under the MIT License (MIT) --- see LICENSE
+ * Copyright (c) 2014 Ankit Singla, Sangeetha Abdu Jyothi,
+ * Chi-Yao Hong, Lucian Popa, P. Brighten Godfrey,
+ * Alexandra Kolla, Simon Kassing
+ * ******************************************************** */
+
+package ch.ethz.topobench.graph.graphs.generators;
+
+import ch.ethz.topobench.graph.Graph;
+import ch.ethz.topobench.graph.SelectorResult;
+import ch.ethz.topobench.graph.graphs.FlattenedButterflyGraph;
+import ch.ethz.topobench.graph.utility.ArgumentValidator;
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.Options;
+
+import static ch.ethz.topobench.graph.utility.CmdAssistant.addOption;
+import static ch.ethz.topobench.graph.utility.CmdAssistant.parseOptions;
+
+public class FlattenedButterflyGraphGenerator implements GraphGenerator {
+
+    public Options getOptions() {
+        Options options = new Options();
+        addOption(options, "fbk", "radix k of the k-ary flattened butterfly");
+        addOption(options, "fbdim", "number of dimensions");
+        addOption(options, "fbservers", "number of server ports per switch");
+        return options;
+    }
+
+    public SelectorResult<Graph> generate(String[] args) {
+
+        // Parse the options
+        CommandLine cmd = parseOptions(getOptions(), args, true);
+
+        // Read in parameters
+        int fbk = ArgumentValidator.retrieveInteger("fbk", cmd.getOptionValue("fbk"));
+        int fbdim = ArgumentValidator.retrieveInteger("fbdim", cmd.getOptionValue("fbdim"));
+        int fbservers = ArgumentValidator.retrieveInteger("fbservers", cmd.getOptionValue("fbservers"));
+
+        // Create graph
+        return new SelectorResult<>(new FlattenedButterflyGraph(fbk, fbdim, fbservers), cmd.getArgs());
+
+    }
+
+}
@@ -18,14 +18,18 @@ import static ch.ethz.topobench.graph.utility.CmdAssistant.parseOptions;
 
 public class FromFileGraphGenerator implements GraphGenerator {
 
-    public SelectorResult<Graph> generate(String[] args) {
-
-        // Parse the options
+    public Options getOptions() {
         Options options = new Options();
         addOption(options, "switches", "number of switches");
         addOption(options, "partswitches", "number of participating switches (implies interval of identifiers [0, numb))");
         addOption(options, "filename", "file name");
-        CommandLine cmd = parseOptions(options, args, true);
+        return options;
+    }
+
+    public SelectorResult<Graph> generate(String[] args) {
+
+        // Parse the options
+        CommandLine cmd = parseOptions(getOptions(), args, true);
 
         // Read in parameters
         int switches = Integer.parseInt(cmd.getOptionValue("switches"));
@@ -9,7 +9,9 @@ package ch.ethz.topobench.graph.graphs.generators;
 
 import ch.ethz.topobench.graph.SelectorResult;
 import ch.ethz.topobench.graph.Graph;
+import org.apache.commons.cli.Options;
 
-interface GraphGenerator {
+public interface GraphGenerator {
+    Options getOptions();
     SelectorResult<Graph> generate(String[] args);
 }
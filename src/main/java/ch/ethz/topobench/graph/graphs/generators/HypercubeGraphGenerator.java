@@ -0,0 +1,43 @@
+/* *******************************************************
+ * Released under the MIT License (MIT) --- see LICENSE
+ * Copyright (c) 2014 Ankit Singla, Sangeetha Abdu Jyothi,
+ * Chi-Yao Hong, Lucian Popa, P. Brighten Godfrey,
+ * Alexandra Kolla, Simon Kassing
+ * ******************************************************** */
+
+package ch.ethz.topobench.graph.graphs.generators;
+
+import ch.ethz.topobench.graph.Graph;
+import ch.ethz.topobench.graph.SelectorResult;
+import ch.ethz.topobench.graph.graphs.HypercubeGraph;
+import ch.ethz.topobench.graph.utility.ArgumentValidator;
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.Options;
+
+import static ch.ethz.topobench.graph.utility.CmdAssistant.addOption;
+import static ch.ethz.topobench.graph.utility.CmdAssistant.parseOptions;
+
+public class HypercubeGraphGenerator implements GraphGenerator {
+
+    public Options getOptions() {
+        Options options = new Options();
+        addOption(options, "hcdim", "dimension of the hypercube (network ports per switch)");
+        addOption(options, "hcservers", "number of server ports per switch");
+        return options;
+    }
+
+    public SelectorResult<Graph> generate(String[] args) {
+
+        // Parse the options
+        CommandLine cmd = parseOptions(getOptions(), args, true);
+
+        // Read in parameters
+        int hcdim = ArgumentValidator.retrieveInteger("hcdim", cmd.getOptionValue("hcdim"));
+        int hcservers = ArgumentValidator.retrieveInteger("hcservers", cmd.getOptionValue("hcservers"));
+
+        // Create graph
+        return new SelectorResult<>(new HypercubeGraph(hcdim, hcservers), cmd.getArgs());
+
+    }
+
+}
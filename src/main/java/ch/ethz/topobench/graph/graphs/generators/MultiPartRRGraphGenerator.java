@@ -0,0 +1,53 @@
+/* *******************************************************
+ * Released under the MIT License (MIT) --- see LICENSE
+ * Copyright (c) 2014 Ankit Singla, Sangeetha Abdu Jyothi,
+ * Chi-Yao Hong, Lucian Popa, P. Brighten Godfrey,
+ * Alexandra Kolla, Simon Kassing
+ * ******************************************************** */
+
+package ch.ethz.topobench.graph.graphs.generators;
+
+import ch.ethz.topobench.graph.Graph;
+import ch.ethz.topobench.graph.SelectorResult;
+import ch.ethz.topobench.graph.graphs.MultiPartRRGraph;
+import ch.ethz.topobench.graph.utility.ArgumentValidator;
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.Options;
+
+import java.util.Arrays;
+
+import static ch.ethz.topobench.graph.utility.CmdAssistant.addOption;
+import static ch.ethz.topobench.graph.utility.CmdAssistant.parseOptions;
+
+public class MultiPartRRGraphGenerator implements GraphGenerator {
+
+    public Options getOptions() {
+        Options options = new Options();
+        addOption(options, "partsizes", "number of switches of each part, e.g. 100,50,20");
+        addOption(options, "partdegrees", "network ports per switch of part a (row) towards part b (column), rows separated by '/', e.g. 6,1,1/1,4,2/1,2,4");
+        addOption(options, "partservers", "number of server ports per switch of each part, e.g. 4,2,0");
+        return options;
+    }
+
+    public SelectorResult<Graph> generate(String[] args) {
+
+        CommandLine cmd = parseOptions(getOptions(), args, true);
+
+        // Read in parameters
+        int[] sizes = ArgumentValidator.retrieveIntegerList("partsizes", cmd.getOptionValue("partsizes"));
+        int[][] degrees = ArgumentValidator.retrieveIntegerMatrix("partdegrees", cmd.getOptionValue("partdegrees"));
+        int[] servers = ArgumentValidator.retrieveIntegerList("partservers", cmd.getOptionValue("partservers"));
+
+        // Print what we are doing
+        System.out.println("Producing Linear Program for Multi-Part Random Regular Graph; parameters: ");
+        System.out.println("\t> Switches per part: " + Arrays.toString(sizes));
+        System.out.println("\t> Network ports per switch towards each part: " + Arrays.deepToString(degrees));
+        System.out.println("\t> Server ports per switch per part: " + Arrays.toString(servers));
+        System.out.println("\t> Producing graph...");
+
+        // Create graph
+        return new SelectorResult<>(new MultiPartRRGraph(sizes, degrees, servers), cmd.getArgs());
+
+    }
+
+}
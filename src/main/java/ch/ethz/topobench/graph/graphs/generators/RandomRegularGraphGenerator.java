@@ -8,6 +8,7 @@
 package ch.ethz.topobench.graph.graphs.generators;
 
 import ch.ethz.topobench.graph.SelectorResult;
+import ch.ethz.topobench.graph.graphs.ExpandedRandomRegularGraph;
 import ch.ethz.topobench.graph.graphs.RandomRegularGraph;
 import ch.ethz.topobench.graph.Graph;
 import org.apache.commons.cli.CommandLine;
@@ -18,20 +19,34 @@ import static ch.ethz.topobench.graph.utility.CmdAssistant.parseOptions;
 
 public class RandomRegularGraphGenerator implements GraphGenerator {
 
-    public SelectorResult<Graph> generate(String[] args) {
-
-        // Parse the options
+    public Options getOptions() {
         Options options = new Options();
         addOption(options, "switches", "number of switches");
         addOption(options, "switchports", "number of ports per switch");
         addOption(options, "netports", "number of ports per switch for networking");
-        CommandLine cmd = parseOptions(options, args, true);
+        addOption(options, "rrgm", "rrgmode", false, "generation mode, INCREMENTAL (default) or CONFIGURATION");
+        addOption(options, "rrge", "rrgexpand", false, "number of switches to add afterwards by incremental expansion (default 0)");
+        return options;
+    }
+
+    public SelectorResult<Graph> generate(String[] args) {
+
+        // Parse the options
+        CommandLine cmd = parseOptions(getOptions(), args, true);
 
         // Read in parameters
         int switches = Integer.parseInt(cmd.getOptionValue("switches"));
         int switchports = Integer.parseInt(cmd.getOptionValue("switchports"));
         int netports = Integer.parseInt(cmd.getOptionValue("netports"));
         int serverports = switchports - netports;
+        RandomRegularGraph.Mode mode = RandomRegularGraph.Mode.INCREMENTAL;
+        if (cmd.hasOption("rrgmode")) {
+            mode = RandomRegularGraph.getMode(cmd.getOptionValue("rrgmode"));
+            if (mode == null) {
+                throw new RuntimeException("RandomRegularGraphGenerator: generate: unknown generation mode " + cmd.getOptionValue("rrgmode") + ".");
+            }
+        }
+        int expansion = cmd.hasOption("rrgexpand") ? Integer.parseInt(cmd.getOptionValue("rrgexpand")) : 0;
 
         // Print what we are doing
         System.out.println("Producing Linear Program for Random Regular Graph (a.k.a. JellyFish); parameters: ");
@@ -39,10 +54,16 @@ public class RandomRegularGraphGenerator implements GraphGenerator {
         System.out.println("\t> Total ports per switch: " + switchports);
         System.out.println("\t> Server ports per switch: " + serverports);
         System.out.println("\t> Networking ports per switch (graph degree): " + netports);
+        System.out.println("\t> Generation mode: " + mode);
+        System.out.println("\t> Switches added by expansion: " + expansion);
         System.out.println("\t> Producing graph...");
 
         // Create graph
-        return new SelectorResult<>(new RandomRegularGraph(switches, switchports, netports), cmd.getArgs());
+        Graph graph = new RandomRegularGraph(switches, switchports, netports, mode);
+        if (expansion > 0) {
+            graph = new ExpandedRandomRegularGraph(graph, expansion, netports, serverports);
+        }
+        return new SelectorResult<>(graph, cmd.getArgs());
 
     }
 
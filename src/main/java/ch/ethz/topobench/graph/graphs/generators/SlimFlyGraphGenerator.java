@@ -0,0 +1,43 @@
+/* *******************************************************
+ * Released under the MIT License (MIT) --- see LICENSE
+ * Copyright (c) 2014 Ankit Singla, Sangeetha Abdu Jyothi,
+ * Chi-Yao Hong, Lucian Popa, P. Brighten Godfrey,
+ * Alexandra Kolla, Simon Kassing
+ * ******************************************************** */
+
+package ch.ethz.topobench.graph.graphs.generators;
+
+import ch.ethz.topobench.graph.Graph;
+import ch.ethz.topobench.graph.SelectorResult;
+import ch.ethz.topobench.graph.graphs.SlimFlyGraph;
+import ch.ethz.topobench.graph.utility.ArgumentValidator;
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.Options;
+
+import static ch.ethz.topobench.graph.utility.CmdAssistant.addOption;
+import static ch.ethz.topobench.graph.utility.CmdAssistant.parseOptions;
+
+public class SlimFlyGraphGenerator implements GraphGenerator {
+
+    public Options getOptions() {
+        Options options = new Options();
+        addOption(options, "sfq", "prime q of the Slim Fly");
+        addOption(options, "sfservers", "number of server ports per router");
+        return options;
+    }
+
+    public SelectorResult<Graph> generate(String[] args) {
+
+        // Parse the options
+        CommandLine cmd = parseOptions(getOptions(), args, true);
+
+        // Read in parameters
+        int sfq = ArgumentValidator.retrieveInteger("sfq", cmd.getOptionValue("sfq"));
+        int sfservers = ArgumentValidator.retrieveInteger("sfservers", cmd.getOptionValue("sfservers"));
+
+        // Create graph
+        return new SelectorResult<>(new SlimFlyGraph(sfq, sfservers), cmd.getArgs());
+
+    }
+
+}
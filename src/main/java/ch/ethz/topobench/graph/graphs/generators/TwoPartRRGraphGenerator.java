@@ -19,8 +19,7 @@ import static ch.ethz.topobench.graph.utility.CmdAssistant.parseOptions;
 
 public class TwoPartRRGraphGenerator implements GraphGenerator {
 
-    public SelectorResult<Graph> generate(String[] args) {
-
+    public Options getOptions() {
         Options options = new Options();
         addOption(options, "switches", "number of switches");
         addOption(options, "switchports", "number of ports per switch");
@@ -28,7 +27,12 @@ public class TwoPartRRGraphGenerator implements GraphGenerator {
         addOption(options, "partfrac", "fraction of active nodes in the traffic matrix");
         addOption(options, "eA2A", "number of external network port switches in the A2A part");
         addOption(options, "eSUPP", "number of external network port switches in the SUPP part");
-        CommandLine cmd = parseOptions(options, args, true);
+        return options;
+    }
+
+    public SelectorResult<Graph> generate(String[] args) {
+
+        CommandLine cmd = parseOptions(getOptions(), args, true);
 
         // Read in parameters
         int switches = Integer.parseInt(cmd.getOptionValue("switches"));
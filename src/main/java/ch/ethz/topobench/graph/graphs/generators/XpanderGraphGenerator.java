@@ -17,13 +17,17 @@ import static ch.ethz.topobench.graph.utility.CmdAssistant.addOption;
 
 public class XpanderGraphGenerator implements GraphGenerator {
 
-    public SelectorResult<Graph> generate(String[] args) {
-
+    public Options getOptions() {
         Options options = new Options();
         CmdAssistant.addOption(options, "switches", "number of switches");
         CmdAssistant.addOption(options, "switchports", "number of ports per switch");
         CmdAssistant.addOption(options, "netports", "number of ports per switch for networking");
-        CommandLine cmd = CmdAssistant.parseOptions(options, args, true);
+        return options;
+    }
+
+    public SelectorResult<Graph> generate(String[] args) {
+
+        CommandLine cmd = CmdAssistant.parseOptions(getOptions(), args, true);
 
         // Read in parameters
         int switches = Integer.parseInt(cmd.getOptionValue("switches"));
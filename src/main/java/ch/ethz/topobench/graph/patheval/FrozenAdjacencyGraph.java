@@ -0,0 +1,101 @@
+/* *******************************************************
+ * Released under the MIT License (MIT) --- see LICENSE
+ * Copyright (c) 2014 Ankit Singla, Sangeetha Abdu Jyothi,
+ * Chi-Yao Hong, Lucian Popa, P. Brighten Godfrey,
+ * Alexandra Kolla, Simon Kassing
+ * ******************************************************** */
+
+package ch.ethz.topobench.graph.patheval;
+
+import ch.ethz.topobench.graph.FrozenAdjacency;
+import ch.ethz.topobench.graph.GraphView;
+import edu.asu.emit.algorithm.graph.BaseGraph;
+import edu.asu.emit.algorithm.graph.Vertex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Graph interpretable by the Dijkstra/Yen's algorithm library, backed directly by the
+ * frozen adjacency arrays of a graph. Every directed edge has weight 1 (hop count),
+ * edge weight lookups use the binary search of the frozen adjacency.
+ */
+class FrozenAdjacencyGraph implements BaseGraph {
+
+    private final FrozenAdjacency adjacency;
+    private final List<Vertex> vertexList;
+    private final List<List<Vertex>> outVertices;
+    private final List<List<Vertex>> inVertices;
+
+    /**
+     * Constructor.
+     *
+     * @param graph     Input graph
+     */
+    FrozenAdjacencyGraph(GraphView graph) {
+        this.adjacency = graph.getFrozenAdjacency();
+        int n = adjacency.getNumNodes();
+
+        // Vertices
+        Vertex[] vertices = new Vertex[n];
+        for (int i = 0; i < n; i++) {
+            vertices[i] = new Vertex(i);
+        }
+        this.vertexList = Collections.unmodifiableList(Arrays.asList(vertices));
+
+        // Out- and in-neighbors of every vertex, in edge order
+        this.outVertices = new ArrayList<>(n);
+        this.inVertices = new ArrayList<>(n);
+        int[] inDegree = new int[n];
+        for (int e = 0; e < adjacency.getNumEdges(); e++) {
+            inDegree[adjacency.getTarget(e)]++;
+        }
+        for (int i = 0; i < n; i++) {
+            outVertices.add(new ArrayList<>(adjacency.getDegree(i)));
+            inVertices.add(new ArrayList<>(inDegree[i]));
+        }
+        for (int i = 0; i < n; i++) {
+            for (int e = adjacency.getEdgeStart(i); e < adjacency.getEdgeEnd(i); e++) {
+                outVertices.get(i).add(vertices[adjacency.getTarget(e)]);
+                inVertices.get(adjacency.getTarget(e)).add(vertices[i]);
+            }
+        }
+
+    }
+
+    @Override
+    public List<Vertex> getVertexList() {
+        return vertexList;
+    }
+
+    @Override
+    public long getEdgeWeight(Vertex source, Vertex sink) {
+        if (adjacency.isNeighbor(source.getId(), sink.getId())) {
+            return 1;
+        } else {
+            throw new RuntimeException("FrozenAdjacencyGraph: getEdgeWeight: cannot retrieve edge weight of non-existing edge.");
+        }
+    }
+
+    @Override
+    public List<Vertex> getAdjacentVertices(Vertex vertex) {
+        return outVertices.get(vertex.getId());
+    }
+
+    @Override
+    public List<Vertex> getPrecedentVertices(Vertex vertex) {
+        return inVertices.get(vertex.getId());
+    }
+
+    @Override
+    public Vertex getVertex(int id) {
+        if (id >= 0 && id < vertexList.size()) {
+            return vertexList.get(id);
+        } else {
+            throw new RuntimeException("FrozenAdjacencyGraph: getVertex: cannot retrieve vertex for invalid identifier.");
+        }
+    }
+
+}
@@ -7,185 +7,320 @@
 
 package ch.ethz.topobench.graph.patheval;
 
-import ch.ethz.topobench.graph.Graph;
-import edu.asu.emit.algorithm.graph.Path;
-import edu.asu.emit.algorithm.graph.Vertex;
-import edu.asu.emit.algorithm.graph.algorithms.YenTopKShortestPathsAlg;
+import ch.ethz.topobench.graph.GraphView;
+import ch.ethz.topobench.graph.distance.MappedKShortestPaths;
+import ch.ethz.topobench.graph.distance.YenKShortestPaths;
 
-import java.io.*;
+import java.io.File;
+import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
 
 /**
  * K-shortest path evaluator using Yen's algorithm.
  *
- * Gracefully uses the Java library made available by Yan Qi of Arizona State University.
- * GitHub: https://github.com/yan-qi/k-shortest-paths-java-version
+ * Originally used the Java library made available by Yan Qi of Arizona State University
+ * (GitHub: https://github.com/yan-qi/k-shortest-paths-java-version), now the array-based
+ * {@link YenKShortestPaths} engine on the frozen adjacency.
+ *
+ * The paths are only calculated for the switch pairs which are prepared (i.e. which carry
+ * traffic), or on demand for a pair which is queried without being prepared. Pairs are
+ * calculated outside of any lock with an engine per thread, thus concurrent queries of
+ * different pairs proceed in parallel (a pair queried concurrently may be calculated
+ * more than once).
+ *
+ * The preparation run persists the paths of its pairs in the cache directory, in a binary
+ * file named by the topology fingerprint and its K ({@link MappedKShortestPaths}). Later runs
+ * with a k lower than or equal to that K map the file and use the prefix of the paths.
  */
 public class KShortestPathEvaluator extends PathEvaluator {
 
-    // Mapping of (src, dst) to the set of valid edges
-    private final Map<AbstractMap.SimpleEntry<Integer, Integer>, Set<AbstractMap.SimpleEntry<Integer, Integer>>> validEdges;
+    // Pairs calculated in parallel before writing their output
+    private static final int PAIRS_PER_THREAD_BLOCK = 64;
+
+    // Mapping of (src * n + dst) to the sorted valid edges (from * n + to), only for retrieved pairs
+    private final ConcurrentMap<Long, long[]> validEdges;
+
+    private final int n;
+    private final int k;
+    private final boolean prep;
+    private final File cacheDirectory;
+    private final String fingerprint;
+    private final ThreadLocal<YenKShortestPaths> engines;
+    private volatile MappedKShortestPaths cache;
 
     /**
      * Constructor for the K-shortest path evaluator.
-     * Calls upon the Yen's algorithm library to pre-compute the paths.
+     * The paths are calculated for the pairs given to {@link #prepare(List)}, or on demand.
      *
-     * @param g     Graph
-     * @param k     K in the K-shortest path algorithm (which paths to consider)
-     * @param prep  Whether it is the preparation run to first calculate a high k
+     * @param g                 Graph
+     * @param k                 K in the K-shortest path algorithm (which paths to consider)
+     * @param prep              Whether it is the preparation run to first calculate a high k
+     * @param cacheDirectory    Directory to persist the paths in (created if it does not exist), null to disable
      */
-    public KShortestPathEvaluator(Graph g, int k, boolean prep) {
+    public KShortestPathEvaluator(GraphView g, int k, boolean prep, File cacheDirectory) {
         super(g);
 
         if (k <= 0) {
             throw new RuntimeException("KShortestPathEvaluator: constructor: invalid argument; k must be >= 1 (k=" + k + ")");
         }
+        if (cacheDirectory != null && !cacheDirectory.isDirectory() && !cacheDirectory.mkdirs()) {
+            throw new RuntimeException("KShortestPathEvaluator: constructor: unable to create directory " + cacheDirectory + ".");
+        }
 
-        // Convert internal graph version to that of library
-        GraphCompatibility.printGraphToFile(g, "temp/k-shortest-path-graph-converted.txt");
-        edu.asu.emit.algorithm.graph.Graph graph = new edu.asu.emit.algorithm.graph.Graph("temp/k-shortest-path-graph-converted.txt");
+        this.n = adjacency.getNumNodes();
+        this.k = k;
+        this.prep = prep;
+        this.cacheDirectory = cacheDirectory;
+        this.fingerprint = cacheDirectory == null ? null : adjacency.getFingerprint();
+        this.validEdges = new ConcurrentHashMap<>();
+
+        // One engine per thread on the shared (read-only) adjacency arrays
+        this.engines = ThreadLocal.withInitial(
+                () -> new YenKShortestPaths(adjacency.getOffsets(), adjacency.getTargets())
+        );
+
+        // The preparation run extends its own K, any other run uses the lowest sufficient K
+        if (cacheDirectory != null) {
+            this.cache = prep ? mapCache(getCacheFile(k)) : mapLowestSufficientCache();
+            if (cache != null) {
+                System.out.println(" > Mapped K shortest paths of " + cache.getNumPairs() + " pairs calculated for K=" + cache.getKMax() + ".");
+            }
+        }
 
-        // Batch process initialize yen's algorithm
-        YenTopKShortestPathsAlg yenAlg = new YenTopKShortestPathsAlg(graph);
+    }
 
-        System.out.print(" > " + (prep ? "Pre-c" : "C") + "alculating K shortest paths using Yen's algorithm... ");
+    /**
+     * Calculate the K shortest paths of the given switch pairs in the preparation run, and
+     * persist them (together with those persisted before) such that later runs can use them
+     * for any lower or equal k.
+     *
+     * @param pairs     Distinct (source switch, destination switch) pairs
+     */
+    @Override
+    public void prepare(List<int[]> pairs) {
+        if (!prep || cacheDirectory == null) {
+            return;
+        }
 
-        // Initialize valid links mapping
-        this.validEdges = new HashMap<>();
-        for (int i = 0; i < g.getNumNodes(); i++) {
-            for (int j = 0; j < g.getNumNodes(); j++) {
-                validEdges.put(new AbstractMap.SimpleEntry<>(i, j), new HashSet<>());
+        // Only the pairs not yet persisted need to be calculated
+        TreeSet<Long> missing = new TreeSet<>();
+        for (int[] pair : pairs) {
+            if (pair[0] != pair[1] && (cache == null || cache.indexOf(pair[0], pair[1]) == -1)) {
+                missing.add((long) pair[0] * n + pair[1]);
             }
         }
-
-        // If it is the preparation run, for a large k determine the paths,
-        // such that they can be used for lower k
-        if (prep) {
-            printKShortestPathEdges("temp/k-shortest-valid-edges-cache.txt", g, yenAlg, graph, k);
+        if (missing.isEmpty()) {
+            System.out.println(" > K shortest paths of all " + pairs.size() + " switch pairs are already persisted.");
+            return;
         }
 
-        // Load from cache using k as threshold
-        loadKShortestPathEdges("temp/k-shortest-valid-edges-cache.txt", k);
-
+        System.out.print(" > Pre-calculating K shortest paths of " + missing.size() + " switch pairs using Yen's algorithm... ");
+        File file = getCacheFile(k);
+        try {
+            writeCache(file, missing);
+            cache = mapCache(file);
+        } catch (IOException e) {
+            System.err.println("KShortestPathEvaluator: prepare: unable to write " + file + ": " + e.getMessage());
+        }
         System.out.println(" done.");
 
     }
 
-
     /**
-     * Load from the given file all the valid edges into buffer.
-     *
-     * The input file has the following structure:
-     * [source id] [destination id] [edge-from id] [edge-to id] [required-k]
+     * Write the cache file with the persisted pairs and the missing pairs, of which
+     * the latter are calculated in parallel blocks.
      *
-     * Only the valid edges which have the required-k <= k are logically added.
+     * @param file      Cache file
+     * @param missing   Keys (src * n + dst) of the pairs to calculate
      *
-     * @param fileName  File name
-     * @param k         How many shortest acyclic paths are taken into account (K shortest path)
+     * @throws IOException  If the file cannot be written
      */
-    private void loadKShortestPathEdges(String fileName, int k) {
-
-        try {
+    private void writeCache(File file, TreeSet<Long> missing) throws IOException {
 
-            // Open input stream
-            FileInputStream fileStream = new FileInputStream(fileName);
-            BufferedReader br = new BufferedReader(new InputStreamReader(fileStream));
+        // All pairs of the new file in ascending order
+        TreeSet<Long> all = new TreeSet<>(missing);
+        for (int i = 0; cache != null && i < cache.getNumPairs(); i++) {
+            all.add((long) cache.getSource(i) * n + cache.getDestination(i));
+        }
+        long[] keys = new long[all.size()];
+        int c = 0;
+        for (long key : all) {
+            keys[c++] = key;
+        }
 
-            // Simply read in the server pairs
-            String strLine;
-            while ((strLine = br.readLine()) != null) {
+        MappedKShortestPaths.Writer writer = new MappedKShortestPaths.Writer(file, fingerprint, n, k);
+        try {
 
-                // Split up sentences
-                String[] match = strLine.split(" ");
-                int src = Integer.valueOf(match[0]);
-                int dst = Integer.valueOf(match[1]);
-                int from = Integer.valueOf(match[2]);
-                int to = Integer.valueOf(match[3]);
-                int pn = Integer.valueOf(match[4]);
+            // Go over the pairs in blocks, such that only one block of output is held in memory
+            int blockSize = PAIRS_PER_THREAD_BLOCK * Runtime.getRuntime().availableProcessors();
+            int progress = 0;
+            int done = 0;
+            for (int start = 0; start < keys.length; start += blockSize) {
+                final int end = Math.min(keys.length, start + blockSize);
+
+                // Calculate the missing pairs of the block in parallel
+                int[][] entries = new int[end - start][];
+                final int offset = start;
+                IntStream.range(start, end).parallel().forEach(i -> {
+                    int src = (int) (keys[i] / n);
+                    int dst = (int) (keys[i] % n);
+                    entries[i - offset] = missing.contains(keys[i])
+                            ? calculateEntries(engines.get(), src, dst, k)
+                            : cache.getEntries(cache.indexOf(src, dst), k);
+                });
+
+                // Write in order of pair
+                for (int i = start; i < end; i++) {
+                    writer.add((int) (keys[i] / n), (int) (keys[i] % n), entries[i - start]);
+                    if (missing.contains(keys[i])) {
+                        done++;
+                    }
+                }
 
-                if (pn <= k) {
-                    validEdges.get(new AbstractMap.SimpleEntry<>(src, dst)).add(new AbstractMap.SimpleEntry<>(from, to));
+                // Print progress percentages
+                int size = missing.size();
+                while (size > 10 && progress + size / 10 <= done) {
+                    progress += size / 10;
+                    System.out.print(10 * progress / (size / 10) + "%... ");
                 }
+
             }
 
-            // Close input stream
-            br.close();
+            writer.commit();
 
-        } catch (Exception e) {
-            e.printStackTrace();
+        } finally {
+            writer.abort();
         }
 
     }
 
     /**
-     * Print for a large K all valid edges for any lower than or equal k.
+     * Calculate the valid edges of the K shortest paths from source to destination,
+     * each with the first path it occurs on.
      *
-     * The output file has the following structure:
-     * [source id] [destination id] [edge-from id] [edge-to id] [required-k]
+     * @param engine    Yen's algorithm instance
+     * @param i         Source node index
+     * @param j         Destination node index
+     * @param k         K
      *
-     * @param fileName      File name
-     * @param g             Original graph
-     * @param yenAlg        Instance of Yen's Algorithm solver
-     * @param graph         Compatible graph representation for Yen's algorithm
-     * @param k             Large K
+     * @return Entries (edge-from, edge-to, path number) concatenated, in ascending path number
      */
-    private void printKShortestPathEdges(String fileName, Graph g, YenTopKShortestPathsAlg yenAlg, edu.asu.emit.algorithm.graph.Graph graph, int k) {
-
-        try {
-
-            // Open output stream
-            FileWriter fileStream = new FileWriter(fileName);
-            BufferedWriter out = new BufferedWriter(fileStream);
+    private static int[] calculateEntries(YenKShortestPaths engine, int i, int j, int k) {
 
-            // Go over every (src, dst) pair
-            for (int i = 0; i < g.getNumNodes(); i++) {
-                for (int j = 0; j < g.getNumNodes(); j++) {
+        // Can't go to itself
+        if (i == j) {
+            return new int[0];
+        }
 
-                    // Can't go to itself
-                    if (i == j) {
-                        continue;
+        // Add all the edges of the paths, each with the first path it occurs on
+        Set<Long> localValidEdges = new HashSet<>();
+        int[] entries = new int[48];
+        int size = 0;
+        int pn = 1;
+        for (int[] p : engine.getShortestPaths(i, j, k)) {
+            for (int z = 1; z < p.length; z++) {
+                if (localValidEdges.add(((long) p[z - 1] << 32) | p[z])) {
+                    if (size + 3 > entries.length) {
+                        entries = Arrays.copyOf(entries, 2 * entries.length);
                     }
+                    entries[size++] = p[z - 1];
+                    entries[size++] = p[z];
+                    entries[size++] = pn;
+                }
+            }
+            pn++;
+        }
+        return Arrays.copyOf(entries, size);
 
-                    // Perform Yen's algorithm with the source and destination
-                    List<Path> pathList = yenAlg.getShortestPaths(graph.getVertex(i), graph.getVertex(j), k);
-
-                    // Initialize map
-                    Set<AbstractMap.SimpleEntry<Integer, Integer>> localValidEdges = new HashSet<>();
-
-                    // Add all the edges to the mapping
-                    int pn = 1;
-                    for (Path p : pathList) {
-                        List<Vertex> vertices = p.getVertexList();
-                        int from = vertices.get(0).getId();
-                        for (int z = 1; z < vertices.size(); z++) {
-                            int to = vertices.get(z).getId();
-
-                            if (!localValidEdges.contains(new AbstractMap.SimpleEntry<>(from, to))) {
-                                out.write(i + " " + j + " " + from + " " + to + " " + pn + "\n");
-                            }
+    }
 
-                            localValidEdges.add(new AbstractMap.SimpleEntry<>(from, to));
-                            from = to;
-                        }
-                        pn++;
-                    }
+    /**
+     * Retrieve the cache file of a K.
+     *
+     * @param kMax  K the paths are calculated for
+     *
+     * @return Cache file
+     */
+    private File getCacheFile(int kMax) {
+        return new File(cacheDirectory, fingerprint + "-k" + kMax + ".bin");
+    }
 
-                }
+    /**
+     * Map a cache file if it exists and belongs to the topology.
+     *
+     * @param file  Cache file
+     *
+     * @return Mapped K shortest paths, null if not available
+     */
+    private MappedKShortestPaths mapCache(File file) {
+        try {
+            return MappedKShortestPaths.map(file, fingerprint, n);
+        } catch (IOException e) {
+            System.err.println("KShortestPathEvaluator: mapCache: unable to map " + file + ": " + e.getMessage());
+            return null;
+        }
+    }
 
-                // Print progress percentages
-                if (g.getNumNodes() > 10 && (i + 1) % (g.getNumNodes() / 10) == 0) {
-                    System.out.print(10 * (i + 1) / (g.getNumNodes() / 10) + "%... ");
+    /**
+     * Map the cache file of the topology with the lowest K which is at least k.
+     *
+     * @return Mapped K shortest paths, null if not available
+     */
+    private MappedKShortestPaths mapLowestSufficientCache() {
+        Pattern pattern = Pattern.compile(Pattern.quote(fingerprint) + "-k([0-9]+)\\.bin");
+        int best = -1;
+        String[] names = cacheDirectory.list();
+        for (String name : names == null ? new String[0] : names) {
+            Matcher matcher = pattern.matcher(name);
+            if (matcher.matches()) {
+                int kMax = Integer.parseInt(matcher.group(1));
+                if (kMax >= k && (best == -1 || kMax < best)) {
+                    best = kMax;
                 }
+            }
+        }
+        return best == -1 ? null : mapCache(getCacheFile(best));
+    }
 
+    /**
+     * Retrieve the valid edges of a pair from the memoized, the persisted or
+     * else newly calculated K shortest paths.
+     *
+     * @param src   Source of flow
+     * @param dst   Destination of flow
+     *
+     * @return Sorted valid edges (from * n + to)
+     */
+    private long[] getValidEdges(int src, int dst) {
+        long key = (long) src * n + dst;
+        long[] edges = validEdges.get(key);
+        if (edges == null) {
+
+            // Entries of the first k paths
+            MappedKShortestPaths mapped = cache;
+            int index = mapped == null ? -1 : mapped.indexOf(src, dst);
+            int[] entries = index != -1 ? mapped.getEntries(index, k) : calculateEntries(engines.get(), src, dst, k);
+
+            // Sorted edges
+            edges = new long[entries.length / 3];
+            for (int e = 0; e < edges.length; e++) {
+                edges[e] = (long) entries[3 * e] * n + entries[3 * e + 1];
             }
+            Arrays.sort(edges);
 
-            // Close output stream
-            out.close();
+            // Keep the first if calculated concurrently
+            long[] existing = validEdges.putIfAbsent(key, edges);
+            if (existing != null) {
+                edges = existing;
+            }
 
-        } catch (Exception e) {
-            e.printStackTrace();
         }
-
+        return edges;
     }
 
     /**
@@ -200,7 +335,7 @@ public class KShortestPathEvaluator extends PathEvaluator {
      */
     @Override
     public boolean isFlowZero(int src, int dst, int linkFrom, int linkTo) {
-        return !validEdges.get(new AbstractMap.SimpleEntry<>(src, dst)).contains(new AbstractMap.SimpleEntry<>(linkFrom, linkTo));
+        return Arrays.binarySearch(getValidEdges(src, dst), (long) linkFrom * n + linkTo) < 0;
     }
 
 }
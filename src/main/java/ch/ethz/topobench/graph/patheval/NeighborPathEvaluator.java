@@ -7,11 +7,11 @@
 
 package ch.ethz.topobench.graph.patheval;
 
-import ch.ethz.topobench.graph.Graph;
+import ch.ethz.topobench.graph.GraphView;
 
 public class NeighborPathEvaluator extends PathEvaluator {
 
-    public NeighborPathEvaluator(Graph g) {
+    public NeighborPathEvaluator(GraphView g) {
         super(g);
     }
 
@@ -36,9 +36,9 @@ public class NeighborPathEvaluator extends PathEvaluator {
 
         // Check whether the edge is on any other shortest paths of the neighbors
         boolean isOnShortestPath = false;
-        for (int i = 0; i < adjacencyList[src].size(); i++) {
-            int neighborSrc = adjacencyList[src].get(i).getLinkTo();
-            if (shortestPathLen[neighborSrc][linkFrom] + 1 + shortestPathLen[linkTo][dst] <= shortestPathLen[neighborSrc][dst]) {
+        for (int e = adjacency.getEdgeStart(src); e < adjacency.getEdgeEnd(src); e++) {
+            int neighborSrc = adjacency.getTarget(e);
+            if (graph.getShortestPathLen(neighborSrc, linkFrom) + 1 + graph.getShortestPathLen(linkTo, dst) <= graph.getShortestPathLen(neighborSrc, dst)) {
                 isOnShortestPath = true;
                 break;
             }
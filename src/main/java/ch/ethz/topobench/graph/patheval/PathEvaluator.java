@@ -7,19 +7,30 @@
 
 package ch.ethz.topobench.graph.patheval;
 
-import ch.ethz.topobench.graph.Graph;
-import ch.ethz.topobench.graph.Link;
+import ch.ethz.topobench.graph.FrozenAdjacency;
+import ch.ethz.topobench.graph.GraphView;
 
-import java.util.Vector;
+import java.util.List;
 
 public abstract class PathEvaluator {
 
-    int[][] shortestPathLen;
-    Vector<Link> adjacencyList[];
+    final GraphView graph;
+    FrozenAdjacency adjacency;
 
-    PathEvaluator(Graph graph) {
-        this.shortestPathLen = graph.getShortestPathLen();
-        this.adjacencyList = graph.getAdjacencyList();
+    PathEvaluator(GraphView graph) {
+        this.graph = graph;
+        this.adjacency = graph.getFrozenAdjacency();
+    }
+
+    /**
+     * Prepare for the flows between the given switch pairs, which are the only ones queried
+     * afterwards. Evaluators which calculate per pair restrict themselves to these (a pair
+     * which is queried without being prepared is calculated on demand). Does nothing by default.
+     *
+     * @param pairs     Distinct (source switch, destination switch) pairs
+     */
+    public void prepare(List<int[]> pairs) {
+        // Nothing to prepare
     }
 
     /**
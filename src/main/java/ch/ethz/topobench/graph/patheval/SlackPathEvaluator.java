@@ -7,13 +7,13 @@
 
 package ch.ethz.topobench.graph.patheval;
 
-import ch.ethz.topobench.graph.Graph;
+import ch.ethz.topobench.graph.GraphView;
 
 public class SlackPathEvaluator extends PathEvaluator {
 
     private int slack;
 
-    public SlackPathEvaluator(Graph g, int slack) {
+    public SlackPathEvaluator(GraphView g, int slack) {
         super(g);
         this.slack = slack;
     }
@@ -37,9 +37,9 @@ public class SlackPathEvaluator extends PathEvaluator {
     @Override
     public boolean isFlowZero(int src, int dst, int linkFrom, int linkTo) {
         return
-                shortestPathLen[src][linkFrom] + 1 + shortestPathLen[linkTo][dst]
+                graph.getShortestPathLen(src, linkFrom) + 1 + graph.getShortestPathLen(linkTo, dst)
                         >
-                shortestPathLen[src][dst] + this.slack
+                graph.getShortestPathLen(src, dst) + this.slack
         ;
     }
 
@@ -8,18 +8,39 @@
 package ch.ethz.topobench.graph.patheval;
 
 import ch.ethz.topobench.Main;
-import ch.ethz.topobench.graph.Graph;
-import edu.asu.emit.algorithm.graph.Vertex;
-import edu.asu.emit.algorithm.graph.algorithms.DijkstraShortestPathAlg;
+import ch.ethz.topobench.graph.GraphView;
+import edu.asu.emit.algorithm.graph.algorithms.IndexedDijkstraShortestPathAlg;
 
 import java.util.*;
-
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Valiant load balancing path evaluator: the flow of a pair may only use the shortest paths
+ * via k random valiant nodes.
+ *
+ * The valid edges are only calculated for the switch pairs which are prepared (i.e. which
+ * carry traffic), or on demand for a pair which is queried without being prepared. The
+ * valiant nodes of a pair are drawn from its own random generator, seeded by the run seed
+ * and the pair, thus they do not depend on which other pairs are calculated or in which
+ * order, and the universal random number generator is left untouched.
+ *
+ * Pairs are calculated outside of any lock, thus concurrent queries of different pairs
+ * proceed in parallel (a pair queried concurrently may be calculated more than once).
+ */
 public class ValiantLBPathEvaluator extends PathEvaluator {
 
-    // Mapping of (src, dst) to the set of valid edges
-    private final Map<AbstractMap.SimpleEntry<Integer, Integer>, Set<Integer>> validEdges;
+    // Mapping of (src * n + dst) to the set of valid edges, only for calculated pairs
+    private final ConcurrentMap<Long, Set<Integer>> validEdges;
+
+    // Mapping of root to the predecessor of each node in its shortest path tree
+    private final ConcurrentMap<Integer, int[]> shortestPathTrees;
 
     private final int n;
+    private final int k;
+    private final long seed;
+    private final FrozenAdjacencyGraph libraryGraph;
+    private final ThreadLocal<IndexedDijkstraShortestPathAlg> dijkstraAlgs;
 
     /**
      * Constructor.
@@ -27,7 +48,7 @@ public class ValiantLBPathEvaluator extends PathEvaluator {
      * @param g     Instance of the graph
      * @param k     Number of valiant nodes that should be used
      */
-    public ValiantLBPathEvaluator(Graph g, int k) {
+    public ValiantLBPathEvaluator(GraphView g, int k) {
         super(g);
 
         this.n = g.getNumNodes();
@@ -42,102 +63,169 @@ public class ValiantLBPathEvaluator extends PathEvaluator {
             throw new RuntimeException("invalid argument for VLB-k; 1 <= k <= n - 2 (given VLB-k is " + k + ").");
         }
 
-        System.out.print(" > KVLB - Calculating shortest path using Dijkstra's algorithm... ");
+        this.k = k;
+        this.seed = new Random(Main.getRandomSeed()).nextLong();
+        this.validEdges = new ConcurrentHashMap<>();
+        this.shortestPathTrees = new ConcurrentHashMap<>();
+        this.libraryGraph = new FrozenAdjacencyGraph(g);
+        this.dijkstraAlgs = ThreadLocal.withInitial(() -> new IndexedDijkstraShortestPathAlg(libraryGraph));
 
-        // Prepare graph
-        GraphCompatibility.printGraphToFile(g, "temp/valiant-lb-converted.txt");
-        edu.asu.emit.algorithm.graph.Graph graph = new edu.asu.emit.algorithm.graph.Graph("temp/valiant-lb-converted.txt");
-        DijkstraShortestPathAlg dijkstraAlg = new DijkstraShortestPathAlg(graph);
+    }
 
-        // Pre-calculate shortest paths
-        Map<AbstractMap.SimpleEntry<Integer, Integer>, List<Vertex>> shortestPaths = new HashMap<>();
-        for (int src = 0; src < g.getNumNodes(); src++) {
-            for (int dst = 0; dst < g.getNumNodes(); dst++) {
-                shortestPaths.put(new AbstractMap.SimpleEntry<>(src, dst), dijkstraAlg.getShortestPath(graph.getVertex(src), graph.getVertex(dst)).getVertexList());
-            }
+    /**
+     * Calculate the valid edges of the given switch pairs.
+     *
+     * @param pairs     Distinct (source switch, destination switch) pairs
+     */
+    @Override
+    public void prepare(List<int[]> pairs) {
+        System.out.print(" > KVLB - Calculating valiant paths of " + pairs.size() + " switch pairs using Dijkstra's algorithm... ");
+        int progress = 0;
+        for (int i = 0; i < pairs.size(); i++) {
+            getValidEdges(pairs.get(i)[0], pairs.get(i)[1]);
 
             // Print progress percentages
-            if (g.getNumNodes() > 10 && (src + 1) % (g.getNumNodes() / 10) == 0) {
-                System.out.print(10 * (src + 1) / (g.getNumNodes() / 10) + "%... ");
+            while (pairs.size() > 10 && progress + pairs.size() / 10 <= i + 1) {
+                progress += pairs.size() / 10;
+                System.out.print(10 * progress / (pairs.size() / 10) + "%... ");
             }
 
         }
+        System.out.println("done.");
+    }
 
-        System.out.print("part 1 done. ");
-
-        // For every node pair
-        this.validEdges = new HashMap<>();
-        for (int src = 0; src < g.getNumNodes(); src++) {
-            for (int dst = 0; dst < g.getNumNodes(); dst++) {
-
-                // Ignore paths to itself
-                if (src == dst) {
-                    continue;
-                }
-
-                // Calculate n valiant nodes regardless of k
-                List<Integer> valiantNodes = new ArrayList<>();
-                for (int z = 0; z < g.getNumNodes(); z++) {
-                    if (z == src || z == dst) { // Source and destination cannot act as valiant nodes
-                        continue;
-                    }
-                    valiantNodes.add(z);
-                }
-                Collections.shuffle(valiantNodes, Main.universalRand);
+    /**
+     * Retrieve the valid edges of a pair, calculating them if they are not known yet.
+     *
+     * @param src   Source of flow
+     * @param dst   Destination of flow
+     *
+     * @return Set of valid edges (encoded as from * n + to)
+     */
+    private Set<Integer> getValidEdges(int src, int dst) {
+        long key = (long) src * n + dst;
+        Set<Integer> localValidEdges = validEdges.get(key);
+        if (localValidEdges == null) {
+            localValidEdges = new HashSet<>();
 
-                // Create set in which to save edges (alternative: use boolean[] with edges as indices)
-                Set<Integer> localValidEdges = new HashSet<>();
+            // Paths to itself are ignored
+            if (src != dst) {
 
                 // Add all the edges on the valiant paths
-                for (int z = 0; z < k; z++) {
-                    int valiant = valiantNodes.get(z);
+                for (int valiant : drawValiantNodes(src, dst)) {
 
                     // Valiant path from src to valiant
-                    addAllEdgesOnPath(shortestPaths.get(new AbstractMap.SimpleEntry<>(src, valiant)), localValidEdges);
+                    addAllEdgesOnPath(getShortestPathTree(src), valiant, localValidEdges);
 
                     // Valiant path from valiant to dst
-                    addAllEdgesOnPath(shortestPaths.get(new AbstractMap.SimpleEntry<>(valiant, dst)), localValidEdges);
+                    addAllEdgesOnPath(getShortestPathTree(valiant), dst, localValidEdges);
 
                 }
 
-                // Update collection of valid edges
-                validEdges.put(new AbstractMap.SimpleEntry<>(src, dst), localValidEdges);
+            }
 
+            // Keep the first if calculated concurrently
+            Set<Integer> existing = validEdges.putIfAbsent(key, localValidEdges);
+            if (existing != null) {
+                localValidEdges = existing;
             }
 
-            // Print progress percentages
-            if (g.getNumNodes() > 10 && (src + 1) % (g.getNumNodes() / 10) == 0) {
-                System.out.print(10 * (src + 1) / (g.getNumNodes() / 10) + "%... ");
+        }
+        return localValidEdges;
+    }
+
+    /**
+     * Draw k distinct valiant nodes for a pair (source and destination cannot act as valiant nodes),
+     * using a random generator seeded by the pair.
+     *
+     * @param src   Source of flow
+     * @param dst   Destination of flow
+     *
+     * @return Valiant nodes
+     */
+    private int[] drawValiantNodes(int src, int dst) {
+
+        // All candidates
+        int[] candidates = new int[n - 2];
+        int c = 0;
+        for (int z = 0; z < n; z++) {
+            if (z != src && z != dst) {
+                candidates[c++] = z;
             }
+        }
 
+        // Shuffle only the first k positions
+        Random random = new Random(mix(seed + (long) src * n + dst));
+        for (int z = 0; z < k; z++) {
+            int swap = z + random.nextInt(candidates.length - z);
+            int tmp = candidates[z];
+            candidates[z] = candidates[swap];
+            candidates[swap] = tmp;
         }
 
-        System.out.println("part 2 done.");
+        return Arrays.copyOf(candidates, k);
+    }
 
+    /**
+     * Scramble a seed such that consecutive values give unrelated random generators.
+     *
+     * @param value     Seed
+     *
+     * @return Scrambled seed
+     */
+    private static long mix(long value) {
+        long z = value * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Retrieve the shortest path tree of a root, calculating it if it is not known yet.
+     *
+     * @param root  Root node
+     *
+     * @return Predecessor of each node towards the root (-1 for the root or if unreachable)
+     */
+    private int[] getShortestPathTree(int root) {
+        int[] predecessor = shortestPathTrees.get(root);
+        if (predecessor == null) {
+            IndexedDijkstraShortestPathAlg dijkstraAlg = dijkstraAlgs.get();
+            dijkstraAlg.getShortestPathTree(libraryGraph.getVertex(root));
+            predecessor = new int[n];
+            for (int v = 0; v < n; v++) {
+                predecessor[v] = dijkstraAlg.getPredecessor(v);
+            }
+            int[] existing = shortestPathTrees.putIfAbsent(root, predecessor);
+            if (existing != null) {
+                predecessor = existing;
+            }
+        }
+        return predecessor;
     }
 
     /**
-     * Add all the edges on the given path to the (src, dst) entry in the global collection
-     * of valid edges for (src, dst).
+     * Add all the edges on the path from the root of the tree to the node to the
+     * local collection of valid edges.
      *
-     * @param vertices        Vertex path list
-     * @param localValidEdges Local valid edges collection
+     * @param predecessor       Shortest path tree
+     * @param node              Last node of the path
+     * @param localValidEdges   Local valid edges collection
      */
-    private void addAllEdgesOnPath(List<Vertex> vertices, Set<Integer> localValidEdges) {
+    private void addAllEdgesOnPath(int[] predecessor, int node, Set<Integer> localValidEdges) {
 
         // Add all valid edges on the path to the collection
-        int from = vertices.get(0).getId();
-        for (int z = 1; z < vertices.size(); z++) {
-            int to = vertices.get(z).getId();
+        int to = node;
+        for (int from = predecessor[to]; from != -1; from = predecessor[from]) {
             localValidEdges.add(from * n + to);
-            from = to;
+            to = from;
         }
 
     }
 
     @Override
     public boolean isFlowZero(int src, int dst, int linkFrom, int linkTo) {
-        return !validEdges.get(new AbstractMap.SimpleEntry<>(src, dst)).contains(linkFrom * n + linkTo);
+        return !getValidEdges(src, dst).contains(linkFrom * n + linkTo);
     }
 
 }
@@ -16,10 +16,15 @@ import ch.ethz.topobench.graph.utility.CmdAssistant;
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.Options;
 
+import java.io.File;
+
 import static ch.ethz.topobench.graph.utility.CmdAssistant.parseOptions;
 
 public class KShortestPathEvaluatorGenerator implements PathEvaluatorGenerator {
 
+    // Default directory to persist the K shortest paths in, outside the temporary folder
+    private static final String DEFAULT_CACHE_DIRECTORY = "cache/ksp";
+
     @Override
     public SelectorResult<PathEvaluator> generate(Graph graph, String[] args) {
 
@@ -27,11 +32,13 @@ public class KShortestPathEvaluatorGenerator implements PathEvaluatorGenerator {
         Options options = new Options();
         CmdAssistant.addOption(options, "ksp", "k for k-shortest paths (-1 = inf)");
         CmdAssistant.addOption(options, "peprep", "boolean whether it is a preparation run (only 0 or 1 allowed)");
+        CmdAssistant.addOption(options, "kspc", "kspcache", false, "directory to persist and reuse K shortest paths in (default: " + DEFAULT_CACHE_DIRECTORY + ")");
         CommandLine cmd = parseOptions(options, args, true);
 
         // Read in parameters
         int ksp = ArgumentValidator.retrieveInteger("ksp", cmd.getOptionValue("ksp"));
         boolean peprep = ArgumentValidator.retrieveBoolean("peprep", cmd.getOptionValue("peprep"));
+        File cacheDirectory = new File(cmd.getOptionValue("kspcache", DEFAULT_CACHE_DIRECTORY));
 
         // Infinity option
         if (ksp == -1) {
@@ -39,7 +46,7 @@ public class KShortestPathEvaluatorGenerator implements PathEvaluatorGenerator {
         }
 
         // Create path evaluator
-        return new SelectorResult<>(new KShortestPathEvaluator(graph, ksp, peprep), cmd.getArgs());
+        return new SelectorResult<>(new KShortestPathEvaluator(graph, ksp, peprep, cacheDirectory), cmd.getArgs());
 
     }
 
@@ -8,18 +8,31 @@
 
 package ch.ethz.topobench.graph.print;
 
-import ch.ethz.topobench.graph.Graph;
-import ch.ethz.topobench.graph.Link;
+import ch.ethz.topobench.graph.FrozenAdjacency;
+import ch.ethz.topobench.graph.GraphView;
+import ch.ethz.topobench.graph.NodeRelabeling;
 
 import java.io.BufferedWriter;
 import java.io.FileWriter;
 
 public class PrinterGraph {
 
-    private Graph graph;
+    private GraphView graph;
+    private final NodeRelabeling relabeling;
 
-    public PrinterGraph(Graph graph) {
+    public PrinterGraph(GraphView graph) {
+        this(graph, null);
+    }
+
+    /**
+     * Constructor for a relabeled graph, which is printed in original node identifiers.
+     *
+     * @param graph         Relabeled graph
+     * @param relabeling    Relabeling applied to the graph (null if none)
+     */
+    public PrinterGraph(GraphView graph, NodeRelabeling relabeling) {
         this.graph = graph;
+        this.relabeling = relabeling;
     }
 
     /**
@@ -38,13 +51,15 @@ public class PrinterGraph {
             FileWriter fileStream = new FileWriter(fileName);
             BufferedWriter out = new BufferedWriter(fileStream);
 
+            FrozenAdjacency adjacency = graph.getFrozenAdjacency();
             for (int i = 0; i < graph.getNumNodes(); i++) {
-                for (int j = 0; j < graph.getAdjacencyList()[i].size(); j++) {
-                    if (i != 0 || j != 0) {
+                int u = relabeling == null ? i : relabeling.toRelabeledNode(i);
+                for (int e = adjacency.getEdgeStart(u); e < adjacency.getEdgeEnd(u); e++) {
+                    if (i != 0 || e != adjacency.getEdgeStart(u)) {
                         out.write("\n");
                     }
-                    Link link = graph.getAdjacencyList()[i].get(j);
-                    out.write(i + " " + link.getLinkTo());
+                    int target = adjacency.getTarget(e);
+                    out.write(i + " " + (relabeling == null ? target : relabeling.toOriginalNode(target)));
                 }
             }
 
@@ -8,8 +8,8 @@
 package ch.ethz.topobench.graph.print;
 
 import ch.ethz.topobench.Main;
-import ch.ethz.topobench.graph.Graph;
-import ch.ethz.topobench.graph.Link;
+import ch.ethz.topobench.graph.FrozenAdjacency;
+import ch.ethz.topobench.graph.GraphView;
 import ch.ethz.topobench.graph.patheval.PathEvaluator;
 import ch.ethz.topobench.graph.traffic.TrafficPair;
 
@@ -18,21 +18,20 @@ import java.io.FileWriter;
 import java.io.IOException;
 import java.io.Writer;
 import java.util.List;
-import java.util.Vector;
 
 public class PrinterMCFFairCondensed {
 
     private final int numNodes;
-    private final Graph graph;
+    private final GraphView graph;
     private final int switchLevelMatrix[][];
-    private final Vector<Link> adjacencyList[];
+    private final FrozenAdjacency adjacency;
     private final PathEvaluator pathEvaluator;
 
-    public PrinterMCFFairCondensed(Graph graph, PathEvaluator pathEvaluator) {
+    public PrinterMCFFairCondensed(GraphView graph, PathEvaluator pathEvaluator) {
         this.graph = graph;
         this.numNodes = graph.getNumNodes();
         this.switchLevelMatrix = new int[numNodes][numNodes];
-        this.adjacencyList = graph.getAdjacencyList();
+        this.adjacency = graph.getFrozenAdjacency();
         this.pathEvaluator = pathEvaluator;
     }
 
@@ -117,10 +116,10 @@ public class PrinterMCFFairCondensed {
             // For every link (u, v) with capacity cap print link capacities
             Writer outputLinkCaps = new BufferedWriter(new FileWriter("temp/link_caps"));
             for (int u = 0; u < numNodes; u++) {
-                for (Link link : adjacencyList[u]) {
-                    int cap = link.getLinkCapacity();
-                    int v = link.getLinkTo();
-                    outputLinkCaps.write(u + "-" + v + " (" + cap + ") " + adjacencyList[u].size() + " " + adjacencyList[v].size() + "\n");
+                for (int e = adjacency.getEdgeStart(u); e < adjacency.getEdgeEnd(u); e++) {
+                    int cap = adjacency.getCapacity(e);
+                    int v = adjacency.getTarget(e);
+                    outputLinkCaps.write(u + "-" + v + " (" + cap + ") " + adjacency.getDegree(u) + " " + adjacency.getDegree(v) + "\n");
                 }
             }
             outputLinkCaps.close();
@@ -152,10 +151,10 @@ public class PrinterMCFFairCondensed {
 
                         // Add to the constraint all links from f that are allowed to carry the flow
                         int writeCons = 0;
-                        for (int j = 0; j < adjacencyList[f].size(); j++)   // For each out link of f = (f,j)
+                        for (int e = adjacency.getEdgeStart(f); e < adjacency.getEdgeEnd(f); e++)   // For each out link of f = (f,j)
                         {
-                            if (!isFlowZero(allFlowIDs[fid], f, adjacencyList[f].elementAt(j).getLinkTo())) {
-                                constraint += "-f_" + fid + "_" + f + "_" + adjacencyList[f].elementAt(j).getLinkTo() + " ";
+                            if (!isFlowZero(allFlowIDs[fid], f, adjacency.getTarget(e))) {
+                                constraint += "-f_" + fid + "_" + f + "_" + adjacency.getTarget(e) + " ";
                                 writeCons = 1;
                             }
                         }
@@ -180,12 +179,11 @@ public class PrinterMCFFairCondensed {
 
             // For every link (i, j)
             for (int linkFrom = 0; linkFrom < numNodes; linkFrom++) {
-                for (int j = 0; j < adjacencyList[linkFrom].size(); j++) {
+                for (int e = adjacency.getEdgeStart(linkFrom); e < adjacency.getEdgeEnd(linkFrom); e++) {
 
                     // Local scope link information
-                    Link link = adjacencyList[linkFrom].elementAt(j);
-                    int linkTo = link.getLinkTo();
-                    int linkCapacity = link.getLinkCapacity();
+                    int linkTo = adjacency.getTarget(e);
+                    int linkCapacity = adjacency.getCapacity(e);
 
                     StringBuilder curConstraint = new StringBuilder();
                     boolean writeConstraint = false;
@@ -239,9 +237,9 @@ public class PrinterMCFFairCondensed {
                                 String constraintNoSelfInFlow = "c2_" + fid + "_" + u + "_2: ";
 
                                 // For each out link of u (= f): (u,v)
-                                for (int j = 0; j < adjacencyList[u].size(); j++)   // For each out-link of u: (u,v)
+                                for (int e = adjacency.getEdgeStart(u); e < adjacency.getEdgeEnd(u); e++)   // For each out-link of u: (u,v)
                                 {
-                                    int v = adjacencyList[u].elementAt(j).getLinkTo();
+                                    int v = adjacency.getTarget(e);
 
                                     // Add outgoing links (u, v) to the max out-flow constraint
                                     if (!isFlowZero(allFlowIDs[fid], u, v)) {
@@ -281,9 +279,9 @@ public class PrinterMCFFairCondensed {
                                 boolean writeCons = false;
 
                                 // Sum up all flow with id fid going out of u
-                                for (int j = 0; j < adjacencyList[u].size(); j++)   // For each out-link of u = (u,v)
+                                for (int e = adjacency.getEdgeStart(u); e < adjacency.getEdgeEnd(u); e++)   // For each out-link of u = (u,v)
                                 {
-                                    int v = adjacencyList[u].elementAt(j).getLinkTo();
+                                    int v = adjacency.getTarget(e);
                                     if (!isFlowZero(allFlowIDs[fid], u, v)) {
                                         if (writeCons) {
                                             constraint += " + ";
@@ -294,9 +292,9 @@ public class PrinterMCFFairCondensed {
                                 }
 
                                 // Negative sum up all the flow with id fid going into u
-                                for (int j = 0; j < adjacencyList[u].size(); j++)   // For each in link-of u = (v,u)
+                                for (int e = adjacency.getEdgeStart(u); e < adjacency.getEdgeEnd(u); e++)   // For each in link-of u = (v,u)
                                 {
-                                    int v = adjacencyList[u].elementAt(j).getLinkTo();
+                                    int v = adjacency.getTarget(e);
                                     if (!isFlowZero(allFlowIDs[fid], v, u)) {
                                         constraint += " - f_" + fid + "_" + v + "_" + u;
                                         writeCons = true;
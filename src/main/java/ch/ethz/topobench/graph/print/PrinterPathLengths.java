@@ -8,7 +8,8 @@
 package ch.ethz.topobench.graph.print;
 
 import ch.ethz.topobench.graph.utility.BoundsCalculator;
-import ch.ethz.topobench.graph.Graph;
+import ch.ethz.topobench.graph.GraphView;
+import ch.ethz.topobench.graph.NodeRelabeling;
 
 import java.io.BufferedWriter;
 import java.io.FileWriter;
@@ -16,13 +17,34 @@ import java.io.FileWriter;
 public class PrinterPathLengths {
 
     private final int numNodes;
-    private final Graph graph;
-    private final int shortestPathLen[][];
+    private final GraphView graph;
+    private final NodeRelabeling relabeling;
 
-    public PrinterPathLengths(Graph graph) {
+    public PrinterPathLengths(GraphView graph) {
+        this(graph, null);
+    }
+
+    /**
+     * Constructor for a relabeled graph, which is printed in original node identifiers.
+     *
+     * @param graph         Relabeled graph
+     * @param relabeling    Relabeling applied to the graph (null if none)
+     */
+    public PrinterPathLengths(GraphView graph, NodeRelabeling relabeling) {
         this.graph = graph;
+        this.relabeling = relabeling;
         this.numNodes = graph.getNumNodes();
-        this.shortestPathLen = graph.getShortestPathLen();
+    }
+
+    /**
+     * Find the node index in the graph of an original node.
+     *
+     * @param i     Original node index
+     *
+     * @return Node index in the graph
+     */
+    private int node(int i) {
+        return relabeling == null ? i : relabeling.toRelabeledNode(i);
     }
 
     public void print(String filePath) {
@@ -40,7 +62,7 @@ public class PrinterPathLengths {
             double sum = 0.0;
             for (int i = 0; i < numNodes; i++) {
                 for (int j = 0; j < numNodes; j++) {
-                    sum += shortestPathLen[i][j];
+                    sum += graph.getShortestPathLen(i, j);
                 }
             }
 
@@ -50,8 +72,8 @@ public class PrinterPathLengths {
             out.write("\nAverage path length for node pairs: " + (sum / (numNodes * numNodes)));
 
             // For regular graph online with uniform weights
-            int d = graph.getAdjacencyList()[0].size();
-            int w = graph.getNodeWeight(0);
+            int d = graph.getFrozenAdjacency().getDegree(node(0));
+            int w = graph.getNodeWeight(node(0));
             out.write("\n\nUNDER ASSUMPTION OF REGULAR GRAPH with n=" + numNodes + ", d=" + d + ":");
             out.write("\nMinimum bound on average path length for node pairs: " + BoundsCalculator.avgPathLengthMinBound(numNodes, d));
             out.write("\nMaximum A2A total throughput per node: " + BoundsCalculator.maxThroughputPerNode(numNodes, d));
@@ -61,7 +83,7 @@ public class PrinterPathLengths {
             out.write("\n\nPATH LENGTH FOR NODE PAIRS:\n");
             for (int i = 0; i < numNodes; i++) {
                 for (int j = 0; j < numNodes; j++) {
-                    out.write(i + " " + j + " " + shortestPathLen[i][j] + "\n");
+                    out.write(i + " " + j + " " + graph.getShortestPathLen(node(i), node(j)) + "\n");
                 }
             }
 
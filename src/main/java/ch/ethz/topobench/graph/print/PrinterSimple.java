@@ -7,27 +7,26 @@
 
 package ch.ethz.topobench.graph.print;
 
-import ch.ethz.topobench.graph.Link;
-import ch.ethz.topobench.graph.Graph;
+import ch.ethz.topobench.graph.FrozenAdjacency;
+import ch.ethz.topobench.graph.GraphView;
 import ch.ethz.topobench.graph.traffic.TrafficPair;
 
 import java.io.BufferedWriter;
 import java.io.FileWriter;
 import java.util.List;
-import java.util.Vector;
 
 public class PrinterSimple {
 
     private final int numNodes;
-    private final Graph graph;
+    private final GraphView graph;
     private final int switchLevelMatrix[][];
-    private final Vector<Link> adjacencyList[];
+    private final FrozenAdjacency adjacency;
 
-    public PrinterSimple(Graph graph) {
+    public PrinterSimple(GraphView graph) {
         this.graph = graph;
         numNodes = graph.getNumNodes();
         switchLevelMatrix = new int[numNodes][numNodes];
-        adjacencyList = graph.getAdjacencyList();
+        adjacency = graph.getFrozenAdjacency();
     }
 
     /**
@@ -44,12 +43,7 @@ public class PrinterSimple {
             BufferedWriter out = new BufferedWriter(fileStream);
 
             // Shortly print the number of edges and traffic pairs
-            int edgeID = 0;
-            for (int i = 0; i < numNodes; i++) {
-                for (int j = 0; j < adjacencyList[i].size(); j++) {
-                    edgeID++;
-                }
-            }
+            int edgeID = adjacency.getNumEdges();
             System.out.print(" " + edgeID + " edges, " + traffic.size() + " pairs...");
 
             // Determine how many times pairs occur
@@ -95,12 +89,11 @@ public class PrinterSimple {
 
             // For every edge (i, z)
             for (int i = 0; i < numNodes; i++) {
-                for (int j = 0; j < adjacencyList[i].size(); j++) {
+                for (int e = adjacency.getEdgeStart(i); e < adjacency.getEdgeEnd(i); e++) {
 
                     // Retrieve link...
-                    Link link = adjacencyList[i].elementAt(j);
-                    int z = link.getLinkTo();
-                    int capacity = link.getLinkCapacity();
+                    int z = adjacency.getTarget(e);
+                    int capacity = adjacency.getCapacity(e);
 
                     // Constraint name
                     String constraint = "c2_" + i + "_" + z + ": ";
@@ -134,13 +127,13 @@ public class PrinterSimple {
                         }
 
                         // Plus, how much flows goes over edge (j, i) towards k
-                        for (int j = 0; j < adjacencyList[i].size(); j++) {
-                            constraint += " + l_" + adjacencyList[i].elementAt(j).getLinkTo() + "_" + i + "_" + k + " ";
+                        for (int e = adjacency.getEdgeStart(i); e < adjacency.getEdgeEnd(i); e++) {
+                            constraint += " + l_" + adjacency.getTarget(e) + "_" + i + "_" + k + " ";
                         }
 
                         // Minus, how much flows over edge (i, j) towards k
-                        for (int j = 0; j < adjacencyList[i].size(); j++) {
-                            constraint += " - l_" + i + "_" + adjacencyList[i].elementAt(j).getLinkTo() + "_" + k + " ";
+                        for (int e = adjacency.getEdgeStart(i); e < adjacency.getEdgeEnd(i); e++) {
+                            constraint += " - l_" + i + "_" + adjacency.getTarget(e) + "_" + k + " ";
                         }
 
                         // Should be equal to 0
@@ -161,8 +154,8 @@ public class PrinterSimple {
                         }
 
                         // Plus, the sum of all flow actually coming from edges (j, i) into i
-                        for (int j = 0; j < adjacencyList[i].size(); j++) {
-                            constraint += " + l_" + adjacencyList[i].elementAt(j).getLinkTo() + "_" + i + "_" + i + " ";
+                        for (int e = adjacency.getEdgeStart(i); e < adjacency.getEdgeEnd(i); e++) {
+                            constraint += " + l_" + adjacency.getTarget(e) + "_" + i + "_" + i + " ";
                         }
 
                         // Is equal to 0
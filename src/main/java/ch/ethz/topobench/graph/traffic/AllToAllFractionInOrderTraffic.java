@@ -43,8 +43,8 @@ public class AllToAllFractionInOrderTraffic extends Traffic {
             for (int j = 0; j < fractionSize; j++) {
 
                 // Mapping of server-hosting nodes
-                int fromSwitch = nodesWithWeight.get(i);
-                int toSwitch = nodesWithWeight.get(j);
+                int fromSwitch = nodesWithWeight[i];
+                int toSwitch = nodesWithWeight[j];
 
                 // Cannot have traffic on the same switch
                 if (fromSwitch == toSwitch) {
@@ -52,8 +52,12 @@ public class AllToAllFractionInOrderTraffic extends Traffic {
                 }
 
                 // Couple each of the servers of one switch to every other server of the other switch
-                for (Integer fromSvr : graph.switchToSvrs(fromSwitch)) {
-                    for (Integer toSvr : graph.switchToSvrs(toSwitch)) {
+                int fromFirst = graph.switchToFirstSvr(fromSwitch);
+                int fromEnd = fromFirst + graph.getNodeWeight(fromSwitch);
+                int toFirst = graph.switchToFirstSvr(toSwitch);
+                int toEnd = toFirst + graph.getNodeWeight(toSwitch);
+                for (int fromSvr = fromFirst; fromSvr < fromEnd; fromSvr++) {
+                    for (int toSvr = toFirst; toSvr < toEnd; toSvr++) {
                         ls.add(new TrafficPair(fromSvr, toSvr));
                     }
                 }
@@ -51,8 +51,8 @@ public class AllToAllFractionTraffic extends Traffic {
 
                 // Use random mapping to get participating switches
                 // And then mapping of server-hosting nodes
-                int fromSwitch = nodesWithWeight.get(randList.get(i));
-                int toSwitch = nodesWithWeight.get(randList.get(j));
+                int fromSwitch = nodesWithWeight[randList.get(i)];
+                int toSwitch = nodesWithWeight[randList.get(j)];
 
                 // Cannot have traffic on the same switch
                 if (fromSwitch == toSwitch) {
@@ -60,8 +60,12 @@ public class AllToAllFractionTraffic extends Traffic {
                 }
 
                 // Couple each of the servers of one switch to every other server of the other switch
-                for (Integer fromSvr : graph.switchToSvrs(fromSwitch)) {
-                    for (Integer toSvr : graph.switchToSvrs(toSwitch)) {
+                int fromFirst = graph.switchToFirstSvr(fromSwitch);
+                int fromEnd = fromFirst + graph.getNodeWeight(fromSwitch);
+                int toFirst = graph.switchToFirstSvr(toSwitch);
+                int toEnd = toFirst + graph.getNodeWeight(toSwitch);
+                for (int fromSvr = fromFirst; fromSvr < fromEnd; fromSvr++) {
+                    for (int toSvr = toFirst; toSvr < toEnd; toSvr++) {
                         ls.add(new TrafficPair(fromSvr, toSvr));
                     }
                 }
@@ -88,19 +88,20 @@ public class MaxWeightPairsTraffic extends Traffic {
         for (TrafficPair p : fractionPairs) {
 
             // Retrieve original switch identifiers
-            int fromSwitch = nodesWithWeight.get(p.getFrom());
-            int toSwitch = nodesWithWeight.get(p.getTo());
+            int fromSwitch = nodesWithWeight[p.getFrom()];
+            int toSwitch = nodesWithWeight[p.getTo()];
 
-            // Retrieve all servers on both switches
-            List<Integer> fromSvrs = graph.switchToSvrs(fromSwitch);
-            List<Integer> toSvrs = graph.switchToSvrs(toSwitch);
+            // Retrieve the server range of both switches
+            int fromFirst = graph.switchToFirstSvr(fromSwitch);
+            int toFirst = graph.switchToFirstSvr(toSwitch);
 
-            // Size of fromSvrs and toSvrs must be equal due to the call
+            // Amount of servers on both switches must be equal due to the call
             // in the constructor: ensureNodesWithWeightAreUniform
+            int numSvrs = graph.getNodeWeight(fromSwitch);
 
             // Couple one of the servers of one switch to one distinct server of the other switch
-            for (int z = 0; z < fromSvrs.size(); z++) {
-                ls.add(new TrafficPair(fromSvrs.get(z), toSvrs.get(z)));
+            for (int z = 0; z < numSvrs; z++) {
+                ls.add(new TrafficPair(fromFirst + z, toFirst + z));
             }
 
         }
@@ -194,8 +195,8 @@ public class MaxWeightPairsTraffic extends Traffic {
                 for (int j = 0; j < numNodesWithWeight; j++) {
 
                     // Retrieve true switch positions in the graph
-                    int fromSwitch = nodesWithWeight.get(i);
-                    int toSwitch = nodesWithWeight.get(j);
+                    int fromSwitch = nodesWithWeight[i];
+                    int toSwitch = nodesWithWeight[j];
 
                     // Not allowed to have an weighed edge between the same switch (circular edge)
                     if (fromSwitch == toSwitch) {
@@ -206,7 +207,7 @@ public class MaxWeightPairsTraffic extends Traffic {
                     if (!useFraction || (inFraction[i] && inFraction[j])) {
 
                         // Calculate distance between servers
-                        int printDist = shortestPathLen[fromSwitch][toSwitch] + 2; // Plus two because of one link per server to its switch
+                        int printDist = graph.getShortestPathLen(fromSwitch, toSwitch) + 2; // Plus two because of one link per server to its switch
 
                         // Write output distance
                         if (isMaxMatching) {
@@ -53,19 +53,20 @@ public class RandomPermPairsTraffic extends Traffic {
         for (AbstractMap.SimpleEntry<Integer, Integer> p : pairs) {
 
             // Retrieve from- and to-switch from the random mapping
-            int fromSwitch = nodesWithWeight.get(chosenMap.get(p.getKey()));
-            int toSwitch = nodesWithWeight.get(chosenMap.get(p.getValue()));
+            int fromSwitch = nodesWithWeight[chosenMap.get(p.getKey())];
+            int toSwitch = nodesWithWeight[chosenMap.get(p.getValue())];
 
-            // Retrieve all servers on both switches
-            List<Integer> fromSvrs = graph.switchToSvrs(fromSwitch);
-            List<Integer> toSvrs = graph.switchToSvrs(toSwitch);
+            // Retrieve the server range of both switches
+            int fromFirst = graph.switchToFirstSvr(fromSwitch);
+            int toFirst = graph.switchToFirstSvr(toSwitch);
 
-            // Size of fromSvrs and toSvrs must be equal due to the call
+            // Amount of servers on both switches must be equal due to the call
             // in the constructor: ensureNodesWithWeightAreUniform
+            int numSvrs = graph.getNodeWeight(fromSwitch);
 
             // Couple one of the servers of one switch to one distinct server of the other switch
-            for (int z = 0; z < fromSvrs.size(); z++) {
-                ls.add(new TrafficPair(fromSvrs.get(z), toSvrs.get(z)));
+            for (int z = 0; z < numSvrs; z++) {
+                ls.add(new TrafficPair(fromFirst + z, toFirst + z));
             }
 
         }
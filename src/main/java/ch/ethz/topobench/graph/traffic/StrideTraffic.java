@@ -44,19 +44,20 @@ public class StrideTraffic extends Traffic {
             int j = (i + stride) % numNodesWithWeight;
 
             // Use mapping to retrieve original nodes
-            int fromSwitch = nodesWithWeight.get(i);
-            int toSwitch = nodesWithWeight.get(j);
+            int fromSwitch = nodesWithWeight[i];
+            int toSwitch = nodesWithWeight[j];
 
-            // Retrieve all servers on both switches
-            List<Integer> fromSvrs = graph.switchToSvrs(fromSwitch);
-            List<Integer> toSvrs = graph.switchToSvrs(toSwitch);
+            // Retrieve the server range of both switches
+            int fromFirst = graph.switchToFirstSvr(fromSwitch);
+            int toFirst = graph.switchToFirstSvr(toSwitch);
 
-            // Size of fromSvrs and toSvrs must be equal due to the call
+            // Amount of servers on both switches must be equal due to the call
             // in the constructor: ensureNodesWithWeightAreUniform
+            int numSvrs = graph.getNodeWeight(fromSwitch);
 
             // Couple one of the servers of one switch to one server of the other switch
-            for (int z = 0; z < fromSvrs.size(); z++) {
-                ls.add(new TrafficPair(fromSvrs.get(z), toSvrs.get(z)));
+            for (int z = 0; z < numSvrs; z++) {
+                ls.add(new TrafficPair(fromFirst + z, toFirst + z));
             }
 
         }
@@ -64,7 +65,7 @@ public class StrideTraffic extends Traffic {
         // Log creation
         System.out.println(" > Generating traffic pairs with stride=" + stride + "...");
         System.out.println(" > " + numNodesWithWeight + "/" + numNodes + " nodes are server-hosting and thus participating.");
-        System.out.println(" > Expecting a total number of " + (numNodesWithWeight * graph.getNodeWeight(nodesWithWeight.get(0))) + " traffic pairs.");
+        System.out.println(" > Expecting a total number of " + (numNodesWithWeight * graph.getNodeWeight(nodesWithWeight[0])) + " traffic pairs.");
         System.out.println(" > Generated Stride server traffic pairs (total: " + ls.size() + ").");
 
         return ls;
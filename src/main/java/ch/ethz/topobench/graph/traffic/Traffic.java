@@ -8,16 +8,19 @@
 package ch.ethz.topobench.graph.traffic;
 
 import ch.ethz.topobench.graph.Graph;
+import ch.ethz.topobench.graph.NodeRelabeling;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 public abstract class Traffic {
 
     final int numNodes;
     final int totalWeight;
-    final int shortestPathLen[][];
     final Graph graph;
-    final List<Integer> nodesWithWeight;
+    final int[] nodesWithWeight;
     final int numNodesWithWeight;
 
     public Traffic(Graph graph) {
@@ -26,9 +29,8 @@ public abstract class Traffic {
         this.graph = graph;
         this.totalWeight = graph.getTotalWeight();
         this.numNodes = graph.getNumNodes();
-        this.shortestPathLen = graph.getShortestPathLen();
-        this.nodesWithWeight = graph.getNodesWithWeight();
-        this.numNodesWithWeight = this.nodesWithWeight.size();
+        this.nodesWithWeight = graph.getNodesWithWeightArray();
+        this.numNodesWithWeight = this.nodesWithWeight.length;
 
         // Generating traffic for a graph without weight is pointless
         // and is never intended
@@ -59,7 +61,7 @@ public abstract class Traffic {
      */
     final void ensureNodesWithWeightAreUniform() {
         int weight = -1;
-        for (Integer i : nodesWithWeight) {
+        for (int i : nodesWithWeight) {
             if (weight == -1) {
                 weight = graph.getNodeWeight(i);
             } else if (weight != graph.getNodeWeight(i)) {
@@ -72,7 +74,47 @@ public abstract class Traffic {
     }
 
     protected int getANodeWeight() {
-        return graph.getNodeWeight(nodesWithWeight.get(0));
+        return graph.getNodeWeight(nodesWithWeight[0]);
+    }
+
+    /**
+     * Translate traffic generated on an original graph to the server
+     * identifiers of its relabeled graph.
+     *
+     * @param traffic       Traffic pairs in original server identifiers
+     * @param relabeling    Relabeling applied to the graph
+     *
+     * @return Traffic pairs in relabeled server identifiers
+     */
+    public static List<TrafficPair> toRelabeledServers(List<TrafficPair> traffic, NodeRelabeling relabeling) {
+        List<TrafficPair> result = new ArrayList<>(traffic.size());
+        for (TrafficPair pair : traffic) {
+            result.add(new TrafficPair(relabeling.toRelabeledServer(pair.getFrom()), relabeling.toRelabeledServer(pair.getTo())));
+        }
+        return result;
+    }
+
+    /**
+     * Determine the switch-level commodities of server-level traffic: the distinct pairs of
+     * source and destination switch, in order of first occurrence. Pairs of servers on the
+     * same switch are skipped.
+     *
+     * @param traffic   Traffic pairs of servers
+     * @param graph     Graph the server identifiers refer to
+     *
+     * @return Distinct (source switch, destination switch) pairs
+     */
+    public static List<int[]> toSwitchPairs(List<TrafficPair> traffic, Graph graph) {
+        List<int[]> result = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+        for (TrafficPair pair : traffic) {
+            int from = graph.svrToSwitch(pair.getFrom());
+            int to = graph.svrToSwitch(pair.getTo());
+            if (from != to && seen.add(((long) from << 32) | to)) {
+                result.add(new int[]{from, to});
+            }
+        }
+        return result;
     }
 
 }
@@ -42,4 +42,22 @@ public class ArgumentValidator {
         }
     }
 
+    public static int[] retrieveIntegerList(String argName, String s) {
+        String[] parts = s.split(",");
+        int[] result = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            result[i] = retrieveInteger(argName, parts[i].trim());
+        }
+        return result;
+    }
+
+    public static int[][] retrieveIntegerMatrix(String argName, String s) {
+        String[] rows = s.split("/");
+        int[][] result = new int[rows.length][];
+        for (int i = 0; i < rows.length; i++) {
+            result[i] = retrieveIntegerList(argName, rows[i]);
+        }
+        return result;
+    }
+
 }
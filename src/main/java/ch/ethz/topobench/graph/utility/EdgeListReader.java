@@ -0,0 +1,178 @@
+/* *******************************************************
+ * Released under the MIT License (MIT) --- see LICENSE
+ * Copyright (c) 2014 Ankit Singla, Sangeetha Abdu Jyothi,
+ * Chi-Yao Hong, Lucian Popa, P. Brighten Godfrey,
+ * Alexandra Kolla, Simon Kassing
+ * ******************************************************** */
+
+package ch.ethz.topobench.graph.utility;
+
+import java.io.BufferedInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Streaming reader of edge list files: one edge "n1 n2" per line.<br />
+ * <br />
+ * The file is parsed directly from a byte buffer, without allocating a string per line
+ * or token, into two primitive arrays. Tokens may be separated by spaces or tabs, any
+ * further tokens on a line (e.g. weights) are ignored, and empty lines and lines starting
+ * with '#' or '%' (comments, as in SNAP and KONECT files) are skipped. Gzip-compressed
+ * files are recognized by their magic number and decompressed on the fly.
+ */
+public class EdgeListReader {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private int[] from;
+    private int[] to;
+    private int numEdges;
+
+    private EdgeListReader() {
+        this.from = new int[1024];
+        this.to = new int[1024];
+        this.numEdges = 0;
+    }
+
+    /**
+     * Read all edges of the file.
+     *
+     * @param filename  File name (plain or gzip-compressed)
+     *
+     * @return {first node of each edge, second node of each edge}, in file order
+     *
+     * @throws IOException  If the file cannot be read
+     */
+    public static int[][] read(String filename) throws IOException {
+        try (InputStream in = open(filename)) {
+            EdgeListReader reader = new EdgeListReader();
+            reader.parse(in);
+            return new int[][]{Arrays.copyOf(reader.from, reader.numEdges), Arrays.copyOf(reader.to, reader.numEdges)};
+        }
+    }
+
+    /**
+     * Open the file, decompressing it if it starts with the gzip magic number.
+     *
+     * @param filename  File name
+     *
+     * @return Input stream
+     *
+     * @throws IOException  If the file cannot be opened
+     */
+    private static InputStream open(String filename) throws IOException {
+        BufferedInputStream in = new BufferedInputStream(new FileInputStream(filename), BUFFER_SIZE);
+        in.mark(2);
+        int b1 = in.read();
+        int b2 = in.read();
+        in.reset();
+        if (b1 == (GZIPInputStream.GZIP_MAGIC & 0xFF) && b2 == (GZIPInputStream.GZIP_MAGIC >>> 8)) {
+            return new GZIPInputStream(in, BUFFER_SIZE);
+        }
+        return in;
+    }
+
+    /**
+     * Parse the stream line by line.
+     *
+     * @param in    Input stream
+     *
+     * @throws IOException  If the stream cannot be read
+     */
+    private void parse(InputStream in) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int[] tokens = new int[2];
+        int numTokens = 0;      // Complete tokens on the current line
+        int value = 0;          // Value of the token being read
+        boolean inToken = false;
+        boolean negative = false;
+        boolean skipLine = false;
+        int line = 1;
+
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            for (int i = 0; i < read; i++) {
+                byte c = buffer[i];
+
+                // End of line
+                if (c == '\n') {
+                    if (inToken) {
+                        tokens[numTokens++] = negative ? -value : value;
+                    }
+                    endLine(tokens, numTokens, line);
+                    numTokens = 0;
+                    inToken = false;
+                    skipLine = false;
+                    line++;
+                    continue;
+                }
+
+                // Remainder of a comment, or of a line of which both nodes have been read
+                if (skipLine) {
+                    continue;
+                }
+
+                if (c >= '0' && c <= '9') {
+                    if (!inToken) {
+                        inToken = true;
+                        negative = false;
+                        value = 0;
+                    }
+                    if (value > (Integer.MAX_VALUE - 9) / 10) {
+                        throw new RuntimeException("EdgeListReader: parse: node index too large on line " + line + ".");
+                    }
+                    value = value * 10 + (c - '0');
+                } else if (c == ' ' || c == '\t' || c == '\r') {
+                    if (inToken) {
+                        tokens[numTokens++] = negative ? -value : value;
+                        inToken = false;
+                        skipLine = numTokens == 2;
+                    }
+                } else if (c == '-' && !inToken) {
+                    inToken = true;
+                    negative = true;
+                    value = 0;
+                } else if ((c == '#' || c == '%') && numTokens == 0 && !inToken) {
+                    skipLine = true;
+                } else {
+                    throw new RuntimeException("EdgeListReader: parse: unexpected character '" + (char) c + "' on line " + line + ".");
+                }
+
+            }
+        }
+
+        // Last line without line ending
+        if (inToken) {
+            tokens[numTokens++] = negative ? -value : value;
+        }
+        endLine(tokens, numTokens, line);
+
+    }
+
+    /**
+     * Finish a line: store its edge, if it is not empty.
+     *
+     * @param tokens        Tokens read
+     * @param numTokens     Number of tokens read
+     * @param line          Line number
+     */
+    private void endLine(int[] tokens, int numTokens, int line) {
+        if (numTokens == 0) {
+            return;
+        }
+        if (numTokens == 1) {
+            throw new RuntimeException("EdgeListReader: parse: line " + line + " does not contain two node indices.");
+        }
+        if (numEdges == from.length) {
+            from = Arrays.copyOf(from, 2 * numEdges);
+            to = Arrays.copyOf(to, 2 * numEdges);
+        }
+        from[numEdges] = tokens[0];
+        to[numEdges] = tokens[1];
+        numEdges++;
+    }
+
+}
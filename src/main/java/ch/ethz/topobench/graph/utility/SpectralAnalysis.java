@@ -0,0 +1,194 @@
+/* *******************************************************
+ * Released under the MIT License (MIT) --- see LICENSE
+ * Copyright (c) 2014 Ankit Singla, Sangeetha Abdu Jyothi,
+ * Chi-Yao Hong, Lucian Popa, P. Brighten Godfrey,
+ * Alexandra Kolla, Simon Kassing
+ * ******************************************************** */
+
+package ch.ethz.topobench.graph.utility;
+
+import java.util.Random;
+
+/**
+ * Sparse spectral analysis of (regular) graphs.<br />
+ * <br />
+ * The Lanczos method only needs adjacency matrix-vector products, which cost O(m) on the
+ * compressed sparse row arrays, instead of the O(n^2) memory and O(n^3) time of a dense
+ * eigen-decomposition. Its extreme Ritz values converge quickly to the extreme eigenvalues,
+ * which is all that is needed to determine the spectral gap.
+ */
+public class SpectralAnalysis {
+
+    /**
+     * Estimate the largest absolute eigenvalue of the adjacency matrix among the eigenvectors
+     * orthogonal to the all-ones vector. For a d-regular graph the all-ones vector belongs to
+     * the trivial eigenvalue d, thus this is the second largest absolute eigenvalue: the graph
+     * is Ramanujan if it is at most 2 * sqrt(d - 1).<br />
+     * <br />
+     * The Lanczos iteration is started from a random vector orthogonal to the all-ones vector,
+     * and kept orthogonal to it. The estimate converges from below.
+     *
+     * @param offsets       Compressed sparse row offsets: node u has edges [offsets[u], offsets[u + 1])
+     * @param targets       Target node index of each (directed) edge, must be symmetric
+     * @param iterations    Maximum number of Lanczos iterations (dimension of the Krylov subspace)
+     * @param random        Random number generator for the start vector
+     *
+     * @return Estimate of the second largest absolute eigenvalue
+     */
+    public static double secondLargestAbsEigenvalue(int[] offsets, int[] targets, int iterations, Random random) {
+        int n = offsets.length - 1;
+        int m = Math.min(iterations, n - 1);
+        if (m <= 0) {
+            return 0.0;
+        }
+
+        // Random start vector orthogonal to the all-ones vector
+        double[] v = new double[n];
+        for (int i = 0; i < n; i++) {
+            v[i] = random.nextDouble() - 0.5;
+        }
+        removeMean(v);
+        scale(v, 1.0 / norm(v));
+
+        // Lanczos iteration building the tridiagonal matrix (alpha on, beta next to the diagonal)
+        double[] alpha = new double[m];
+        double[] beta = new double[m];
+        double[] previous = new double[n];
+        double[] w = new double[n];
+        int size = 0;
+        for (int j = 0; j < m; j++) {
+
+            // w = A v - beta_j v_{j-1}
+            double b = j == 0 ? 0.0 : beta[j];
+            for (int u = 0; u < n; u++) {
+                double sum = 0.0;
+                for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                    sum += v[targets[e]];
+                }
+                w[u] = sum - b * previous[u];
+            }
+
+            // w = w - alpha_j v_j, kept orthogonal to the all-ones vector
+            double a = dot(w, v);
+            alpha[j] = a;
+            for (int u = 0; u < n; u++) {
+                w[u] -= a * v[u];
+            }
+            removeMean(w);
+            size = j + 1;
+
+            // Invariant subspace found
+            double nextBeta = norm(w);
+            if (j == m - 1 || nextBeta < 1e-10) {
+                break;
+            }
+            beta[j + 1] = nextBeta;
+
+            // Shift: previous = v, v = w / beta
+            double[] tmp = previous;
+            previous = v;
+            v = tmp;
+            for (int u = 0; u < n; u++) {
+                v[u] = w[u] / nextBeta;
+            }
+
+        }
+
+        // Extreme eigenvalues of the tridiagonal matrix
+        double largest = extremeEigenvalue(alpha, beta, size, true);
+        double smallest = extremeEigenvalue(alpha, beta, size, false);
+        return Math.max(Math.abs(largest), Math.abs(smallest));
+
+    }
+
+    /**
+     * Determine the largest or smallest eigenvalue of a symmetric tridiagonal matrix by
+     * bisection on the Sturm sequence count.
+     *
+     * @param alpha     Diagonal
+     * @param beta      Off-diagonal (beta[i] is between row i - 1 and i, beta[0] is unused)
+     * @param size      Dimension
+     * @param largest   True to find the largest, false to find the smallest
+     *
+     * @return Eigenvalue
+     */
+    private static double extremeEigenvalue(double[] alpha, double[] beta, int size, boolean largest) {
+
+        // Gershgorin bounds
+        double lo = Double.MAX_VALUE;
+        double hi = -Double.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            double radius = (i > 0 ? Math.abs(beta[i]) : 0.0) + (i < size - 1 ? Math.abs(beta[i + 1]) : 0.0);
+            lo = Math.min(lo, alpha[i] - radius);
+            hi = Math.max(hi, alpha[i] + radius);
+        }
+
+        // The largest is the x at which the count below reaches size, the smallest where it leaves 0
+        for (int iter = 0; iter < 100 && hi - lo > 1e-12 * Math.max(1.0, Math.abs(hi)); iter++) {
+            double mid = (lo + hi) / 2;
+            int below = countBelow(alpha, beta, size, mid);
+            if (largest ? below < size : below < 1) {
+                lo = mid;
+            } else {
+                hi = mid;
+            }
+        }
+        return (lo + hi) / 2;
+
+    }
+
+    /**
+     * Count the eigenvalues of a symmetric tridiagonal matrix smaller than x (Sturm sequence).
+     *
+     * @param alpha     Diagonal
+     * @param beta      Off-diagonal (beta[i] is between row i - 1 and i)
+     * @param size      Dimension
+     * @param x         Threshold
+     *
+     * @return Number of eigenvalues smaller than x
+     */
+    private static int countBelow(double[] alpha, double[] beta, int size, double x) {
+        int count = 0;
+        double q = 1.0;
+        for (int i = 0; i < size; i++) {
+            q = alpha[i] - x - (i > 0 ? beta[i] * beta[i] / q : 0.0);
+            if (q == 0.0) {
+                q = 1e-300;
+            }
+            if (q < 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static void removeMean(double[] x) {
+        double mean = 0.0;
+        for (double value : x) {
+            mean += value;
+        }
+        mean /= x.length;
+        for (int i = 0; i < x.length; i++) {
+            x[i] -= mean;
+        }
+    }
+
+    private static double dot(double[] x, double[] y) {
+        double sum = 0.0;
+        for (int i = 0; i < x.length; i++) {
+            sum += x[i] * y[i];
+        }
+        return sum;
+    }
+
+    private static double norm(double[] x) {
+        return Math.sqrt(dot(x, x));
+    }
+
+    private static void scale(double[] x, double factor) {
+        for (int i = 0; i < x.length; i++) {
+            x[i] *= factor;
+        }
+    }
+
+}
@@ -45,4 +45,5 @@ public interface BaseGraph {
 	long getEdgeWeight(Vertex source, Vertex sink);
 	List<Vertex> getAdjacentVertices(Vertex vertex);
 	List<Vertex> getPrecedentVertices(Vertex vertex);
+	Vertex getVertex(int id);
 }
@@ -250,6 +250,7 @@ public class Graph implements BaseGraph {
      *
      * @return  Vertex instance (if not found, throws RuntimeException)
      */
+    @Override
     public Vertex getVertex(int id) {
         if (idVertexIndex.containsKey(id)) {
             return idVertexIndex.get(id);
@@ -38,11 +38,15 @@ import java.util.*;
 /**
  * The class defines a graph which can be changed constantly.
  * It is both capable to remove edges and vertices, and to recover those removed.
+ * The underlying graph itself is never changed, the removals are a view on top of it.
  *  
  * @author yqi
  * @author snkas
  */
-public class VariableGraph extends Graph {
+public class VariableGraph implements BaseGraph {
+
+    // Underlying graph
+    private final BaseGraph graph;
 
     // Set of identifiers of all removed vertices
 	private Set<Integer> remVertexIdSet = new HashSet<>();
@@ -51,12 +55,12 @@ public class VariableGraph extends Graph {
 	private Set<Pair<Integer, Integer>> remEdgeSet = new HashSet<>();
 
     /**
-     * Constructor to create a graph from another graph.
+     * Constructor to create a graph on top of another graph.
      *
      * @param graph Graph instance
      */
-	public VariableGraph(Graph graph) {
-		super(graph);
+	public VariableGraph(BaseGraph graph) {
+		this.graph = graph;
 	}
 	
 	/**
@@ -128,8 +132,8 @@ public class VariableGraph extends Graph {
             throw new RuntimeException("VariableGraph: getEdgeWeight: cannot access removed vertices or edges.");
 		}
 
-        // Ask parent to retrieve normally
-		return super.getEdgeWeight(source, target);
+        // Ask underlying graph to retrieve normally
+		return graph.getEdgeWeight(source, target);
 
 	}
 
@@ -142,7 +146,7 @@ public class VariableGraph extends Graph {
      * @return  Edge weight
      */
 	public long getEdgeWeightOfGraph(Vertex source, Vertex target) {
-		return super.getEdgeWeight(source, target);
+		return graph.getEdgeWeight(source, target);
 	}
 
     /**
@@ -162,7 +166,7 @@ public class VariableGraph extends Graph {
 		if (!remVertexIdSet.contains(startingVertexId))	{
 
             // Go over all adjacent vertices (have edge to them)
-			for (Vertex curVertex : super.getAdjacentVertices(vertex)) {
+			for (Vertex curVertex : graph.getAdjacentVertices(vertex)) {
 
                 // Check that the edge or its destination is not removed
 				int endingVertexId = curVertex.getId();
@@ -196,7 +200,7 @@ public class VariableGraph extends Graph {
 		if (!remVertexIdSet.contains(endingVertexId)) {
 
             // Go over all preceding vertices (have edge towards this vertex)
-			for (Vertex curVertex : super.getPrecedentVertices(vertex)) {
+			for (Vertex curVertex : graph.getPrecedentVertices(vertex)) {
 
                 // Check that the edge or its origin is not removed
                 int startingVertexId = curVertex.getId();
@@ -221,7 +225,7 @@ public class VariableGraph extends Graph {
      */
 	public List<Vertex> getVertexList() {
 		List<Vertex> retList = new Vector<>();
-		for (Vertex curVertex : super.getVertexList()) {
+		for (Vertex curVertex : graph.getVertexList()) {
 			if (remVertexIdSet.contains(curVertex.getId())) {
 				continue;
 			}
@@ -237,11 +241,12 @@ public class VariableGraph extends Graph {
      *
      * @return  Vertex instance (if not found, throws RuntimeException)
      */
+    @Override
 	public Vertex getVertex(int id)	{
 		if (remVertexIdSet.contains(id)) {
             throw new RuntimeException("VariableGraph: getVertex: cannot retrieve vertex for removed identifier.");
 		} else {
-			return super.getVertex(id);
+			return graph.getVertex(id);
 		}
 	}
 
@@ -31,25 +31,23 @@
 package edu.asu.emit.algorithm.graph;
 
 /**
- * The class defines a vertex in the graph.
+ * The class defines a vertex in the graph. It is immutable, thus it can be
+ * shared by algorithm instances running concurrently.
  * 
  * @author yqi
  * @author snkas
  */
-public class Vertex implements Comparable<Vertex> {
+public class Vertex {
 
     // Vertex identifier
 	private final int id;
 
-    // Weight of the node (typically: shortest distance found to the node)
-	private long weight = 0;
-
     /**
      * Constructor.
      *
      * @param id    Vertex identifier
      */
-	Vertex(int id) {
+	public Vertex(int id) {
 		this.id = id;
 	}
 
@@ -62,36 +60,6 @@ public class Vertex implements Comparable<Vertex> {
 		return id;
 	}
 
-    /**
-     * Retrieve current status weight (typically: shortest distance found to the node).
-     *
-     * @return  Status weight
-     */
-	public long getWeight() {
-		return weight;
-	}
-
-	/**
-	 * Set the current status weight of the node (typically: shortest distance found to the node).
-	 *
-	 * @param status	Status weight
-     */
-	public void setWeight(long status) {
-		weight = status;
-	}
-
-    @Override
-	public int compareTo(Vertex rVertex) {
-		long diff = this.weight - rVertex.weight;
-		if (diff > 0) {
-			return 1;
-		} else if (diff < 0) {
-			return -1;
-		} else {
-			return 0;
-		}
-	}
-
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -52,7 +52,7 @@ public class DijkstraShortestPathAlg
 
 	// Intermediate variables
 	private Set<Vertex> determinedVertexSet = new HashSet<Vertex>();
-	private PriorityQueue<Vertex> vertexCandidateQueue = new PriorityQueue<Vertex>();
+	private PriorityQueue<Candidate> vertexCandidateQueue = new PriorityQueue<Candidate>();
 	private Map<Vertex, Long> startVertexDistanceIndex = new HashMap<Vertex, Long>();
 	private Map<Vertex, Vertex> predecessorIndex = new HashMap<Vertex, Vertex>();
 
@@ -123,12 +123,18 @@ public class DijkstraShortestPathAlg
 		Vertex endVertex = isSource2sink ? sinkVertex : sourceVertex;
 		Vertex startVertex = isSource2sink ? sourceVertex : sinkVertex;
 		startVertexDistanceIndex.put(startVertex, 0l);
-		startVertex.setWeight(0l);
-		vertexCandidateQueue.add(startVertex);
+		vertexCandidateQueue.add(new Candidate(startVertex, 0l));
 
 		// 2. start searching for the shortest path
 		while (!vertexCandidateQueue.isEmpty()) {
-			Vertex curCandidate = vertexCandidateQueue.poll();
+			Candidate candidate = vertexCandidateQueue.poll();
+			Vertex curCandidate = candidate.vertex;
+
+			// Skip outdated entries of vertices which have since been reached more cheaply
+			if (determinedVertexSet.contains(curCandidate)
+					|| candidate.distance > startVertexDistanceIndex.get(curCandidate)) {
+				continue;
+			}
 
 			if (curCandidate.equals(endVertex)) {
                 break;
@@ -171,8 +177,7 @@ public class DijkstraShortestPathAlg
 
 				predecessorIndex.put(curAdjacentVertex, vertex);
 				
-				curAdjacentVertex.setWeight(distance);
-				vertexCandidateQueue.add(curAdjacentVertex);
+				vertexCandidateQueue.add(new Candidate(curAdjacentVertex, distance));
 			}
 		}
 	}
@@ -290,4 +295,29 @@ public class DijkstraShortestPathAlg
 		}
 	}
 	
+	/**
+	 * Entry of the candidate queue: the distance is stored with the entry instead of
+	 * in the (shared) vertex, such that multiple instances can run on the same graph
+	 * concurrently. Ties are broken by vertex identifier to keep the search deterministic.
+	 */
+	private static final class Candidate implements Comparable<Candidate> {
+
+		private final Vertex vertex;
+		private final long distance;
+
+		Candidate(Vertex vertex, long distance) {
+			this.vertex = vertex;
+			this.distance = distance;
+		}
+
+		@Override
+		public int compareTo(Candidate other) {
+			if (distance != other.distance) {
+				return distance < other.distance ? -1 : 1;
+			}
+			return Integer.compare(vertex.getId(), other.vertex.getId());
+		}
+
+	}
+
 }
@@ -0,0 +1,295 @@
+/* *******************************************************
+ * Released under the MIT License (MIT) --- see LICENSE
+ * Copyright (c) 2014 Ankit Singla, Sangeetha Abdu Jyothi,
+ * Chi-Yao Hong, Lucian Popa, P. Brighten Godfrey,
+ * Alexandra Kolla, Simon Kassing
+ * ******************************************************** */
+
+package edu.asu.emit.algorithm.graph.algorithms;
+
+import edu.asu.emit.algorithm.graph.BaseGraph;
+import edu.asu.emit.algorithm.graph.Graph;
+import edu.asu.emit.algorithm.graph.Path;
+import edu.asu.emit.algorithm.graph.Vertex;
+import edu.asu.emit.algorithm.utils.IndexedDaryHeap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Dijkstra's shortest path algorithm indexed by vertex identifier, with the same operations
+ * as {@link DijkstraShortestPathAlg}. Distances and predecessors are primitive arrays and the
+ * candidates are kept in an indexed d-ary heap with decrease-key. All state is allocated once
+ * and invalidated by a stamp per search, thus an instance answers repeated queries on the same
+ * graph without allocation (except for the returned paths). Not thread-safe.
+ *
+ * The vertex identifiers of the graph must be in [0, number of vertices).
+ */
+public class IndexedDijkstraShortestPathAlg {
+
+    // Arity of the candidate heap
+    private static final int HEAP_ARITY = 4;
+
+    // Input
+    private final BaseGraph graph;
+    private final Vertex[] vertices;
+
+    // Search state, only valid for a vertex if its stamp equals the current one
+    private final long[] distance;
+    private final int[] predecessor;
+    private final int[] reachedStamp;
+    private final int[] determinedStamp;
+    private final IndexedDaryHeap candidates;
+    private final int[] queue;
+    private final boolean[] inQueue;
+    private int stamp;
+
+    /**
+     * Constructor.
+     *
+     * @param graph     Graph (vertex identifiers in [0, number of vertices))
+     */
+    public IndexedDijkstraShortestPathAlg(BaseGraph graph) {
+        this.graph = graph;
+        List<Vertex> vertexList = graph.getVertexList();
+        int n = 0;
+        for (Vertex v : vertexList) {
+            n = Math.max(n, v.getId() + 1);
+        }
+        this.vertices = new Vertex[n];
+        for (Vertex v : vertexList) {
+            vertices[v.getId()] = v;
+        }
+        this.distance = new long[n];
+        this.predecessor = new int[n];
+        this.reachedStamp = new int[n];
+        this.determinedStamp = new int[n];
+        this.candidates = new IndexedDaryHeap(n, HEAP_ARITY);
+        this.queue = new int[n];
+        this.inQueue = new boolean[n];
+        this.stamp = 0;
+    }
+
+    /**
+     * Determine the shortest path from source to sink.
+     *
+     * @param sourceVertex  Source vertex
+     * @param sinkVertex    Sink vertex (different from the source)
+     *
+     * @return Shortest path (empty with weight {@link Graph#DISCONNECTED} if none exists)
+     */
+    public Path getShortestPath(Vertex sourceVertex, Vertex sinkVertex) {
+        determineShortestPaths(sourceVertex.getId(), sinkVertex.getId(), true);
+        return getPathFromRoot(sinkVertex);
+    }
+
+    /**
+     * Construct a tree rooted at "root" with the shortest paths to all other vertices,
+     * after which {@link #getPathFromRoot(Vertex)} retrieves them.
+     *
+     * @param root  Root vertex
+     */
+    public void getShortestPathTree(Vertex root) {
+        determineShortestPaths(root.getId(), -1, true);
+    }
+
+    /**
+     * Construct a flower rooted at "root" with the shortest paths from all other vertices.
+     *
+     * @param root  Root vertex
+     */
+    public void getShortestPathFlower(Vertex root) {
+        determineShortestPaths(root.getId(), -1, false);
+    }
+
+    /**
+     * Retrieve the path from the root of the last tree to the vertex.
+     *
+     * @param vertex    Vertex
+     *
+     * @return Path (empty with weight {@link Graph#DISCONNECTED} if unreachable)
+     */
+    public Path getPathFromRoot(Vertex vertex) {
+        int id = vertex.getId();
+        long weight = getDistance(id);
+        List<Vertex> vertexList = new ArrayList<>();
+        if (weight != Graph.DISCONNECTED) {
+            int length = 0;
+            for (int v = id; v != -1; v = predecessor[v]) {
+                length++;
+            }
+            Vertex[] path = new Vertex[length];
+            int i = length - 1;
+            for (int v = id; v != -1; v = predecessor[v]) {
+                path[i--] = vertices[v];
+            }
+            for (Vertex v : path) {
+                vertexList.add(v);
+            }
+        }
+        return new Path(vertexList, weight);
+    }
+
+    /**
+     * Retrieve the distance of a vertex to (tree) or from (flower) the root.
+     *
+     * @param id    Vertex identifier
+     *
+     * @return Distance, {@link Graph#DISCONNECTED} if not reached
+     */
+    public long getDistance(int id) {
+        return reachedStamp[id] == stamp ? distance[id] : Graph.DISCONNECTED;
+    }
+
+    /**
+     * Retrieve the next vertex towards the root of the last tree or flower.
+     *
+     * @param id    Vertex identifier
+     *
+     * @return Identifier of the next vertex, -1 for the root or if not reached
+     */
+    public int getPredecessor(int id) {
+        return reachedStamp[id] == stamp ? predecessor[id] : -1;
+    }
+
+    /**
+     * Set the distance and the next vertex towards the root of a vertex.
+     *
+     * @param id            Vertex identifier
+     * @param value         Distance
+     * @param predecessorId Identifier of the next vertex towards the root
+     */
+    public void setDistance(int id, long value, int predecessorId) {
+        reachedStamp[id] = stamp;
+        distance[id] = value;
+        predecessor[id] = predecessorId;
+    }
+
+    /**
+     * Run the search.
+     *
+     * @param start             Root vertex identifier
+     * @param end               Vertex identifier at which to stop, -1 to determine all
+     * @param isSource2sink     True to follow edges forward (tree), false backward (flower)
+     */
+    private void determineShortestPaths(int start, int end, boolean isSource2sink) {
+
+        // Invalidate the previous search
+        stamp++;
+        if (stamp == Integer.MAX_VALUE) {
+            Arrays.fill(reachedStamp, 0);
+            Arrays.fill(determinedStamp, 0);
+            stamp = 1;
+        }
+        candidates.clear();
+
+        // Start at the root
+        setDistance(start, 0, -1);
+        candidates.insertOrDecrease(start, 0);
+
+        while (!candidates.isEmpty()) {
+            int u = candidates.poll();
+            if (u == end) {
+                break;
+            }
+            determinedStamp[u] = stamp;
+
+            // Relax the neighbors
+            Vertex vertex = vertices[u];
+            List<Vertex> neighbors = isSource2sink ? graph.getAdjacentVertices(vertex) : graph.getPrecedentVertices(vertex);
+            for (int i = 0; i < neighbors.size(); i++) {
+                Vertex neighbor = neighbors.get(i);
+                int v = neighbor.getId();
+                if (determinedStamp[v] == stamp) {
+                    continue;
+                }
+                long candidate = distance[u] + (isSource2sink ? graph.getEdgeWeight(vertex, neighbor) : graph.getEdgeWeight(neighbor, vertex));
+                if (candidate < getDistance(v)) {
+                    setDistance(v, candidate, u);
+                    candidates.insertOrDecrease(v, candidate);
+                }
+            }
+
+        }
+
+    }
+
+    /**
+     * Calculate the distance from the input vertex to the root of the flower via its
+     * successors (forward star form).
+     *
+     * @param vertex    Vertex
+     *
+     * @return Path from the vertex to the root, null if the distance did not improve
+     */
+    public Path updateCostForward(Vertex vertex) {
+        int id = vertex.getId();
+        long cost = Graph.DISCONNECTED;
+        if (reachedStamp[id] != stamp) {
+            setDistance(id, Graph.DISCONNECTED, -1);
+        }
+
+        // Update the distance via each successor if it is lower
+        List<Vertex> successors = graph.getAdjacentVertices(vertex);
+        for (int i = 0; i < successors.size(); i++) {
+            Vertex successor = successors.get(i);
+            long value = getDistance(successor.getId()) + graph.getEdgeWeight(vertex, successor);
+            if (distance[id] > value) {
+                setDistance(id, value, successor.getId());
+                cost = value;
+            }
+        }
+
+        // Path towards the root
+        if (cost < Graph.DISCONNECTED) {
+            Path subPath = new Path(cost);
+            List<Vertex> vertexList = subPath.getVertexList();
+            for (int v = id; v != -1; v = predecessor[v]) {
+                vertexList.add(vertices[v]);
+            }
+            return subPath;
+        }
+        return null;
+
+    }
+
+    /**
+     * Correct the distances of the predecessors of the input vertex (backward star form).
+     *
+     * @param vertex    Vertex
+     */
+    public void correctCostBackward(Vertex vertex) {
+
+        // Circular queue, each vertex at most once
+        int head = 0;
+        int count = 1;
+        queue[0] = vertex.getId();
+        inQueue[vertex.getId()] = true;
+
+        while (count > 0) {
+            int cur = queue[head];
+            head = (head + 1) % queue.length;
+            count--;
+            inQueue[cur] = false;
+
+            long costOfCur = getDistance(cur);
+            List<Vertex> precedents = graph.getPrecedentVertices(vertices[cur]);
+            for (int i = 0; i < precedents.size(); i++) {
+                Vertex pre = precedents.get(i);
+                int p = pre.getId();
+                long freshCost = costOfCur + graph.getEdgeWeight(pre, vertices[cur]);
+                if (getDistance(p) > freshCost) {
+                    setDistance(p, freshCost, cur);
+                    if (!inQueue[p]) {
+                        inQueue[p] = true;
+                        queue[(head + count) % queue.length] = p;
+                        count++;
+                    }
+                }
+            }
+        }
+
+    }
+
+}
@@ -31,13 +31,12 @@
 
 package edu.asu.emit.algorithm.graph.algorithms;
 
-import edu.asu.emit.algorithm.graph.Graph;
 import edu.asu.emit.algorithm.graph.Path;
 import edu.asu.emit.algorithm.graph.VariableGraph;
 import edu.asu.emit.algorithm.graph.BaseGraph;
 import edu.asu.emit.algorithm.graph.Vertex;
 import edu.asu.emit.algorithm.utils.Pair;
-import edu.asu.emit.algorithm.utils.QYPriorityQueue;
+import edu.asu.emit.algorithm.utils.StablePriorityQueue;
 
 import java.util.HashMap;
 import java.util.List;
@@ -53,11 +52,12 @@ import java.util.Vector;
 public class YenTopKShortestPathsAlg
 {
 	private VariableGraph graph = null;
+	private IndexedDijkstraShortestPathAlg dijkstraAlg = null;
 
 	// intermediate variables
 	private List<Path> resultList = new Vector<Path>();
 	private Map<Path, Vertex> pathDerivationVertexIndex = new HashMap<Path, Vertex>();
-	private QYPriorityQueue<Path> pathCandidates = new QYPriorityQueue<Path>();
+	private StablePriorityQueue<Path> pathCandidates = new StablePriorityQueue<Path>();
 	
 	// the ending vertices of the paths
 	private Vertex sourceVertex = null;
@@ -87,7 +87,8 @@ public class YenTopKShortestPathsAlg
 		if (graph == null) {
 			throw new IllegalArgumentException("A NULL graph object occurs!");
 		}
-		this.graph = new VariableGraph((Graph)graph);
+		this.graph = new VariableGraph(graph);
+		this.dijkstraAlg = new IndexedDijkstraShortestPathAlg(this.graph);
 		this.sourceVertex = sourceVertex;
 		this.targetVertex = targetVertex;
 		init();
@@ -112,7 +113,7 @@ public class YenTopKShortestPathsAlg
 	 * Clear the variables of the class. 
 	 */
 	public void clear()	{
-		pathCandidates = new QYPriorityQueue<Path>();
+		pathCandidates = new StablePriorityQueue<Path>();
 		pathDerivationVertexIndex.clear();
 		resultList.clear();
 		generatedPathNum = 0;
@@ -127,7 +128,6 @@ public class YenTopKShortestPathsAlg
 	 * @return
 	 */
 	public Path getShortestPath(Vertex sourceVertex, Vertex targetVertex)	{
-		DijkstraShortestPathAlg dijkstraAlg = new DijkstraShortestPathAlg(graph);
 		return dijkstraAlg.getShortestPath(sourceVertex, targetVertex);
 	}
 	
@@ -191,7 +191,7 @@ public class YenTopKShortestPathsAlg
 		}
 		
 		//3.3 calculate the shortest tree rooted at target vertex in the graph
-		DijkstraShortestPathAlg reverseTree = new DijkstraShortestPathAlg(graph);
+		IndexedDijkstraShortestPathAlg reverseTree = dijkstraAlg;
 		reverseTree.getShortestPathFlower(targetVertex);
 		
 		//3.4 recover the deleted vertices and update the cost and identify the new candidate results
@@ -249,11 +249,10 @@ public class YenTopKShortestPathsAlg
 			
 			//3.4.6 update cost if necessary
             long cost1 = graph.getEdgeWeight(curRecoverVertex, succVertex)
-				+ reverseTree.getStartVertexDistanceIndex().get(succVertex);
+				+ reverseTree.getDistance(succVertex.getId());
 			
-			if (reverseTree.getStartVertexDistanceIndex().get(curRecoverVertex) >  cost1) {
-				reverseTree.getStartVertexDistanceIndex().put(curRecoverVertex, cost1);
-				reverseTree.getPredecessorIndex().put(curRecoverVertex, succVertex);
+			if (reverseTree.getDistance(curRecoverVertex.getId()) >  cost1) {
+				reverseTree.setDistance(curRecoverVertex.getId(), cost1, succVertex.getId());
 				reverseTree.correctCostBackward(curRecoverVertex);
 			}
 		}
@@ -0,0 +1,197 @@
+/* *******************************************************
+ * Released under the MIT License (MIT) --- see LICENSE
+ * Copyright (c) 2014 Ankit Singla, Sangeetha Abdu Jyothi,
+ * Chi-Yao Hong, Lucian Popa, P. Brighten Godfrey,
+ * Alexandra Kolla, Simon Kassing
+ * ******************************************************** */
+
+package edu.asu.emit.algorithm.utils;
+
+import java.util.Arrays;
+
+/**
+ * Indexed d-ary min-heap of integer keys in [0, capacity) with long priorities.
+ *
+ * Every key is at most once in the heap and its position is tracked, thus the priority
+ * of a contained key can be decreased in place (no duplicate entries). All storage is
+ * allocated once; clearing only touches the contained keys, thus the heap can be reused
+ * for many searches without allocation. Equal priorities are ordered by key.
+ */
+public class IndexedDaryHeap {
+
+    private final int d;
+    private final int[] heap;
+    private final int[] position;
+    private final long[] priority;
+    private int size;
+
+    /**
+     * Constructor.
+     *
+     * @param capacity  Number of distinct keys
+     * @param d         Arity of the heap (at least 2)
+     */
+    public IndexedDaryHeap(int capacity, int d) {
+        if (d < 2) {
+            throw new IllegalArgumentException("IndexedDaryHeap: constructor: arity must be at least 2 (given: " + d + ").");
+        }
+        this.d = d;
+        this.heap = new int[capacity];
+        this.position = new int[capacity];
+        this.priority = new long[capacity];
+        Arrays.fill(position, -1);
+        this.size = 0;
+    }
+
+    /**
+     * Check whether the heap is empty.
+     *
+     * @return True iff no key is contained
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Retrieve the number of contained keys.
+     *
+     * @return Number of keys
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Check whether the key is contained.
+     *
+     * @param key   Key
+     *
+     * @return True iff contained
+     */
+    public boolean contains(int key) {
+        return position[key] != -1;
+    }
+
+    /**
+     * Insert the key, or lower its priority if it is contained with a higher one.
+     *
+     * @param key       Key
+     * @param value     Priority
+     *
+     * @return True iff the key was inserted or its priority lowered
+     */
+    public boolean insertOrDecrease(int key, long value) {
+        int pos = position[key];
+        if (pos == -1) {
+            pos = size++;
+            heap[pos] = key;
+            position[key] = pos;
+        } else if (value >= priority[key]) {
+            return false;
+        }
+        priority[key] = value;
+        siftUp(pos);
+        return true;
+    }
+
+    /**
+     * Remove the key with the lowest priority.
+     *
+     * @return Key with the lowest priority
+     */
+    public int poll() {
+        if (size == 0) {
+            throw new IllegalStateException("IndexedDaryHeap: poll: heap is empty.");
+        }
+        int top = heap[0];
+        position[top] = -1;
+        size--;
+        if (size > 0) {
+            heap[0] = heap[size];
+            position[heap[0]] = 0;
+            siftDown(0);
+        }
+        return top;
+    }
+
+    /**
+     * Remove all keys.
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            position[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    /**
+     * Compare the keys at two heap positions.
+     *
+     * @param a     Heap position
+     * @param b     Heap position
+     *
+     * @return True iff the key at a must be above the key at b
+     */
+    private boolean less(int a, int b) {
+        long pa = priority[heap[a]];
+        long pb = priority[heap[b]];
+        return pa < pb || (pa == pb && heap[a] < heap[b]);
+    }
+
+    /**
+     * Move the key at the position up until its parent is lower.
+     *
+     * @param pos   Heap position
+     */
+    private void siftUp(int pos) {
+        while (pos > 0) {
+            int parent = (pos - 1) / d;
+            if (!less(pos, parent)) {
+                break;
+            }
+            swap(pos, parent);
+            pos = parent;
+        }
+    }
+
+    /**
+     * Move the key at the position down until all its children are higher.
+     *
+     * @param pos   Heap position
+     */
+    private void siftDown(int pos) {
+        while (true) {
+            int first = pos * d + 1;
+            if (first >= size) {
+                break;
+            }
+            int best = first;
+            for (int c = first + 1; c < first + d && c < size; c++) {
+                if (less(c, best)) {
+                    best = c;
+                }
+            }
+            if (!less(best, pos)) {
+                break;
+            }
+            swap(pos, best);
+            pos = best;
+        }
+    }
+
+    /**
+     * Swap the keys at two heap positions.
+     *
+     * @param a     Heap position
+     * @param b     Heap position
+     */
+    private void swap(int a, int b) {
+        int ka = heap[a];
+        int kb = heap[b];
+        heap[a] = kb;
+        heap[b] = ka;
+        position[kb] = a;
+        position[ka] = b;
+    }
+
+}
@@ -0,0 +1,137 @@
+/* *******************************************************
+ * Released under the MIT License (MIT) --- see LICENSE
+ * Copyright (c) 2014 Ankit Singla, Sangeetha Abdu Jyothi,
+ * Chi-Yao Hong, Lucian Popa, P. Brighten Godfrey,
+ * Alexandra Kolla, Simon Kassing
+ * ******************************************************** */
+
+package edu.asu.emit.algorithm.utils;
+
+import edu.asu.emit.algorithm.graph.BaseElementWithWeight;
+
+import java.util.Arrays;
+
+/**
+ * Binary min-heap of weighted elements which polls elements of equal weight in the order
+ * they were added. Replaces the sorted linked list of the original priority queue, which
+ * took linear time per insertion.
+ *
+ * @param <E> Type of the element in the queue
+ */
+public class StablePriorityQueue<E extends BaseElementWithWeight> {
+
+    private Object[] elements;
+    private long[] weights;
+    private long[] sequences;
+    private int size;
+    private long nextSequence;
+
+    /**
+     * Constructor.
+     */
+    public StablePriorityQueue() {
+        this.elements = new Object[16];
+        this.weights = new long[16];
+        this.sequences = new long[16];
+        this.size = 0;
+        this.nextSequence = 0;
+    }
+
+    /**
+     * Add a new element to the queue. Its weight must not change while it is in the queue.
+     *
+     * @param element   Element
+     */
+    public void add(E element) {
+        if (size == elements.length) {
+            elements = Arrays.copyOf(elements, 2 * size);
+            weights = Arrays.copyOf(weights, 2 * size);
+            sequences = Arrays.copyOf(sequences, 2 * size);
+        }
+        int pos = size++;
+        set(pos, element, element.getWeight(), nextSequence++);
+
+        // Sift up
+        while (pos > 0) {
+            int parent = (pos - 1) / 2;
+            if (!less(pos, parent)) {
+                break;
+            }
+            swap(pos, parent);
+            pos = parent;
+        }
+
+    }
+
+    /**
+     * Retrieve and remove the element with the lowest weight (the earliest added among equals).
+     *
+     * @return Element, null if empty
+     */
+    @SuppressWarnings("unchecked")
+    public E poll() {
+        if (size == 0) {
+            return null;
+        }
+        E top = (E) elements[0];
+        size--;
+        set(0, elements[size], weights[size], sequences[size]);
+        elements[size] = null;
+
+        // Sift down
+        int pos = 0;
+        while (true) {
+            int child = 2 * pos + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && less(child + 1, child)) {
+                child++;
+            }
+            if (!less(child, pos)) {
+                break;
+            }
+            swap(pos, child);
+            pos = child;
+        }
+
+        return top;
+    }
+
+    /**
+     * Retrieve the number of elements.
+     *
+     * @return Number of elements
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Check whether the queue is empty.
+     *
+     * @return True iff empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    private boolean less(int a, int b) {
+        return weights[a] < weights[b] || (weights[a] == weights[b] && sequences[a] < sequences[b]);
+    }
+
+    private void set(int pos, Object element, long weight, long sequence) {
+        elements[pos] = element;
+        weights[pos] = weight;
+        sequences[pos] = sequence;
+    }
+
+    private void swap(int a, int b) {
+        Object element = elements[a];
+        long weight = weights[a];
+        long sequence = sequences[a];
+        set(a, elements[b], weights[b], sequences[b]);
+        set(b, element, weight, sequence);
+    }
+
+}
@@ -0,0 +1,263 @@
+/* *******************************************************
+ * Released under the MIT License (MIT) --- see LICENSE
+ * Copyright (c) 2014 Ankit Singla, Sangeetha Abdu Jyothi,
+ * Chi-Yao Hong, Lucian Popa, P. Brighten Godfrey,
+ * Alexandra Kolla, Simon Kassing
+ * ******************************************************** */
+
+package ch.ethz.topobench.graph;
+
+import ch.ethz.topobench.Main;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static junit.framework.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(MockitoJUnitRunner.class)
+public class FailureScenarioTest {
+
+    private static final int INFINITY = 999999999;
+
+    /**
+     * Create a random graph with 60 nodes.
+     *
+     * @param seed  Random seed
+     *
+     * @return Random graph
+     */
+    private Graph randomGraph(long seed) {
+        Main.initGlobalRandomness(seed);
+        Graph g = new Graph("test", 60);
+        for (int i = 0; i < 59; i++) {
+            g.addBidirNeighbor(i, i + 1);
+        }
+        for (int i = 0; i < 60; i++) {
+            int a = Main.universalRand.nextInt(60);
+            int b = Main.universalRand.nextInt(60);
+            if (a != b) {
+                g.addBidirNeighbor(a, b);
+            }
+        }
+        return g;
+    }
+
+    /**
+     * Assert that the view has the same adjacency and distances as the modified graph.
+     *
+     * @param expected  Modified graph
+     * @param view      View
+     */
+    private void assertSameAsGraph(Graph expected, GraphView view) {
+        FrozenAdjacency a = expected.getFrozenAdjacency();
+        FrozenAdjacency b = view.getFrozenAdjacency();
+        assertEquals(a.getNumEdges(), b.getNumEdges());
+        for (int u = 0; u < expected.getNumNodes(); u++) {
+            assertEquals(a.getDegree(u), b.getDegree(u));
+            for (int e = a.getEdgeStart(u); e < a.getEdgeEnd(u); e++) {
+                int f = b.findEdge(u, a.getTarget(e));
+                assertTrue(f != -1);
+                assertEquals(a.getCapacity(e), b.getCapacity(f));
+            }
+            for (int v = 0; v < expected.getNumNodes(); v++) {
+                assertEquals(expected.getShortestPathLen(u, v), view.getShortestPathLen(u, v));
+            }
+        }
+    }
+
+    @Test
+    public void testNoFailures() {
+        Graph g = randomGraph(1);
+        FailureScenario scenario = new FailureScenario(g);
+        assertSameAsGraph(g, scenario);
+        assertEquals(g.getTotalWeight(), scenario.getTotalWeight());
+        assertEquals(g.getNodesWithWeight(), scenario.getNodesWithWeight());
+    }
+
+    @Test
+    public void testRemoveLinks() {
+
+        // Base and a copy which is modified in place
+        Graph base = randomGraph(2);
+        Graph modified = randomGraph(2);
+        FailureScenario scenario = new FailureScenario(base);
+
+        // Remove every third link of the path
+        for (int i = 0; i < 59; i += 3) {
+            scenario.removeLink(i, i + 1);
+            modified.removeBidirNeighbor(i, i + 1);
+        }
+        assertSameAsGraph(modified, scenario);
+
+        // Base is untouched
+        assertTrue(base.isBidirNeighbor(0, 1));
+        assertTrue(base.getFrozenAdjacency().isNeighbor(0, 1));
+        assertFalse(scenario.getFrozenAdjacency().isNeighbor(0, 1));
+
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testRemoveNonExistingLink() {
+        Graph g = new Graph("test", 3);
+        g.addBidirNeighbor(0, 1);
+        new FailureScenario(g).removeLink(0, 2);
+    }
+
+    @Test
+    public void testRemoveNode() {
+
+        // Path 0 - 1 - 2 - 3 with shortcut 0 - 3
+        Graph g = new Graph("test", 4);
+        g.addBidirNeighbor(0, 1);
+        g.addBidirNeighbor(1, 2);
+        g.addBidirNeighbor(2, 3);
+        g.addBidirNeighbor(0, 3);
+
+        FailureScenario scenario = new FailureScenario(g);
+        assertEquals(2, scenario.getShortestPathLen(1, 3));
+        scenario.removeNode(2);
+        assertTrue(scenario.isNodeRemoved(2));
+        assertFalse(scenario.isNodeRemoved(1));
+        assertEquals(2, scenario.getShortestPathLen(1, 3));
+        assertEquals(INFINITY, scenario.getShortestPathLen(1, 2));
+        assertEquals(0, scenario.getFrozenAdjacency().getDegree(2));
+
+        // Servers of the removed node are gone
+        assertEquals(0, scenario.getNodeWeight(2));
+        assertEquals(3, scenario.svrToSwitch(2));
+        assertEquals(g.getTotalWeight() - g.getNodeWeight(2), scenario.getTotalWeight());
+
+        // Base is untouched
+        assertEquals(1, g.getShortestPathLen(1, 2));
+
+    }
+
+    @Test
+    public void testRemoveNodeEqualsFailNodes() {
+
+        // Base and a copy in which nodes are failed in place, with differing weights
+        Graph base = randomGraph(6);
+        Graph modified = randomGraph(6);
+        for (int i = 0; i < 60; i++) {
+            base.setNodeWeight(i, 1 + i % 3);
+            modified.setNodeWeight(i, 1 + i % 3);
+        }
+        modified.failNodes(0.2);
+
+        // Remove the same nodes in the scenario (all had servers, thus failed ones have none left)
+        FailureScenario scenario = new FailureScenario(base);
+        int numRemoved = 0;
+        for (int i = 0; i < 60; i++) {
+            if (modified.getNodeWeight(i) == 0) {
+                scenario.removeNode(i);
+                numRemoved++;
+            }
+        }
+        assertEquals(12, numRemoved);
+
+        // Same topology and servers
+        assertSameAsGraph(modified, scenario);
+        assertEquals(modified.getTotalWeight(), scenario.getTotalWeight());
+        assertEquals(modified.getNodesWithWeight(), scenario.getNodesWithWeight());
+        for (int i = 0; i < 60; i++) {
+            assertEquals(modified.getNodeWeight(i), scenario.getNodeWeight(i));
+            assertEquals(modified.switchToFirstSvr(i), scenario.switchToFirstSvr(i));
+            assertEquals(modified.switchToSvrs(i), scenario.switchToSvrs(i));
+        }
+        for (int s = 0; s < modified.getTotalWeight(); s++) {
+            assertEquals(modified.svrToSwitch(s), scenario.svrToSwitch(s));
+        }
+
+        // Base is untouched
+        assertEquals(120, base.getTotalWeight());
+
+    }
+
+    @Test
+    public void testChangeCapacity() {
+
+        Graph g = new Graph("test", 3);
+        g.addBidirNeighbor(0, 1, 3);
+        g.addBidirNeighbor(1, 2);
+
+        FailureScenario scenario = new FailureScenario(g);
+        scenario.changeCapacity(1, 0, -2);
+        FrozenAdjacency adj = scenario.getFrozenAdjacency();
+        assertEquals(1, adj.getCapacity(adj.findEdge(0, 1)));
+        assertEquals(1, adj.getCapacity(adj.findEdge(1, 0)));
+        assertEquals(3, g.getFrozenAdjacency().getCapacity(g.getFrozenAdjacency().findEdge(0, 1)));
+
+        // Capacity dropping to zero removes the link
+        scenario.changeCapacity(1, 2, -1);
+        assertFalse(scenario.getFrozenAdjacency().isNeighbor(1, 2));
+        assertEquals(INFINITY, scenario.getShortestPathLen(0, 2));
+
+    }
+
+    @Test
+    public void testFailLinks() {
+        Graph g = randomGraph(3);
+        int numLinks = g.getNumberBidirEdges();
+
+        FailureScenario scenario = new FailureScenario(g);
+        scenario.failLinks(0.25, new Random(5));
+        assertEquals(2 * (numLinks - Math.round(0.25 * numLinks)), scenario.getFrozenAdjacency().getNumEdges());
+
+        // Deterministic given the random number generator
+        FailureScenario other = new FailureScenario(g);
+        other.failLinks(0.25, new Random(5));
+        for (int u = 0; u < 60; u++) {
+            for (int v = 0; v < 60; v++) {
+                assertEquals(scenario.getShortestPathLen(u, v), other.getShortestPathLen(u, v));
+            }
+        }
+    }
+
+    @Test
+    public void testParallelScenarios() throws Exception {
+
+        // Shared base graph
+        final Graph base = randomGraph(4);
+        base.calculateShortestPaths();
+
+        // Evaluate many scenarios concurrently
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<FailureScenario>> futures = new ArrayList<>();
+        for (int s = 0; s < 16; s++) {
+            final int seed = s;
+            futures.add(executor.submit(() -> {
+                FailureScenario scenario = new FailureScenario(base);
+                scenario.failLinks(0.1, new Random(seed));
+                scenario.calculateShortestPaths();
+                return scenario;
+            }));
+        }
+        executor.shutdown();
+
+        // Each must be equal to the same scenario computed on its own
+        for (int s = 0; s < 16; s++) {
+            FailureScenario expected = new FailureScenario(base);
+            expected.failLinks(0.1, new Random(s));
+            FailureScenario actual = futures.get(s).get();
+            for (int u = 0; u < 60; u++) {
+                for (int v = 0; v < 60; v++) {
+                    assertEquals(expected.getShortestPathLen(u, v), actual.getShortestPathLen(u, v));
+                }
+            }
+        }
+
+        // Base is untouched
+        assertEquals(base.getNumberBidirEdges() * 2, base.getFrozenAdjacency().getNumEdges());
+
+    }
+
+}
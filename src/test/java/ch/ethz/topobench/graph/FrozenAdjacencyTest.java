@@ -0,0 +1,127 @@
+/* *******************************************************
+ * Released under the MIT License (MIT) --- see LICENSE
+ * Copyright (c) 2014 Ankit Singla, Sangeetha Abdu Jyothi,
+ * Chi-Yao Hong, Lucian Popa, P. Brighten Godfrey,
+ * Alexandra Kolla, Simon Kassing
+ * ******************************************************** */
+
+package ch.ethz.topobench.graph;
+
+import ch.ethz.topobench.Main;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import static junit.framework.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(MockitoJUnitRunner.class)
+public class FrozenAdjacencyTest {
+
+    @Test
+    public void testSmall() {
+
+        // Construct graph with a parallel link and an isolated node
+        Graph g = new Graph("test", 5);
+        g.addBidirNeighbor(0, 3);
+        g.addBidirNeighbor(0, 1);
+        g.addBidirNeighbor(1, 3, 2);
+        g.addBidirNeighbor(1, 3);
+
+        FrozenAdjacency adj = g.freeze();
+        assertEquals(5, adj.getNumNodes());
+        assertEquals(6, adj.getNumEdges());
+        assertEquals(2, adj.getDegree(0));
+        assertEquals(2, adj.getDegree(1));
+        assertEquals(0, adj.getDegree(2));
+        assertEquals(2, adj.getDegree(3));
+        assertEquals(0, adj.getDegree(4));
+
+        // Edges are in adjacency list order
+        assertEquals(3, adj.getTarget(adj.getEdgeStart(0)));
+        assertEquals(1, adj.getTarget(adj.getEdgeStart(0) + 1));
+
+        // Capacities of parallel links are summed
+        assertEquals(3, adj.getCapacity(adj.findEdge(1, 3)));
+        assertEquals(3, adj.getCapacity(adj.findEdge(3, 1)));
+        assertEquals(1, adj.getCapacity(adj.findEdge(0, 1)));
+
+        // Lookups
+        assertTrue(adj.isNeighbor(0, 1));
+        assertTrue(adj.isNeighbor(3, 0));
+        assertFalse(adj.isNeighbor(0, 2));
+        assertFalse(adj.isNeighbor(4, 0));
+        assertEquals(-1, adj.findEdge(2, 3));
+
+        // Reverse edges
+        for (int u = 0; u < 5; u++) {
+            for (int e = adj.getEdgeStart(u); e < adj.getEdgeEnd(u); e++) {
+                int r = adj.getReverseEdge(e);
+                assertEquals(u, adj.getTarget(r));
+                assertEquals(e, adj.getReverseEdge(r));
+            }
+        }
+
+    }
+
+    @Test
+    public void testConsistentWithAdjacencyList() {
+
+        // Random graph
+        Main.initGlobalRandomness(7);
+        Graph g = new Graph("test", 100);
+        for (int i = 0; i < 400; i++) {
+            int a = Main.universalRand.nextInt(100);
+            int b = Main.universalRand.nextInt(100);
+            if (a != b) {
+                g.addBidirNeighbor(a, b);
+            }
+        }
+
+        // Compare every link
+        FrozenAdjacency adj = g.getFrozenAdjacency();
+        assertEquals(g.getNumberBidirEdges() * 2, adj.getNumEdges());
+        for (int u = 0; u < 100; u++) {
+            assertEquals(g.getAdjacencyList()[u].size(), adj.getDegree(u));
+            for (int j = 0; j < g.getAdjacencyList()[u].size(); j++) {
+                Link link = g.getAdjacencyList()[u].get(j);
+                int e = adj.getEdgeStart(u) + j;
+                assertEquals(link.getLinkTo(), adj.getTarget(e));
+                assertEquals(link.getLinkCapacity(), adj.getCapacity(e));
+                assertEquals(e, adj.findEdge(u, link.getLinkTo()));
+                assertEquals(u, adj.getTarget(adj.getReverseEdge(e)));
+            }
+        }
+
+    }
+
+    @Test
+    public void testInvalidatedByTopologyChange() {
+
+        Graph g = new Graph("test", 3);
+        g.addBidirNeighbor(0, 1);
+        g.addBidirNeighbor(1, 2);
+
+        // Same snapshot as long as nothing changes
+        FrozenAdjacency adj = g.freeze();
+        assertTrue(adj == g.getFrozenAdjacency());
+        assertTrue(g.isBidirNeighbor(0, 1));
+        assertFalse(g.isBidirNeighbor(0, 2));
+
+        // Capacity change
+        g.addBidirNeighbor(0, 1);
+        FrozenAdjacency adj2 = g.getFrozenAdjacency();
+        assertFalse(adj == adj2);
+        assertEquals(2, adj2.getCapacity(adj2.findEdge(0, 1)));
+
+        // Removal
+        g.removeBidirNeighbor(0, 1);
+        FrozenAdjacency adj3 = g.getFrozenAdjacency();
+        assertFalse(adj2 == adj3);
+        assertFalse(adj3.isNeighbor(0, 1));
+        assertEquals(2, adj3.getNumEdges());
+
+    }
+
+}
@@ -8,6 +8,7 @@
 package ch.ethz.topobench.graph;
 
 import ch.ethz.topobench.Main;
+import ch.ethz.topobench.graph.distance.AnalyticDistanceOracle;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.runners.MockitoJUnitRunner;
@@ -106,6 +107,182 @@ public class GraphTest {
 
     }
 
+    @Test
+    public void testFailLinksDeterministic() {
+
+        // Same seed, same failed links
+        String[] result = new String[2];
+        for (int r = 0; r < 2; r++) {
+            Main.initGlobalRandomness(42);
+            Graph g = new Graph("test", 50);
+            for (int i = 0; i < 50; i++) {
+                for (int j = i + 1; j < 50; j += 7) {
+                    g.addBidirNeighbor(i, j, 1 + (i % 3));
+                }
+            }
+            int before = g.getNumberBidirEdges();
+            g.failLinks(0.3);
+            assertEquals(before - Math.round(0.3 * before), g.getNumberBidirEdges());
+            result[r] = g.toString();
+        }
+        assertEquals(result[0], result[1]);
+
+    }
+
+    @Test
+    public void testFailLinksInvalidatesShortestPaths() {
+
+        // Line graph, all links fail
+        Main.initGlobalRandomness(1);
+        Graph g = new Graph("test", 3);
+        g.addBidirNeighbor(0, 1);
+        g.addBidirNeighbor(1, 2, 3);
+        assertEquals(2, g.getShortestPathLen(0, 2));
+        g.failLinks(1.0);
+        assertEquals(0, g.getNumberBidirEdges());
+        assertTrue(g.getShortestPathLen(0, 2) > 2);
+
+    }
+
+    @Test
+    public void testIncrementalShortestPathsAfterRemovals() {
+
+        // Random graph
+        Main.initGlobalRandomness(11);
+        Graph g = new Graph("test", 150);
+        for (int e = 0; e < 400; e++) {
+            int a = Main.universalRand.nextInt(150);
+            int b = Main.universalRand.nextInt(150);
+            if (a != b) {
+                g.addBidirNeighbor(a, b, 1 + e % 2);
+            }
+        }
+        g.calculateShortestPaths();
+
+        // Alternate single removals and failure steps, until disconnected
+        for (int step = 0; step < 12; step++) {
+            if (step % 3 == 0) {
+                int u = Main.universalRand.nextInt(150);
+                while (g.getAdjacencyList()[u].isEmpty()) {
+                    u = (u + 1) % 150;
+                }
+                g.removeBidirNeighbor(u, g.getAdjacencyList()[u].get(0).getLinkTo());
+            } else if (step % 3 == 1) {
+                g.failLinks(0.02);
+            } else {
+                g.failSwitchLinks(0.01, 0.5);
+            }
+
+            // Incrementally updated
+            int[][] incremental = g.getShortestPathLen();
+
+            // Full recalculation
+            g.calculateShortestPaths(Graph.ShortestPathAlgorithm.PARALLEL_BFS);
+            for (int i = 0; i < 150; i++) {
+                for (int j = 0; j < 150; j++) {
+                    assertEquals(g.getShortestPathLen(i, j), incremental[i][j]);
+                }
+            }
+
+        }
+
+    }
+
+    @Test
+    public void testDistanceOracleAboveMatrixThreshold() {
+
+        // Random graph
+        Main.initGlobalRandomness(5);
+        Graph g = new Graph("test", 120);
+        for (int e = 0; e < 200; e++) {
+            int a = Main.universalRand.nextInt(120);
+            int b = Main.universalRand.nextInt(120);
+            if (a != b) {
+                g.addBidirNeighbor(a, b);
+            }
+        }
+        int[][] expected = g.getShortestPathLen();
+        assertTrue(g.getDistanceOracle() == g.getDistanceMatrix());
+
+        // Large graphs are answered by the landmark oracle
+        g.setDistanceMatrixMaxNodes(100);
+        assertFalse(g.getDistanceOracle() == g.getDistanceMatrix());
+        for (int i = 0; i < 120; i++) {
+            for (int j = 0; j < 120; j++) {
+                assertEquals(expected[i][j], g.getShortestPathLen(i, j));
+            }
+        }
+
+        // Rebuilt after a topology change
+        g.failLinks(0.3);
+        expected = g.getShortestPathLen();
+        for (int i = 0; i < 120; i++) {
+            for (int j = 0; j < 120; j++) {
+                assertEquals(expected[i][j], g.getShortestPathLen(i, j));
+            }
+        }
+
+    }
+
+    @Test
+    public void testFailNodes() {
+
+        // Ring of 100 nodes
+        Main.initGlobalRandomness(3);
+        Graph g = new Graph("test", 100, 2);
+        for (int i = 0; i < 100; i++) {
+            g.addBidirNeighbor(i, (i + 1) % 100);
+        }
+
+        // 10 nodes lose all links and servers
+        g.failNodes(0.1);
+        int numFailed = 0;
+        for (int i = 0; i < 100; i++) {
+            if (g.getNodeWeight(i) == 0) {
+                assertEquals(0, g.getAdjacencyList()[i].size());
+                numFailed++;
+            }
+        }
+        assertEquals(10, numFailed);
+        assertEquals(180, g.getTotalWeight());
+        assertTrue(g.getNumberBidirEdges() <= 90 && g.getNumberBidirEdges() >= 80);
+
+    }
+
+    @Test
+    public void testFailSwitchLinks() {
+
+        // Complete graph of 11 nodes (degree 10)
+        Main.initGlobalRandomness(4);
+        Graph g = new Graph("test", 11);
+        for (int i = 0; i < 11; i++) {
+            for (int j = i + 1; j < 11; j++) {
+                g.addBidirNeighbor(i, j);
+            }
+        }
+
+        // A single switch loses half its links
+        g.failSwitchLinks(1.0 / 11, 0.5);
+        assertEquals(55 - 5, g.getNumberBidirEdges());
+        int numAffected = 0;
+        for (int i = 0; i < 11; i++) {
+            if (g.getAdjacencyList()[i].size() == 5) {
+                numAffected++;
+            }
+        }
+        assertEquals(1, numAffected);
+
+        // Invalid percentages
+        boolean t = false;
+        try {
+            g.failSwitchLinks(0.5, 1.5);
+        } catch (RuntimeException e) {
+            t = true;
+        }
+        assertTrue(t);
+
+    }
+
     @Test
     public void testBidirNeighborsStar() {
         Graph g = new Graph("test", 5);
@@ -257,6 +434,82 @@ public class GraphTest {
 
     }
 
+    @Test
+    public void testShortestPathsBfsConsistentWithFloydWarshall() {
+        testShortestPathsConsistency(1, 0, 1);
+        testShortestPathsConsistency(2, 1, 2);
+        testShortestPathsConsistency(50, 40, 3);        // Sparse, likely disconnected
+        testShortestPathsConsistency(80, 160, 4);
+        testShortestPathsConsistency(120, 600, 5);
+        testShortestPathsConsistency(200, 300, 6);
+    }
+
+    private void testShortestPathsConsistency(int n, int m, long seed) {
+
+        // Random graph with m random links (parallel links increase capacity)
+        Main.initGlobalRandomness(seed);
+        Graph g = new Graph("test", n);
+        for (int e = 0; e < m && n > 1; e++) {
+            int a = Main.universalRand.nextInt(n);
+            int b = Main.universalRand.nextInt(n);
+            if (a != b) {
+                g.addBidirNeighbor(a, b);
+            }
+        }
+
+        // Reference result
+        g.calculateShortestPaths(Graph.ShortestPathAlgorithm.FLOYD_WARSHALL);
+        int[][] expected = new int[n][];
+        for (int i = 0; i < n; i++) {
+            expected[i] = g.getShortestPathLen()[i].clone();
+        }
+
+        // Breadth-first search result
+        g.calculateShortestPaths(Graph.ShortestPathAlgorithm.PARALLEL_BFS);
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                assertEquals(expected[i][j], g.getShortestPathLen(i, j));
+            }
+        }
+
+    }
+
+    @Test
+    public void testShortestPathsInvalidatedByTopologyChange() {
+
+        // Construct line graph 0 - 1 - 2 - 3
+        Graph g = new Graph("test", 4);
+        g.addBidirNeighbor(0, 1);
+        g.addBidirNeighbor(1, 2);
+        g.addBidirNeighbor(2, 3);
+
+        // Calculated lazily on first access
+        int[][] shortestPathLen = g.getShortestPathLen();
+        assertEquals(3, shortestPathLen[0][3]);
+
+        // Adding a parallel link does not change the hop count
+        g.addBidirNeighbor(1, 2);
+        assertEquals(3, g.getShortestPathLen()[0][3]);
+
+        // Shortcut link
+        g.addBidirNeighbor(0, 3);
+        assertEquals(1, g.getShortestPathLen()[0][3]);
+        assertEquals(2, g.getShortestPathLen(0, 2));
+
+        // Only removing part of the capacity keeps the link
+        g.removeBidirNeighbor(1, 2, 1);
+        assertEquals(2, g.getShortestPathLen()[0][2]);
+
+        // Removing the link completely
+        g.removeBidirNeighbor(1, 2);
+        assertEquals(2, g.getShortestPathLen()[1][3]);
+        assertEquals(3, g.getShortestPathLen(2, 1));
+
+        // Old array is not updated
+        assertEquals(1, shortestPathLen[1][2]);
+
+    }
+
     @Test
     public void testAddbidirNeighborLinkedList() {
         Graph g = new Graph("test", 100);
@@ -411,6 +664,41 @@ public class GraphTest {
 
     }
 
+    @Test
+    public void testSwitchToFirstSvrSkewed() {
+        Graph g = new Graph("test", 10, 0);
+        g.setNodeWeight(0, 10);
+        g.setNodeWeight(2, 17);
+        g.setNodeWeight(4, 3);
+        g.setNodeWeight(6, 7);
+        g.setNodeWeight(7, 88);
+
+        // Server ranges
+        int[] expectedFirst = new int[]{0, 10, 10, 27, 27, 30, 30, 37, 125, 125};
+        for (int i = 0; i < 10; i++) {
+            assertEquals(expectedFirst[i], g.switchToFirstSvr(i));
+            for (int s = g.switchToFirstSvr(i); s < g.switchToFirstSvr(i) + g.getNodeWeight(i); s++) {
+                assertEquals(i, g.svrToSwitch(s));
+            }
+        }
+
+        // Nodes with weight
+        int[] nodes = g.getNodesWithWeightArray();
+        assertEquals(5, nodes.length);
+        assertEquals(0, nodes[0]);
+        assertEquals(2, nodes[1]);
+        assertEquals(4, nodes[2]);
+        assertEquals(6, nodes[3]);
+        assertEquals(7, nodes[4]);
+        assertTrue(nodes == g.getNodesWithWeightArray());
+
+        // Weight change invalidates
+        g.setNodeWeight(3, 1);
+        assertEquals(6, g.getNodesWithWeightArray().length);
+        assertEquals(28, g.switchToFirstSvr(4));
+
+    }
+
     private boolean validate(int start, int end, List<Integer> actual) {
 
         for (int i = start; i < end; i++) {
@@ -423,4 +711,57 @@ public class GraphTest {
 
     }
 
+    @Test
+    public void testShortestPathLenFollowsChanges() {
+
+        // Path 0 - 1 - 2 - 3 - 4
+        Graph g = new Graph("path", 5);
+        for (int i = 0; i < 4; i++) {
+            g.addBidirNeighbor(i, i + 1);
+        }
+        assertEquals(4, g.getShortestPathLen(0, 4));
+
+        // Adding a link after a query
+        g.addBidirNeighbor(0, 3);
+        assertEquals(2, g.getShortestPathLen(0, 4));
+
+        // Switching to the landmark oracle after a query
+        g.setDistanceMatrixMaxNodes(2);
+        assertEquals(2, g.getShortestPathLen(0, 4));
+        g.removeBidirNeighbor(0, 3);
+        assertEquals(4, g.getShortestPathLen(0, 4));
+
+    }
+
+    @Test
+    public void testAnalyticDistancesUntilTopologyChange() {
+
+        // Ring with closed-form distances
+        Graph g = new Graph("ring", 6);
+        for (int i = 0; i < 6; i++) {
+            g.addBidirNeighbor(i, (i + 1) % 6);
+        }
+        g.setAnalyticDistances(new AnalyticDistanceOracle() {
+            @Override
+            public int getDiameter() {
+                return 3;
+            }
+
+            @Override
+            public int getDistance(int i, int j) {
+                return Math.min(Math.abs(i - j), 6 - Math.abs(i - j));
+            }
+        });
+        assertTrue(g.getDistanceOracle() == g.getAnalyticDistances());
+        assertEquals(3, g.getShortestPathLen(0, 3));
+        assertEquals(2, g.getDistanceMatrix().get(5, 1));
+
+        // Failing a link falls back to searching
+        g.removeBidirNeighbor(0, 1);
+        assertTrue(g.getAnalyticDistances() == null);
+        assertEquals(5, g.getShortestPathLen(0, 1));
+        assertEquals(4, g.getDistanceMatrix().get(5, 1));
+
+    }
+
 }
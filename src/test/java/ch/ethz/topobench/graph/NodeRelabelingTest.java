@@ -0,0 +1,157 @@
+/* *******************************************************
+ * Released under the MIT License (MIT) --- see LICENSE
+ * Copyright (c) 2014 Ankit Singla, Sangeetha Abdu Jyothi,
+ * Chi-Yao Hong, Lucian Popa, P. Brighten Godfrey,
+ * Alexandra Kolla, Simon Kassing
+ * ******************************************************** */
+
+package ch.ethz.topobench.graph;
+
+import ch.ethz.topobench.Main;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static junit.framework.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(MockitoJUnitRunner.class)
+public class NodeRelabelingTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Create a path of n nodes whose node indices are shuffled.
+     *
+     * @param n     Number of nodes
+     *
+     * @return Shuffled path graph with skewed weights
+     */
+    private Graph shuffledPath(int n) {
+        Main.initGlobalRandomness(11);
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            order.add(i);
+        }
+        Collections.shuffle(order, Main.universalRand);
+        Graph g = new Graph("test", n, 0);
+        for (int i = 0; i < n - 1; i++) {
+            g.addBidirNeighbor(order.get(i), order.get(i + 1), 1 + i % 3);
+        }
+        for (int i = 0; i < n; i++) {
+            g.setNodeWeight(i, i % 4);
+        }
+        return g;
+    }
+
+    /**
+     * Calculate the bandwidth of the adjacency matrix: the largest index difference of a link.
+     *
+     * @param g     Graph
+     *
+     * @return Bandwidth
+     */
+    private int bandwidth(Graph g) {
+        FrozenAdjacency adj = g.getFrozenAdjacency();
+        int bandwidth = 0;
+        for (int u = 0; u < adj.getNumNodes(); u++) {
+            for (int e = adj.getEdgeStart(u); e < adj.getEdgeEnd(u); e++) {
+                bandwidth = Math.max(bandwidth, Math.abs(u - adj.getTarget(e)));
+            }
+        }
+        return bandwidth;
+    }
+
+    @Test
+    public void testRelabeledGraphIsIsomorphic() {
+        for (NodeRelabeling.Type type : NodeRelabeling.Type.values()) {
+            Graph original = shuffledPath(50);
+            NodeRelabeling relabeling = NodeRelabeling.create(type, original);
+            Graph relabeled = relabeling.apply(original);
+
+            // Same links, capacities, weights and distances
+            FrozenAdjacency a = original.getFrozenAdjacency();
+            FrozenAdjacency b = relabeled.getFrozenAdjacency();
+            assertEquals(a.getNumEdges(), b.getNumEdges());
+            assertEquals(original.getTotalWeight(), relabeled.getTotalWeight());
+            for (int i = 0; i < 50; i++) {
+                int u = relabeling.toRelabeledNode(i);
+                assertEquals(i, relabeling.toOriginalNode(u));
+                assertEquals(original.getNodeWeight(i), relabeled.getNodeWeight(u));
+                for (int e = a.getEdgeStart(i); e < a.getEdgeEnd(i); e++) {
+                    int f = b.findEdge(u, relabeling.toRelabeledNode(a.getTarget(e)));
+                    assertTrue(f != -1);
+                    assertEquals(a.getCapacity(e), b.getCapacity(f));
+                }
+                for (int j = 0; j < 50; j++) {
+                    assertEquals(original.getShortestPathLen(i, j), relabeled.getShortestPathLen(u, relabeling.toRelabeledNode(j)));
+                }
+            }
+
+            // Servers move along with their node
+            for (int s = 0; s < original.getTotalWeight(); s++) {
+                int t = relabeling.toRelabeledServer(s);
+                assertEquals(s, relabeling.toOriginalServer(t));
+                assertEquals(relabeling.toRelabeledNode(original.svrToSwitch(s)), relabeled.svrToSwitch(t));
+            }
+        }
+    }
+
+    @Test
+    public void testBandwidthReduced() {
+        Graph original = shuffledPath(200);
+        assertTrue(bandwidth(original) > 1);
+
+        // Breadth-first from the middle of a path alternates between both sides,
+        // Cuthill-McKee starts at an end point (minimum degree) and walks along it
+        assertTrue(bandwidth(NodeRelabeling.create(NodeRelabeling.Type.BFS, original).apply(original)) <= 2);
+        assertEquals(1, bandwidth(NodeRelabeling.create(NodeRelabeling.Type.RCM, original).apply(original)));
+    }
+
+    @Test
+    public void testDisconnected() {
+        Graph g = new Graph("test", 6);
+        g.addBidirNeighbor(5, 0);
+        g.addBidirNeighbor(4, 2);
+        g.addBidirNeighbor(2, 1);
+
+        // Every node occurs exactly once
+        NodeRelabeling relabeling = NodeRelabeling.create(NodeRelabeling.Type.RCM, g);
+        boolean[] seen = new boolean[6];
+        for (int u = 0; u < 6; u++) {
+            seen[relabeling.toOriginalNode(u)] = true;
+        }
+        for (int i = 0; i < 6; i++) {
+            assertTrue(seen[i]);
+        }
+        assertEquals(3, relabeling.apply(g).getNumberBidirEdges());
+    }
+
+    @Test
+    public void testPrintAndRead() throws Exception {
+        Graph g = shuffledPath(20);
+        NodeRelabeling relabeling = NodeRelabeling.create(NodeRelabeling.Type.RCM, g);
+        File file = new File(folder.getRoot(), "node_relabeling.txt");
+        relabeling.print(file.getPath());
+
+        int[] originalNodes = NodeRelabeling.readOriginalNodes(file.getPath());
+        assertEquals(20, originalNodes.length);
+        for (int u = 0; u < 20; u++) {
+            assertEquals(relabeling.toOriginalNode(u), NodeRelabeling.lookupOriginalNode(originalNodes, u));
+        }
+
+        // Without file it is the identity
+        assertNull(NodeRelabeling.readOriginalNodes(new File(folder.getRoot(), "none.txt").getPath()));
+        assertEquals(7, NodeRelabeling.lookupOriginalNode(null, 7));
+    }
+
+}
@@ -0,0 +1,83 @@
+/* *******************************************************
+ * Released under the MIT License (MIT) --- see LICENSE
+ * Copyright (c) 2014 Ankit Singla, Sangeetha Abdu Jyothi,
+ * Chi-Yao Hong, Lucian Popa, P. Brighten Godfrey,
+ * Alexandra Kolla, Simon Kassing
+ * ******************************************************** */
+
+package ch.ethz.topobench.graph;
+
+import ch.ethz.topobench.Main;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Random;
+
+import static junit.framework.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+@RunWith(MockitoJUnitRunner.class)
+public class TopologySnapshotTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Graph randomGraph() {
+        Main.initGlobalRandomness(17);
+        Graph g = new Graph("snapshot test", 60, 0);
+        for (int e = 0; e < 150; e++) {
+            int a = Main.universalRand.nextInt(60);
+            int b = Main.universalRand.nextInt(60);
+            if (a != b) {
+                g.addBidirNeighbor(a, b, 1 + e % 3);
+            }
+        }
+        for (int i = 0; i < 60; i++) {
+            g.setNodeWeight(i, i % 5);
+        }
+        return g;
+    }
+
+    @Test
+    public void testWriteAndRead() throws IOException {
+        Graph g = randomGraph();
+        Random random = new Random(99);
+        random.nextInt();
+        File file = new File(folder.getRoot(), "a.bin");
+        TopologySnapshot.write(g, random, "key", file);
+
+        // Same links in the same order, capacities and weights
+        TopologySnapshot snapshot = TopologySnapshot.read(file, "key");
+        Graph h = snapshot.createGraph();
+        assertEquals(g.toString(), h.toString());
+        assertEquals(g.getTotalWeight(), h.getTotalWeight());
+        assertEquals(g.getFingerprint(), h.getFingerprint());
+
+        // Random number generator continues where it was
+        assertEquals(random.nextLong(), snapshot.getRandom().nextLong());
+
+    }
+
+    @Test
+    public void testMismatch() throws IOException {
+        File file = new File(folder.getRoot(), "a.bin");
+        assertNull(TopologySnapshot.read(file, "key"));
+        TopologySnapshot.write(randomGraph(), new Random(1), "key", file);
+
+        // Other key
+        assertNull(TopologySnapshot.read(file, "other"));
+
+        // Truncated
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(raf.length() - 10);
+        }
+        assertNull(TopologySnapshot.read(file, "key"));
+    }
+
+}
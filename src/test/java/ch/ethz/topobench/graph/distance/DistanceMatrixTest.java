@@ -0,0 +1,70 @@
+/* *******************************************************
+ * Released under the MIT License (MIT) --- see LICENSE
+ * Copyright (c) 2014 Ankit Singla, Sangeetha Abdu Jyothi,
+ * Chi-Yao Hong, Lucian Popa, P. Brighten Godfrey,
+ * Alexandra Kolla, Simon Kassing
+ * ******************************************************** */
+
+package ch.ethz.topobench.graph.distance;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import static junit.framework.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(MockitoJUnitRunner.class)
+public class DistanceMatrixTest {
+
+    private static final int INFINITY = 999999999;
+
+    @Test
+    public void testStorageWidth() {
+        assertTrue(DistanceMatrix.create(10, 0, true, INFINITY) instanceof ByteDistanceMatrix);
+        assertTrue(DistanceMatrix.create(10, 254, true, INFINITY) instanceof ByteDistanceMatrix);
+        assertTrue(DistanceMatrix.create(10, 255, true, INFINITY) instanceof ShortDistanceMatrix);
+        assertTrue(DistanceMatrix.create(10, 65534, false, INFINITY) instanceof ShortDistanceMatrix);
+        assertTrue(DistanceMatrix.create(10, 65535, false, INFINITY) instanceof IntDistanceMatrix);
+    }
+
+    @Test
+    public void testStoreAndRetrieve() {
+        testStoreAndRetrieve(0, true);
+        testStoreAndRetrieve(0, false);
+        testStoreAndRetrieve(1000, true);
+        testStoreAndRetrieve(1000, false);
+        testStoreAndRetrieve(100000, true);
+        testStoreAndRetrieve(100000, false);
+    }
+
+    private void testStoreAndRetrieve(int maxDistance, boolean symmetric) {
+
+        // Symmetric distances |i - j| scaled up to the maximum, node 4 unreachable
+        int n = 5;
+        int scale = Math.max(1, maxDistance / (n - 1));
+        int[][] expected = new int[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                expected[i][j] = (i == 4 || j == 4) && i != j ? INFINITY : Math.abs(i - j) * scale;
+            }
+        }
+
+        // Fill matrix
+        DistanceMatrix matrix = DistanceMatrix.create(n, 3 * scale, symmetric, INFINITY);
+        for (int i = 0; i < n; i++) {
+            matrix.setRow(i, expected[i]);
+        }
+
+        // Check retrieval
+        int[][] materialized = matrix.toArray();
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                assertEquals(expected[i][j], matrix.get(i, j));
+                assertEquals(expected[i][j], materialized[i][j]);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,158 @@
+/* *******************************************************
+ * Released under the MIT License (MIT) --- see LICENSE
+ * Copyright (c) 2014 Ankit Singla, Sangeetha Abdu Jyothi,
+ * Chi-Yao Hong, Lucian Popa, P. Brighten Godfrey,
+ * Alexandra Kolla, Simon Kassing
+ * ******************************************************** */
+
+package ch.ethz.topobench.graph.distance;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static junit.framework.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(MockitoJUnitRunner.class)
+public class DistanceOracleTest {
+
+    private static final int INFINITY = 999999999;
+
+    /**
+     * Build the compressed sparse row arrays of a random sparse graph, with the last
+     * nodes split off into a separate component and one isolated node.
+     *
+     * @param n     Number of nodes
+     * @param seed  Random seed
+     *
+     * @return {offsets, targets}
+     */
+    private int[][] randomGraph(int n, long seed) {
+        Random random = new Random(seed);
+        List<List<Integer>> adjacency = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            adjacency.add(new ArrayList<>());
+        }
+
+        // Ring with random chords in the main component [0, n - 11), path in [n - 11, n - 1)
+        int main = n - 11;
+        for (int i = 0; i < main; i++) {
+            addLink(adjacency, i, (i + 1) % main);
+            if (random.nextInt(4) == 0) {
+                addLink(adjacency, i, random.nextInt(main));
+            }
+        }
+        for (int i = main; i < n - 2; i++) {
+            addLink(adjacency, i, i + 1);
+        }
+
+        // Compress
+        int[] offsets = new int[n + 1];
+        for (int i = 0; i < n; i++) {
+            offsets[i + 1] = offsets[i] + adjacency.get(i).size();
+        }
+        int[] targets = new int[offsets[n]];
+        for (int i = 0; i < n; i++) {
+            for (int k = 0; k < adjacency.get(i).size(); k++) {
+                targets[offsets[i] + k] = adjacency.get(i).get(k);
+            }
+        }
+        return new int[][]{offsets, targets};
+
+    }
+
+    private void addLink(List<List<Integer>> adjacency, int a, int b) {
+        if (a != b) {
+            adjacency.get(a).add(b);
+            adjacency.get(b).add(a);
+        }
+    }
+
+    /**
+     * Check that the oracle is exact and its bounds hold for all pairs.
+     *
+     * @param oracle    Oracle under test
+     * @param exact     Exact distance matrix
+     * @param n         Number of nodes
+     */
+    private void checkOracle(DistanceOracle oracle, DistanceMatrix exact, int n) {
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                int d = exact.get(i, j);
+                assertEquals(d, oracle.getDistance(i, j));
+                assertTrue(oracle.getLowerBound(i, j) <= d);
+                assertTrue(oracle.getUpperBound(i, j) >= d);
+            }
+        }
+    }
+
+    @Test
+    public void testBfsOracleExact() {
+        int n = 150;
+        int[][] g = randomGraph(n, 3);
+        DistanceMatrix exact = new ParallelBfsShortestPaths(g[0], g[1], INFINITY).calculate(true);
+        checkOracle(new BfsDistanceOracle(g[0], g[1], INFINITY), exact, n);
+    }
+
+    @Test
+    public void testLandmarkOracleExact() {
+        int n = 150;
+        for (int seed = 0; seed < 3; seed++) {
+            int[][] g = randomGraph(n, seed);
+            DistanceMatrix exact = new ParallelBfsShortestPaths(g[0], g[1], INFINITY).calculate(true);
+            checkOracle(new LandmarkDistanceOracle(g[0], g[1], 4, INFINITY), exact, n);
+            checkOracle(new LandmarkDistanceOracle(g[0], g[1], 1, INFINITY), exact, n);
+        }
+    }
+
+    @Test
+    public void testLandmarkSelection() {
+        int[][] g = randomGraph(100, 7);
+        int[] landmarks = new LandmarkDistanceOracle(g[0], g[1], 3, INFINITY).getLandmarks();
+
+        // After the first landmark, the unreachable components each receive one
+        assertEquals(3, landmarks.length);
+        assertTrue(landmarks[0] < 89);
+        assertTrue((landmarks[1] >= 89 && landmarks[1] < 99 && landmarks[2] == 99)
+                || (landmarks[1] == 99 && landmarks[2] >= 89 && landmarks[2] < 99));
+    }
+
+    @Test
+    public void testLandmarkBoundsOnPath() {
+
+        // Path 0 - 1 - ... - 9: the end points are the landmarks, which makes the lower bound
+        // tight everywhere and the upper bound tight from a landmark
+        int n = 10;
+        int[] offsets = new int[n + 1];
+        int[] targets = new int[2 * (n - 1)];
+        int e = 0;
+        for (int i = 0; i < n; i++) {
+            offsets[i] = e;
+            if (i > 0) {
+                targets[e++] = i - 1;
+            }
+            if (i < n - 1) {
+                targets[e++] = i + 1;
+            }
+        }
+        offsets[n] = e;
+        LandmarkDistanceOracle oracle = new LandmarkDistanceOracle(offsets, targets, 2, INFINITY);
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                assertEquals(Math.abs(i - j), oracle.getLowerBound(i, j));
+                if (i == 0 || i == n - 1) {
+                    assertEquals(Math.abs(i - j), oracle.getUpperBound(i, j));
+                } else {
+                    assertTrue(oracle.getUpperBound(i, j) >= Math.abs(i - j));
+                }
+            }
+        }
+
+    }
+
+}
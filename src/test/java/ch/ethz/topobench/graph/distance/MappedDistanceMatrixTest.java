@@ -0,0 +1,113 @@
+/* *******************************************************
+ * Released under the MIT License (MIT) --- see LICENSE
+ * Copyright (c) 2014 Ankit Singla, Sangeetha Abdu Jyothi,
+ * Chi-Yao Hong, Lucian Popa, P. Brighten Godfrey,
+ * Alexandra Kolla, Simon Kassing
+ * ******************************************************** */
+
+package ch.ethz.topobench.graph.distance;
+
+import ch.ethz.topobench.Main;
+import ch.ethz.topobench.graph.TestGraph;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.io.File;
+import java.io.IOException;
+
+import static junit.framework.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(MockitoJUnitRunner.class)
+public class MappedDistanceMatrixTest {
+
+    private static final int INFINITY = 999999999;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testWriteAndMap() throws IOException {
+        testWriteAndMap(3, true);
+        testWriteAndMap(3, false);
+        testWriteAndMap(300, true);
+        testWriteAndMap(300, false);
+        testWriteAndMap(70000, true);
+        testWriteAndMap(70000, false);
+    }
+
+    private void testWriteAndMap(int maxDistance, boolean symmetric) throws IOException {
+
+        // Distances (i + j) % (maxDistance + 1), with the last node unreachable
+        int n = 17;
+        DistanceMatrix matrix = DistanceMatrix.create(n, maxDistance, symmetric, INFINITY);
+        for (int i = 0; i < n; i++) {
+            int[] row = new int[n];
+            for (int j = 0; j < n; j++) {
+                row[j] = (i == n - 1 || j == n - 1) && i != j ? INFINITY : ((i + j) * 4099) % (maxDistance + 1);
+            }
+            matrix.setRow(i, row);
+        }
+
+        // Write and map again
+        File file = folder.newFile("matrix-" + maxDistance + "-" + symmetric + ".bin");
+        MappedDistanceMatrix.write(matrix, "abc", file);
+        MappedDistanceMatrix mapped = MappedDistanceMatrix.map(file, "abc", n);
+        assertEquals(matrix.getEntryBytes(), mapped.getEntryBytes());
+        assertEquals(symmetric, mapped.isSymmetric());
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                assertEquals(matrix.get(i, j), mapped.get(i, j));
+            }
+        }
+
+        // Mismatches are not mapped
+        assertNull(MappedDistanceMatrix.map(file, "abd", n));
+        assertNull(MappedDistanceMatrix.map(file, "abc", n + 1));
+        assertNull(MappedDistanceMatrix.map(new File(folder.getRoot(), "missing.bin"), "abc", n));
+
+    }
+
+    @Test
+    public void testGraphDistanceCache() {
+
+        // Two graphs with the same topology (links added in different order)
+        File cacheDir = new File(folder.getRoot(), "distance");
+        Main.initGlobalRandomness(1);
+        TestGraph g1 = new TestGraph("test", 6);
+        TestGraph g2 = new TestGraph("test", 6);
+        int[][] links = {{0, 1}, {1, 2}, {2, 3}, {3, 0}, {4, 2}};
+        for (int[] link : links) {
+            g1.addBidirNeighbor(link[0], link[1]);
+        }
+        for (int i = links.length - 1; i >= 0; i--) {
+            g2.addBidirNeighbor(links[i][1], links[i][0]);
+        }
+        assertEquals(g1.getFingerprint(), g2.getFingerprint());
+
+        // First calculates and persists, second maps
+        g1.setDistanceCacheDirectory(cacheDir);
+        g2.setDistanceCacheDirectory(cacheDir);
+        assertTrue(!(g1.getDistanceMatrix() instanceof MappedDistanceMatrix));
+        assertTrue(new File(cacheDir, g1.getFingerprint() + ".bin").exists());
+        assertTrue(g2.getDistanceMatrix() instanceof MappedDistanceMatrix);
+        for (int i = 0; i < 6; i++) {
+            for (int j = 0; j < 6; j++) {
+                assertEquals(g1.getShortestPathLen(i, j), g2.getShortestPathLen(i, j));
+            }
+        }
+        assertEquals(2, g2.getShortestPathLen(4, 1));
+        assertEquals(INFINITY, g2.getShortestPathLen(5, 0));
+
+        // Different topology, different fingerprint
+        g2.addBidirNeighbor(5, 0);
+        assertTrue(!g1.getFingerprint().equals(g2.getFingerprint()));
+        assertEquals(1, g2.getShortestPathLen(5, 0));
+
+    }
+
+}
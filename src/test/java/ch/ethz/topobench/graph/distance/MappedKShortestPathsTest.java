@@ -0,0 +1,95 @@
+/* *******************************************************
+ * Released under the MIT License (MIT) --- see LICENSE
+ * Copyright (c) 2014 Ankit Singla, Sangeetha Abdu Jyothi,
+ * Chi-Yao Hong, Lucian Popa, P. Brighten Godfrey,
+ * Alexandra Kolla, Simon Kassing
+ * ******************************************************** */
+
+package ch.ethz.topobench.graph.distance;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class MappedKShortestPathsTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testWriteAndMap() throws IOException {
+
+        // Three pairs, one without any path
+        File file = new File(folder.getRoot(), "paths.bin");
+        MappedKShortestPaths.Writer writer = new MappedKShortestPaths.Writer(file, "abc", 5, 3);
+        writer.add(0, 2, new int[]{0, 1, 1, 1, 2, 1, 0, 3, 2, 3, 2, 2});
+        writer.add(1, 4, new int[0]);
+        writer.add(3, 0, new int[]{3, 0, 1});
+        writer.commit();
+        assertEquals(1, folder.getRoot().list().length);
+
+        MappedKShortestPaths mapped = MappedKShortestPaths.map(file, "abc", 5);
+        assertEquals(3, mapped.getKMax());
+        assertEquals(3, mapped.getNumPairs());
+
+        // Index
+        assertEquals(0, mapped.indexOf(0, 2));
+        assertEquals(1, mapped.indexOf(1, 4));
+        assertEquals(2, mapped.indexOf(3, 0));
+        assertEquals(-1, mapped.indexOf(2, 0));
+        assertEquals(-1, mapped.indexOf(4, 4));
+        assertEquals(3, mapped.getSource(2));
+        assertEquals(0, mapped.getDestination(2));
+
+        // Entries are a prefix for lower k
+        assertArrayEquals(new int[]{0, 1, 1, 1, 2, 1}, mapped.getEntries(0, 1));
+        assertArrayEquals(new int[]{0, 1, 1, 1, 2, 1, 0, 3, 2, 3, 2, 2}, mapped.getEntries(0, 3));
+        assertArrayEquals(new int[0], mapped.getEntries(1, 3));
+        assertArrayEquals(new int[]{3, 0, 1}, mapped.getEntries(2, 3));
+
+    }
+
+    @Test
+    public void testMismatch() throws IOException {
+        File file = new File(folder.getRoot(), "paths.bin");
+        MappedKShortestPaths.Writer writer = new MappedKShortestPaths.Writer(file, "abc", 5, 3);
+        writer.add(0, 1, new int[]{0, 1, 1});
+        writer.commit();
+
+        assertNull(MappedKShortestPaths.map(file, "abd", 5));
+        assertNull(MappedKShortestPaths.map(file, "abc", 6));
+        assertNull(MappedKShortestPaths.map(new File(folder.getRoot(), "missing.bin"), "abc", 5));
+    }
+
+    @Test
+    public void testAbort() throws IOException {
+        File file = new File(folder.getRoot(), "paths.bin");
+        MappedKShortestPaths.Writer writer = new MappedKShortestPaths.Writer(file, "abc", 5, 3);
+        writer.add(0, 1, new int[]{0, 1, 1});
+        writer.abort();
+        assertEquals(0, folder.getRoot().list().length);
+    }
+
+    @Test
+    public void testUnorderedPairs() throws IOException {
+        MappedKShortestPaths.Writer writer = new MappedKShortestPaths.Writer(new File(folder.getRoot(), "paths.bin"), "abc", 5, 3);
+        writer.add(2, 1, new int[]{2, 1, 1});
+        boolean thrown = false;
+        try {
+            writer.add(1, 2, new int[]{1, 2, 1});
+        } catch (RuntimeException e) {
+            thrown = true;
+        }
+        writer.abort();
+        assertTrue(thrown);
+    }
+
+}
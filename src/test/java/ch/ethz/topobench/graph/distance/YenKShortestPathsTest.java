@@ -0,0 +1,198 @@
+/* *******************************************************
+ * Released under the MIT License (MIT) --- see LICENSE
+ * Copyright (c) 2014 Ankit Singla, Sangeetha Abdu Jyothi,
+ * Chi-Yao Hong, Lucian Popa, P. Brighten Godfrey,
+ * Alexandra Kolla, Simon Kassing
+ * ******************************************************** */
+
+package ch.ethz.topobench.graph.distance;
+
+import ch.ethz.topobench.Main;
+import ch.ethz.topobench.graph.FrozenAdjacency;
+import ch.ethz.topobench.graph.TestGraph;
+import ch.ethz.topobench.graph.graphs.RandomRegularGraph;
+import edu.asu.emit.algorithm.graph.Path;
+import edu.asu.emit.algorithm.graph.Vertex;
+import edu.asu.emit.algorithm.graph.algorithms.YenTopKShortestPathsAlg;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class YenKShortestPathsTest {
+
+    @Test
+    public void testSmall() {
+
+        // Graph
+        //
+        // 0-1-2
+        // |   |
+        // 3-4-5
+        TestGraph g = new TestGraph("test", 6);
+        g.addBidirNeighbor(0, 1);
+        g.addBidirNeighbor(1, 2);
+        g.addBidirNeighbor(0, 3);
+        g.addBidirNeighbor(3, 4);
+        g.addBidirNeighbor(4, 5);
+        g.addBidirNeighbor(2, 5);
+        FrozenAdjacency adjacency = g.getFrozenAdjacency();
+        YenKShortestPaths yen = new YenKShortestPaths(adjacency.getOffsets(), adjacency.getTargets());
+
+        // Both ways around the ring, and no more
+        List<int[]> paths = yen.getShortestPaths(0, 2, 5);
+        assertEquals(2, paths.size());
+        assertArrayEquals(new int[]{0, 1, 2}, paths.get(0));
+        assertArrayEquals(new int[]{0, 3, 4, 5, 2}, paths.get(1));
+
+        // Limited by k
+        assertEquals(1, yen.getShortestPaths(4, 1, 1).size());
+
+    }
+
+    @Test
+    public void testDisconnected() {
+        TestGraph g = new TestGraph("test", 4);
+        g.addBidirNeighbor(0, 1);
+        g.addBidirNeighbor(2, 3);
+        FrozenAdjacency adjacency = g.getFrozenAdjacency();
+        YenKShortestPaths yen = new YenKShortestPaths(adjacency.getOffsets(), adjacency.getTargets());
+        assertTrue(yen.getShortestPaths(0, 3, 4).isEmpty());
+        assertEquals(1, yen.getShortestPaths(0, 1, 4).size());
+    }
+
+    @Test
+    public void testIndependentOfLinkOrder() {
+
+        // Same topology with its links added in opposite orders
+        int[][] links = {{0, 1}, {0, 2}, {0, 3}, {0, 6}, {1, 4}, {3, 5}, {4, 6}, {5, 6}, {6, 7}, {4, 7}, {3, 6}};
+        TestGraph forward = new TestGraph("forward", 8);
+        TestGraph backward = new TestGraph("backward", 8);
+        for (int l = 0; l < links.length; l++) {
+            forward.addBidirNeighbor(links[l][0], links[l][1]);
+            backward.addBidirNeighbor(links[links.length - 1 - l][1], links[links.length - 1 - l][0]);
+        }
+        FrozenAdjacency a = forward.getFrozenAdjacency();
+        FrozenAdjacency b = backward.getFrozenAdjacency();
+        assertFalse(Arrays.equals(a.getTargets(), b.getTargets()));
+        YenKShortestPaths yenA = new YenKShortestPaths(a.getOffsets(), a.getTargets());
+        YenKShortestPaths yenB = new YenKShortestPaths(b.getOffsets(), b.getTargets());
+
+        // Identical paths in identical order
+        for (int i = 0; i < 8; i++) {
+            for (int j = 0; j < 8; j++) {
+                if (i != j) {
+                    List<int[]> pathsA = yenA.getShortestPaths(i, j, 6);
+                    List<int[]> pathsB = yenB.getShortestPaths(i, j, 6);
+                    assertEquals(pathsA.size(), pathsB.size());
+                    for (int p = 0; p < pathsA.size(); p++) {
+                        assertArrayEquals(pathsA.get(p), pathsB.get(p));
+                    }
+                }
+            }
+        }
+
+    }
+
+    @Test
+    public void testAgainstLibrary() {
+        Main.loadRunEnvironmentConfiguration();
+        Main.initGlobalRandomness(7);
+        RandomRegularGraph g = new RandomRegularGraph(30, 5, 4);
+        FrozenAdjacency adjacency = g.getFrozenAdjacency();
+        YenKShortestPaths yen = new YenKShortestPaths(adjacency.getOffsets(), adjacency.getTargets());
+
+        // Library graph on the same topology
+        LibraryGraph library = new LibraryGraph(adjacency);
+        YenTopKShortestPathsAlg reference = new YenTopKShortestPathsAlg(library);
+
+        int k = 6;
+        for (int i = 0; i < 30; i++) {
+            for (int j = 0; j < 30; j++) {
+                if (i == j) {
+                    continue;
+                }
+                List<int[]> paths = yen.getShortestPaths(i, j, k);
+                List<Path> expected = reference.getShortestPaths(library.getVertex(i), library.getVertex(j), k);
+
+                // Same number of paths with the same lengths (ties may be ordered differently)
+                assertEquals(expected.size(), paths.size());
+                Set<String> distinct = new HashSet<>();
+                for (int p = 0; p < paths.size(); p++) {
+                    int[] path = paths.get(p);
+                    assertEquals(expected.get(p).getWeight(), path.length - 1);
+                    assertEquals(i, path[0]);
+                    assertEquals(j, path[path.length - 1]);
+
+                    // Loopless and along edges
+                    Set<Integer> nodes = new HashSet<>();
+                    for (int z = 0; z < path.length; z++) {
+                        assertTrue(nodes.add(path[z]));
+                        if (z > 0) {
+                            assertTrue(adjacency.isNeighbor(path[z - 1], path[z]));
+                        }
+                    }
+                    assertTrue(distinct.add(Arrays.toString(path)));
+
+                }
+            }
+        }
+
+    }
+
+    /**
+     * Minimal library graph for the reference implementation.
+     */
+    private static class LibraryGraph implements edu.asu.emit.algorithm.graph.BaseGraph {
+
+        private final FrozenAdjacency adjacency;
+        private final List<Vertex> vertices;
+
+        LibraryGraph(FrozenAdjacency adjacency) {
+            this.adjacency = adjacency;
+            Vertex[] array = new Vertex[adjacency.getNumNodes()];
+            for (int i = 0; i < array.length; i++) {
+                array[i] = new Vertex(i);
+            }
+            this.vertices = Arrays.asList(array);
+        }
+
+        @Override
+        public List<Vertex> getVertexList() {
+            return vertices;
+        }
+
+        @Override
+        public long getEdgeWeight(Vertex source, Vertex sink) {
+            return 1;
+        }
+
+        @Override
+        public List<Vertex> getAdjacentVertices(Vertex vertex) {
+            List<Vertex> result = new java.util.ArrayList<>();
+            for (int e = adjacency.getEdgeStart(vertex.getId()); e < adjacency.getEdgeEnd(vertex.getId()); e++) {
+                result.add(vertices.get(adjacency.getTarget(e)));
+            }
+            return result;
+        }
+
+        @Override
+        public List<Vertex> getPrecedentVertices(Vertex vertex) {
+            return getAdjacentVertices(vertex);
+        }
+
+        @Override
+        public Vertex getVertex(int id) {
+            return vertices.get(id);
+        }
+
+    }
+
+}
@@ -0,0 +1,45 @@
+/* *******************************************************
+ * Released under the MIT License (MIT) --- see LICENSE
+ * Copyright (c) 2014 Ankit Singla, Sangeetha Abdu Jyothi,
+ * Chi-Yao Hong, Lucian Popa, P. Brighten Godfrey,
+ * Alexandra Kolla, Simon Kassing
+ * ******************************************************** */
+
+package ch.ethz.topobench.graph.graphs;
+
+import ch.ethz.topobench.graph.FrozenAdjacency;
+import ch.ethz.topobench.graph.Graph;
+import ch.ethz.topobench.graph.distance.AnalyticDistanceOracle;
+import ch.ethz.topobench.graph.distance.DistanceMatrix;
+import ch.ethz.topobench.graph.distance.ParallelBfsShortestPaths;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+class AnalyticDistanceAssert {
+
+    /**
+     * Assert that the closed-form distances of the graph equal the breadth-first search distances,
+     * and that the diameter bounds them.
+     *
+     * @param graph     Structured graph
+     */
+    static void assertAnalyticDistances(Graph graph) {
+        AnalyticDistanceOracle oracle = graph.getAnalyticDistances();
+        assertNotNull(oracle);
+        FrozenAdjacency adjacency = graph.getFrozenAdjacency();
+        DistanceMatrix expected = new ParallelBfsShortestPaths(adjacency.getOffsets(), adjacency.getTargets(), 999999999).calculate(true);
+        DistanceMatrix filled = graph.getDistanceMatrix();
+        int n = graph.getNumNodes();
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                assertEquals("d(" + i + ", " + j + ")", expected.get(i, j), oracle.getDistance(i, j));
+                assertEquals(expected.get(i, j), graph.getShortestPathLen(i, j));
+                assertEquals(expected.get(i, j), filled.get(i, j));
+                assertTrue(oracle.getDistance(i, j) <= oracle.getDiameter());
+            }
+        }
+    }
+
+}
@@ -0,0 +1,44 @@
+/* *******************************************************
+ * Released under the MIT License (MIT) --- see LICENSE
+ * Copyright (c) 2014 Ankit Singla, Sangeetha Abdu Jyothi,
+ * Chi-Yao Hong, Lucian Popa, P. Brighten Godfrey,
+ * Alexandra Kolla, Simon Kassing
+ * ******************************************************** */
+
+package ch.ethz.topobench.graph.graphs;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import static ch.ethz.topobench.graph.graphs.AnalyticDistanceAssert.assertAnalyticDistances;
+import static org.junit.Assert.assertEquals;
+
+@RunWith(MockitoJUnitRunner.class)
+public class BCubeGraphTest {
+
+    @Test
+    public void testConstructions() {
+        testConstruction(4, 1);
+        testConstruction(2, 3);
+        testConstruction(3, 2);
+        testConstruction(5, 0);
+    }
+
+    private void testConstruction(int n, int k) {
+        BCubeGraph graph = (BCubeGraph) GraphSelector.select(
+                GraphSelector.Type.BCUBE,
+                new String[]{"-bcn", String.valueOf(n), "-bck", String.valueOf(k)}
+        ).getResult();
+        int servers = (int) Math.pow(n, k + 1);
+        assertEquals(servers + (k + 1) * servers / n, graph.getNumNodes());
+        assertEquals(servers, graph.getTotalWeight());
+
+        // Servers have k + 1 ports, switches n
+        for (int i = 0; i < graph.getNumNodes(); i++) {
+            assertEquals(i < servers ? k + 1 : n, graph.getAdjacencyList()[i].size());
+        }
+        assertAnalyticDistances(graph);
+    }
+
+}
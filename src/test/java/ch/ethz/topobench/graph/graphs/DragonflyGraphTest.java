@@ -0,0 +1,49 @@
+/* *******************************************************
+ * Released under the MIT License (MIT) --- see LICENSE
+ * Copyright (c) 2014 Ankit Singla, Sangeetha Abdu Jyothi,
+ * Chi-Yao Hong, Lucian Popa, P. Brighten Godfrey,
+ * Alexandra Kolla, Simon Kassing
+ * ******************************************************** */
+
+package ch.ethz.topobench.graph.graphs;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import static ch.ethz.topobench.graph.graphs.AnalyticDistanceAssert.assertAnalyticDistances;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(MockitoJUnitRunner.class)
+public class DragonflyGraphTest {
+
+    @Test
+    public void testConstructions() {
+        testConstruction(4, 2, 9);
+        testConstruction(4, 2, 5);
+        testConstruction(2, 1, 3);
+        testConstruction(3, 3, 10);
+        testConstruction(6, 3, 19);
+        testConstruction(1, 1, 1);
+    }
+
+    private void testConstruction(int a, int h, int g) {
+        DragonflyGraph graph = (DragonflyGraph) GraphSelector.select(
+                GraphSelector.Type.DRAGONFLY,
+                new String[]{"-dfa", String.valueOf(a), "-dfh", String.valueOf(h), "-dfg", String.valueOf(g), "-dfservers", "2"}
+        ).getResult();
+        assertEquals(a * g, graph.getNumNodes());
+
+        // Each router has its local links and at most h global links, one per pair of groups
+        int global = 0;
+        for (int i = 0; i < graph.getNumNodes(); i++) {
+            int degree = graph.getAdjacencyList()[i].size();
+            assertTrue(degree >= a - 1 && degree <= a - 1 + h);
+            global += degree - (a - 1);
+        }
+        assertEquals(g * (g - 1), global);
+        assertAnalyticDistances(graph);
+    }
+
+}
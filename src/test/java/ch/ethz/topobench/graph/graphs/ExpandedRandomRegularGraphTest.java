@@ -0,0 +1,167 @@
+/* *******************************************************
+ * Released under the MIT License (MIT) --- see LICENSE
+ * Copyright (c) 2014 Ankit Singla, Sangeetha Abdu Jyothi,
+ * Chi-Yao Hong, Lucian Popa, P. Brighten Godfrey,
+ * Alexandra Kolla, Simon Kassing
+ * ******************************************************** */
+
+package ch.ethz.topobench.graph.graphs;
+
+import ch.ethz.topobench.Main;
+import ch.ethz.topobench.graph.FrozenAdjacency;
+import ch.ethz.topobench.graph.Graph;
+import ch.ethz.topobench.graph.Link;
+import ch.ethz.topobench.graph.distance.DistanceMatrix;
+import ch.ethz.topobench.graph.distance.ParallelBfsShortestPaths;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import static org.hamcrest.core.IsNot.not;
+import static org.junit.Assert.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ExpandedRandomRegularGraphTest {
+
+    private Graph createBase(int n, int d, int s, long seed) {
+        Main.loadRunEnvironmentConfiguration();
+        Main.initGlobalRandomness(seed);
+        return new RandomRegularGraph(n, d + s, d);
+    }
+
+    @Test
+    public void testDegrees() {
+        testDegrees(100, 6, 2, 5);
+        testDegrees(100, 6, 2, 30);
+        testDegrees(50, 5, 1, 3);
+        testDegrees(20, 4, 0, 40);
+    }
+
+    private void testDegrees(int n, int d, int s, int m) {
+        Graph base = createBase(n, d, s, 2983);
+        String fingerprint = base.getFingerprint();
+        Graph graph = new ExpandedRandomRegularGraph(base, m, d, s);
+
+        // Base graph is untouched
+        assertEquals(fingerprint, base.getFingerprint());
+        assertEquals(n, base.getNumNodes());
+
+        // Old switches keep their degree, new switches use all even ports
+        assertEquals(n + m, graph.getNumNodes());
+        for (int i = 0; i < n + m; i++) {
+            int degree = 0;
+            for (Link l : graph.getAdjacencyList()[i]) {
+                assertThat(l.getLinkTo(), not(i));
+                assertEquals(1, l.getLinkCapacity());
+                degree++;
+            }
+            if (i < n) {
+                assertEquals(base.getAdjacencyList()[i].size(), degree);
+            } else {
+                assertEquals(d - d % 2, degree);
+            }
+            assertEquals(s, graph.getNodeWeight(i));
+        }
+        assertEquals((n + m) * s, graph.getTotalWeight());
+
+    }
+
+    @Test
+    public void testIncrementalDistances() {
+        Graph graph = createBase(200, 6, 1, 77);
+        graph.getDistanceMatrix();
+
+        // Several expansion steps, each updating the distances of the previous one
+        for (int step = 0; step < 4; step++) {
+            graph = new ExpandedRandomRegularGraph(graph, 1 + step, 6, 1);
+            assertDistances(graph);
+        }
+
+        // Beyond the degree the distances are recalculated
+        graph = new ExpandedRandomRegularGraph(graph, 20, 6, 1);
+        assertDistances(graph);
+
+    }
+
+    @Test
+    public void testBaseDistancesNotCalculated() {
+
+        // Base graph without distances
+        CountingGraph base = new CountingGraph(createBase(100, 6, 1, 5));
+        Graph graph = new ExpandedRandomRegularGraph(base, 3, 6, 1);
+        assertEquals(0, base.distanceCalls);
+
+        // Calculated for the expanded graph only once needed
+        assertDistances(graph);
+        assertEquals(0, base.distanceCalls);
+
+    }
+
+    @Test
+    public void testBaseChangedAfterExpansion() {
+        Graph base = createBase(200, 6, 1, 31);
+        base.getDistanceMatrix();
+        Graph graph = new ExpandedRandomRegularGraph(base, 3, 6, 1);
+
+        // The base graph fails links and updates its distances before the expansion needs them
+        base.failLinks(0.01);
+        assertDistances(base);
+
+        // The expansion still starts from the distances the base graph had
+        assertDistances(graph);
+
+    }
+
+    @Test
+    public void testDeterministic() {
+        Graph a = new ExpandedRandomRegularGraph(createBase(80, 4, 1, 11), 10, 4, 1);
+        Graph b = new ExpandedRandomRegularGraph(createBase(80, 4, 1, 11), 10, 4, 1);
+        assertEquals(a.getFingerprint(), b.getFingerprint());
+    }
+
+    private static void assertDistances(Graph graph) {
+        FrozenAdjacency adjacency = graph.getFrozenAdjacency();
+        DistanceMatrix expected = new ParallelBfsShortestPaths(adjacency.getOffsets(), adjacency.getTargets(), 999999999).calculate(true);
+        DistanceMatrix actual = graph.getDistanceMatrix();
+        for (int i = 0; i < graph.getNumNodes(); i++) {
+            for (int j = 0; j < graph.getNumNodes(); j++) {
+                assertEquals("d(" + i + ", " + j + ")", expected.get(i, j), actual.get(i, j));
+            }
+        }
+    }
+
+    /**
+     * Copy of a graph which counts the requests for its distances.
+     */
+    private static class CountingGraph extends Graph {
+
+        private int distanceCalls;
+
+        CountingGraph(Graph source) {
+            super(source.getName(), source.getNumNodes(), 0);
+            FrozenAdjacency adjacency = source.getFrozenAdjacency();
+            for (int u = 0; u < source.getNumNodes(); u++) {
+                setNodeWeight(u, source.getNodeWeight(u));
+                for (int e = adjacency.getEdgeStart(u); e < adjacency.getEdgeEnd(u); e++) {
+                    if (u < adjacency.getTarget(e)) {
+                        addBidirNeighbor(u, adjacency.getTarget(e));
+                    }
+                }
+            }
+        }
+
+        @Override
+        public DistanceMatrix getDistanceMatrix() {
+            distanceCalls++;
+            return super.getDistanceMatrix();
+        }
+
+        @Override
+        public void calculateShortestPaths() {
+            distanceCalls++;
+            super.calculateShortestPaths();
+        }
+
+    }
+
+}
@@ -11,6 +11,7 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.runners.MockitoJUnitRunner;
 
+import static ch.ethz.topobench.graph.graphs.AnalyticDistanceAssert.assertAnalyticDistances;
 import static org.hamcrest.core.IsNot.not;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertThat;
@@ -70,4 +71,11 @@ public class FatTreeSigcommTest {
 
     }
 
+    @Test
+    public void testAnalyticDistances() {
+        for (int k = 2; k <= 12; k += 2) {
+            assertAnalyticDistances(new FatTreeSigcomm(k));
+        }
+    }
+
 }
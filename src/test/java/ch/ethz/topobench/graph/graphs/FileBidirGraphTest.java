@@ -0,0 +1,93 @@
+/* *******************************************************
+ * Released under the MIT License (MIT) --- see LICENSE
+ * Copyright (c) 2014 Ankit Singla, Sangeetha Abdu Jyothi,
+ * Chi-Yao Hong, Lucian Popa, P. Brighten Godfrey,
+ * Alexandra Kolla, Simon Kassing
+ * ******************************************************** */
+
+package ch.ethz.topobench.graph.graphs;
+
+import ch.ethz.topobench.Main;
+import ch.ethz.topobench.graph.TestGraph;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static junit.framework.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+@RunWith(MockitoJUnitRunner.class)
+public class FileBidirGraphTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private String write(String content, boolean gzip) throws IOException {
+        File file = File.createTempFile("edges", ".txt", folder.getRoot());
+        try (OutputStream out = gzip ? new GZIPOutputStream(new FileOutputStream(file)) : new FileOutputStream(file)) {
+            out.write(content.getBytes(StandardCharsets.US_ASCII));
+        }
+        return file.getPath();
+    }
+
+    @Test
+    public void testSameAsIncremental() throws IOException {
+        Main.initGlobalRandomness(5);
+
+        // Random links, each given in both directions with the reverse at a random later position
+        int n = 300;
+        StringBuilder content = new StringBuilder();
+        TestGraph expected = new TestGraph("file", n, 0);
+        List<String> reverse = new ArrayList<>();
+        for (int e = 0; e < 1500; e++) {
+            int a = Main.universalRand.nextInt(n);
+            int b = Main.universalRand.nextInt(n);
+            if (a == b || expected.getAdjacencyList()[a].stream().anyMatch(l -> l.getLinkTo() == b)) {
+                continue;
+            }
+            expected.addBidirNeighbor(a, b);
+            content.append(a).append(' ').append(b).append('\n');
+            reverse.add(b + " " + a + "\n");
+            if (Main.universalRand.nextInt(3) == 0) {
+                content.append(reverse.remove(Main.universalRand.nextInt(reverse.size())));
+            }
+        }
+        for (String r : reverse) {
+            content.append(r);
+        }
+        for (int i = 0; i < 10; i++) {
+            expected.setNodeWeight(i, 1);
+        }
+
+        // Same adjacency lists (in order) and weights, plain and compressed
+        for (boolean gzip : new boolean[]{false, true}) {
+            FileBidirGraph actual = new FileBidirGraph(n, 10, write(content.toString(), gzip));
+            assertEquals(expected.toString(), actual.toString());
+        }
+
+    }
+
+    @Test
+    public void testInvalid() throws IOException {
+        for (String content : new String[]{"0 1\n1 2\n2 0\n1 0\n", "0 5\n", "1 1\n"}) {
+            try {
+                new FileBidirGraph(3, 3, write(content, false));
+                fail();
+            } catch (RuntimeException e) {
+                // Expected
+            }
+        }
+    }
+
+}
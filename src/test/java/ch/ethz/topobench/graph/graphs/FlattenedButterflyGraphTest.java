@@ -0,0 +1,40 @@
+/* *******************************************************
+ * Released under the MIT License (MIT) --- see LICENSE
+ * Copyright (c) 2014 Ankit Singla, Sangeetha Abdu Jyothi,
+ * Chi-Yao Hong, Lucian Popa, P. Brighten Godfrey,
+ * Alexandra Kolla, Simon Kassing
+ * ******************************************************** */
+
+package ch.ethz.topobench.graph.graphs;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import static ch.ethz.topobench.graph.graphs.AnalyticDistanceAssert.assertAnalyticDistances;
+import static org.junit.Assert.assertEquals;
+
+@RunWith(MockitoJUnitRunner.class)
+public class FlattenedButterflyGraphTest {
+
+    @Test
+    public void testConstructions() {
+        testConstruction(2, 3);
+        testConstruction(4, 2);
+        testConstruction(3, 4);
+        testConstruction(8, 1);
+    }
+
+    private void testConstruction(int k, int dimensions) {
+        FlattenedButterflyGraph graph = (FlattenedButterflyGraph) GraphSelector.select(
+                GraphSelector.Type.FLATTENED_BUTTERFLY,
+                new String[]{"-fbk", String.valueOf(k), "-fbdim", String.valueOf(dimensions), "-fbservers", "1"}
+        ).getResult();
+        assertEquals((int) Math.pow(k, dimensions), graph.getNumNodes());
+        for (int i = 0; i < graph.getNumNodes(); i++) {
+            assertEquals(dimensions * (k - 1), graph.getAdjacencyList()[i].size());
+        }
+        assertAnalyticDistances(graph);
+    }
+
+}
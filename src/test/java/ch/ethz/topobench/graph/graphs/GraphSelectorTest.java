@@ -0,0 +1,153 @@
+/* *******************************************************
+ * Released under the MIT License (MIT) --- see LICENSE
+ * Copyright (c) 2014 Ankit Singla, Sangeetha Abdu Jyothi,
+ * Chi-Yao Hong, Lucian Popa, P. Brighten Godfrey,
+ * Alexandra Kolla, Simon Kassing
+ * ******************************************************** */
+
+package ch.ethz.topobench.graph.graphs;
+
+import ch.ethz.topobench.Main;
+import ch.ethz.topobench.graph.Graph;
+import ch.ethz.topobench.graph.SelectorResult;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.io.File;
+import java.util.List;
+import java.util.Random;
+
+import static junit.framework.Assert.assertEquals;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(MockitoJUnitRunner.class)
+public class GraphSelectorTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static final String[] ARGS = new String[]{
+            "-switches", "40", "-switchports", "6", "-netports", "4", "-kpaths", "3"
+    };
+
+    @Test
+    public void testTopologyCache() {
+        Main.loadRunEnvironmentConfiguration();
+        File cache = new File(folder.getRoot(), "topology");
+
+        // Without cache
+        Main.initGlobalRandomness(123);
+        SelectorResult<Graph> expected = GraphSelector.select(GraphSelector.Type.RANDOM_REGULAR_GRAPH, ARGS);
+        long expectedNext = Main.universalRand.nextLong();
+
+        // First run generates and stores, second run loads
+        for (int run = 0; run < 2; run++) {
+            Main.initGlobalRandomness(123);
+            SelectorResult<Graph> actual = GraphSelector.select(GraphSelector.Type.RANDOM_REGULAR_GRAPH, ARGS, cache);
+            assertEquals(run == 0, actual.getResult() instanceof RandomRegularGraph);
+            assertEquals(1, cache.listFiles().length);
+
+            // Same topology, remaining arguments and random state afterwards
+            assertEquals(expected.getResult().toString(), actual.getResult().toString());
+            assertEquals(expected.getResult().getFingerprint(), actual.getResult().getFingerprint());
+            assertArrayEquals(expected.getRemainingArgs(), actual.getRemainingArgs());
+            assertEquals(expectedNext, Main.universalRand.nextLong());
+        }
+
+        // Another seed is another topology
+        Main.initGlobalRandomness(124);
+        assertTrue(GraphSelector.select(GraphSelector.Type.RANDOM_REGULAR_GRAPH, ARGS, cache).getResult() instanceof RandomRegularGraph);
+        assertEquals(2, cache.listFiles().length);
+
+    }
+
+    @Test
+    public void testTopologyCacheThreadRandomness() {
+        Main.loadRunEnvironmentConfiguration();
+        File cache = new File(folder.getRoot(), "topology");
+
+        // Without cache, built with the generator bound to the thread
+        Main.initGlobalRandomness(123);
+        Main.bindThreadRandomness(new Random(9));
+        SelectorResult<Graph> expected;
+        long expectedNext;
+        try {
+            expected = GraphSelector.select(GraphSelector.Type.RANDOM_REGULAR_GRAPH, ARGS);
+            expectedNext = Main.getRandom().nextLong();
+        } finally {
+            Main.bindThreadRandomness(null);
+        }
+
+        // Stored and loaded with the state of the bound generator
+        for (int run = 0; run < 2; run++) {
+            Main.initGlobalRandomness(123);
+            Main.bindThreadRandomness(new Random(9));
+            try {
+                SelectorResult<Graph> actual = GraphSelector.select(GraphSelector.Type.RANDOM_REGULAR_GRAPH, ARGS, cache);
+                assertEquals(expected.getResult().getFingerprint(), actual.getResult().getFingerprint());
+                assertEquals(expectedNext, Main.getRandom().nextLong());
+            } finally {
+                Main.bindThreadRandomness(null);
+            }
+        }
+
+    }
+
+    @Test
+    public void testTopologyCacheKeepsAnalyticDistances() {
+        Main.loadRunEnvironmentConfiguration();
+        File cache = new File(folder.getRoot(), "topology");
+        String[] args = new String[]{"-hcdim", "4", "-hcservers", "1"};
+
+        // Generated every time, never stored
+        for (int run = 0; run < 2; run++) {
+            Main.initGlobalRandomness(123);
+            Graph graph = GraphSelector.select(GraphSelector.Type.HYPERCUBE, args, cache).getResult();
+            assertTrue(graph instanceof HypercubeGraph);
+            assertTrue(graph.getAnalyticDistances() != null);
+            assertFalse(cache.exists());
+        }
+
+    }
+
+    @Test
+    public void testTopologyKey() {
+        String[] args = new String[]{"-switches", "40", "-switchports", "6", "-netports", "4"};
+        String key = GraphSelector.getTopologyKey(GraphSelector.Type.RANDOM_REGULAR_GRAPH, args, 1);
+        assertEquals(64, key.length());
+        assertEquals(key, GraphSelector.getTopologyKey(GraphSelector.Type.RANDOM_REGULAR_GRAPH, args.clone(), 1));
+        assertFalse(key.equals(GraphSelector.getTopologyKey(GraphSelector.Type.RANDOM_REGULAR_GRAPH, args, 2)));
+        assertFalse(key.equals(GraphSelector.getTopologyKey(GraphSelector.Type.XPANDER, args, 1)));
+        args[1] = "41";
+        assertFalse(key.equals(GraphSelector.getTopologyKey(GraphSelector.Type.RANDOM_REGULAR_GRAPH, args, 1)));
+    }
+
+    @Test
+    public void testSelectInstances() {
+        Main.loadRunEnvironmentConfiguration();
+        Main.initGlobalRandomness(55);
+        long expectedNext = new Random(55).nextLong();
+
+        // Same instances regardless of the number of threads
+        List<SelectorResult<Graph>> sequential = GraphSelector.selectInstances(GraphSelector.Type.RANDOM_REGULAR_GRAPH, ARGS, 4, 1);
+        List<SelectorResult<Graph>> parallel = GraphSelector.selectInstances(GraphSelector.Type.RANDOM_REGULAR_GRAPH, ARGS, 4, 4);
+        assertEquals(4, parallel.size());
+        for (int i = 0; i < 4; i++) {
+            assertEquals(sequential.get(i).getResult().toString(), parallel.get(i).getResult().toString());
+            assertArrayEquals(new String[]{"-kpaths", "3"}, parallel.get(i).getRemainingArgs());
+            for (int j = 0; j < i; j++) {
+                assertFalse(parallel.get(i).getResult().toString().equals(parallel.get(j).getResult().toString()));
+            }
+        }
+
+        // The global random number generator is untouched
+        assertEquals(expectedNext, Main.universalRand.nextLong());
+
+    }
+
+}
@@ -0,0 +1,36 @@
+/* *******************************************************
+ * Released under the MIT License (MIT) --- see LICENSE
+ * Copyright (c) 2014 Ankit Singla, Sangeetha Abdu Jyothi,
+ * Chi-Yao Hong, Lucian Popa, P. Brighten Godfrey,
+ * Alexandra Kolla, Simon Kassing
+ * ******************************************************** */
+
+package ch.ethz.topobench.graph.graphs;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import static ch.ethz.topobench.graph.graphs.AnalyticDistanceAssert.assertAnalyticDistances;
+import static org.junit.Assert.assertEquals;
+
+@RunWith(MockitoJUnitRunner.class)
+public class HypercubeGraphTest {
+
+    @Test
+    public void testConstructions() {
+        for (int dim = 0; dim <= 7; dim++) {
+            HypercubeGraph graph = (HypercubeGraph) GraphSelector.select(
+                    GraphSelector.Type.HYPERCUBE,
+                    new String[]{"-hcdim", String.valueOf(dim), "-hcservers", "2"}
+            ).getResult();
+            assertEquals(1 << dim, graph.getNumNodes());
+            assertEquals(2 << dim, graph.getTotalWeight());
+            for (int i = 0; i < graph.getNumNodes(); i++) {
+                assertEquals(dim, graph.getAdjacencyList()[i].size());
+            }
+            assertAnalyticDistances(graph);
+        }
+    }
+
+}
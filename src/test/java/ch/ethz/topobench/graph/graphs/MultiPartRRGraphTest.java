@@ -0,0 +1,99 @@
+/* *******************************************************
+ * Released under the MIT License (MIT) --- see LICENSE
+ * Copyright (c) 2014 Ankit Singla, Sangeetha Abdu Jyothi,
+ * Chi-Yao Hong, Lucian Popa, P. Brighten Godfrey,
+ * Alexandra Kolla, Simon Kassing
+ * ******************************************************** */
+
+package ch.ethz.topobench.graph.graphs;
+
+import ch.ethz.topobench.Main;
+import ch.ethz.topobench.graph.Link;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.Random;
+
+import static junit.framework.Assert.assertEquals;
+import static org.hamcrest.core.IsNot.not;
+import static org.junit.Assert.assertThat;
+
+@RunWith(MockitoJUnitRunner.class)
+public class MultiPartRRGraphTest {
+
+    private MultiPartRRGraph create(long seed) {
+        Main.loadRunEnvironmentConfiguration();
+        Main.initGlobalRandomness(seed);
+        return (MultiPartRRGraph) GraphSelector.select(
+                GraphSelector.Type.MULTI_PART_RR_GRAPH,
+                new String[]{
+                        "-partsizes", "200,100,50",
+                        "-partdegrees", "6,1,2/2,4,1/8,2,3",
+                        "-partservers", "3,2,0"
+                }
+        ).getResult();
+    }
+
+    @Test
+    public void testDegrees() {
+        int[] sizes = new int[]{200, 100, 50};
+        int[][] degrees = new int[][]{{6, 1, 2}, {2, 4, 1}, {8, 2, 3}};
+        int[] servers = new int[]{3, 2, 0};
+        MultiPartRRGraph graph = create(5);
+        assertEquals(350, graph.getNumNodes());
+        assertEquals(200 * 3 + 100 * 2, graph.getTotalWeight());
+
+        // Count the capacity from each node towards each part
+        int[][] linksBetween = new int[3][3];
+        for (int i = 0; i < graph.getNumNodes(); i++) {
+            int a = graph.getPart(i);
+            assertEquals(servers[a], graph.getNodeWeight(i));
+            int[] capacity = new int[3];
+            for (Link l : graph.getAdjacencyList()[i]) {
+                assertThat(l.getLinkTo(), not(i));
+                capacity[graph.getPart(l.getLinkTo())] += l.getLinkCapacity();
+            }
+
+            // Internal degree is always fulfilled, external at most
+            assertEquals(degrees[a][a], capacity[a]);
+            for (int b = 0; b < 3; b++) {
+                assertEquals(true, capacity[b] <= degrees[a][b]);
+                linksBetween[a][b] += capacity[b];
+            }
+        }
+
+        // Between parts the smaller side is exhausted
+        for (int a = 0; a < 3; a++) {
+            for (int b = a + 1; b < 3; b++) {
+                assertEquals(Math.min(sizes[a] * degrees[a][b], sizes[b] * degrees[b][a]), linksBetween[a][b]);
+                assertEquals(linksBetween[a][b], linksBetween[b][a]);
+            }
+        }
+
+    }
+
+    @Test
+    public void testDeterministic() {
+        assertEquals(create(9).toString(), create(9).toString());
+        assertThat(create(9).toString(), not(create(10).toString()));
+    }
+
+    @Test
+    public void testMatchPorts() {
+        int[] left = MultiPartRRGraph.ports(0, 3, 2);
+        int[] right = MultiPartRRGraph.ports(3, 2, 2);
+        int[][] links = MultiPartRRGraph.matchPorts(left, right, new Random(1));
+        assertEquals(4, links[0].length);
+
+        // Every right port is used exactly once
+        int[] used = new int[5];
+        for (int e = 0; e < 4; e++) {
+            assertEquals(true, links[0][e] < 3);
+            used[links[1][e]]++;
+        }
+        assertEquals(2, used[3]);
+        assertEquals(2, used[4]);
+    }
+
+}
@@ -12,6 +12,9 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.runners.MockitoJUnitRunner;
 
+import java.util.HashSet;
+import java.util.Set;
+
 import static org.hamcrest.core.IsNot.not;
 import static org.junit.Assert.*;
 
@@ -69,4 +72,61 @@ public class RandomRegularGraphTest {
 
     }
 
+    @Test
+    public void testConfigurationModel() {
+        testConfigurationModel(10, 20000);
+        testConfigurationModel(8, 10);
+        testConfigurationModel(3, 7);
+        testConfigurationModel(4, 5);
+    }
+
+    private void testConfigurationModel(int d, int n) {
+        Main.loadRunEnvironmentConfiguration();
+        Main.initGlobalRandomness(8395839);
+
+        // Create graph
+        RandomRegularGraph graph = (RandomRegularGraph) GraphSelector.select(
+                GraphSelector.Type.RANDOM_REGULAR_GRAPH,
+                new String[]{
+                        "-switches", String.valueOf(n),
+                        "-switchports", String.valueOf(d + 1),
+                        "-netports", String.valueOf(d),
+                        "-rrgmode", "configuration"
+                }
+        ).getResult();
+        assertEquals(n, graph.getNumNodes());
+
+        // All switches have exactly d distinct neighbors (one has d - 1 if n * d is odd), none to themselves
+        int deficient = 0;
+        for (int i = 0; i < n; i++) {
+            Set<Integer> neighbors = new HashSet<>();
+            for (int j = 0; j < graph.getAdjacencyList()[i].size(); j++) {
+                assertEquals(1, graph.getAdjacencyList()[i].get(j).getLinkCapacity());
+                assertThat(graph.getAdjacencyList()[i].get(j).getLinkTo(), not(i));
+                neighbors.add(graph.getAdjacencyList()[i].get(j).getLinkTo());
+            }
+            assertEquals(graph.getAdjacencyList()[i].size(), neighbors.size());
+            if (neighbors.size() == d - 1) {
+                deficient++;
+            } else {
+                assertEquals(d, neighbors.size());
+            }
+        }
+        assertEquals((n * d) % 2, deficient);
+        assertEquals(n, graph.getTotalWeight());
+
+    }
+
+    @Test
+    public void testConfigurationModelDeterministic() {
+        String[] expected = new String[2];
+        for (int run = 0; run < 2; run++) {
+            Main.initGlobalRandomness(77);
+            expected[run] = new RandomRegularGraph(500, 8, 6, RandomRegularGraph.Mode.CONFIGURATION).toString();
+        }
+        assertEquals(expected[0], expected[1]);
+        Main.initGlobalRandomness(78);
+        assertThat(new RandomRegularGraph(500, 8, 6, RandomRegularGraph.Mode.CONFIGURATION).toString(), not(expected[0]));
+    }
+
 }
@@ -0,0 +1,44 @@
+/* *******************************************************
+ * Released under the MIT License (MIT) --- see LICENSE
+ * Copyright (c) 2014 Ankit Singla, Sangeetha Abdu Jyothi,
+ * Chi-Yao Hong, Lucian Popa, P. Brighten Godfrey,
+ * Alexandra Kolla, Simon Kassing
+ * ******************************************************** */
+
+package ch.ethz.topobench.graph.graphs;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import static ch.ethz.topobench.graph.graphs.AnalyticDistanceAssert.assertAnalyticDistances;
+import static org.junit.Assert.assertEquals;
+
+@RunWith(MockitoJUnitRunner.class)
+public class SlimFlyGraphTest {
+
+    @Test
+    public void testConstructions() {
+        testConstruction(3);
+        testConstruction(5);
+        testConstruction(7);
+        testConstruction(11);
+        testConstruction(13);
+    }
+
+    private void testConstruction(int q) {
+        SlimFlyGraph graph = (SlimFlyGraph) GraphSelector.select(
+                GraphSelector.Type.SLIM_FLY,
+                new String[]{"-sfq", String.valueOf(q), "-sfservers", "3"}
+        ).getResult();
+        assertEquals(2 * q * q, graph.getNumNodes());
+
+        // Regular with degree (3q - delta) / 2
+        int delta = q % 4 == 1 ? 1 : -1;
+        for (int i = 0; i < graph.getNumNodes(); i++) {
+            assertEquals((3 * q - delta) / 2, graph.getAdjacencyList()[i].size());
+        }
+        assertAnalyticDistances(graph);
+    }
+
+}
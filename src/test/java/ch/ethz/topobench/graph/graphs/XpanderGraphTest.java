@@ -15,6 +15,7 @@ import org.mockito.runners.MockitoJUnitRunner;
 import static org.hamcrest.core.IsNot.not;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 
 @RunWith(MockitoJUnitRunner.class)
 public class XpanderGraphTest {
@@ -29,6 +30,19 @@ public class XpanderGraphTest {
         // Takes too long: testConstruction(56, 3, 9986);
     }
 
+    @Test
+    public void testLargeConstruction() {
+        Main.loadRunEnvironmentConfiguration();
+        Main.initGlobalRandomness(8395839);
+
+        // Sparse generation scales well beyond what a dense eigen-decomposition allows
+        XpanderGraph graph = new XpanderGraph(10, 1, 50000);
+        assertEquals(50006, graph.getNumNodes());
+        assertEquals(50006 * 10 / 2, graph.getNumberBidirEdges());
+        assertTrue(graph.getSecondEigenvalue() < 2 * Math.sqrt(9) + 0.1);
+
+    }
+
     public void testConstruction(int d, int s, int desiredN) {
 
         // Create graph and expectation
@@ -0,0 +1,125 @@
+/* *******************************************************
+ * Released under the MIT License (MIT) --- see LICENSE
+ * Copyright (c) 2014 Ankit Singla, Sangeetha Abdu Jyothi,
+ * Chi-Yao Hong, Lucian Popa, P. Brighten Godfrey,
+ * Alexandra Kolla, Simon Kassing
+ * ******************************************************** */
+
+package ch.ethz.topobench.graph.patheval;
+
+import ch.ethz.topobench.Main;
+import ch.ethz.topobench.graph.TestGraph;
+import ch.ethz.topobench.graph.graphs.RandomRegularGraph;
+import edu.asu.emit.algorithm.graph.Path;
+import edu.asu.emit.algorithm.graph.Vertex;
+import edu.asu.emit.algorithm.graph.algorithms.DijkstraShortestPathAlg;
+import edu.asu.emit.algorithm.graph.algorithms.YenTopKShortestPathsAlg;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.*;
+
+public class FrozenAdjacencyGraphTest {
+
+    private TestGraph createGraph() {
+
+        // Graph
+        //
+        // 0-1-2
+        // |   |
+        // 3-4-5
+        TestGraph g = new TestGraph("test", 6);
+        g.addBidirNeighbor(0, 1);
+        g.addBidirNeighbor(1, 2);
+        g.addBidirNeighbor(0, 3);
+        g.addBidirNeighbor(3, 4);
+        g.addBidirNeighbor(4, 5);
+        g.addBidirNeighbor(2, 5);
+        return g;
+
+    }
+
+    @Test
+    public void testStructure() {
+        TestGraph g = createGraph();
+        FrozenAdjacencyGraph graph = new FrozenAdjacencyGraph(g);
+        assertEquals(6, graph.getVertexList().size());
+        for (int i = 0; i < 6; i++) {
+            Vertex v = graph.getVertex(i);
+            assertEquals(i, v.getId());
+            assertEquals(g.getAdjacencyList()[i].size(), graph.getAdjacentVertices(v).size());
+            assertEquals(g.getAdjacencyList()[i].size(), graph.getPrecedentVertices(v).size());
+            for (Vertex w : graph.getAdjacentVertices(v)) {
+                assertTrue(g.getFrozenAdjacency().isNeighbor(i, w.getId()));
+                assertEquals(1, graph.getEdgeWeight(v, w));
+                assertTrue(graph.getPrecedentVertices(w).contains(v));
+            }
+        }
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testNonExistingEdge() {
+        FrozenAdjacencyGraph graph = new FrozenAdjacencyGraph(createGraph());
+        graph.getEdgeWeight(graph.getVertex(0), graph.getVertex(5));
+    }
+
+    @Test
+    public void testPaths() {
+        FrozenAdjacencyGraph graph = new FrozenAdjacencyGraph(createGraph());
+
+        // Shortest path
+        Path path = new DijkstraShortestPathAlg(graph).getShortestPath(graph.getVertex(0), graph.getVertex(2));
+        assertEquals(2, path.getWeight());
+        assertEquals(3, path.getVertexList().size());
+
+        // Both paths around the ring
+        List<Path> paths = new YenTopKShortestPathsAlg(graph).getShortestPaths(graph.getVertex(0), graph.getVertex(5), 3);
+        assertEquals(2, paths.size());
+        assertEquals(3, paths.get(0).getWeight());
+        assertEquals(3, paths.get(1).getWeight());
+
+    }
+
+    @Test
+    public void testConcurrentYen() {
+        Main.loadRunEnvironmentConfiguration();
+        Main.initGlobalRandomness(42);
+        final FrozenAdjacencyGraph graph = new FrozenAdjacencyGraph(new RandomRegularGraph(40, 5, 4));
+
+        // Sequential with a single instance
+        final int n = graph.getVertexList().size();
+        YenTopKShortestPathsAlg sequential = new YenTopKShortestPathsAlg(graph);
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                if (i != j) {
+                    expected.add(sequential.getShortestPaths(graph.getVertex(i), graph.getVertex(j), 4).toString());
+                }
+            }
+        }
+
+        // Concurrently with an instance per source on the shared graph
+        String[][] actual = new String[n][n];
+        IntStream.range(0, n).parallel().forEach(i -> {
+            YenTopKShortestPathsAlg alg = new YenTopKShortestPathsAlg(graph);
+            for (int j = 0; j < n; j++) {
+                if (i != j) {
+                    actual[i][j] = alg.getShortestPaths(graph.getVertex(i), graph.getVertex(j), 4).toString();
+                }
+            }
+        });
+        int idx = 0;
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                if (i != j) {
+                    assertEquals(expected.get(idx++), actual[i][j]);
+                }
+            }
+        }
+
+    }
+
+}
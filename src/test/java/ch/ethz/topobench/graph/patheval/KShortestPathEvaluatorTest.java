@@ -9,14 +9,26 @@ package ch.ethz.topobench.graph.patheval;
 
 import ch.ethz.topobench.graph.TestGraph;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 public class KShortestPathEvaluatorTest {
 
     private TestGraph g;
 
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
     @Before
     public void setup() {
 
@@ -245,6 +257,97 @@ public class KShortestPathEvaluatorTest {
 
     }
 
+    @Test
+    public void testPreparedEqualsOnDemand() throws IOException {
+
+        // Prepared for only a few pairs
+        PathEvaluator prepared = new KShortestPathEvaluator(g, 3, true, folder.getRoot());
+        prepared.prepare(Arrays.asList(new int[]{1, 6}, new int[]{2, 7}, new int[]{7, 2}));
+
+        // Calculated on demand
+        PathEvaluator onDemand = new KShortestPathEvaluator(g, 3, true, null);
+
+        // Prepared and unprepared pairs alike
+        assertSameValidity(onDemand, prepared);
+
+    }
+
+    @Test
+    public void testConcurrentOnDemand() {
+
+        // Unprepared pairs queried from many threads at once
+        PathEvaluator concurrent = new KShortestPathEvaluator(g, 3, false, null);
+        IntStream.range(0, 64).parallel().forEach(p -> concurrent.isFlowZero(p / 8, p % 8, 0, 1));
+
+        assertSameValidity(new KShortestPathEvaluator(g, 3, false, null), concurrent);
+
+    }
+
+    @Test
+    public void testPersistedServesLowerK() throws IOException {
+
+        // Preparation run with a high K, extended in a second preparation run
+        new KShortestPathEvaluator(g, 6, true, folder.getRoot()).prepare(Arrays.asList(new int[]{1, 6}, new int[]{0, 7}));
+        new KShortestPathEvaluator(g, 6, true, folder.getRoot()).prepare(Arrays.asList(new int[]{2, 5}, new int[]{0, 7}));
+        assertEquals(1, folder.getRoot().list().length);
+
+        // Later runs use the prefix of the persisted paths
+        for (int k = 1; k <= 6; k++) {
+            assertSameValidity(
+                    new KShortestPathEvaluator(g, k, false, null),
+                    new KShortestPathEvaluator(g, k, false, folder.getRoot())
+            );
+        }
+
+    }
+
+    @Test
+    public void testPersistedIndependentOfLinkOrder() throws IOException {
+
+        // Same topology as the setup graph, with its links added in the opposite order
+        TestGraph reversed = new TestGraph("test2", 8);
+        reversed.addBidirNeighbor(6, 3);
+        reversed.addBidirNeighbor(7, 4);
+        reversed.addBidirNeighbor(7, 6);
+        reversed.addBidirNeighbor(6, 5);
+        reversed.addBidirNeighbor(6, 4);
+        reversed.addBidirNeighbor(5, 3);
+        reversed.addBidirNeighbor(4, 1);
+        reversed.addBidirNeighbor(6, 0);
+        reversed.addBidirNeighbor(3, 0);
+        reversed.addBidirNeighbor(2, 0);
+        reversed.addBidirNeighbor(1, 0);
+        assertEquals(g.getFrozenAdjacency().getFingerprint(), reversed.getFrozenAdjacency().getFingerprint());
+
+        // Persisted by the preparation run on one link order for all pairs
+        List<int[]> pairs = new ArrayList<>();
+        for (int src = 0; src < 8; src++) {
+            for (int dst = 0; dst < 8; dst++) {
+                pairs.add(new int[]{src, dst});
+            }
+        }
+        new KShortestPathEvaluator(reversed, 3, true, folder.getRoot()).prepare(pairs);
+
+        // Cache hit on the other link order gives the paths it would calculate itself
+        assertSameValidity(
+                new KShortestPathEvaluator(g, 3, false, null),
+                new KShortestPathEvaluator(g, 3, false, folder.getRoot())
+        );
+
+    }
+
+    private void assertSameValidity(PathEvaluator expected, PathEvaluator actual) {
+        for (int src = 0; src < 8; src++) {
+            for (int dst = 0; dst < 8; dst++) {
+                for (int i = 0; i < 8; i++) {
+                    for (int j = 0; j < 8; j++) {
+                        assertEquals(expected.isFlowZero(src, dst, i, j), actual.isFlowZero(src, dst, i, j));
+                    }
+                }
+            }
+        }
+    }
+
     private boolean matchValidity(PathEvaluator eval, int src, int dst, L[] inUse, L[] outOfUse) {
 
         for (L l : inUse) {
@@ -12,6 +12,7 @@ import ch.ethz.topobench.graph.TestGraph;
 import org.junit.Before;
 import org.junit.Test;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 public class ValiantLBPathEvaluatorTest {
@@ -204,6 +205,24 @@ public class ValiantLBPathEvaluatorTest {
 
     }
 
+    @Test
+    public void testUniversalRandomnessUntouched() {
+
+        // Next draw without an evaluator
+        Main.initGlobalRandomness(77);
+        long expected = Main.universalRand.nextLong();
+
+        // Next draw after constructing and querying one
+        Main.initGlobalRandomness(77);
+        PathEvaluator eval = PathEvaluatorSelector.select(
+                PathEvaluatorSelector.Type.VALIANT, g,
+                new String[]{"-kvlb", "2"}
+        ).getResult();
+        eval.isFlowZero(0, 4, 0, 1);
+        assertEquals(expected, Main.universalRand.nextLong());
+
+    }
+
     private boolean matchValidity(PathEvaluator eval, int src, int dst, L[] inUse, L[] outOfUse) {
 
         for (L l : inUse) {
@@ -12,6 +12,11 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.runners.MockitoJUnitRunner;
 
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -67,4 +72,28 @@ public class TrafficTest {
 
     }
 
+    @Test
+    public void testToSwitchPairs() {
+
+        // Servers 0-1 on switch 0, 2-3 on switch 1 and 4-5 on switch 2
+        TestGraph g = new TestGraph("test", 3);
+        g.setNodeWeight(0, 2);
+        g.setNodeWeight(1, 2);
+        g.setNodeWeight(2, 2);
+
+        List<int[]> pairs = Traffic.toSwitchPairs(Arrays.asList(
+                new TrafficPair(0, 2),
+                new TrafficPair(1, 3), // Same switches as before
+                new TrafficPair(0, 1), // Within a switch
+                new TrafficPair(4, 0),
+                new TrafficPair(2, 0)
+        ), g);
+
+        assertEquals(3, pairs.size());
+        assertArrayEquals(new int[]{0, 1}, pairs.get(0));
+        assertArrayEquals(new int[]{2, 0}, pairs.get(1));
+        assertArrayEquals(new int[]{1, 0}, pairs.get(2));
+
+    }
+
 }
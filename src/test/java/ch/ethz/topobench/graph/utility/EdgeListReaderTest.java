@@ -0,0 +1,83 @@
+/* *******************************************************
+ * Released under the MIT License (MIT) --- see LICENSE
+ * Copyright (c) 2014 Ankit Singla, Sangeetha Abdu Jyothi,
+ * Chi-Yao Hong, Lucian Popa, P. Brighten Godfrey,
+ * Alexandra Kolla, Simon Kassing
+ * ******************************************************** */
+
+package ch.ethz.topobench.graph.utility;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+import static junit.framework.Assert.assertEquals;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.fail;
+
+@RunWith(MockitoJUnitRunner.class)
+public class EdgeListReaderTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private String write(String content, boolean gzip) throws IOException {
+        File file = File.createTempFile("edges", ".txt", folder.getRoot());
+        try (OutputStream out = gzip ? new GZIPOutputStream(new FileOutputStream(file)) : new FileOutputStream(file)) {
+            out.write(content.getBytes(StandardCharsets.US_ASCII));
+        }
+        return file.getPath();
+    }
+
+    @Test
+    public void testFormats() throws IOException {
+        String content = "# comment\n0 1\n\n1\t22 0.5\r\n% other comment\n  22   3 7\n4 5";
+        for (boolean gzip : new boolean[]{false, true}) {
+            int[][] edges = EdgeListReader.read(write(content, gzip));
+            assertArrayEquals(new int[]{0, 1, 22, 4}, edges[0]);
+            assertArrayEquals(new int[]{1, 22, 3, 5}, edges[1]);
+        }
+    }
+
+    @Test
+    public void testLarge() throws IOException {
+
+        // Spans many read buffers
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 100000; i++) {
+            content.append(i).append(' ').append(2 * i + 1).append('\n');
+        }
+        int[][] edges = EdgeListReader.read(write(content.toString(), true));
+        assertEquals(100000, edges[0].length);
+        for (int i = 0; i < 100000; i++) {
+            assertEquals(i, edges[0][i]);
+            assertEquals(2 * i + 1, edges[1][i]);
+        }
+
+    }
+
+    @Test
+    public void testMalformed() throws IOException {
+        for (String content : new String[]{"0 1\n2\n", "0 x\n", "0 1\n2 3 # late comment\n9999999999 1\n"}) {
+            try {
+                EdgeListReader.read(write(content, false));
+                fail();
+            } catch (RuntimeException e) {
+                // Expected
+            }
+        }
+
+        // Negative indices are read, and left to the caller to reject
+        assertEquals(-3, EdgeListReader.read(write("-3 1\n", false))[0][0]);
+    }
+
+}
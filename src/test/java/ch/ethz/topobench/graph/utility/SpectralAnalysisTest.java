@@ -0,0 +1,92 @@
+/* *******************************************************
+ * Released under the MIT License (MIT) --- see LICENSE
+ * Copyright (c) 2014 Ankit Singla, Sangeetha Abdu Jyothi,
+ * Chi-Yao Hong, Lucian Popa, P. Brighten Godfrey,
+ * Alexandra Kolla, Simon Kassing
+ * ******************************************************** */
+
+package ch.ethz.topobench.graph.utility;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.Random;
+
+import static junit.framework.Assert.assertEquals;
+
+@RunWith(MockitoJUnitRunner.class)
+public class SpectralAnalysisTest {
+
+    /**
+     * Build the compressed sparse row arrays of a regular graph from its neighbor lists.
+     *
+     * @param neighbors     Neighbors of each node (all of equal length)
+     *
+     * @return {offsets, targets}
+     */
+    private int[][] regular(int[][] neighbors) {
+        int n = neighbors.length;
+        int d = neighbors[0].length;
+        int[] offsets = new int[n + 1];
+        int[] targets = new int[n * d];
+        for (int u = 0; u < n; u++) {
+            offsets[u + 1] = (u + 1) * d;
+            System.arraycopy(neighbors[u], 0, targets, u * d, d);
+        }
+        return new int[][]{offsets, targets};
+    }
+
+    private double secondEigenvalue(int[][] neighbors, int iterations) {
+        int[][] g = regular(neighbors);
+        return SpectralAnalysis.secondLargestAbsEigenvalue(g[0], g[1], iterations, new Random(1));
+    }
+
+    @Test
+    public void testCycles() {
+        for (int n : new int[]{5, 7, 8, 101, 1000}) {
+            int[][] neighbors = new int[n][];
+            for (int u = 0; u < n; u++) {
+                neighbors[u] = new int[]{(u + n - 1) % n, (u + 1) % n};
+            }
+
+            // Eigenvalues 2 cos(2 pi j / n), for even n the cycle is bipartite (-2)
+            double expected = n % 2 == 0 ? 2.0 : 2 * Math.cos(Math.PI / n);
+            assertEquals(expected, secondEigenvalue(neighbors, n), 1e-6);
+        }
+    }
+
+    @Test
+    public void testCompleteAndPetersen() {
+
+        // Complete graph on 10 nodes: eigenvalues 9 and -1
+        int[][] complete = new int[10][9];
+        for (int u = 0; u < 10; u++) {
+            for (int v = 0, i = 0; v < 10; v++) {
+                if (v != u) {
+                    complete[u][i++] = v;
+                }
+            }
+        }
+        assertEquals(1.0, secondEigenvalue(complete, 50), 1e-6);
+
+        // Petersen graph: eigenvalues 3, 1 and -2
+        int[][] petersen = new int[10][];
+        for (int i = 0; i < 5; i++) {
+            petersen[i] = new int[]{(i + 1) % 5, (i + 4) % 5, i + 5};
+            petersen[i + 5] = new int[]{5 + (i + 2) % 5, 5 + (i + 3) % 5, i};
+        }
+        assertEquals(2.0, secondEigenvalue(petersen, 50), 1e-6);
+
+    }
+
+    @Test
+    public void testDisconnected() {
+
+        // Two triangles: the trivial eigenvalue 2 occurs twice
+        int[][] triangles = new int[][]{{1, 2}, {0, 2}, {0, 1}, {4, 5}, {3, 5}, {3, 4}};
+        assertEquals(2.0, secondEigenvalue(triangles, 10), 1e-6);
+
+    }
+
+}
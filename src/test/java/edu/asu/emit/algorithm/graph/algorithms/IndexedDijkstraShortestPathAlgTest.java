@@ -0,0 +1,111 @@
+/* *******************************************************
+ * Released under the MIT License (MIT) --- see LICENSE
+ * Copyright (c) 2014 Ankit Singla, Sangeetha Abdu Jyothi,
+ * Chi-Yao Hong, Lucian Popa, P. Brighten Godfrey,
+ * Alexandra Kolla, Simon Kassing
+ * ******************************************************** */
+
+package edu.asu.emit.algorithm.graph.algorithms;
+
+import edu.asu.emit.algorithm.graph.Graph;
+import edu.asu.emit.algorithm.graph.Path;
+import edu.asu.emit.algorithm.graph.Vertex;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class IndexedDijkstraShortestPathAlgTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Graph createRandomGraph(int n, int m, long seed) throws IOException {
+        Random random = new Random(seed);
+        File file = File.createTempFile("graph", ".txt", folder.getRoot());
+        FileWriter writer = new FileWriter(file);
+        writer.write(n + "\n\n");
+        boolean[][] exists = new boolean[n][n];
+        for (int e = 0; e < m; e++) {
+            int u = random.nextInt(n);
+            int v = random.nextInt(n);
+            if (u != v && !exists[u][v]) {
+                exists[u][v] = true;
+                writer.write(u + " " + v + " " + (1 + random.nextInt(9)) + "\n");
+            }
+        }
+        writer.close();
+        return new Graph(file.getAbsolutePath());
+    }
+
+    @Test
+    public void testAgainstDijkstra() throws IOException {
+        Graph graph = createRandomGraph(60, 300, 11);
+        IndexedDijkstraShortestPathAlg indexed = new IndexedDijkstraShortestPathAlg(graph);
+        for (int s = 0; s < 60; s++) {
+            indexed.getShortestPathTree(graph.getVertex(s));
+            for (int t = 0; t < 60; t++) {
+                if (s == t) {
+                    continue;
+                }
+                Path expected = new DijkstraShortestPathAlg(graph).getShortestPath(graph.getVertex(s), graph.getVertex(t));
+
+                // Tree and single query agree with the original implementation
+                Path fromTree = indexed.getPathFromRoot(graph.getVertex(t));
+                assertEquals(expected.getWeight(), fromTree.getWeight());
+                assertEquals(expected.getWeight(), indexed.getDistance(t));
+                assertPathWeight(graph, fromTree);
+
+            }
+        }
+
+        // Single queries, reusing the same instance
+        for (int s = 0; s < 60; s += 7) {
+            for (int t = 0; t < 60; t += 3) {
+                if (s != t) {
+                    Path expected = new DijkstraShortestPathAlg(graph).getShortestPath(graph.getVertex(s), graph.getVertex(t));
+                    Path actual = indexed.getShortestPath(graph.getVertex(s), graph.getVertex(t));
+                    assertEquals(expected.getWeight(), actual.getWeight());
+                    assertPathWeight(graph, actual);
+                }
+            }
+        }
+
+    }
+
+    @Test
+    public void testYenPathsAscending() throws IOException {
+        Graph graph = createRandomGraph(30, 150, 3);
+        YenTopKShortestPathsAlg yen = new YenTopKShortestPathsAlg(graph);
+        for (int t = 1; t < 30; t++) {
+            List<Path> paths = yen.getShortestPaths(graph.getVertex(0), graph.getVertex(t), 5);
+            long last = 0;
+            for (Path p : paths) {
+                assertTrue(p.getWeight() >= last);
+                assertPathWeight(graph, p);
+                last = p.getWeight();
+            }
+        }
+    }
+
+    private static void assertPathWeight(Graph graph, Path path) {
+        if (path.getWeight() == Graph.DISCONNECTED) {
+            assertTrue(path.getVertexList().isEmpty());
+            return;
+        }
+        List<Vertex> vertices = path.getVertexList();
+        long weight = 0;
+        for (int i = 1; i < vertices.size(); i++) {
+            weight += graph.getEdgeWeight(vertices.get(i - 1), vertices.get(i));
+        }
+        assertEquals(path.getWeight(), weight);
+    }
+
+}
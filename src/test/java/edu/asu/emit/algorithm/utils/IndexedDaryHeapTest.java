@@ -0,0 +1,93 @@
+/* *******************************************************
+ * Released under the MIT License (MIT) --- see LICENSE
+ * Copyright (c) 2014 Ankit Singla, Sangeetha Abdu Jyothi,
+ * Chi-Yao Hong, Lucian Popa, P. Brighten Godfrey,
+ * Alexandra Kolla, Simon Kassing
+ * ******************************************************** */
+
+package edu.asu.emit.algorithm.utils;
+
+import edu.asu.emit.algorithm.graph.BaseElementWithWeight;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class IndexedDaryHeapTest {
+
+    @Test
+    public void testOrderAndDecrease() {
+        Random random = new Random(123);
+        for (int d = 2; d <= 5; d++) {
+            IndexedDaryHeap heap = new IndexedDaryHeap(500, d);
+
+            // Reuse the same heap several times
+            for (int round = 0; round < 3; round++) {
+                long[] expected = new long[500];
+                for (int key = 0; key < 500; key++) {
+                    expected[key] = random.nextInt(1000);
+                    assertTrue(heap.insertOrDecrease(key, expected[key]));
+                }
+                for (int i = 0; i < 200; i++) {
+                    int key = random.nextInt(500);
+                    long value = random.nextInt(1000);
+                    assertEquals(value < expected[key], heap.insertOrDecrease(key, value));
+                    expected[key] = Math.min(expected[key], value);
+                }
+                assertEquals(500, heap.size());
+
+                // Non-decreasing priorities, ties by key, half of them
+                long lastValue = -1;
+                int lastKey = -1;
+                for (int i = 0; i < 250; i++) {
+                    int key = heap.poll();
+                    assertFalse(heap.contains(key));
+                    assertTrue(expected[key] > lastValue || (expected[key] == lastValue && key > lastKey));
+                    lastValue = expected[key];
+                    lastKey = key;
+                }
+                heap.clear();
+                assertTrue(heap.isEmpty());
+            }
+
+        }
+    }
+
+    @Test
+    public void testStablePriorityQueue() {
+        StablePriorityQueue<Element> queue = new StablePriorityQueue<>();
+        int[] weights = new int[]{5, 3, 5, 1, 3, 5, 1, 0, 3};
+        for (int i = 0; i < weights.length; i++) {
+            queue.add(new Element(weights[i], i));
+        }
+        assertEquals(weights.length, queue.size());
+
+        // By weight, then by order of addition
+        int[] expectedOrder = new int[]{7, 3, 6, 1, 4, 8, 0, 2, 5};
+        for (int index : expectedOrder) {
+            assertEquals(index, queue.poll().index);
+        }
+        assertTrue(queue.isEmpty());
+        assertNull(queue.poll());
+
+    }
+
+    private static class Element implements BaseElementWithWeight {
+
+        private final long weight;
+        private final int index;
+
+        Element(long weight, int index) {
+            this.weight = weight;
+            this.index = index;
+        }
+
+        @Override
+        public long getWeight() {
+            return weight;
+        }
+
+    }
+
+}